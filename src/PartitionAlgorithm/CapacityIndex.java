@@ -0,0 +1,250 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package PartitionAlgorithm;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+import java.util.Vector;
+import java.util.function.IntPredicate;
+
+/**
+ * Ordered index over the residual capacity of the cores being packed.
+ * <p>
+ * Cores are identified by their position {@code 0..m-1} in the vector given
+ * to {@link PartitionAlgorithm#taskToCore}. A segment tree over the residual
+ * capacities answers first-fit (lowest position that fits) and worst-fit
+ * (largest residual, lowest position on ties) in O(log m), and a tree set
+ * ordered by residual capacity answers best-fit (smallest residual that
+ * fits, lowest position on ties) in O(log m). A task "fits" a core when the
+ * residual capacity is strictly greater than the task's utilization, as the
+ * partition algorithms have always tested it.
+ * </p>
+ * <p>
+ * Each query optionally takes an admission test. Cores that fit but fail
+ * the test are left out and the query is repeated, so the answer is the
+ * first admitted core in the order of the fit rule.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public class CapacityIndex
+{
+    private int size;
+    private int leaves;
+    private double[] residual;//最後一格是bestFit查詢用的探針
+    private double[] tree;//tree[1]為根，葉節點從tree[leaves]開始
+    private TreeSet<Integer> byResidual;
+
+    private enum Rule
+    {
+        FIRST, BEST, WORST
+    }
+
+    /**
+     * Creates an index over cores with the given capacities.
+     *
+     * @param capacity the initial residual capacity of each core, by position
+     */
+    public CapacityIndex(double[] capacity)
+    {
+        this.size = capacity.length;
+        this.leaves = 1;
+        while(this.leaves < this.size)
+        {
+            this.leaves <<= 1;
+        }
+
+        this.residual = new double[this.size + 1];
+        this.tree = new double[this.leaves * 2];
+        Arrays.fill(this.tree, Double.NEGATIVE_INFINITY);
+        this.byResidual = new TreeSet<Integer>((a, b) ->
+        {
+            int c = Double.compare(this.residual[a], this.residual[b]);
+            return c != 0 ? c : Integer.compare(a, b);
+        });
+
+        for(int i = 0; i < this.size; i++)
+        {
+            this.residual[i] = capacity[i];
+            this.tree[this.leaves + i] = capacity[i];
+            this.byResidual.add(i);
+        }
+        for(int n = this.leaves - 1; n >= 1; n--)
+        {
+            this.tree[n] = Math.max(this.tree[n * 2], this.tree[n * 2 + 1]);
+        }
+    }
+
+    /*Operating*/
+    /**
+     * Takes a task's utilization off a core's residual capacity.
+     *
+     * @param i the core position
+     * @param u the utilization of the task placed on the core
+     */
+    public void place(int i, double u)
+    {
+        this.byResidual.remove(i);
+        this.residual[i] -= u;
+        this.byResidual.add(i);
+        this.setLeaf(i, this.residual[i]);
+    }
+
+    private void setLeaf(int i, double value)
+    {
+        int n = this.leaves + i;
+        this.tree[n] = value;
+        for(n >>= 1; n >= 1; n >>= 1)
+        {
+            this.tree[n] = Math.max(this.tree[n * 2], this.tree[n * 2 + 1]);
+        }
+    }
+
+    private void hide(int i)
+    {
+        this.byResidual.remove(i);
+        this.setLeaf(i, Double.NEGATIVE_INFINITY);
+    }
+
+    private void show(int i)
+    {
+        this.byResidual.add(i);
+        this.setLeaf(i, this.residual[i]);
+    }
+
+    private int first(double u)
+    {
+        if(!(this.tree[1] > u))
+        {
+            return -1;
+        }
+
+        int n = 1;
+        while(n < this.leaves)
+        {
+            n = this.tree[n * 2] > u ? n * 2 : n * 2 + 1;
+        }
+        return n - this.leaves;
+    }
+
+    private int best(double u)
+    {
+        this.residual[this.size] = u;//探針的位置比所有核心大，higher只會回傳剩餘容量大於u的核心
+        Integer i = this.byResidual.higher(this.size);
+        return i == null ? -1 : i;
+    }
+
+    private int worst(double u)
+    {
+        if(!(this.tree[1] > u))
+        {
+            return -1;
+        }
+
+        int n = 1;
+        while(n < this.leaves)
+        {
+            n = this.tree[n * 2] == this.tree[n] ? n * 2 : n * 2 + 1;
+        }
+        return n - this.leaves;
+    }
+
+    private int query(Rule rule, double u)
+    {
+        switch(rule)
+        {
+            case FIRST:
+                return this.first(u);
+            case BEST:
+                return this.best(u);
+            default:
+                return this.worst(u);
+        }
+    }
+
+    private int find(Rule rule, double u, IntPredicate admission)
+    {
+        int i = this.query(rule, u);
+        if(admission == null)
+        {
+            return i;
+        }
+
+        Vector<Integer> rejected = new Vector<Integer>();
+        while(i != -1 && !admission.test(i))
+        {
+            this.hide(i);
+            rejected.add(i);
+            i = this.query(rule, u);
+        }
+        for(int r : rejected)
+        {
+            this.show(r);
+        }
+        return i;
+    }
+
+    /*GetValue*/
+    /**
+     * Returns the lowest core position whose residual capacity fits a task.
+     *
+     * @param u the utilization of the task
+     * @param admission extra test a core must pass, or null for none
+     * @return the core position, or -1 if no core fits
+     */
+    public int firstFit(double u, IntPredicate admission)
+    {
+        return this.find(Rule.FIRST, u, admission);
+    }
+
+    /**
+     * Returns the core with the smallest residual capacity that fits a task,
+     * the lowest position among equals.
+     *
+     * @param u the utilization of the task
+     * @param admission extra test a core must pass, or null for none
+     * @return the core position, or -1 if no core fits
+     */
+    public int bestFit(double u, IntPredicate admission)
+    {
+        return this.find(Rule.BEST, u, admission);
+    }
+
+    /**
+     * Returns the core with the largest residual capacity, the lowest position
+     * among equals, if it fits a task. Pass
+     * {@link Double#NEGATIVE_INFINITY} to get that core whether it fits or not.
+     *
+     * @param u the utilization of the task
+     * @param admission extra test a core must pass, or null for none
+     * @return the core position, or -1 if no core fits
+     */
+    public int worstFit(double u, IntPredicate admission)
+    {
+        return this.find(Rule.WORST, u, admission);
+    }
+
+    /**
+     * Returns the residual capacity of a core.
+     *
+     * @param i the core position
+     * @return the capacity left on the core
+     */
+    public double getResidual(int i)
+    {
+        return this.residual[i];
+    }
+
+    /**
+     * Returns the number of cores in the index.
+     *
+     * @return the core count
+     */
+    public int size()
+    {
+        return this.size;
+    }
+}
@@ -5,10 +5,15 @@
  */
 package PartitionAlgorithm;
 
+import RTSimulator.Definition.TraceLevel;
 import SystemEnvironment.Core;
 import SystemEnvironment.Processor;
+import WorkLoad.Task;
 import WorkLoadSet.TaskSet;
+import java.util.Comparator;
 import java.util.Vector;
+import java.util.function.IntPredicate;
+import static RTSimulator.RTSimulator.trace;
 
 /**
  * Abstract base class for partition algorithms used to allocate tasks to cores.
@@ -19,18 +24,30 @@ import java.util.Vector;
  * this abstract class should implement {@link #taskToCore(Vector, TaskSet)} to
  * perform the actual partitioning and assignment logic.
  * </p>
+ * <p>
+ * The bin packing algorithms share a {@link CapacityIndex} over the residual
+ * capacity of the cores for their fit queries. A task that no core can take
+ * is reported in {@link #getUnplaceableTaskSet()} before the algorithm's
+ * fallback placement. With {@link #setResponseTimeAdmission(boolean)} a core
+ * must also pass a response time test before it takes a task, instead of the
+ * utilization bound alone.
+ * </p>
  * 
  * @author ShiuJia
  */
 public abstract class PartitionAlgorithm
 {
     private String name;
+    private boolean responseTimeAdmission;
+    private TaskSet unplaceableTaskSet;
     /**
      * Default constructor. Initializes the algorithm name to {@code null}.
      */
     public PartitionAlgorithm()
     {
         this.name = null;
+        this.responseTimeAdmission = false;
+        this.unplaceableTaskSet = new TaskSet();
     }
 
     /**
@@ -47,6 +64,22 @@ public abstract class PartitionAlgorithm
         this.name = n;
     }
     
+    /**
+     * Enables or disables the response time admission test.
+     * <p>
+     * When enabled, a core takes a task only if every task on it, the new one
+     * included, still meets its deadline by response time analysis under
+     * deadline monotonic priorities. The utilization of the task must still
+     * fit the residual capacity of the core.
+     * </p>
+     * 
+     * @param b true to test response times when placing tasks
+     */
+    public void setResponseTimeAdmission(boolean b)
+    {
+        this.responseTimeAdmission = b;
+    }
+    
     /**
      * Retrieves the name of the partition algorithm.
      * <p>
@@ -61,6 +94,162 @@ public abstract class PartitionAlgorithm
         return this.name;
     }
     
+    /**
+     * Returns whether the response time admission test is enabled.
+     * 
+     * @return true if cores must pass a response time test to take a task
+     */
+    public boolean isResponseTimeAdmission()
+    {
+        return this.responseTimeAdmission;
+    }
+    
+    /**
+     * Returns the tasks of the last {@link #taskToCore(Vector, TaskSet)} call
+     * that no core could take.
+     * <p>
+     * These tasks were still placed by the algorithm's fallback (the first
+     * core, or the least loaded one for worst-fit), so their cores are
+     * overloaded or may miss deadlines.
+     * </p>
+     * 
+     * @return the unplaceable tasks, empty if every task fitted
+     */
+    public TaskSet getUnplaceableTaskSet()
+    {
+        return this.unplaceableTaskSet;
+    }
+    
+    /**
+     * Computes the capacity of each core as its maximum frequency divided by
+     * the processing speed of the task set, the utilization a core can take.
+     * 
+     * @param cores the cores, by position
+     * @param taskSet the task set being partitioned
+     * @return the capacity of each core, by position
+     */
+    protected double[] getCapacity(Vector<Core> cores, TaskSet taskSet)
+    {
+        double[] capacity = new double[cores.size()];
+        for(int i = 0; i < cores.size(); i++)
+        {
+            capacity[i] = cores.get(i).getParentCoreSet().getCoreSpeedSet().getMaxFrequencyOfSpeed()
+                        / taskSet.getProcessingSpeed();
+        }
+        return capacity;
+    }
+    
+    /**
+     * Copies a task set sorted in decreasing order of utilization. Tasks of
+     * equal utilization keep their order.
+     * 
+     * @param taskSet the task set to sort
+     * @return the sorted copy
+     */
+    protected TaskSet getDecreasingTaskSet(TaskSet taskSet)
+    {
+        TaskSet decreasingTaskSet = new TaskSet();
+        decreasingTaskSet.addAll(taskSet);
+        decreasingTaskSet.sort(Comparator.comparingDouble(Task::getUtilization).reversed());
+        return decreasingTaskSet;
+    }
+    
+    /**
+     * Clears the unplaceable tasks of the previous run. Called at the start of
+     * {@link #taskToCore(Vector, TaskSet)}.
+     */
+    protected void clearUnplaceableTaskSet()
+    {
+        this.unplaceableTaskSet.clear();
+    }
+    
+    /**
+     * Records that no core could take a task.
+     * 
+     * @param t the task
+     * @param fallback the core the algorithm places it on instead
+     */
+    protected void addUnplaceableTask(Task t, Core fallback)
+    {
+        this.unplaceableTaskSet.add(t);
+        trace(TraceLevel.INFO, () -> "Task" + t.getID() + " fits no core, placed on Core" + fallback.getID());
+    }
+    
+    /**
+     * Tests whether a core may take a task. Always true unless the response
+     * time admission test is enabled; then every task on the core, the new one
+     * included, must finish within its relative deadline by response time
+     * analysis under deadline monotonic priorities, with execution times
+     * scaled by the core's capacity.
+     * 
+     * @param c the core
+     * @param capacity the capacity of the core
+     * @param t the task to place
+     * @return true if the core may take the task
+     */
+    protected boolean isAdmitted(Core c, double capacity, Task t)
+    {
+        if(!this.responseTimeAdmission)
+        {
+            return true;
+        }
+        
+        Vector<Task> tasks = new Vector<Task>(c.getTaskSet());
+        tasks.add(t);
+        tasks.sort
+        (
+            Comparator.comparingLong(Task::getRelativeDeadline)
+                      .thenComparingLong(Task::getPeriod)
+                      .thenComparingInt(Task::getID)
+        );
+        
+        for(int i = 0; i < tasks.size(); i++)
+        {
+            Task ti = tasks.get(i);
+            double execution = ti.getComputationAmount() / capacity;
+            double response = execution;
+            while(true)
+            {
+                double next = execution;
+                for(int j = 0; j < i; j++)
+                {
+                    next += Math.ceil(response / tasks.get(j).getPeriod())
+                          * (tasks.get(j).getComputationAmount() / capacity);
+                }
+                
+                if(next > ti.getRelativeDeadline())
+                {
+                    return false;
+                }
+                if(next <= response)
+                {
+                    break;
+                }
+                response = next;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Returns the admission test of a task for the fit queries of a
+     * {@link CapacityIndex}, or null when the response time admission test is
+     * disabled.
+     * 
+     * @param cores the cores, by position
+     * @param capacity the capacity of each core, by position
+     * @param t the task to place
+     * @return the test on core positions, or null to admit every core that fits
+     */
+    protected IntPredicate getAdmission(Vector<Core> cores, double[] capacity, Task t)
+    {
+        if(!this.responseTimeAdmission)
+        {
+            return null;
+        }
+        return i -> this.isAdmitted(cores.get(i), capacity[i], t);
+    }
+    
     /**
      * Abstract method for assigning tasks to cores.
      * <p>
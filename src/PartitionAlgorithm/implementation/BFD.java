@@ -5,11 +5,11 @@
  */
 package PartitionAlgorithm.implementation;
 
+import PartitionAlgorithm.CapacityIndex;
 import PartitionAlgorithm.PartitionAlgorithm;
 import SystemEnvironment.Core;
 import WorkLoad.Task;
 import WorkLoadSet.TaskSet;
-import java.util.Comparator;
 import java.util.Vector;
 
 /*
@@ -28,7 +28,8 @@ import java.util.Vector;
  * that can accommodate the task. Remaining capacity per core is initialized
  * using each core's maximum frequency divided by the task set processing speed.</p>
  *
- * <p>Existing file-level comments are preserved. This implementation mutates
+ * <p>Tasks that fit no core are reported as unplaceable and placed on the
+ * first core. Existing file-level comments are preserved. This implementation mutates
  * the provided {@code cores} by calling {@code addTask} on them.</p>
  *
  * @author ShiuJia
@@ -46,101 +47,48 @@ public class BFD extends PartitionAlgorithm
     
     /**
      * Assigns tasks from the given {@code taskSet} to the provided list of
-     * {@code cores} using the Best\-Fit Decreasing strategy.
+     * {@code cores} using the Best-Fit Decreasing strategy.
      *
      * <p>Procedure:</p>
      * <ol>
-     *   <li>Create a working copy of the task set and sort it in decreasing
-     *       order of task utilization.</li>
-     *   <li>Initialize a remaining-capacity array {@code coreU} where each
-     *       element is computed as the core's maximum frequency divided by the
-     *       task set processing speed.</li>
-     *   <li>While tasks remain, sort the cores in non\-decreasing order of
-     *       their remaining capacity and place the next highest-utilization
-     *       task on the first core with sufficient remaining capacity, then
-     *       decrement that core's remaining capacity accordingly.</li>
+     *   <li>Sort a copy of the task set in decreasing order of task
+     *       utilization; tasks of equal utilization keep their order.</li>
+     *   <li>Build a {@link CapacityIndex} whose residual capacity per core is
+     *       the core's maximum frequency divided by the task set processing
+     *       speed.</li>
+     *   <li>For each task (largest first), place it on the core with the
+     *       smallest residual capacity that is still greater than the task's
+     *       utilization (lowest index among equals, and passing the response
+     *       time admission test when it is enabled), then take the utilization
+     *       off that core.</li>
+     *   <li>If no core can accommodate the task, report it as unplaceable and
+     *       assign it to {@code cores.get(0)}, as First-Fit Decreasing does.</li>
      * </ol>
      * 
      *
      * @param cores a vector of available cores to which tasks may be assigned;
      *              this method mutates the cores by calling {@code addTask} on them
-     * @param taskSet the set of tasks to partition and assign to cores; a sorted
-     *                working copy is created and used by this method
+     * @param taskSet the set of tasks to partition and assign to cores;
+     *                a copy of it sorted in decreasing utilization is used
      */
     @Override
     public void taskToCore(Vector<Core> cores, TaskSet taskSet)
     {
-        TaskSet decreasingTaskSet = new TaskSet();
-        Vector<Core> non_decreasingCores = new Vector<Core>();
-        double[] coreU = new double[cores.size()];
-        for(int i = 0; i < cores.size(); i++)
-        {
-            non_decreasingCores.add(cores.get(i));
-            
-            coreU[i] = cores.get(i).getParentCoreSet().getCoreSpeedSet().getMaxFrequencyOfSpeed()
-                     / taskSet.getProcessingSpeed();
-        }
+        this.clearUnplaceableTaskSet();
+        double[] capacity = this.getCapacity(cores, taskSet);
+        CapacityIndex index = new CapacityIndex(capacity);
         
-        for(Task t : taskSet)
+        for(Task t : this.getDecreasingTaskSet(taskSet))
         {
-            decreasingTaskSet.add(t);
-        }
-        
-        decreasingTaskSet.sort
-        (
-            new Comparator<Task>()
+            int i = index.bestFit(t.getUtilization(), this.getAdmission(cores, capacity, t));
+            if(i == -1)
             {
-                @Override
-                public int compare(Task t1, Task t2)
-                {
-                    if(t1.getUtilization() > t2.getUtilization())
-                    {
-                        return -1;
-                    }
-                    else if(t1.getUtilization() <= t2.getUtilization())
-                    {
-                        return 1;
-                    }
-                    return 0;
-                }
+                i = 0;
+                this.addUnplaceableTask(t, cores.get(i));
             }
-        );
-        
-        while(decreasingTaskSet.size() > 0)
-        {
-            non_decreasingCores.sort
-            (
-                new Comparator<Core>()
-                {
-                    @Override
-                    public int compare(Core c1, Core c2) 
-                    {
-                        if(coreU[c1.getID()-1] > coreU[c2.getID()-1])
-                        {
-                            
-                            return 1;
-                        }
-                        else if(coreU[c1.getID()-1] < coreU[c2.getID()-1])
-                        {
-                            return -1;
-                        }
-                        return 0;
-                        
-                    }
-                }
-            );
-            
             
-            for(int i = 0; i < coreU.length; i++)
-            {
-                if(coreU[i] > decreasingTaskSet.get(0).getUtilization())
-                {
-                    cores.get(i).addTask(decreasingTaskSet.get(0));
-                    coreU[i] -= decreasingTaskSet.get(0).getUtilization();
-                    decreasingTaskSet.remove(0);
-                    break;
-                }
-            }
+            cores.get(i).addTask(t);
+            index.place(i, t.getUtilization());
         }
     }
 }
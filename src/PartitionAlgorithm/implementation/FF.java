@@ -5,11 +5,11 @@
  */
 package PartitionAlgorithm.implementation;
 
+import PartitionAlgorithm.CapacityIndex;
 import PartitionAlgorithm.PartitionAlgorithm;
 import SystemEnvironment.Core;
 import WorkLoad.Task;
 import WorkLoadSet.TaskSet;
-import java.util.Comparator;
 import java.util.Vector;
 
 /**
@@ -44,63 +44,42 @@ public class FF extends PartitionAlgorithm
      * Assigns tasks from the given {@code taskSet} to the provided list of
      * {@code cores} using the First-Fit strategy.
      *
-     * <p>Behavior details:</p>
+     * <p>Procedure:</p>
      * <ol>
-     *   <li>Create a working copy of the provided {@code taskSet} preserving the
-     *       original order of tasks.</li>
-     *   <li>Compute an initial remaining-capacity array {@code coreU} where each
-     *       element equals the core's maximum frequency divided by the task set's
-     *       processing speed.</li>
-     *   <li>For each task in the working list, scan cores in index order and
-     *       assign the task to the first core with sufficient remaining capacity,
-     *       decrementing that core's remaining capacity accordingly.</li>
-     *   <li>If no core can accommodate the task, assign it to {@code cores.get(0)}
-     *       as a fallback (preserved behavior).</li>
+     *   <li>Build a {@link CapacityIndex} whose residual capacity per core is
+     *       the core's maximum frequency divided by the task set's processing
+     *       speed.</li>
+     *   <li>For each task in its original order, place it on the lowest
+     *       indexed core whose residual capacity is greater than the task's
+     *       utilization (and that passes the response time admission test when
+     *       it is enabled), then take the utilization off that core.</li>
+     *   <li>If no core can accommodate the task, report it as unplaceable and
+     *       assign it to {@code cores.get(0)} (preserved fallback behavior).</li>
      * </ol>
      * 
      *
      * @param cores a vector of available cores to which tasks may be assigned;
-     *              the method mutates the cores by calling {@code addTask} on them
+     *              this method mutates the cores by calling {@code addTask} on them
      * @param taskSet the set of tasks to partition and assign to cores
      */
     @Override
     public void taskToCore(Vector<Core> cores, TaskSet taskSet)
     {
-        TaskSet decreasingTaskSet = new TaskSet();
-        double[] coreU = new double[cores.size()];
-        for(int i = 0; i < cores.size(); i++)
-        {
-            coreU[i] = cores.get(i).getParentCoreSet().getCoreSpeedSet().getMaxFrequencyOfSpeed()
-                     / taskSet.getProcessingSpeed();
-        }
+        this.clearUnplaceableTaskSet();
+        double[] capacity = this.getCapacity(cores, taskSet);
+        CapacityIndex index = new CapacityIndex(capacity);
         
         for(Task t : taskSet)
         {
-            decreasingTaskSet.add(t);
-        }
-        
-        while(decreasingTaskSet.size() > 0)
-        {
-            boolean isAssigned = false;
-            for(int i = 0; i < coreU.length; i++)
+            int i = index.firstFit(t.getUtilization(), this.getAdmission(cores, capacity, t));
+            if(i == -1)
             {
-                if(coreU[i] > decreasingTaskSet.get(0).getUtilization())
-                {
-                    cores.get(i).addTask(decreasingTaskSet.get(0));
-                    coreU[i] -= decreasingTaskSet.get(0).getUtilization();
-                    decreasingTaskSet.remove(0);
-                    isAssigned = true;
-                    break;
-                }
+                i = 0;
+                this.addUnplaceableTask(t, cores.get(i));
             }
             
-            if(!isAssigned)
-            {
-                cores.get(0).addTask(decreasingTaskSet.get(0));
-                coreU[0] -= decreasingTaskSet.get(0).getUtilization();
-                decreasingTaskSet.remove(0);
-                isAssigned = true;
-            }
+            cores.get(i).addTask(t);
+            index.place(i, t.getUtilization());
         }
     }
 }
@@ -5,11 +5,11 @@
  */
 package PartitionAlgorithm.implementation;
 
+import PartitionAlgorithm.CapacityIndex;
 import PartitionAlgorithm.PartitionAlgorithm;
 import SystemEnvironment.Core;
 import WorkLoad.Task;
 import WorkLoadSet.TaskSet;
-import java.util.Comparator;
 import java.util.Vector;
 
 /**
@@ -38,87 +38,47 @@ public class FFD extends PartitionAlgorithm
         this.setName("First-Fit Decreasing");
     }
     /**
-     * Partition and assign tasks from {@code taskSet} to the provided {@code cores}
-     * using the First-Fit Decreasing strategy.
+     * Assigns tasks from the given {@code taskSet} to the provided list of
+     * {@code cores} using the First-Fit Decreasing strategy.
      *
      * <p>Algorithm overview:</p>
      * <ol>
-     *   <li>Create a working copy of {@code taskSet} (keeps original tasks intact).</li>
-     *   <li>Initialize an array {@code coreU} of remaining capacities where each
-     *       element is computed as {@code core.getParentCoreSet().getCoreSpeedSet().getMaxFrequencyOfSpeed() / taskSet.getProcessingSpeed()}.</li>
-     *   <li>Sort the working task list in decreasing order of task utilization.</li>
-     *   <li>For each task (largest first), scan cores in index order and assign the
-     *       task to the first core whose remaining capacity is greater than the
-     *       task's utilization, then decrement that core's remaining capacity.</li>
-     *   <li>If no core can accommodate a task, assign it to {@code cores.get(0)}
-     *       and decrement that core's remaining capacity (preserves original fallback behavior).</li>
+     *   <li>Sort a copy of {@code taskSet} in decreasing order of task
+     *       utilization; tasks of equal utilization keep their order.</li>
+     *   <li>Build a {@link CapacityIndex} whose residual capacity per core is
+     *       {@code core.getParentCoreSet().getCoreSpeedSet().getMaxFrequencyOfSpeed() / taskSet.getProcessingSpeed()}.</li>
+     *   <li>For each task (largest first), place it on the lowest indexed core
+     *       whose residual capacity is greater than the task's utilization (and
+     *       that passes the response time admission test when it is enabled),
+     *       then take the utilization off that core.</li>
+     *   <li>If no core can accommodate a task, report it as unplaceable and
+     *       assign it to {@code cores.get(0)} (preserves original fallback behavior).</li>
      * </ol>
      * 
      *
-     * @param cores a vector of available cores to which tasks will be assigned;
+     * @param cores a vector of available cores to which tasks may be assigned;
      *              this method mutates the cores by calling {@code addTask} on them
-     * @param taskSet the set of tasks to partition and assign to cores; a working
-     *                copy of this set is created and sorted in decreasing utilization
+     * @param taskSet the set of tasks to partition and assign to cores;
+     *                a copy of it sorted in decreasing utilization is used
      */
     @Override
     public void taskToCore(Vector<Core> cores, TaskSet taskSet)
     {
-        TaskSet decreasingTaskSet = new TaskSet();
-        double[] coreU = new double[cores.size()];
+        this.clearUnplaceableTaskSet();
+        double[] capacity = this.getCapacity(cores, taskSet);
+        CapacityIndex index = new CapacityIndex(capacity);
         
-        for(int i = 0; i < cores.size(); i++)
+        for(Task t : this.getDecreasingTaskSet(taskSet))
         {
-            coreU[i] = cores.get(i).getParentCoreSet().getCoreSpeedSet().getMaxFrequencyOfSpeed()
-                     / taskSet.getProcessingSpeed();
-        }
-        
-        for(Task t : taskSet)
-        {
-            decreasingTaskSet.add(t);
-        }
-        
-        decreasingTaskSet.sort
-        (
-            new Comparator<Task>()
+            int i = index.firstFit(t.getUtilization(), this.getAdmission(cores, capacity, t));
+            if(i == -1)
             {
-                @Override
-                public int compare(Task t1, Task t2)
-                {
-                    if(t1.getUtilization() > t2.getUtilization())
-                    {
-                        return -1;
-                    }
-                    else if(t1.getUtilization() <= t2.getUtilization())
-                    {
-                        return 1;
-                    }
-                    return 0;
-                }
-            }
-        );
-        
-        while(decreasingTaskSet.size() > 0)
-        {
-            boolean isAssigned = false;
-            for(int i = 0; i < coreU.length; i++)
-            {
-                if(coreU[i] > decreasingTaskSet.get(0).getUtilization())
-                {
-                    cores.get(i).addTask(decreasingTaskSet.get(0));
-                    coreU[i] -= decreasingTaskSet.get(0).getUtilization();
-                    decreasingTaskSet.remove(0);
-                    isAssigned = true;
-                    break;
-                }
+                i = 0;
+                this.addUnplaceableTask(t, cores.get(i));
             }
             
-            if(!isAssigned)
-            {
-                cores.get(0).addTask(decreasingTaskSet.get(0));
-                coreU[0] -= decreasingTaskSet.get(0).getUtilization();
-                decreasingTaskSet.remove(0);
-                isAssigned = true;
-            }
+            cores.get(i).addTask(t);
+            index.place(i, t.getUtilization());
         }
     }
 }
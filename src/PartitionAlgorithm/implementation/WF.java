@@ -5,11 +5,11 @@
  */
 package PartitionAlgorithm.implementation;
 
+import PartitionAlgorithm.CapacityIndex;
 import PartitionAlgorithm.PartitionAlgorithm;
 import SystemEnvironment.Core;
 import WorkLoad.Task;
 import WorkLoadSet.TaskSet;
-import java.util.Comparator;
 import java.util.Vector;
 
 
@@ -37,57 +37,47 @@ public class WF extends PartitionAlgorithm
     }
     
     /**
-     * Assigns tasks from {@code taskSet} to the provided {@code cores} using
-     * the Worst-Fit strategy.
+     * Assigns tasks from the given {@code taskSet} to the provided list of
+     * {@code cores} using the Worst-Fit strategy.
      *
      * <p>Algorithm details:</p>
      * <ol>
-     *   <li>Create a working copy of {@code taskSet} to iterate without
-     *       modifying the original set's structure.</li>
-     *   <li>Initialize a {@code coreU} array to hold the accumulated
-     *       utilization value for each core (starts at 0).</li>
-     *   <li>For each task (in the working copy's order), find the core with
-     *       the smallest current value in {@code coreU} and assign the task to
-     *       that core via {@code addTask}, then increment the core's
-     *       accumulated utilization by {@code task.getUtilization()}.</li>
+     *   <li>Build a {@link CapacityIndex} in which every core starts at zero,
+     *       so its residual capacity is the negated accumulated utilization
+     *       of the core.</li>
+     *   <li>For each task (in its original order), find the core with the
+     *       smallest accumulated utilization (lowest index among equals, and
+     *       passing the response time admission test when it is enabled),
+     *       assign the task to that core via {@code addTask}, and add
+     *       {@code task.getUtilization()} to the core's accumulated
+     *       utilization.</li>
+     *   <li>If the admission test rejects every core, report the task as
+     *       unplaceable and assign it to the least loaded core.</li>
      * </ol>
      * 
      *
-     * @param cores a vector of available cores to which tasks will be assigned;
-     *              this method mutates the cores by calling {@code addTask}
-     *              on selected cores
-     * @param taskSet the set of tasks to partition and assign to cores; a
-     *                working copy of this set is created and used by the method
+     * @param cores a vector of available cores to which tasks may be assigned;
+     *              this method mutates the cores by calling {@code addTask} on them
+     * @param taskSet the set of tasks to partition and assign to cores
      */
     @Override
     public void taskToCore(Vector<Core> cores, TaskSet taskSet)
     {
-        TaskSet decreasingTaskSet = new TaskSet();
-        double[] coreU = new double[cores.size()];
-        for(int i = 0; i < cores.size(); i++)
-        {
-            coreU[i] = 0;
-        }
+        this.clearUnplaceableTaskSet();
+        double[] capacity = this.getCapacity(cores, taskSet);
+        CapacityIndex index = new CapacityIndex(new double[cores.size()]);
         
         for(Task t : taskSet)
         {
-            decreasingTaskSet.add(t);
-        }
-        
-        while(decreasingTaskSet.size() > 0)
-        {
-            int maxCID = 0;
-            for(int i = 0; i < coreU.length; i++)
+            int i = index.worstFit(Double.NEGATIVE_INFINITY, this.getAdmission(cores, capacity, t));
+            if(i == -1)
             {
-                if(coreU[i] < coreU[maxCID])
-                {
-                    maxCID = i;
-                }
+                i = index.worstFit(Double.NEGATIVE_INFINITY, null);
+                this.addUnplaceableTask(t, cores.get(i));
             }
             
-            cores.get(maxCID).addTask(decreasingTaskSet.get(0));
-            coreU[maxCID] += decreasingTaskSet.get(0).getUtilization();
-            decreasingTaskSet.remove(0);
+            cores.get(i).addTask(t);
+            index.place(i, t.getUtilization());
         }
     }
 }
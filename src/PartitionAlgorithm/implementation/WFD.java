@@ -5,11 +5,11 @@
  */
 package PartitionAlgorithm.implementation;
 
+import PartitionAlgorithm.CapacityIndex;
 import PartitionAlgorithm.PartitionAlgorithm;
 import SystemEnvironment.Core;
 import WorkLoad.Task;
 import WorkLoadSet.TaskSet;
-import java.util.Comparator;
 import java.util.Vector;
 
 /**
@@ -20,7 +20,7 @@ import java.util.Vector;
  * working copy of the provided {@code TaskSet}, sorts the tasks in decreasing
  * order of utilization, and iteratively assigns each task to the currently
  * least-loaded core (the "worst" core) according to a per-core accumulator
- * ({@code coreU}).
+ * kept in a {@code CapacityIndex}.
  * </p>
  *
  * <p>Behavior summary:
@@ -28,9 +28,8 @@ import java.util.Vector;
  *   <li>A working {@code TaskSet} is created from the input {@code taskSet} so
  *       the original set is not reordered.</li>
  *   <li>Tasks are sorted in decreasing order of utilization (largest first).</li>
- *   <li>Each task is assigned to the core with minimum accumulated utilization
- *       stored in {@code coreU}, then that core's accumulator is incremented
- *       by the task's utilization.</li>
+ *   <li>Each task is assigned to the core with minimum accumulated utilization,
+ *       then that core's accumulator is incremented by the task's utilization.</li>
  *   <li>The method mutates the provided {@code cores} by invoking {@code addTask}.</li>
  * </ul>
  *
@@ -60,89 +59,50 @@ public class WFD extends PartitionAlgorithm
     }
     
     /**
-     * Partition and assign tasks from {@code taskSet} to the provided {@code cores}
-     * using the Worst-Fit Decreasing strategy.
+     * Assigns tasks from the given {@code taskSet} to the provided list of
+     * {@code cores} using the Worst-Fit Decreasing strategy.
      *
      * <p>Detailed steps performed by this method:</p>
      * <ol>
-     *   <li>Create a working copy {@code decreasingTaskSet} and copy all tasks
-     *       from {@code taskSet} into it to preserve the original ordering in
-     *       the caller's {@code TaskSet}.</li>
-     *   <li>Initialize {@code coreU} as a zeroed array representing the current
-     *       accumulated utilization for each core.</li>
-     *   <li>Sort {@code decreasingTaskSet} in decreasing order by
-     *       {@code Task#getUtilization()}.</li>
-     *   <li>While tasks remain, find the core index with the smallest
-     *       {@code coreU} value, assign the first task in the sorted list to that
-     *       core via {@code Core#addTask}, add the task's utilization to that
-     *       core's accumulator, and remove the task from the working set.</li>
+     *   <li>Sort a copy of {@code taskSet} in decreasing order by
+     *       {@code Task#getUtilization()}; tasks of equal utilization keep
+     *       their order, and the caller's {@code TaskSet} is not reordered.</li>
+     *   <li>Build a {@link CapacityIndex} in which every core starts at zero,
+     *       so its residual capacity is the negated accumulated utilization
+     *       of the core.</li>
+     *   <li>For each task (largest first), find the core with the smallest
+     *       accumulated utilization (lowest index among equals, and passing
+     *       the response time admission test when it is enabled), assign the
+     *       task to that core via {@code Core#addTask}, and add the task's
+     *       utilization to that core's accumulator.</li>
+     *   <li>If the admission test rejects every core, report the task as
+     *       unplaceable and assign it to the least loaded core.</li>
      * </ol>
      * 
      *
-     * <p>Notes:</p>
-     * <ul>
-     *   <li>The method mutates the passed {@code cores} vector by calling
-     *       {@code addTask} on selected {@code Core} instances.</li>
-     *   <li>The original {@code taskSet} passed by the caller is not reordered;
-     *       a separate working copy is used.</li>
-     * </ul>
-     * 
-     *
-     * @param cores a {@code Vector<Core>} of available cores; this method will
-     *              mutate the cores by calling {@code Core#addTask} on selected cores.
-     * @param taskSet the {@code TaskSet} of tasks to be partitioned and assigned;
-     *                a working copy of this set is created and sorted in
-     *                decreasing utilization.
+     * @param cores a vector of available cores to which tasks may be assigned;
+     *              this method mutates the cores by calling {@code addTask} on them
+     * @param taskSet the set of tasks to partition and assign to cores;
+     *                a copy of it sorted in decreasing utilization is used
      */
     @Override
     public void taskToCore(Vector<Core> cores, TaskSet taskSet)
     {
-        TaskSet decreasingTaskSet = new TaskSet();
-        double[] coreU = new double[cores.size()];
-        for(int i = 0; i < cores.size(); i++)
-        {
-            coreU[i] = 0;
-        }
-        
-        for(Task t : taskSet)
-        {
-            decreasingTaskSet.add(t);
-        }
-        
-        decreasingTaskSet.sort
-        (
-            new Comparator<Task>()
-            {
-                @Override
-                public int compare(Task t1, Task t2)
-                {
-                    if(t1.getUtilization() > t2.getUtilization())
-                    {
-                        return -1;
-                    }
-                    else if(t1.getUtilization() <= t2.getUtilization())
-                    {
-                        return 1;
-                    }
-                    return 0;
-                }
-            }
-        );
+        this.clearUnplaceableTaskSet();
+        double[] capacity = this.getCapacity(cores, taskSet);
+        CapacityIndex index = new CapacityIndex(new double[cores.size()]);
         
-        while(decreasingTaskSet.size() > 0)
+        for(Task t : this.getDecreasingTaskSet(taskSet))
         {
-            int maxCID = 0;
-            for(int i = 0; i < coreU.length; i++)
+            int i = index.worstFit(Double.NEGATIVE_INFINITY, this.getAdmission(cores, capacity, t));
+            if(i == -1)
             {
-                if(coreU[i] < coreU[maxCID])
-                {
-                    maxCID = i;
-                }
+                i = index.worstFit(Double.NEGATIVE_INFINITY, null);
+                this.addUnplaceableTask(t, cores.get(i));
             }
             
-            cores.get(maxCID).addTask(decreasingTaskSet.get(0));
-            coreU[maxCID] += decreasingTaskSet.get(0).getUtilization();
-            decreasingTaskSet.remove(0);
+            cores.get(i).addTask(t);
+            index.place(i, t.getUtilization());
         }
     }
 }
@@ -0,0 +1,102 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package RTSimulator;
+
+import RTSimulator.Definition.TraceLevel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Trace sink writing compact binary records to a stream, typically a file.
+ * <p>
+ * Each record is one byte of level ordinal, one byte that is 1 for a line end
+ * and 0 otherwise, the length of the UTF-8 text as an int and the text bytes.
+ * Output is buffered; call {@link #close()} at the end of the run.
+ * {@link #replay(InputStream, TraceSink)} decodes a recorded trace into any
+ * other sink, e.g. {@link TraceSink#STDOUT}.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public class BinaryTraceSink implements TraceSink
+{
+    private final DataOutputStream out;
+
+    /**
+     * Create a sink writing to {@code os}.
+     *
+     * @param os the stream to write the records to
+     */
+    public BinaryTraceSink(OutputStream os)
+    {
+        this.out = new DataOutputStream(new BufferedOutputStream(os));
+    }
+
+    /*Operating*/
+    @Override
+    public synchronized void write(TraceLevel level, String text, boolean isLineEnd)
+    {
+        byte[] bytes = text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+        try
+        {
+            this.out.writeByte(level.ordinal());
+            this.out.writeByte(isLineEnd ? 1 : 0);
+            this.out.writeInt(bytes.length);
+            this.out.write(bytes);
+        }
+        catch(IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        try
+        {
+            this.out.close();
+        }
+        catch(IOException ex)
+        {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Decode a trace recorded by a {@code BinaryTraceSink} and write every
+     * record to {@code sink}.
+     *
+     * @param is the recorded trace
+     * @param sink the sink to replay the records into
+     * @throws IOException if the trace cannot be read or is truncated
+     */
+    public static void replay(InputStream is, TraceSink sink) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(is));
+        TraceLevel[] levels = TraceLevel.values();
+        int level;
+        while((level = in.read()) != -1)
+        {
+            boolean isLineEnd = in.readByte() != 0;
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            if(level >= levels.length)
+            {
+                throw new IOException("Corrupt trace record level: " + level);
+            }
+            sink.write(levels[level], new String(bytes, StandardCharsets.UTF_8), isLineEnd);
+        }
+    }
+}
@@ -30,25 +30,6 @@ public class Definition
      */
     public static final Priority Ohm = new Priority(Long.MAX_VALUE);
     
-    /**
-     * Multiplicative magnification factor applied to timing or measurement
-     * values within the simulator.
-     *
-     * <p>Default is {@code 1}. This value can be adjusted to scale simulated
-     * durations for scenarios or output presentation.</p>
-     */
-    public static long magnificationFactor = 1;
-    
-    
-    /**
-     * Format string used to present magnified values.
-     *
-     * <p>Originally documented in the source as "//格式" (format). The default
-     * pattern is {@code "##.#####"} which controls numeric formatting where
-     * magnified values are displayed.</p>
-     */
-    public static String magnificationFormat = "##.#####";//格式
-    
     /**
      * Enumeration of possible core statuses used by the simulator to
      * represent a CPU core's current condition.
@@ -114,6 +95,30 @@ public class Definition
         Hybrid
     }
     
+    /**
+     * Enumeration of trace verbosity levels, from least to most verbose.
+     */
+    public enum TraceLevel
+    {
+        /** No trace output at all */
+        OFF,
+        /** Run summary (start, end, power and deadline-miss totals) */
+        INFO,
+        /** Per-event detail of the schedule, protocols and DVFS */
+        DEBUG
+    }
+    
+    /**
+     * Enumeration of task arrival models.
+     */
+    public enum ArrivalType
+    {
+        /** Periodic arrival - jobs arrive every period after the arrival time */
+        Periodic,
+        /** Sporadic arrival - inter-arrival times are drawn between the period (the minimum) and the task's maximum inter-arrival time */
+        Sporadic
+    }
+    
     /**
      * Enumeration of priority assignment types.
      */
@@ -1,5 +1,7 @@
 package RTSimulator;
 
+import RTSimulator.Definition.TraceLevel;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import userInterface.UserInterface;
@@ -8,8 +10,10 @@ import userInterface.UserInterface;
  * Main class for RTSimulator application.
  * <p>
  * This class serves as the entry point for the RTSimulator application and provides
- * static utility methods for debug output. It contains the main method that initializes
- * the user interface.
+ * static utility methods for trace output. Trace output is level-gated and
+ * routed to a per-thread {@link TraceSink}; messages built from
+ * {@code Supplier}s cost nothing when their level is off. It contains the main
+ * method that initializes the user interface.
  * 
  * @author ShiuJia
  */
@@ -17,7 +21,9 @@ public class RTSimulator {
 
     // Logger for debug and information messages
     private static final Logger LOGGER = Logger.getLogger(RTSimulator.class.getName());
-    private static final boolean DEBUG_MODE = true; // Set to true for debug messages
+
+    // Trace output of the run executing on the current thread (see setTrace)
+    private static final ThreadLocal<TraceBinding> TRACE = ThreadLocal.withInitial(() -> TraceBinding.DEFAULT);
 
     /**
      * Private constructor to prevent instantiation of this utility class.
@@ -27,45 +33,132 @@ public class RTSimulator {
     }
 
     /**
-     * Prints the specified message to standard output when {@code DEBUG_MODE}
-     * is enabled.
+     * Routes the trace output of the current thread to {@code sink}, keeping
+     * only messages up to {@code level}. A {@link SystemEnvironment.Simulator}
+     * installs the settings of its run for the duration of
+     * {@link SystemEnvironment.Simulator#start()}. Threads that never call
+     * this trace everything to {@code System.out}.
+     *
+     * @param sink the sink receiving the messages; {@code null} discards them
+     * @param level the most verbose level to keep
+     */
+    public static void setTrace(TraceSink sink, TraceLevel level) {
+        TRACE.set(new TraceBinding(sink == null ? TraceSink.NULL : sink, level));
+    }
+
+    /**
+     * Returns the trace sink of the current thread.
+     *
+     * @return the trace sink
+     */
+    public static TraceSink getTraceSink() {
+        return TRACE.get().sink;
+    }
+
+    /**
+     * Returns the trace level of the current thread.
+     *
+     * @return the most verbose level kept
+     */
+    public static TraceLevel getTraceLevel() {
+        return TRACE.get().level;
+    }
+
+    /**
+     * Returns whether messages of the given level are traced on the current
+     * thread. Callers building expensive messages by hand should check this
+     * first; the {@code Supplier} overloads do so themselves.
      *
-     * <p>This is a convenience helper used for lightweight debug output that
-     * should be suppressed when {@code DEBUG_MODE} is {@code false}.</p>
+     * @param level the level of the message
+     * @return {@code true} if such a message would reach the sink
+     */
+    public static boolean isTracing(TraceLevel level) {
+        return TRACE.get().isEnabled(level);
+    }
+
+    /**
+     * Traces one line at the given level.
+     *
+     * @param level the level of the message
+     * @param message the message; may be {@code null}
+     */
+    public static void trace(TraceLevel level, String message) {
+        TraceBinding b = TRACE.get();
+        if (b.isEnabled(level)) {
+            b.sink.write(level, message, true);
+        }
+    }
+
+    /**
+     * Traces one line at the given level; the message is only built if the
+     * level is enabled.
+     *
+     * @param level the level of the message
+     * @param message supplies the message
+     */
+    public static void trace(TraceLevel level, Supplier<String> message) {
+        TraceBinding b = TRACE.get();
+        if (b.isEnabled(level)) {
+            b.sink.write(level, message.get(), true);
+        }
+    }
+
+    /**
+     * Traces the specified message at {@link TraceLevel#DEBUG} without a line
+     * end.
      *
      * @param message the message to print; may be {@code null}
      */
     public static void print(String message) {
-        if (DEBUG_MODE) {
-            System.out.print(message);
+        TraceBinding b = TRACE.get();
+        if (b.isEnabled(TraceLevel.DEBUG)) {
+            b.sink.write(TraceLevel.DEBUG, message, false);
         }
     }
 
+    /**
+     * Traces the supplied message at {@link TraceLevel#DEBUG} without a line
+     * end; the message is only built if that level is enabled.
+     *
+     * @param message supplies the message
+     */
+    public static void print(Supplier<String> message) {
+        TraceBinding b = TRACE.get();
+        if (b.isEnabled(TraceLevel.DEBUG)) {
+            b.sink.write(TraceLevel.DEBUG, message.get(), false);
+        }
+    }
 
     /**
-     * Prints the specified message followed by a newline to standard output
-     * when {@code DEBUG_MODE} is enabled.
+     * Traces the specified message as one line at {@link TraceLevel#DEBUG}.
      *
-     * <p>Use this helper to emit a line of debug output. The newline emitted is
-     * the platform default supplied by {@link System#out}.</p>
+     * <p>Only use this overload with constant text; messages built by string
+     * concatenation should go through {@link #println(Supplier)} so that
+     * nothing is built when tracing is off.</p>
      *
      * @param message the message to print; may be {@code null}
      */
     public static void println(String message) {
-        if (DEBUG_MODE) {
-            System.out.println(message);
-        }
+        trace(TraceLevel.DEBUG, message);
     }
 
     /**
-     * Prints a blank line to standard output when {@code DEBUG_MODE} is enabled.
+     * Traces the supplied message as one line at {@link TraceLevel#DEBUG};
+     * the message is only built if that level is enabled.
+     *
+     * @param message supplies the message
+     */
+    public static void println(Supplier<String> message) {
+        trace(TraceLevel.DEBUG, message);
+    }
+
+    /**
+     * Traces a blank line at {@link TraceLevel#DEBUG}.
      *
      * <p>Useful for separating blocks of debug output for readability.</p>
      */
     public static void println() {
-        if (DEBUG_MODE) {
-            System.out.println();
-        }
+        trace(TraceLevel.DEBUG, "");
     }
 
     /**
@@ -86,4 +179,20 @@ public class RTSimulator {
             LOGGER.log(Level.SEVERE, "Failed to initialize the user interface.", ex);
         }
     }
+
+    private static final class TraceBinding {
+        private static final TraceBinding DEFAULT = new TraceBinding(TraceSink.STDOUT, TraceLevel.DEBUG);
+
+        private final TraceSink sink;
+        private final TraceLevel level;
+
+        private TraceBinding(TraceSink sink, TraceLevel level) {
+            this.sink = sink;
+            this.level = level;
+        }
+
+        private boolean isEnabled(TraceLevel l) {
+            return l != TraceLevel.OFF && l.ordinal() <= this.level.ordinal();
+        }
+    }
 }
@@ -8,7 +8,6 @@ package RTSimulator;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
-import static RTSimulator.Definition.magnificationFormat;
 
 /**
  * Utility class for performing mathematical operations used in the RTSimulator.
@@ -16,6 +15,14 @@ import static RTSimulator.Definition.magnificationFormat;
  */
 public class RTSimulatorMath
 {
+    /**
+     * Number of work units in one unit of work. Work amounts are kept as
+     * {@code long} multiples of 10^-10, the precision of
+     * {@link #div(double, double)}, so that accumulating them is exact and
+     * allocation free.
+     */
+    public static final long WORK_SCALE = 10000000000L;
+    
     /**
      * Calculates the Least Common Multiple (LCM) of two integers.
      * 
@@ -47,18 +54,6 @@ public class RTSimulatorMath
         }
     }
     
-    /**
-     * Formats a double value to a specific decimal format.
-     * 
-     * @param d the double value to format
-     * @return the formatted double value
-     */
-    public double changeDecimalFormat(double d)
-    {
-        DecimalFormat df = new DecimalFormat(magnificationFormat);
-        return Double.parseDouble(df.format(d));
-    }
-    
     /**
      * Formats a double value to 5 decimal places.
      * 
@@ -113,6 +108,76 @@ public class RTSimulatorMath
         return b1.multiply(b2).doubleValue();
     }
     
+    /**
+     * Converts an amount of work into work units.
+     * 
+     * @param value the amount of work, with at most 10 decimal places
+     * @return the amount in work units
+     */
+    public static long toWorkUnits(double value)
+    {
+        return Math.round(value * WORK_SCALE);
+    }
+
+    /**
+     * Converts a whole amount of work into work units, failing instead of
+     * overflowing. With the magnification of the accuracy, the largest
+     * amount is about 9.2 * 10^8 time units of work divided by
+     * 10^accuracy.
+     *
+     * @param amount the amount of work, in (magnified) time units
+     * @return the amount in work units
+     * @throws ArithmeticException if the amount has no work unit representation
+     */
+    public static long wholeToWorkUnits(long amount)
+    {
+        if(amount > Long.MAX_VALUE / WORK_SCALE || amount < Long.MIN_VALUE / WORK_SCALE)
+        {
+            throw new ArithmeticException("Amount of work too large for work units: " + amount
+                    + " (at most " + Long.MAX_VALUE / WORK_SCALE + "; use a lower accuracy)");
+        }
+        return amount * WORK_SCALE;
+    }
+
+    /**
+     * Returns the whole amounts of work completed by an amount in work units,
+     * that is floor(units / WORK_SCALE), computed exactly.
+     *
+     * @param units the amount in work units
+     * @return the whole amount of work
+     */
+    public static long toWholeAmount(long units)
+    {
+        return Math.floorDiv(units, WORK_SCALE);
+    }
+
+    /**
+     * Converts work units back into an amount of work. The result equals the
+     * decimal sum that {@link #add(double, double)} would have produced.
+     * 
+     * @param units the amount in work units
+     * @return the amount of work
+     */
+    public static double toAmount(long units)
+    {
+        return (double)units / WORK_SCALE;
+    }
+    
+    /**
+     * Divides one double value by another like {@link #div(double, double)} and
+     * returns the quotient in work units.
+     * 
+     * @param value1 the dividend
+     * @param value2 the divisor
+     * @return the result of {@code value1} / {@code value2} in work units
+     */
+    public static long divToWorkUnits(double value1,double value2)
+    {
+        BigDecimal b1 = new BigDecimal(Double.toString(value1));
+        BigDecimal b2 = new BigDecimal(Double.toString(value2));
+        return b1.divide(b2, 10, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+    
     /**
      * Divides one double value by another with high precision. The result is rounded
      * to 10 decimal places.
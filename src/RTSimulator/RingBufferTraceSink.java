@@ -0,0 +1,113 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package RTSimulator;
+
+import RTSimulator.Definition.TraceLevel;
+
+import java.util.Vector;
+
+/**
+ * Trace sink keeping only the most recent lines in memory.
+ * <p>
+ * The buffer holds at most {@code capacity} lines; older lines are
+ * overwritten. Pieces written with {@code print} are joined until the next
+ * line end. Useful to inspect the last events before a failure without
+ * paying for the whole trace of a long run.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public class RingBufferTraceSink implements TraceSink
+{
+    private final String[] lines;
+    private int next;
+    private int size;
+    private StringBuilder partialLine;
+
+    /**
+     * Create a ring buffer holding the last {@code capacity} lines.
+     *
+     * @param capacity the number of lines to keep
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public RingBufferTraceSink(int capacity)
+    {
+        if(capacity <= 0)
+        {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.lines = new String[capacity];
+        this.next = 0;
+        this.size = 0;
+        this.partialLine = null;
+    }
+
+    /*Operating*/
+    @Override
+    public synchronized void write(TraceLevel level, String text, boolean isLineEnd)
+    {
+        if(!isLineEnd)
+        {
+            if(this.partialLine == null)
+            {
+                this.partialLine = new StringBuilder();
+            }
+            this.partialLine.append(text);
+            return;
+        }
+
+        if(this.partialLine != null)
+        {
+            text = this.partialLine.append(text).toString();
+            this.partialLine = null;
+        }
+
+        this.lines[this.next] = text;
+        this.next = (this.next + 1) % this.lines.length;
+        this.size = Math.min(this.size + 1, this.lines.length);
+    }
+
+    /**
+     * Remove every buffered line.
+     */
+    public synchronized void clear()
+    {
+        for(int i = 0 ; i < this.lines.length ; i++)
+        {
+            this.lines[i] = null;
+        }
+        this.next = 0;
+        this.size = 0;
+        this.partialLine = null;
+    }
+
+    /*GetValue*/
+    /**
+     * Return the buffered lines, oldest first.
+     *
+     * @return the buffered lines
+     */
+    public synchronized Vector<String> getLines()
+    {
+        Vector<String> v = new Vector<String>(this.size);
+        int first = (this.next - this.size + this.lines.length) % this.lines.length;
+        for(int i = 0 ; i < this.size ; i++)
+        {
+            v.add(this.lines[(first + i) % this.lines.length]);
+        }
+        return v;
+    }
+
+    /**
+     * Return the number of lines this buffer can hold.
+     *
+     * @return the capacity
+     */
+    public int getCapacity()
+    {
+        return this.lines.length;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package RTSimulator;
+
+import RTSimulator.Definition.TraceLevel;
+
+/**
+ * Destination of the trace output of a simulation run.
+ * <p>
+ * A sink receives the text of every enabled {@link RTSimulator#print(String)}
+ * and {@link RTSimulator#println(String)} call together with its level. The
+ * level gate is applied before the message is built, so a run traced at
+ * {@link TraceLevel#OFF} never reaches its sink and constructs no strings.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public interface TraceSink
+{
+    /**
+     * Sink that discards everything.
+     */
+    TraceSink NULL = (level, text, isLineEnd) -> {};
+
+    /**
+     * Sink writing to whatever {@code System.out} is at the time of the call.
+     */
+    TraceSink STDOUT = (level, text, isLineEnd) ->
+    {
+        if(isLineEnd)
+        {
+            System.out.println(text);
+        }
+        else
+        {
+            System.out.print(text);
+        }
+    };
+
+    /**
+     * Write one piece of trace output.
+     *
+     * @param level the level of the message
+     * @param text the message text
+     * @param isLineEnd true if the message ends a line (println), false for print
+     */
+    void write(TraceLevel level, String text, boolean isLineEnd);
+
+    /**
+     * Flush and release any resource held by this sink. Does nothing by default.
+     */
+    default void close()
+    {
+    }
+}
@@ -0,0 +1,664 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package ResultSet;
+
+import SystemEnvironment.Core;
+import SystemEnvironment.SimulationContext;
+import WorkLoad.CriticalSection;
+import WorkLoad.Job;
+import WorkLoad.Task;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Stack;
+import java.util.Vector;
+import RTSimulator.Definition.CoreStatus;
+import RTSimulator.Definition.JobStatus;
+
+/**
+ * Column store of the scheduling records of a core.
+ *
+ * <p>Each record (one time period of the core) is a row index into parallel
+ * primitive arrays instead of a {@link SchedulingInfo} object, so a long run
+ * keeps a few dozen bytes per record and no per-record garbage. Times and power
+ * are kept in ticks. The entered critical sections of a record are interned:
+ * records holding the same sections share one unmodifiable list, and records
+ * outside a critical section share the immutable empty list, so no caller
+ * can change the sections of other records, or of other runs.</p>
+ *
+ * <p>The completed/missed counts shown for a job's records follow the job: a
+ * record keeps the counts of its task when it was created until the job
+ * changes status, and from then on reports the counts the job saw at its
+ * latest status change (see {@link Job#getStatusVersion()}). This replaces
+ * rewriting every record of the job on each status change.</p>
+ *
+ * <p>A record refers to its job through a job entry, one per job that has
+ * records on this core. The entry holds the job's task and ID and, while
+ * the job is alive, the job itself. When a run does not retain jobs (see
+ * {@link SimulationContext#isJobRetained()}), a job that completes or misses
+ * its deadline releases its entries: the fields the result viewers read are
+ * copied into primitive columns and the job reference is dropped, so the
+ * timeline keeps no finished job, nor its critical sections or priorities,
+ * reachable.</p>
+ *
+ * <p>{@link #get(int)} returns a {@link SchedulingInfo} view of a row for the
+ * result viewers; the simulation itself only appends rows and closes the last
+ * one.</p>
+ *
+ * @author ShiuJia
+ */
+public class CoreTimeline
+{
+    private static final CoreStatus[] STATUS = CoreStatus.values();
+    private static final JobStatus[] JOB_STATUS = JobStatus.values();
+    private static final List<CriticalSection> EMPTY_SECTIONS = Collections.emptyList();
+
+    private Core core;
+    private SimulationContext context;
+    private int size;
+
+    private long[] startTime;
+    private long[] endTime;
+    private long[] totalPowerConsumption;
+    private byte[] status;
+    private int[] entry;//紀錄所屬的Job條目，-1為沒有Job
+    private double[] useSpeed;
+    private double[] normalizationOfSpeed;
+    private List<CriticalSection>[] enteredCriticalSectionSet;
+    private int[] jobCompletedNum;
+    private int[] jobMissDeadlineNum;
+    private int[] jobStatusVersion;
+    private Job lastJob;
+
+    //Job條目：在此timeline有紀錄的每個Job一筆，Job釋放後只留下列欄位
+    private int entryCount;
+    private Job[] entryJob;
+    private Task[] entryTask;
+    private int[] entryJobID;
+    private byte[] entryJobStatus;
+    private long[] entryTimeOfStatus;
+    private long[] entryResponseTime;
+    private long[] entryPendingTime;
+    private int[] entryStatusVersion;
+    private int[] entryCompletedNum;
+    private int[] entryMissDeadlineNum;
+
+    private HashMap<List<CriticalSection>, List<CriticalSection>> internedSections;
+
+    /**
+     * Creates an empty timeline.
+     *
+     * @param core the core the records belong to, or {@code null}
+     * @param c the simulation context used to report times, or {@code null}
+     *          to use the one of the core's processor
+     */
+    public CoreTimeline(Core core, SimulationContext c)
+    {
+        this(core, c, 16);
+    }
+
+    /**
+     * Creates an empty timeline with room for the given number of records.
+     *
+     * @param core the core the records belong to, or {@code null}
+     * @param c the simulation context used to report times, or {@code null}
+     *          to use the one of the core's processor
+     * @param capacity the initial number of records
+     */
+    @SuppressWarnings("unchecked")
+    public CoreTimeline(Core core, SimulationContext c, int capacity)
+    {
+        this.core = core;
+        this.context = c;
+        this.size = 0;
+
+        this.startTime = new long[capacity];
+        this.endTime = new long[capacity];
+        this.totalPowerConsumption = new long[capacity];
+        this.status = new byte[capacity];
+        this.entry = new int[capacity];
+        this.useSpeed = new double[capacity];
+        this.normalizationOfSpeed = new double[capacity];
+        this.enteredCriticalSectionSet = (List<CriticalSection>[]) new List<?>[capacity];
+        this.jobCompletedNum = new int[capacity];
+        this.jobMissDeadlineNum = new int[capacity];
+        this.jobStatusVersion = new int[capacity];
+
+        this.entryCount = 0;
+        this.entryJob = new Job[capacity];
+        this.entryTask = new Task[capacity];
+        this.entryJobID = new int[capacity];
+        this.entryJobStatus = new byte[capacity];
+        this.entryTimeOfStatus = new long[capacity];
+        this.entryResponseTime = new long[capacity];
+        this.entryPendingTime = new long[capacity];
+        this.entryStatusVersion = new int[capacity];
+        this.entryCompletedNum = new int[capacity];
+        this.entryMissDeadlineNum = new int[capacity];
+
+        this.internedSections = new HashMap<>();
+    }
+
+    /*Operating*/
+    /**
+     * Appends a record starting at the given time. The job's entered critical
+     * sections are recorded only when the core is executing, and the job's
+     * task counts are snapshotted.
+     *
+     * @param s the core status of the period, or {@code null}
+     * @param j the job of the period, or {@code null}
+     * @param start the start time in ticks
+     * @param speed the core speed
+     * @param normalization the normalized core speed
+     * @return the index of the new record
+     */
+    public int add(CoreStatus s, Job j, long start, double speed, double normalization)
+    {
+        if(this.size == this.startTime.length)
+        {
+            this.grow();
+        }
+
+        int i = this.size++;
+        this.setCoreStatus(i, s);
+        this.startTime[i] = start;
+        this.useSpeed[i] = speed;
+        this.normalizationOfSpeed[i] = normalization;
+        this.enteredCriticalSectionSet[i] = EMPTY_SECTIONS;
+        this.entry[i] = -1;
+        this.lastJob = null;
+        this.setJob(i, j);
+        return i;
+    }
+
+    private void grow()
+    {
+        int capacity = Math.max(16, this.startTime.length * 2);
+        this.startTime = Arrays.copyOf(this.startTime, capacity);
+        this.endTime = Arrays.copyOf(this.endTime, capacity);
+        this.totalPowerConsumption = Arrays.copyOf(this.totalPowerConsumption, capacity);
+        this.status = Arrays.copyOf(this.status, capacity);
+        this.entry = Arrays.copyOf(this.entry, capacity);
+        this.useSpeed = Arrays.copyOf(this.useSpeed, capacity);
+        this.normalizationOfSpeed = Arrays.copyOf(this.normalizationOfSpeed, capacity);
+        this.enteredCriticalSectionSet = Arrays.copyOf(this.enteredCriticalSectionSet, capacity);
+        this.jobCompletedNum = Arrays.copyOf(this.jobCompletedNum, capacity);
+        this.jobMissDeadlineNum = Arrays.copyOf(this.jobMissDeadlineNum, capacity);
+        this.jobStatusVersion = Arrays.copyOf(this.jobStatusVersion, capacity);
+    }
+
+    private void growEntries()
+    {
+        int capacity = Math.max(16, this.entryJob.length * 2);
+        this.entryJob = Arrays.copyOf(this.entryJob, capacity);
+        this.entryTask = Arrays.copyOf(this.entryTask, capacity);
+        this.entryJobID = Arrays.copyOf(this.entryJobID, capacity);
+        this.entryJobStatus = Arrays.copyOf(this.entryJobStatus, capacity);
+        this.entryTimeOfStatus = Arrays.copyOf(this.entryTimeOfStatus, capacity);
+        this.entryResponseTime = Arrays.copyOf(this.entryResponseTime, capacity);
+        this.entryPendingTime = Arrays.copyOf(this.entryPendingTime, capacity);
+        this.entryStatusVersion = Arrays.copyOf(this.entryStatusVersion, capacity);
+        this.entryCompletedNum = Arrays.copyOf(this.entryCompletedNum, capacity);
+        this.entryMissDeadlineNum = Arrays.copyOf(this.entryMissDeadlineNum, capacity);
+    }
+
+    //取得Job在此timeline的條目，沒有則新增；已釋放紀錄的Job直接存成欄位
+    private int getEntry(Job j)
+    {
+        int e = j.getRecordEntry(this);
+        if(e >= 0)
+        {
+            return e;
+        }
+
+        if(this.entryCount == this.entryJob.length)
+        {
+            this.growEntries();
+        }
+        e = this.entryCount++;
+        this.entryTask[e] = j.getParentTask();
+        this.entryJobID[e] = j.getID();
+        if(j.isRecordReleased())
+        {
+            this.releaseJob(e, j);
+        }
+        else
+        {
+            this.entryJob[e] = j;
+            j.addRecordEntry(this, e);
+        }
+        return e;
+    }
+
+    /**
+     * Copies the fields of a job entry that the result viewers read from the
+     * job and drops the reference to it. Called by {@link Job} when a job that
+     * is not retained completes or misses its deadline.
+     *
+     * @param e the job entry
+     * @param j the job of the entry
+     */
+    public void releaseJob(int e, Job j)
+    {
+        this.entryJobStatus[e] = (byte)j.getStatus().ordinal();
+        this.entryTimeOfStatus[e] = j.getTimeOfStatusTick();
+        this.entryResponseTime[e] = j.getResponseTime();
+        this.entryPendingTime[e] = j.getPendingTime();
+        this.entryStatusVersion[e] = j.getStatusVersion();
+        this.entryCompletedNum[e] = j.getStatusCompletedCount();
+        this.entryMissDeadlineNum[e] = j.getStatusMissDeadlineCount();
+        this.entryJob[e] = null;
+    }
+
+    /**
+     * Closes the last record: sets its end time and the power consumed by the
+     * core up to then.
+     *
+     * @param end the end time in ticks
+     * @param power the total power consumption of the core so far
+     */
+    public void closeLast(long end, long power)
+    {
+        this.endTime[this.size - 1] = end;
+        this.totalPowerConsumption[this.size - 1] = power;
+    }
+
+    private List<CriticalSection> intern(List<CriticalSection> sections)
+    {
+        if(sections.isEmpty())
+        {
+            return EMPTY_SECTIONS;
+        }
+
+        List<CriticalSection> interned = this.internedSections.get(sections);
+        if(interned == null)
+        {
+            interned = Collections.unmodifiableList(new ArrayList<>(sections));
+            this.internedSections.put(interned, interned);
+        }
+        return interned;
+    }
+
+    /*SetValue*/
+    void setCore(Core c)
+    {
+        this.core = c;
+    }
+
+    void setCoreStatus(int i, CoreStatus s)
+    {
+        this.status[i] = s == null ? -1 : (byte)s.ordinal();
+    }
+
+    void setJob(int i, Job j)
+    {
+        if(j != null)
+        {
+            this.entry[i] = this.getEntry(j);
+            if(i == this.size - 1)
+            {
+                this.lastJob = j;
+            }
+            if(this.getCoreStatus(i) == CoreStatus.EXECUTION)
+            {
+                this.enteredCriticalSectionSet[i] = j.getEnteredCriticalSectionCount() == 0 ? EMPTY_SECTIONS : this.intern(j.getEnteredCriticalSectionSet());
+            }
+            this.jobCompletedNum[i] = j.getParentTask().getJobCompletedCount();
+            this.jobMissDeadlineNum[i] = j.getParentTask().getJobMissDeadlineCount();
+            this.jobStatusVersion[i] = j.getStatusVersion();
+            j.setLastRecord(this, i);
+        }
+    }
+
+    void setStartTime(int i, long t)
+    {
+        this.startTime[i] = t;
+    }
+
+    /**
+     * Sets the end time of a record.
+     *
+     * @param i the record index
+     * @param t the end time in ticks
+     */
+    public void setEndTime(int i, long t)
+    {
+        this.endTime[i] = t;
+    }
+
+    void setUseSpeed(int i, double f, double n)
+    {
+        this.useSpeed[i] = f;
+        this.normalizationOfSpeed[i] = n;
+    }
+
+    void setNormalizationOfSpeed(int i, double n)
+    {
+        this.normalizationOfSpeed[i] = n;
+    }
+
+    /**
+     * Sets the power consumed by the core up to the end of a record.
+     *
+     * @param i the record index
+     * @param d the total power consumption
+     */
+    public void setTotalPowerConsumption(int i, long d)
+    {
+        this.totalPowerConsumption[i] = d;
+    }
+
+    void setEnteredCriticalSectionSet(int i, Stack<CriticalSection> criticalSectionSet)
+    {
+        if(this.getCoreStatus(i) == CoreStatus.EXECUTION)
+        {
+            List<CriticalSection> sections = new ArrayList<>(this.enteredCriticalSectionSet[i]);
+            sections.addAll(criticalSectionSet);
+            this.enteredCriticalSectionSet[i] = this.intern(sections);
+        }
+    }
+
+    void setJobCompletedNum(int i, int num)
+    {
+        this.jobCompletedNum[i] = num;
+        this.jobStatusVersion[i] = this.getStatusVersion(i);
+    }
+
+    void setJobMissDeadlineNum(int i, int num)
+    {
+        this.jobMissDeadlineNum[i] = num;
+        this.jobStatusVersion[i] = this.getStatusVersion(i);
+    }
+
+    /*GetValue*/
+    /**
+     * Returns the number of records.
+     *
+     * @return the record count
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Returns whether nothing has been recorded yet.
+     *
+     * @return {@code true} if there is no record
+     */
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns a view of a record.
+     *
+     * @param i the record index
+     * @return a {@link SchedulingInfo} backed by this timeline
+     */
+    public SchedulingInfo get(int i)
+    {
+        if(i < 0 || i >= this.size)
+        {
+            throw new IndexOutOfBoundsException("record " + i + " of " + this.size);
+        }
+        return new SchedulingInfo(this, i);
+    }
+
+    /**
+     * Returns views of all records, in time order.
+     *
+     * @return a new vector of {@link SchedulingInfo} views
+     */
+    public Vector<SchedulingInfo> toSchedulingInfoSet()
+    {
+        Vector<SchedulingInfo> set = new Vector<>(this.size);
+        for(int i = 0 ; i < this.size ; i++)
+        {
+            set.add(new SchedulingInfo(this, i));
+        }
+        return set;
+    }
+
+    /**
+     * Returns the core the records belong to.
+     *
+     * @return the core, or {@code null}
+     */
+    public Core getCore()
+    {
+        return this.core;
+    }
+
+    /**
+     * Returns the core status of a record.
+     *
+     * @param i the record index
+     * @return the core status, or {@code null} if not set
+     */
+    public CoreStatus getCoreStatus(int i)
+    {
+        return this.status[i] < 0 ? null : STATUS[this.status[i]];
+    }
+
+    /**
+     * Returns the core status of the last record.
+     *
+     * @return the core status
+     */
+    public CoreStatus getLastCoreStatus()
+    {
+        return this.getCoreStatus(this.size - 1);
+    }
+
+    /**
+     * Returns the job of a record.
+     *
+     * @param i the record index
+     * @return the job, or {@code null} if the record has no job or the job
+     *         was released
+     */
+    public Job getJob(int i)
+    {
+        return this.entry[i] < 0 ? null : this.entryJob[this.entry[i]];
+    }
+
+    /**
+     * Returns the job of the last record. The last job is kept even when it
+     * was released, so the core can tell whether its job changed.
+     *
+     * @return the job, or {@code null}
+     */
+    public Job getLastJob()
+    {
+        return this.lastJob;
+    }
+
+    /**
+     * Returns whether a record has a job.
+     *
+     * @param i the record index
+     * @return {@code true} if the record has a job
+     */
+    public boolean hasJob(int i)
+    {
+        return this.entry[i] >= 0;
+    }
+
+    /**
+     * Returns the task of the job of a record.
+     *
+     * @param i the record index
+     * @return the task, or {@code null} if the record has no job
+     */
+    public Task getTask(int i)
+    {
+        return this.entry[i] < 0 ? null : this.entryTask[this.entry[i]];
+    }
+
+    /**
+     * Returns the ID of the job of a record.
+     *
+     * @param i the record index
+     * @return the job ID, or -1 if the record has no job
+     */
+    public int getJobID(int i)
+    {
+        return this.entry[i] < 0 ? -1 : this.entryJobID[this.entry[i]];
+    }
+
+    /**
+     * Returns the start time of a record in ticks.
+     *
+     * @param i the record index
+     * @return the start time
+     */
+    public long getStartTick(int i)
+    {
+        return this.startTime[i];
+    }
+
+    /**
+     * Returns the end time of a record in ticks.
+     *
+     * @param i the record index
+     * @return the end time
+     */
+    public long getEndTick(int i)
+    {
+        return this.endTime[i];
+    }
+
+    /**
+     * Returns the start time of a record in workload units.
+     *
+     * @param i the record index
+     * @return the start time
+     */
+    public double getStartTime(int i)
+    {
+        return this.toRealTime(this.startTime[i]);
+    }
+
+    /**
+     * Returns the end time of a record in workload units.
+     *
+     * @param i the record index
+     * @return the end time
+     */
+    public double getEndTime(int i)
+    {
+        return this.toRealTime(this.endTime[i]);
+    }
+
+    double getUseSpeed(int i)
+    {
+        return this.useSpeed[i];
+    }
+
+    double getNormalizationOfSpeed(int i)
+    {
+        return this.normalizationOfSpeed[i];
+    }
+
+    long getTotalPowerConsumptionTick(int i)
+    {
+        return this.totalPowerConsumption[i];
+    }
+
+    double getTotalPowerConsumption(int i)
+    {
+        return this.toRealTime(this.totalPowerConsumption[i]);
+    }
+
+    List<CriticalSection> getEnteredCriticalSectionSet(int i)
+    {
+        return this.enteredCriticalSectionSet[i];
+    }
+
+    private int getStatusVersion(int i)
+    {
+        int e = this.entry[i];
+        if(e < 0)
+        {
+            return 0;
+        }
+        return this.entryJob[e] != null ? this.entryJob[e].getStatusVersion() : this.entryStatusVersion[e];
+    }
+
+    int getJobCompletedNum(int i)
+    {
+        int e = this.entry[i];
+        if(e < 0 || this.getStatusVersion(i) == this.jobStatusVersion[i])
+        {
+            return this.jobCompletedNum[i];
+        }
+        return this.entryJob[e] != null ? this.entryJob[e].getStatusCompletedCount() : this.entryCompletedNum[e];
+    }
+
+    int getJobMissDeadlineNum(int i)
+    {
+        int e = this.entry[i];
+        if(e < 0 || this.getStatusVersion(i) == this.jobStatusVersion[i])
+        {
+            return this.jobMissDeadlineNum[i];
+        }
+        return this.entryJob[e] != null ? this.entryJob[e].getStatusMissDeadlineCount() : this.entryMissDeadlineNum[e];
+    }
+
+    String getJobStatusString(int i)
+    {
+        Job j = this.getJob(i);
+        return j != null ? j.getStatusString() : Job.getStatusString(JOB_STATUS[this.entryJobStatus[this.entry[i]]]);
+    }
+
+    String getJobTimeOfStatus(int i)
+    {
+        Job j = this.getJob(i);
+        if(j != null)
+        {
+            return j.getTimeOfStatus();
+        }
+        SimulationContext c = this.entryTask[this.entry[i]].ParentTaskSet().getSimulationContext();
+        return "" + c.changeDecimalFormat(c.toRealTime(this.entryTimeOfStatus[this.entry[i]]));
+    }
+
+    long getJobResponseTime(int i)
+    {
+        Job j = this.getJob(i);
+        return j != null ? j.getResponseTime() : this.entryResponseTime[this.entry[i]];
+    }
+
+    long getJobPendingTime(int i)
+    {
+        Job j = this.getJob(i);
+        return j != null ? j.getPendingTime() : this.entryPendingTime[this.entry[i]];
+    }
+
+    /**
+     * Returns the simulation context used to report times: the one given at
+     * construction, or else the one of the core's processor.
+     *
+     * @return the simulation context, or {@code null} for ticks
+     */
+    public SimulationContext getSimulationContext()
+    {
+        if(this.context == null && this.core != null && this.core.getParentProcessor() != null)
+        {
+            return this.core.getParentProcessor().getSimulationContext();
+        }
+        return this.context;
+    }
+
+    private double toRealTime(long t)
+    {
+        SimulationContext c = this.getSimulationContext();
+        return c == null ? t : c.toRealTime(t);
+    }
+}
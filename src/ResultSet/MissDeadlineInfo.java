@@ -7,7 +7,7 @@ package ResultSet;
 
 import WorkLoad.Job;
 import WorkLoad.Task;
-import static RTSimulator.Definition.magnificationFactor;
+import SystemEnvironment.SimulationContext;
 
 /**
  * Encapsulates information about a missed deadline detected during the simulation.
@@ -15,8 +15,8 @@ import static RTSimulator.Definition.magnificationFactor;
  * This object stores the time of the deadline miss (in the simulator's internal
  * time units), the {@link Job} that missed its deadline, and the {@link Task}
  * that the job belongs to. The stored time is converted to wall-clock/simulated
- * units by {@link #getMissTime()} which divides the internal time by
- * {@code magnificationFactor} from {@code RTSimulator.Definition}.
+ * units by {@link #getMissTime()} using the {@link SimulationContext} of the
+ * run.
  * </p>
  *
  * @author ShiuJia
@@ -25,7 +25,9 @@ public class MissDeadlineInfo
 {
     private double missTime;
     private Job missJob;
+    private int missJobID;
     private Task missTask;
+    private SimulationContext context;
     
     
     /**
@@ -38,6 +40,7 @@ public class MissDeadlineInfo
     {
         this.missTime = 0;
         this.missJob = null;
+        this.missJobID = -1;
     }
     
     /**
@@ -49,35 +52,62 @@ public class MissDeadlineInfo
      */
     public MissDeadlineInfo(int t, Job j)
     {
+        this(t, j, null);
+    }
+    
+    /**
+     * Creates a MissDeadlineInfo for a deadline miss event of a run.
+     *
+     * @param t the miss time in the simulator's internal time units (ticks)
+     * @param j the {@link Job} that missed its deadline; it is only kept if
+     *          its task retains jobs (see {@link Task#isJobRetained()})
+     * @param c the simulation context used to convert the miss time; if {@code null}
+     *          the miss time is reported in ticks
+     */
+    public MissDeadlineInfo(int t, Job j, SimulationContext c)
+    {
+        this.context = c;
         this.missTime = t;
-        this.missJob = j;
         this.missTask = j.getParentTask();
+        this.missJob = this.missTask.isJobRetained() ? j : null;
+        this.missJobID = j.getID();
     }
     
     /**
      * Returns the recorded miss time converted from internal time units.
      * <p>
-     * The stored {@code missTime} is divided by {@code magnificationFactor}
-     * (from {@code RTSimulator.Definition}) to produce the returned value.
+     * The stored {@code missTime} is divided by the magnification factor of
+     * the run's {@link SimulationContext} to produce the returned value.
      * </p>
      *
-     * @return the miss time adjusted by {@code magnificationFactor}
+     * @return the miss time in workload units
      */
     public double getMissTime()
     {
-        return this.missTime / magnificationFactor;
+        return this.context == null ? this.missTime : this.context.toRealTime(this.missTime);
     }
     
     /**
      * Returns the {@link Job} that missed its deadline.
      *
-     * @return the job that missed the deadline, or {@code null} if none is set
+     * @return the job that missed the deadline, or {@code null} if none is
+     *         set or jobs are not retained
      */
     public Job getMissJob()
     {
         return this.missJob;
     }
     
+    /**
+     * Returns the ID of the {@link Job} that missed its deadline.
+     *
+     * @return the job ID, or -1 if none is set
+     */
+    public int getMissJobID()
+    {
+        return this.missJobID;
+    }
+    
     /**
      * Returns the {@link Task} associated with the missed {@link Job}.
      *
@@ -8,46 +8,56 @@ package ResultSet;
 import SystemEnvironment.Core;
 import WorkLoad.CriticalSection;
 import WorkLoad.Job;
+import WorkLoad.Task;
+import java.util.List;
 import java.util.Stack;
-import java.util.Vector;
 import RTSimulator.Definition.CoreStatus;
-import static RTSimulator.Definition.magnificationFactor;
+import SystemEnvironment.SimulationContext;
 
 /**
  * Represents scheduling information for a core at a specific time period.
+ *
+ * <p>A SchedulingInfo is a view of one record of a {@link CoreTimeline}; the
+ * values live in the timeline's columns and every setter writes through to
+ * them. An instance created with a public constructor owns a one-record
+ * timeline of its own.</p>
  * 
  * @author ShiuJia
  */
 public class SchedulingInfo
 {
-    private Core core;
-    private CoreStatus status;
-    private Job job;
-    private double startTime;
-    private double endTime;
-    private double useSpeed;
-    private double normalizationOfSpeed;
-    private long totalPowerConsumption;
-    private Stack<CriticalSection> enteredCriticalSectionSet;
-    
-    private int jobMissDeadlineNum;
-    private int jobCompletedNum;
+    private CoreTimeline timeline;
+    private int index;
+
     /**
-     * Constructs a new SchedulingInfo instance.
+     * Constructs a new SchedulingInfo instance whose times are reported in
+     * ticks.
      */
     public SchedulingInfo()
     {
-        this.core = null;
-        this.status = null;
-        this.job = null;
-        this.startTime = 0;
-        this.endTime = 0;
-        this.useSpeed = 0;
-        this.normalizationOfSpeed = 0;
-        this.totalPowerConsumption = 0;
-        this.enteredCriticalSectionSet = new Stack<>();
-        this.jobMissDeadlineNum = 0;
-        this.jobCompletedNum = 0;
+        this(null);
+    }
+    
+    /**
+     * Constructs a new SchedulingInfo instance whose times are converted to
+     * workload units with the given context.
+     * @param c the simulation context of the run, or {@code null}
+     */
+    public SchedulingInfo(SimulationContext c)
+    {
+        this.timeline = new CoreTimeline(null, c, 1);
+        this.index = this.timeline.add(null, null, 0, 0, 0);
+    }
+
+    /**
+     * Constructs a view of a record of a timeline.
+     * @param timeline the timeline holding the record
+     * @param index the record index
+     */
+    SchedulingInfo(CoreTimeline timeline, int index)
+    {
+        this.timeline = timeline;
+        this.index = index;
     }
     
     /*SetValue*/
@@ -57,7 +67,7 @@ public class SchedulingInfo
      */
     public void setCore(Core c)
     {
-        this.core = c;
+        this.timeline.setCore(c);
     }
     
     /**
@@ -66,7 +76,7 @@ public class SchedulingInfo
      */
     public void setCoreStatus(CoreStatus s)
     {
-        this.status = s;
+        this.timeline.setCoreStatus(this.index, s);
     }
     
     /**
@@ -75,33 +85,25 @@ public class SchedulingInfo
      */
     public void setJob(Job j)
     {
-        if(j != null)
-        {
-            this.job = j;
-            this.setEnteredCriticalSectionSet(j.getEnteredCriticalSectionSet());
-
-            this.jobMissDeadlineNum = j.getParentTask().getJobMissDeadlineCount();
-            this.jobCompletedNum = j.getParentTask().getJobCompletedCount();
-            j.addSchedulingInfo(this);
-        }
+        this.timeline.setJob(this.index, j);
     }
     
     /**
      * Sets the start time.
-     * @param t the start time
+     * @param t the start time in ticks
      */
-    public void setStartTime(double t)
+    public void setStartTime(long t)
     {
-        this.startTime = t;
+        this.timeline.setStartTime(this.index, t);
     }
     
     /**
      * Sets the end time.
-     * @param t the end time
+     * @param t the end time in ticks
      */
-    public void setEndTime(double t)
+    public void setEndTime(long t)
     {
-        this.endTime = t;
+        this.timeline.setEndTime(this.index, t);
     }
     
     /**
@@ -111,8 +113,7 @@ public class SchedulingInfo
      */
     public void setUseSpeed(double f,double n)
     {
-        this.useSpeed = f;
-        this.setNormalizationOfSpeed(n);
+        this.timeline.setUseSpeed(this.index, f, n);
     }
     
     /**
@@ -121,7 +122,7 @@ public class SchedulingInfo
      */
     public void setNormalizationOfSpeed(double n)
     {
-        this.normalizationOfSpeed = n;
+        this.timeline.setNormalizationOfSpeed(this.index, n);
     }
     
     /**
@@ -130,7 +131,7 @@ public class SchedulingInfo
      */
     public void setTotalPowerConsumption(long d)
     {
-        this.totalPowerConsumption = d;
+        this.timeline.setTotalPowerConsumption(this.index, d);
     }
     
     /**
@@ -139,10 +140,7 @@ public class SchedulingInfo
      */
     public void setEnteredCriticalSectionSet(Stack<CriticalSection> criticalSectionSet)
     {
-        if(this.status.equals(CoreStatus.EXECUTION))
-        {
-            this.enteredCriticalSectionSet.addAll(criticalSectionSet);
-        }
+        this.timeline.setEnteredCriticalSectionSet(this.index, criticalSectionSet);
     }
     
     /**
@@ -151,7 +149,7 @@ public class SchedulingInfo
      */
     public void setJobMissDeadlineNum(int num)
     {
-        this.jobMissDeadlineNum = num;
+        this.timeline.setJobMissDeadlineNum(this.index, num);
     }
     
     /**
@@ -160,7 +158,7 @@ public class SchedulingInfo
      */
     public void setJobCompletedNum(int num)
     {
-        this.jobCompletedNum = num;
+        this.timeline.setJobCompletedNum(this.index, num);
     }
     /*GetValue*/
     /**
@@ -169,7 +167,7 @@ public class SchedulingInfo
      */
     public Core getCore()
     {
-        return this.core;
+        return this.timeline.getCore();
     }
     
     /**
@@ -178,16 +176,83 @@ public class SchedulingInfo
      */
     public CoreStatus getCoreStatus()
     {
-        return this.status;
+        return this.timeline.getCoreStatus(this.index);
     }
     
     /**
-     * Gets the job.
-     * @return the job
+     * Gets the job. A job that finished in a run that does not retain jobs
+     * is no longer referenced; use {@link #getTask()}, {@link #getJobID()}
+     * and the other job getters, which work in both cases.
+     * @return the job, or {@code null}
      */
     public Job getJob()
     {
-        return this.job;
+        return this.timeline.getJob(this.index);
+    }
+    
+    /**
+     * Gets whether the record has a job.
+     * @return {@code true} if the record has a job
+     */
+    public boolean hasJob()
+    {
+        return this.timeline.hasJob(this.index);
+    }
+    
+    /**
+     * Gets the task of the job.
+     * @return the task, or {@code null} if the record has no job
+     */
+    public Task getTask()
+    {
+        return this.timeline.getTask(this.index);
+    }
+    
+    /**
+     * Gets the job ID.
+     * @return the job ID, or -1 if the record has no job
+     */
+    public int getJobID()
+    {
+        return this.timeline.getJobID(this.index);
+    }
+    
+    /**
+     * Gets the status label of the job (see {@link Job#getStatusString()}).
+     * The record must have a job.
+     * @return the job status label
+     */
+    public String getJobStatusString()
+    {
+        return this.timeline.getJobStatusString(this.index);
+    }
+    
+    /**
+     * Gets the formatted time the job entered its status (see
+     * {@link Job#getTimeOfStatus()}). The record must have a job.
+     * @return the time of status
+     */
+    public String getJobTimeOfStatus()
+    {
+        return this.timeline.getJobTimeOfStatus(this.index);
+    }
+    
+    /**
+     * Gets the response time of the job in ticks. The record must have a job.
+     * @return the response time
+     */
+    public long getJobResponseTime()
+    {
+        return this.timeline.getJobResponseTime(this.index);
+    }
+    
+    /**
+     * Gets the pending time of the job in ticks. The record must have a job.
+     * @return the pending time
+     */
+    public long getJobPendingTime()
+    {
+        return this.timeline.getJobPendingTime(this.index);
     }
     
     /**
@@ -196,7 +261,7 @@ public class SchedulingInfo
      */
     public double getStartTime()
     {
-        return this.startTime / magnificationFactor;
+        return this.timeline.getStartTime(this.index);
     }
     
     /**
@@ -205,7 +270,7 @@ public class SchedulingInfo
      */
     public double getEndTime()
     {
-        return this.endTime / magnificationFactor;
+        return this.timeline.getEndTime(this.index);
     }
     
     /**
@@ -214,7 +279,7 @@ public class SchedulingInfo
      */
     public double getUseSpeed()
     {
-        return this.useSpeed;
+        return this.timeline.getUseSpeed(this.index);
     }
     
     /**
@@ -223,7 +288,7 @@ public class SchedulingInfo
      */
     public Double getNormalizationOfSpeed()
     {
-        return this.normalizationOfSpeed;
+        return this.timeline.getNormalizationOfSpeed(this.index);
     }
     
     /**
@@ -232,7 +297,7 @@ public class SchedulingInfo
      */
     public double getTotalPowerConsumption()
     {
-        return (double)this.totalPowerConsumption / magnificationFactor;
+        return this.timeline.getTotalPowerConsumption(this.index);
     }
     
     /**
@@ -241,16 +306,17 @@ public class SchedulingInfo
      */
     public double getAveragePowerConsumption()
     {
-        return (double)this.totalPowerConsumption / (double)this.endTime;
+        return (double)this.timeline.getTotalPowerConsumptionTick(this.index) / (double)this.timeline.getEndTick(this.index);
     }
     
     /**
-     * Gets the entered critical section set.
-     * @return the entered critical section set
+     * Gets the entered critical section set, from the outermost section.
+     * The list is shared with other records and cannot be modified.
+     * @return an unmodifiable list of the entered critical sections
      */
-    public Stack<CriticalSection> getEnteredCriticalSectionSet()
+    public List<CriticalSection> getEnteredCriticalSectionSet()
     {
-        return this.enteredCriticalSectionSet;
+        return this.timeline.getEnteredCriticalSectionSet(this.index);
     }
     
     /**
@@ -259,7 +325,7 @@ public class SchedulingInfo
      */
     public int getJobMissDeadlineNum()
     {
-        return this.jobMissDeadlineNum;
+        return this.timeline.getJobMissDeadlineNum(this.index);
     }
     
     /**
@@ -268,6 +334,24 @@ public class SchedulingInfo
      */
     public int getJobCompletedNum()
     {
-        return this.jobCompletedNum;
+        return this.timeline.getJobCompletedNum(this.index);
+    }
+
+    /**
+     * Gets the timeline holding this record.
+     * @return the timeline
+     */
+    public CoreTimeline getTimeline()
+    {
+        return this.timeline;
+    }
+
+    /**
+     * Gets the index of this record in its timeline.
+     * @return the record index
+     */
+    public int getIndex()
+    {
+        return this.index;
     }
 }
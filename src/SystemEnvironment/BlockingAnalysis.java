@@ -0,0 +1,317 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package SystemEnvironment;
+
+import WorkLoad.CriticalSection;
+import WorkLoad.Priority;
+import WorkLoad.SharedResource;
+import WorkLoad.Task;
+import WorkLoadSet.TaskSet;
+
+/**
+ * Blocking and spin bounds of a partitioned task set, computed once per
+ * {@link Processor} after the tasks are partitioned and shared by the DVFS
+ * methods and the multiprocessor SRP protocols.
+ * <p>
+ * For each shared resource the analysis records the longest critical section
+ * on it from each core, and from these the time a job on a core may spin on
+ * the resource while every other core uses it once (Spin^k(r)). For each task
+ * it records the spin time of all its global critical sections, and once
+ * {@link #computeBlocking(Priority[], Priority[])} has been given the
+ * preemption levels of the protocol, its local and remote blocking bounds.
+ * Everything is kept in primitive arrays indexed by task and resource index
+ * ({@link Task#getIndex()}, {@link SharedResource#getIndex()}) and by core ID
+ * - 1, so a lookup during the run is constant time.
+ * </p>
+ * <p>
+ * Tasks without a local core (global scheduling) are treated as sharing one
+ * extra core that none of the real cores sees.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public class BlockingAnalysis
+{
+    private TaskSet taskSet;
+    private Task[] tasks;//依Task的index
+    private int coreCount;
+    private int[] coreOfTask;//Task所在Core的位置，沒有Core時為coreCount
+    private int[][] tasksOfCore;//各Core上Task的index，依TaskSet的順序
+    private boolean[] isGlobal;
+    private long[][] maxCriticalSection;//[資源index][Core位置]，該Core上最長的Critical Section
+    private long[][] spinOfResource;//[資源index][Core位置]，Spin^k(r)
+    private long[] spinOfTask;
+    private long[] localBlocking;
+    private long[] remoteBlocking;
+
+    /**
+     * Analyses the task set of a processor as it is currently partitioned.
+     *
+     * @param p the processor, with its tasks assigned to cores
+     */
+    public BlockingAnalysis(Processor p)
+    {
+        this.taskSet = p.getTaskSet();
+        this.coreCount = p.getAllCore().size();
+        int taskCount = this.taskSet.size();
+        int resourceCount = p.getSharedResourceSet().size();
+
+        this.tasks = new Task[taskCount];
+        this.coreOfTask = new int[taskCount];
+        int[] sizeOfCore = new int[this.coreCount + 1];
+        for(Task t : this.taskSet)
+        {
+            int k = t.getLocalCore() == null ? this.coreCount : t.getLocalCore().getID() - 1;
+            this.tasks[t.getIndex()] = t;
+            this.coreOfTask[t.getIndex()] = k;
+            sizeOfCore[k]++;
+        }
+
+        this.tasksOfCore = new int[this.coreCount + 1][];
+        for(int k = 0; k <= this.coreCount; k++)
+        {
+            this.tasksOfCore[k] = new int[sizeOfCore[k]];
+            sizeOfCore[k] = 0;
+        }
+        for(Task t : this.taskSet)
+        {
+            int k = this.coreOfTask[t.getIndex()];
+            this.tasksOfCore[k][sizeOfCore[k]++] = t.getIndex();
+        }
+
+        this.isGlobal = new boolean[resourceCount];
+        for(SharedResource r : p.getSharedResourceSet())
+        {
+            this.isGlobal[r.getIndex()] = this.accessedFromCores(r);
+        }
+
+        this.maxCriticalSection = new long[resourceCount][this.coreCount + 1];
+        long[] totalCriticalSection = new long[resourceCount];
+        for(Task t : this.taskSet)
+        {
+            int k = this.coreOfTask[t.getIndex()];
+            if(k == this.coreCount)
+            {
+                continue;
+            }
+            for(CriticalSection cs : t.getCriticalSectionSet())
+            {
+                int r = cs.getUseSharedResource().getIndex();
+                this.maxCriticalSection[r][k] = Math.max(this.maxCriticalSection[r][k], length(cs));
+            }
+        }
+
+        this.spinOfResource = new long[resourceCount][this.coreCount + 1];
+        for(int r = 0; r < resourceCount; r++)
+        {
+            for(int k = 0; k < this.coreCount; k++)
+            {
+                totalCriticalSection[r] += this.maxCriticalSection[r][k];
+            }
+            for(int k = 0; k <= this.coreCount; k++)
+            {
+                this.spinOfResource[r][k] = totalCriticalSection[r] - this.maxCriticalSection[r][k];
+            }
+        }
+
+        this.spinOfTask = new long[taskCount];
+        for(Task t : this.taskSet)
+        {
+            long spin = 0;
+            for(CriticalSection cs : t.getCriticalSectionSet())
+            {
+                int r = cs.getUseSharedResource().getIndex();
+                if(this.isGlobal[r])
+                {
+                    spin += this.spinOfResource[r][this.coreOfTask[t.getIndex()]];
+                }
+            }
+            this.spinOfTask[t.getIndex()] = spin;
+        }
+    }
+
+    /*Operating*/
+    //與SharedResource.setIsGlobal()相同：至少兩個Task使用，且分屬不同Core或有Task沒有Core
+    private boolean accessedFromCores(SharedResource r)
+    {
+        TaskSet access = r.getAccessTaskSet();
+        if(access.size() < 2)
+        {
+            return false;
+        }
+        for(Task t : access)
+        {
+            if(t.getLocalCore() == null || t.getLocalCore() != access.get(0).getLocalCore())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long length(CriticalSection cs)
+    {
+        return cs.getRelativeEndTime() - cs.getRelativeStartTime();
+    }
+
+    /**
+     * Computes the blocking bounds of every task under SRP preemption levels.
+     * A task is blocked by critical sections of lower preemption level tasks
+     * on its core: locally by those on local resources whose preemption level
+     * is higher than the task's, remotely by those on global resources,
+     * including the spin of the blocking task on them.
+     *
+     * @param levelOfTask preemption level of each task, by task index
+     * @param levelOfRes preemption level of each resource, by resource index
+     */
+    public void computeBlocking(Priority[] levelOfTask, Priority[] levelOfRes)
+    {
+        this.localBlocking = new long[this.coreOfTask.length];
+        this.remoteBlocking = new long[this.coreOfTask.length];
+
+        for(Task task : this.taskSet)
+        {
+            int i = task.getIndex();
+            int k = this.coreOfTask[i];
+            long local = 0;
+            long remote = 0;
+
+            for(int j : this.tasksOfCore[k])
+            {
+                if(j == i || !levelOfTask[i].isHigher(levelOfTask[j]))
+                {
+                    continue;
+                }
+
+                for(CriticalSection cs : this.tasks[j].getCriticalSectionSet())
+                {
+                    int r = cs.getUseSharedResource().getIndex();
+                    if(this.isGlobal[r])
+                    {
+                        remote = Math.max(remote, this.spinOfResource[r][k] + length(cs));//B^g_i
+                    }
+                    else if(levelOfRes[r].isHigher(levelOfTask[i]))
+                    {
+                        local = Math.max(local, length(cs));//B^l_i
+                    }
+                }
+            }
+
+            this.localBlocking[i] = local;
+            this.remoteBlocking[i] = remote;
+        }
+    }
+
+    /*GetValue*/
+    /**
+     * Returns whether a resource is used by tasks on more than one core.
+     *
+     * @param r the resource
+     * @return true if the resource is global
+     */
+    public boolean isGlobal(SharedResource r)
+    {
+        return this.isGlobal[r.getIndex()];
+    }
+
+    /**
+     * Returns the longest critical section on a resource of the tasks of a
+     * core.
+     *
+     * @param r the resource
+     * @param c the core
+     * @return the length, 0 if no task of the core uses the resource
+     */
+    public long getMaxCriticalSection(SharedResource r, Core c)
+    {
+        return this.maxCriticalSection[r.getIndex()][c.getID() - 1];
+    }
+
+    /**
+     * Returns Spin^k(r): the time a job on a core may spin on a global
+     * resource, one longest critical section from every other core.
+     *
+     * @param c the core of the spinning job
+     * @param r the resource
+     * @return the spin bound
+     */
+    public long getSpin(Core c, SharedResource r)
+    {
+        return this.spinOfResource[r.getIndex()][c == null ? this.coreCount : c.getID() - 1];
+    }
+
+    /**
+     * Returns the spin bound of a task: Spin^k(r) of each of its critical
+     * sections on a global resource, summed.
+     *
+     * @param t the task
+     * @return the spin bound of one job of the task
+     */
+    public long getSpin(Task t)
+    {
+        return this.spinOfTask[t.getIndex()];
+    }
+
+    /**
+     * Returns the local blocking bound B^l of a task. Only valid after
+     * {@link #computeBlocking(Priority[], Priority[])}.
+     *
+     * @param t the task
+     * @return the longest local critical section that may block the task
+     */
+    public long getLocalBlocking(Task t)
+    {
+        return this.localBlocking[t.getIndex()];
+    }
+
+    /**
+     * Returns the remote blocking bound B^g of a task, the spin of the
+     * blocking job included. Only valid after
+     * {@link #computeBlocking(Priority[], Priority[])}.
+     *
+     * @param t the task
+     * @return the longest global critical section, with spin, that may block the task
+     */
+    public long getRemoteBlocking(Task t)
+    {
+        return this.remoteBlocking[t.getIndex()];
+    }
+
+    /**
+     * Returns the blocking bound of a task, the larger of its local and
+     * remote bounds. Only valid after
+     * {@link #computeBlocking(Priority[], Priority[])}.
+     *
+     * @param t the task
+     * @return the blocking bound
+     */
+    public long getBlocking(Task t)
+    {
+        return Math.max(this.localBlocking[t.getIndex()], this.remoteBlocking[t.getIndex()]);
+    }
+
+    /**
+     * Returns a task by its index.
+     *
+     * @param i the task index, as given by {@link #getTaskIndicesOfCore(Core)}
+     * @return the task
+     */
+    public Task getTask(int i)
+    {
+        return this.tasks[i];
+    }
+
+    /**
+     * Returns the indices of the tasks on a core, in task set order.
+     *
+     * @param c the core, or null for the tasks without a core
+     * @return the task indices; the array must not be modified
+     */
+    public int[] getTaskIndicesOfCore(Core c)
+    {
+        return this.tasksOfCore[c == null ? this.coreCount : c.getID() - 1];
+    }
+}
@@ -37,6 +37,14 @@ public class ConcurrencyController
      */
     private Processor parentProcessor;
     
+    /**
+     * Flag set when a job is refused its first execution or blocked on a lock
+     * during the current step. Such jobs retry every time unit, so the
+     * event-driven advance of {@link Processor} only steps one unit while it
+     * is set.
+     */
+    public boolean isBlockingOccurred;
+    
     /**
      * Constructs a new ConcurrencyController instance.
      */
@@ -44,6 +52,7 @@ public class ConcurrencyController
     {
         this.protocol = null;
         this.parentProcessor = null;
+        this.isBlockingOccurred = false;
     }
     
     /**
@@ -94,7 +103,11 @@ public class ConcurrencyController
     {
         if(j.getProgressAmount() == 0)
         {
-            return this.protocol.checkJobFirstExecuteAction(j);
+            if(!this.protocol.checkJobFirstExecuteAction(j))
+            {
+                this.isBlockingOccurred = true;
+                return false;
+            }
         }
         return true;
     }
@@ -108,9 +121,9 @@ public class ConcurrencyController
     {
         //println("Controll:JobLock");
         
-        while(j.getNotEnteredCriticalSectionSet().peek() != null && (j.getNotEnteredCriticalSectionSet().peek().getRelativeStartTime() <= Math.floor(j.getProgressAmount())))
+        while(j.getNextLockBoundary() <= j.getWholeProgressAmount())
         {
-            CriticalSection cs = j.getNotEnteredCriticalSectionSet().peek();
+            CriticalSection cs = j.peekNotEnteredCriticalSection();
 
             SharedResource blockingRes = this.protocol.checkJobLockAction(j, cs.getUseSharedResource());
 
@@ -143,9 +156,9 @@ public class ConcurrencyController
     public void checkJobUnlock(Job j)
     {
         //println("Controll:JobUnlock");
-        while(!j.getEnteredCriticalSectionSet().empty() && (j.getEnteredCriticalSectionSet().peek().getRelativeEndTime() <= Math.floor(j.getProgressAmount())))
+        while(j.getNextUnlockBoundary() <= j.getWholeProgressAmount())
         {
-            CriticalSection cs = j.getEnteredCriticalSectionSet().peek();
+            CriticalSection cs = j.peekEnteredCriticalSection();
             j.getCurrentCore().isChangeLock=true;
             //DVSAction
             this.parentProcessor.getDynamicVoltageRegulator().checkJobUnlock(j, cs.getUseSharedResource());
@@ -160,9 +173,9 @@ public class ConcurrencyController
     public void jobCompletedAction(Job j)
     {
         //println("Controll:JobComplete");
-        while(j.getEnteredCriticalSectionSet().size() != 0)
+        while(j.getEnteredCriticalSectionCount() != 0)
         {
-            CriticalSection cs = j.getEnteredCriticalSectionSet().peek();
+            CriticalSection cs = j.peekEnteredCriticalSection();
             this.protocol.jobUnlockAction(j, cs.getUseSharedResource());
         }
         
@@ -176,9 +189,9 @@ public class ConcurrencyController
     public void checkJobDeadline(Job j)
     {
         //println("Controll:JobDeadline");
-        while(j.getEnteredCriticalSectionSet().size() != 0)
+        while(j.getEnteredCriticalSectionCount() != 0)
         {
-            CriticalSection cs = j.getEnteredCriticalSectionSet().peek();
+            CriticalSection cs = j.peekEnteredCriticalSection();
             this.protocol.jobUnlockAction(j, cs.getUseSharedResource());
         }
         
@@ -194,6 +207,7 @@ public class ConcurrencyController
     public boolean checkBlockedAction(Job blockedJob, SharedResource blockingRes)
     {
         blockedJob.setBlockingResource(blockingRes);
+        this.isBlockingOccurred = true;
         
         //CCAction
         this.protocol.jobBlockedAction(blockedJob, blockingRes);
@@ -1,7 +1,9 @@
 package SystemEnvironment;
 
+import ResultSet.CoreTimeline;
 import ResultSet.SchedulingInfo;
 import WorkLoad.Cost;
+import WorkLoad.CriticalSection;
 import WorkLoad.Job;
 import WorkLoad.Task;
 import WorkLoadSet.CoreSet;
@@ -14,7 +16,7 @@ import RTSimulator.Definition.CoreStatus;
 import RTSimulator.Definition.JobStatus;
 import RTSimulator.Definition.PriorityType;
 import RTSimulator.Definition.SchedulingType;
-import static RTSimulator.Definition.magnificationFactor;
+import RTSimulator.Definition.TraceLevel;
 import static RTSimulator.RTSimulator.*;
 import RTSimulator.RTSimulatorMath;
 import schedulingAlgorithm.PriorityDrivenSchedulingAlgorithm;
@@ -53,9 +55,8 @@ public class Core
     private CoreStatus status;
     private Job workingJob;
     private double currentSpeed;
-    private SchedulingInfo previousSchedulingInfo;
     private long currentTime;
-    private Vector<SchedulingInfo> schedulingInfoSet;
+    private CoreTimeline timeline;
 
     /**
      * Indicates whether this core allows preemption so that a newly arrived
@@ -79,6 +80,10 @@ public class Core
     private int contactSwitchCount = 0;
     private int migrationCount = 0;
 
+    private double speedRatioSpeed = -1;
+    private double speedRatioMaxSpeed = -1;
+    private long speedRatio = 0;
+
     /**
      * Constructs a new core with empty task/ready queues, an initialized local
      * scheduler, IDLE status, zeroed time and power counters, and preemption
@@ -97,9 +102,8 @@ public class Core
         this.status = CoreStatus.IDLE;
         this.workingJob = null;
         this.isPreemption = true;
-        this.schedulingInfoSet = new Vector<SchedulingInfo>();
+        this.timeline = new CoreTimeline(this, null);
         this.currentSpeed = 0;
-        this.previousSchedulingInfo = null;
         this.currentTime = 0;
         this.powerConsumption = 0;
 
@@ -130,7 +134,7 @@ public class Core
 
         for(Task t : this.taskSet)
         {
-            println("~Core ID:"+this.ID+", Task ID:"+t.getID()+", Priority:"+t.getPriority().getValue());
+            println(() -> "~Core ID:"+this.ID+", Task ID:"+t.getID()+", Priority:"+t.getPriority().getValue());
         }
     }
 
@@ -249,7 +253,7 @@ public class Core
                 }
                 else if(this.workingJob == this.localReadyQueue.peek())
                 {       //Same job continues; only decide if a context switch is needed.
-                    if(!this.schedulingInfoSet.isEmpty() && this.schedulingInfoSet.lastElement().getJob() != this.localReadyQueue.peek()
+                    if(!this.timeline.isEmpty() && this.timeline.getLastJob() != this.localReadyQueue.peek()
                        && this.localReadyQueue.peek().getStatus() == JobStatus.COMPUTING)//Resume COMPUTING job implies context switch.
                     {
                         this.setContextSwitchCost(this, workingJob);
@@ -355,7 +359,6 @@ public class Core
                         {
                             this.chooseExecuteJob();
                             isReady = false;
-                            println("NO!!!!!NO!!!!!");
                         }
 
                     }
@@ -412,19 +415,19 @@ public class Core
             {
                 this.record();
                 this.currentTime += processedTime;
-                this.powerConsumption += this.parentCoreSet.getPowerConsumption() * processedTime;
+                this.addPowerConsumption(processedTime);
             }
             else if(this.status == CoreStatus.WAIT)//Record the time the core spends waiting.
             {
                 this.record();
                 this.currentTime += processedTime;
-                this.powerConsumption += this.getParentCoreSet().getPowerConsumption() * processedTime;
+                this.addPowerConsumption(processedTime);
             }
             else if(this.status == CoreStatus.CONTEXTSWITCH)
             {
                 this.record();
                 this.currentTime += processedTime;
-                this.powerConsumption += this.getParentCoreSet().getPowerConsumption() * processedTime;
+                this.addPowerConsumption(processedTime);
                 if(this.costQueue.peek().getStatus() == CoreStatus.CONTEXTSWITCH)
                 {
                     this.costQueue.peek().execution(processedTime);
@@ -434,7 +437,7 @@ public class Core
             {
                 this.record();
                 this.currentTime += processedTime;
-                this.powerConsumption += this.getParentCoreSet().getPowerConsumption() * processedTime;
+                this.addPowerConsumption(processedTime);
 
                 if(this.costQueue.peek().getStatus() == CoreStatus.MIGRATION)
                 {
@@ -445,13 +448,36 @@ public class Core
 
     }
 
+    /**
+     * Returns whether running this core for {@code processedTime} would make
+     * its working job reach the end of a critical section, i.e. whether
+     * {@link #run(long)} would act through the concurrency controller. Must be
+     * called after {@link #readyRun()} and before {@link #run(long)}.
+     *
+     * @param processedTime the time slice about to be processed
+     * @return {@code true} if the working job unlocks a resource during the slice
+     */
+    public boolean isUnlockingWithin(long processedTime)
+    {
+        if(this.status != CoreStatus.EXECUTION || this.workingJob.getEnteredCriticalSectionCount() == 0)
+        {
+            return false;
+        }
+
+        long progress = Math.min(this.workingJob.getTargetWorkUnits(),
+                this.workingJob.getProgressWorkUnits() + processedTime * this.getSpeedRatio(this.workingJob));
+        return this.workingJob.getNextUnlockBoundary() <= RTSimulatorMath.toWholeAmount(progress);
+    }
+
     private void runJob(long processedTime)
     {
-        if(((this.workingJob.getTargetAmount() - this.workingJob.getProgressAmount()) * this.workingJob.getMaxProcessingSpeed() ) >= processedTime * this.parentCoreSet.getCurrentSpeed())
+        long workUnits = processedTime * this.getSpeedRatio(this.workingJob);
+
+        if(this.workingJob.getTargetWorkUnits() - this.workingJob.getProgressWorkUnits() >= workUnits)
         {
-            this.workingJob.execute(RTSimulatorMath.mul(processedTime , RTSimulatorMath.div(this.getParentCoreSet().getCurrentSpeed() , this.workingJob.getMaxProcessingSpeed())),this.currentTime);
+            this.workingJob.execute(workUnits, this.currentTime);
 
-            this.powerConsumption += this.getParentCoreSet().getPowerConsumption() * processedTime;
+            this.addPowerConsumption(processedTime);
             //CortrollerAction
             this.parentProcessor.getController().checkJobUnlock(workingJob);
             this.currentTime += processedTime;
@@ -459,7 +485,7 @@ public class Core
         else
         {
             this.workingJob.finalExecute();
-            this.powerConsumption += this.getParentCoreSet().getPowerConsumption() * processedTime;
+            this.addPowerConsumption(processedTime);
 
             //CortrollerAction
             this.parentProcessor.getController().checkJobUnlock(workingJob);
@@ -468,6 +494,147 @@ public class Core
         this.workingJob.setStatus(JobStatus.COMPUTING, this.currentTime);
     }
 
+    private void addPowerConsumption(long processedTime)
+    {
+        double power = this.parentCoreSet.getPowerConsumption();
+        double whole = Math.floor(power);
+
+        if(power == whole)
+        {
+            this.powerConsumption += (long)power * processedTime;
+        }
+        else if(power > 0 && this.isFractionTruncated(power - whole, this.powerConsumption + ((long)whole + 1) * processedTime))
+        {
+            this.powerConsumption += (long)whole * processedTime;
+        }
+        else
+        {
+            for(long i = 0; i < processedTime; i++)//Keep the per-unit truncation of the long accumulator.
+            {
+                this.powerConsumption += power;
+            }
+        }
+    }
+
+    //每單位時間的long += double都會截掉小數部分，只要加總時的捨入不會進位到下一個整數
+    private boolean isFractionTruncated(double fraction, long bound)
+    {
+        return bound < (1L << 53) && fraction + Math.ulp((double)bound) / 2 < 1;
+    }
+
+    /**
+     * Returns how many time units this core can run from now before its state
+     * can change: the working job completing, entering or leaving a critical
+     * section, or the pending runtime cost expiring. Must be called after
+     * {@link #readyRun()} and before {@link #run(long)}.
+     *
+     * <p>Returns 1 whenever the outcome of a longer step cannot be proven
+     * identical to single time units, e.g. a WAIT core, a job about to start,
+     * or an amount too large to convert to {@code double} exactly.</p>
+     *
+     * @param limit the largest interval of interest
+     * @return the interval in time units, between 1 and {@code limit}
+     */
+    public long getNextEventInterval(long limit)
+    {
+        long interval = limit;
+
+        if(this.status == CoreStatus.EXECUTION)
+        {
+            interval = this.getJobEventInterval(limit);
+        }
+        else if(this.status == CoreStatus.CONTEXTSWITCH || this.status == CoreStatus.MIGRATION)
+        {
+            if(this.costQueue.peek() != null && this.costQueue.peek().getStatus() == this.status && this.costQueue.peek().getCostTime() > 0)
+            {
+                interval = Math.min(limit, this.costQueue.peek().getCostTime());
+            }
+            else
+            {
+                interval = 1;
+            }
+        }
+        else if(this.status == CoreStatus.WAIT)
+        {
+            interval = 1;
+        }
+
+        if(this.parentProcessor.getSchedulingAlgorithm().getSchedulingType() != SchedulingType.Global
+           && this.localScheduler.getSchedAlgorithm() != null)
+        {
+            long changeTime = this.localScheduler.getSchedAlgorithm().getNextPriorityChangeTime(this.currentTime);
+            interval = Math.min(interval, changeTime - this.currentTime);
+        }
+
+        return Math.max(1, interval);
+    }
+
+    private long getJobEventInterval(long limit)
+    {
+        Job j = this.workingJob;
+        long progress = j.getProgressWorkUnits();
+        long target = j.getTargetWorkUnits();
+        long ratio = this.getSpeedRatio(j);
+
+        if(progress == 0 || ratio < 0)
+        {
+            return 1;
+        }
+
+        if(ratio == 0)//No progress is made, so nothing changes until the speed does.
+        {
+            return limit;
+        }
+
+        long interval = getTimeToReach(progress, ratio, target, limit);
+
+        if(j.getNextUnlockBoundary() != Long.MAX_VALUE)
+        {
+            interval = Math.min(interval, getTimeToReach(progress, ratio, RTSimulatorMath.wholeToWorkUnits(j.getNextUnlockBoundary()), limit));
+        }
+
+        if(j.getNextLockBoundary() != Long.MAX_VALUE)
+        {
+            interval = Math.min(interval, getTimeToReach(progress, ratio, RTSimulatorMath.wholeToWorkUnits(j.getNextLockBoundary()), limit));
+        }
+
+        return interval;
+    }
+
+    /**
+     * Smallest number of time units i in [1, limit] such that
+     * progress + i * ratio &gt;= amount, or limit if there is none.
+     */
+    private static long getTimeToReach(long progress, long ratio, long amount, long limit)
+    {
+        if(progress + ratio >= amount)
+        {
+            return 1;
+        }
+
+        return Math.min(limit, (amount - progress + ratio - 1) / ratio);
+    }
+
+    /**
+     * Returns the work the given job makes per time unit at the current speed
+     * of the core set, in work units. The ratio is only recomputed when the
+     * core set speed or the job's maximum speed changes.
+     */
+    private long getSpeedRatio(Job j)
+    {
+        double speed = this.parentCoreSet.getCurrentSpeed();
+        double maxSpeed = j.getMaxProcessingSpeed();
+
+        if(speed != this.speedRatioSpeed || maxSpeed != this.speedRatioMaxSpeed)
+        {
+            this.speedRatio = RTSimulatorMath.divToWorkUnits(speed, maxSpeed);
+            this.speedRatioSpeed = speed;
+            this.speedRatioMaxSpeed = maxSpeed;
+        }
+
+        return this.speedRatio;
+    }
+
     /**
      * Checks whether the current working job has completed its target amount.
      * If completed (and not already marked), sets status to COMPLETED, triggers
@@ -478,19 +645,19 @@ public class Core
     {
         if(this.workingJob != null)
         {
-            if(this.workingJob.getProgressAmount() >= this.workingJob.getTargetAmount()
+            if(this.workingJob.getProgressWorkUnits() >= this.workingJob.getTargetWorkUnits()
             && this.workingJob.getStatus() != JobStatus.COMPLETED && this.workingJob.getStatus() != JobStatus.MISSDEADLINE)//Avoid double-processing.
             {
-                println("@~0workingJob ="+this.workingJob.getStatus());
+                println(() -> "@~0workingJob ="+this.workingJob.getStatus());
                 this.workingJob.setStatus(JobStatus.COMPLETED, this.currentTime);//Mark job as completed.
-                println("@~1workingJob ="+this.workingJob.getStatus());
+                println(() -> "@~1workingJob ="+this.workingJob.getStatus());
                 //CortrollerAction
                 this.parentProcessor.getController().jobCompletedAction(workingJob);
                 //DVSAction
                 this.parentProcessor.getDynamicVoltageRegulator().checkJobComplete(workingJob);
-                println("0 "+ this.localReadyQueue.contains(this.workingJob));
+                println(() -> "0 "+ this.localReadyQueue.contains(this.workingJob));
                 this.localReadyQueue.remove(this.workingJob);
-                println("1 "+ this.localReadyQueue.contains(this.workingJob));
+                println(() -> "1 "+ this.localReadyQueue.contains(this.workingJob));
                 if(this.workingJob.getCurrentCore().getLocalReadyQueue().contains(this.workingJob))//Ensure removal during migration.
                 {
                     this.workingJob.getCurrentCore().getLocalReadyQueue().remove(this.workingJob);
@@ -536,16 +703,29 @@ public class Core
 
     /**
      * Finalizes scheduling records by writing the accumulated total power
-     * consumption into the last {@link SchedulingInfo}.
+     * consumption into the last record of the timeline.
      */
     public void finalRecording()
     {
-        this.previousSchedulingInfo.setTotalPowerConsumption(powerConsumption);
+        this.timeline.setTotalPowerConsumption(this.timeline.size() - 1, powerConsumption);
     }
 
+    private void traceUsedResources()
+    {
+        if(isTracing(TraceLevel.DEBUG) && this.workingJob.getEnteredCriticalSectionCount() != 0)
+        {
+            print("    Use Resource:");
+            for(CriticalSection cs : this.workingJob.getEnteredCriticalSectionSet())
+            {
+                print(cs.getUseSharedResource().getID() + ". ");
+            }
+            println();
+        }
+    }
+    
     /**
-     * Records a scheduling point if needed and creates a new
-     * {@link SchedulingInfo} when:
+     * Records a scheduling point if needed and appends a new record to the
+     * timeline when:
      * <ul>
      *   <li>status changes (E/I/W/C/M),</li>
      *   <li>the job associated with the state changes,</li>
@@ -569,22 +749,13 @@ public class Core
             {
                 if(this.isChangeLock)
                 {
-                    println("Core(" + this.ID + ") : " + (double)this.currentTime/magnificationFactor + ": E : Job(" + this.workingJob.getParentTask().getID() + "," + this.workingJob.getID() + ") : " + this.getParentCoreSet().getCurrentSpeed());
+                    println(() -> "Core(" + this.ID + ") : " + this.parentProcessor.getSimulationContext().toRealTime(this.currentTime) + ": E : Job(" + this.workingJob.getParentTask().getID() + "," + this.workingJob.getID() + ") : " + this.getParentCoreSet().getCurrentSpeed());
 
-                    if(!this.workingJob.getEnteredCriticalSectionSet().empty())
-                    {
-                        print("    Use Resource:");
-                        for(int i = 0; i < this.workingJob.getEnteredCriticalSectionSet().size(); i++)
-                        {
-                            print(this.workingJob.getEnteredCriticalSectionSet().get(i).getUseSharedResource().getID() + ". ");
-                        }
-                        println();
-                    }
+                    this.traceUsedResources();
 
-                    if(this.previousSchedulingInfo != null)
+                    if(!this.timeline.isEmpty())
                     {
-                        this.previousSchedulingInfo.setEndTime(currentTime);
-                        this.previousSchedulingInfo.setTotalPowerConsumption(powerConsumption);
+                        this.timeline.closeLast(currentTime, powerConsumption);
                     }
 
                     this.newRecording();
@@ -593,38 +764,21 @@ public class Core
                 }
                 else
                 {
-                    if(this.previousSchedulingInfo == null)//First record for the core.
+                    if(this.timeline.isEmpty())//First record for the core.
                     {
-                        println("Core(" + this.ID + ") : " + (double)this.currentTime/magnificationFactor + ": E : Job(" + this.workingJob.getParentTask().getID() + "," + this.workingJob.getID() + ") : " + this.getParentCoreSet().getCurrentSpeed());
+                        println(() -> "Core(" + this.ID + ") : " + this.parentProcessor.getSimulationContext().toRealTime(this.currentTime) + ": E : Job(" + this.workingJob.getParentTask().getID() + "," + this.workingJob.getID() + ") : " + this.getParentCoreSet().getCurrentSpeed());
 
-                        if(!this.workingJob.getEnteredCriticalSectionSet().empty())
-                        {
-                            print("    Use Resource:");
-                            for(int i = 0; i < this.workingJob.getEnteredCriticalSectionSet().size(); i++)
-                            {
-                                print(this.workingJob.getEnteredCriticalSectionSet().get(i).getUseSharedResource().getID() + ". ");
-                            }
-                            println();
-                        }
+                        this.traceUsedResources();
 
                         this.newRecording();
                     }
-                    else if(this.previousSchedulingInfo != null && ((this.previousSchedulingInfo.getCoreStatus() != CoreStatus.EXECUTION || (this.previousSchedulingInfo.getCoreStatus() == CoreStatus.EXECUTION && this.previousSchedulingInfo.getJob() != this.workingJob)) || this.isChangeSpeed))
+                    else if(((this.timeline.getLastCoreStatus() != CoreStatus.EXECUTION || (this.timeline.getLastCoreStatus() == CoreStatus.EXECUTION && this.timeline.getLastJob() != this.workingJob)) || this.isChangeSpeed))
                     {
-                        println("Core(" + this.ID + ") : " + (double)this.currentTime/magnificationFactor + ": E : Job(" + this.workingJob.getParentTask().getID() + "," + this.workingJob.getID() + ") : " + this.getParentCoreSet().getCurrentSpeed());
+                        println(() -> "Core(" + this.ID + ") : " + this.parentProcessor.getSimulationContext().toRealTime(this.currentTime) + ": E : Job(" + this.workingJob.getParentTask().getID() + "," + this.workingJob.getID() + ") : " + this.getParentCoreSet().getCurrentSpeed());
 
-                        if(!this.workingJob.getEnteredCriticalSectionSet().empty())
-                        {
-                            print("    Use Resource:");
-                            for(int i = 0; i < this.workingJob.getEnteredCriticalSectionSet().size(); i++)
-                            {
-                                print(this.workingJob.getEnteredCriticalSectionSet().get(i).getUseSharedResource().getID() + ". ");
-                            }
-                            println();
-                        }
+                        this.traceUsedResources();
 
-                        this.previousSchedulingInfo.setEndTime(currentTime);
-                        this.previousSchedulingInfo.setTotalPowerConsumption(powerConsumption);
+                        this.timeline.closeLast(currentTime, powerConsumption);
 
                         this.newRecording();
                     }
@@ -632,70 +786,66 @@ public class Core
             }
             else if(this.status == CoreStatus.IDLE)
             {
-                if(this.previousSchedulingInfo == null)//First record for the core.
+                if(this.timeline.isEmpty())//First record for the core.
                 {
-                    println("Core(" + this.ID + ") : " + (double)this.currentTime/magnificationFactor + " : I : " + this.getParentCoreSet().getCurrentSpeed());
+                    println(() -> "Core(" + this.ID + ") : " + this.parentProcessor.getSimulationContext().toRealTime(this.currentTime) + " : I : " + this.getParentCoreSet().getCurrentSpeed());
 
                     this.newRecording();
                 }
-                else if(this.previousSchedulingInfo != null && (this.previousSchedulingInfo.getCoreStatus() != CoreStatus.IDLE || this.isChangeSpeed))
+                else if((this.timeline.getLastCoreStatus() != CoreStatus.IDLE || this.isChangeSpeed))
                 {
-                    println("Core(" + this.ID + ") : " + (double)this.currentTime/magnificationFactor + " : I : " + this.getParentCoreSet().getCurrentSpeed());
+                    println(() -> "Core(" + this.ID + ") : " + this.parentProcessor.getSimulationContext().toRealTime(this.currentTime) + " : I : " + this.getParentCoreSet().getCurrentSpeed());
 
-                    this.previousSchedulingInfo.setEndTime(currentTime);
-                    this.previousSchedulingInfo.setTotalPowerConsumption(powerConsumption);
+                    this.timeline.closeLast(currentTime, powerConsumption);
 
                     this.newRecording();
                 }
             }
             else if(this.status == CoreStatus.WAIT)
             {
-                if(this.previousSchedulingInfo == null)//First record for the core.
+                if(this.timeline.isEmpty())//First record for the core.
                 {
-                    println("Core(" + this.ID + ") : " + (double)this.currentTime/magnificationFactor + " : W : " + this.getParentCoreSet().getCurrentSpeed() );
+                    println(() -> "Core(" + this.ID + ") : " + this.parentProcessor.getSimulationContext().toRealTime(this.currentTime) + " : W : " + this.getParentCoreSet().getCurrentSpeed() );
 
                     this.newRecording();
                 }
-                else if(this.previousSchedulingInfo != null && ((this.previousSchedulingInfo.getCoreStatus() != CoreStatus.WAIT || (this.previousSchedulingInfo.getCoreStatus() == CoreStatus.WAIT && this.previousSchedulingInfo.getJob() != this.workingJob))|| this.isChangeSpeed))
+                else if(((this.timeline.getLastCoreStatus() != CoreStatus.WAIT || (this.timeline.getLastCoreStatus() == CoreStatus.WAIT && this.timeline.getLastJob() != this.workingJob))|| this.isChangeSpeed))
                 {
-                    println("Core(" + this.ID + ") : " + (double)this.currentTime/magnificationFactor + " : W : Job(" + this.workingJob.getParentTask().getID() + "," + this.workingJob.getID() + ") :" + this.getParentCoreSet().getCurrentSpeed());
+                    println(() -> "Core(" + this.ID + ") : " + this.parentProcessor.getSimulationContext().toRealTime(this.currentTime) + " : W : Job(" + this.workingJob.getParentTask().getID() + "," + this.workingJob.getID() + ") :" + this.getParentCoreSet().getCurrentSpeed());
 
-                    this.previousSchedulingInfo.setEndTime(currentTime);
-                    this.previousSchedulingInfo.setTotalPowerConsumption(powerConsumption);
+                    this.timeline.closeLast(currentTime, powerConsumption);
                     this.newRecording();
                 }
             }
             else if(this.status == CoreStatus.CONTEXTSWITCH)
             {
-                if(this.previousSchedulingInfo == null)//First record for the core.
+                if(this.timeline.isEmpty())//First record for the core.
                 {
-                    println("Core(" + this.ID + ") : " + (double)this.currentTime/magnificationFactor + " : C : " + this.getParentCoreSet().getCurrentSpeed() );
+                    println(() -> "Core(" + this.ID + ") : " + this.parentProcessor.getSimulationContext().toRealTime(this.currentTime) + " : C : " + this.getParentCoreSet().getCurrentSpeed() );
 
                     this.newRecording();
                 }
-                else if(this.previousSchedulingInfo != null && ((this.previousSchedulingInfo.getCoreStatus() != CoreStatus.CONTEXTSWITCH || (this.previousSchedulingInfo.getCoreStatus() == CoreStatus.CONTEXTSWITCH && this.previousSchedulingInfo.getJob() != this.costQueue.peek().getRequestJob())) || this.isChangeSpeed))
+                else if(((this.timeline.getLastCoreStatus() != CoreStatus.CONTEXTSWITCH || (this.timeline.getLastCoreStatus() == CoreStatus.CONTEXTSWITCH && this.timeline.getLastJob() != this.costQueue.peek().getRequestJob())) || this.isChangeSpeed))
                 {
-                    println("Core(" + this.ID + ") : " + (double)this.currentTime/magnificationFactor + " : C : Job(" + this.costQueue.peek().getRequestJob().getParentTask().getID() + "," + this.costQueue.peek().getRequestJob().getID() + ") :" + this.getParentCoreSet().getCurrentSpeed());
+                    println(() -> "Core(" + this.ID + ") : " + this.parentProcessor.getSimulationContext().toRealTime(this.currentTime) + " : C : Job(" + this.costQueue.peek().getRequestJob().getParentTask().getID() + "," + this.costQueue.peek().getRequestJob().getID() + ") :" + this.getParentCoreSet().getCurrentSpeed());
 
-                    this.previousSchedulingInfo.setEndTime(currentTime);
-                    this.previousSchedulingInfo.setTotalPowerConsumption(powerConsumption);
+                    this.timeline.closeLast(currentTime, powerConsumption);
                     this.newRecording();
                 }
             }
             else if(this.status == CoreStatus.MIGRATION)
             {
-                if(this.previousSchedulingInfo == null)//First record for the core.
+                if(this.timeline.isEmpty())//First record for the core.
                 {
-                    println("Core(" + this.ID + ") : " + (double)this.currentTime/magnificationFactor + " : M : " + this.getParentCoreSet().getCurrentSpeed() );
+                    println(() -> "Core(" + this.ID + ") : " + this.parentProcessor.getSimulationContext().toRealTime(this.currentTime) + " : M : " + this.getParentCoreSet().getCurrentSpeed() );
 
                     this.newRecording();
                 }
-                else if(this.previousSchedulingInfo != null && ((this.previousSchedulingInfo.getCoreStatus() != CoreStatus.MIGRATION || (this.previousSchedulingInfo.getCoreStatus() == CoreStatus.MIGRATION && this.previousSchedulingInfo.getJob() != this.costQueue.peek().getRequestJob()))|| this.isChangeSpeed))
+                else if(((this.timeline.getLastCoreStatus() != CoreStatus.MIGRATION || (this.timeline.getLastCoreStatus() == CoreStatus.MIGRATION && this.timeline.getLastJob() != this.costQueue.peek().getRequestJob()))|| this.isChangeSpeed))
                 {
-                    println("Core(" + this.ID + ") : " + (double)this.currentTime/magnificationFactor + " : M : Job(" + this.costQueue.peek().getRequestJob().getParentTask().getID() + "," + this.costQueue.peek().getRequestJob().getID() + ") :" + this.getParentCoreSet().getCurrentSpeed());
+                    println(() -> "Core(" + this.ID + ") : " + this.parentProcessor.getSimulationContext().toRealTime(this.currentTime) + " : M : Job(" + this.costQueue.peek().getRequestJob().getParentTask().getID() + "," + this.costQueue.peek().getRequestJob().getID() + ") :" + this.getParentCoreSet().getCurrentSpeed());
 
-                    this.previousSchedulingInfo.setEndTime(currentTime);
-                    this.previousSchedulingInfo.setTotalPowerConsumption(powerConsumption);
+                    this.timeline.closeLast(currentTime, powerConsumption);
                     this.newRecording();
                 }
             }
@@ -704,22 +854,17 @@ public class Core
 
     private void newRecording()
     {
-        SchedulingInfo newInfo = new SchedulingInfo();
-        newInfo.setCore(this);
-        newInfo.setCoreStatus(this.status);
+        Job job;
         if(this.status == CoreStatus.CONTEXTSWITCH || this.status == CoreStatus.MIGRATION)
         {
-            newInfo.setJob(this.costQueue.peek().getRequestJob());
+            job = this.costQueue.peek().getRequestJob();
         }
         else
         {
-            newInfo.setJob(this.workingJob);
+            job = this.workingJob;
         }
-        newInfo.setStartTime(this.currentTime);
-        newInfo.setUseSpeed(this.getParentCoreSet().getCurrentSpeed(),this.getParentCoreSet().getNormalizationOfSpeed());
+        this.timeline.add(this.status, job, this.currentTime, this.getParentCoreSet().getCurrentSpeed(), this.getParentCoreSet().getNormalizationOfSpeed());
 
-        this.schedulingInfoSet.add(newInfo);
-        this.previousSchedulingInfo = newInfo;
         this.isChangeSpeed = false;
     }
 
@@ -736,9 +881,9 @@ public class Core
     {
         if(j != null && this.workingJob != null && this.workingJob.getStatus() == JobStatus.COMPUTING)//Preemption case.
         {
-            println("C"+this.ID+" ,j"+j.getParentTask().getID()+",CurrentProiority() = "+j.getCurrentProiority().getValue());
+            println(() -> "C"+this.ID+" ,j"+j.getParentTask().getID()+",CurrentProiority() = "+j.getCurrentProiority().getValue());
             println("Preemption");
-            println("C"+this.ID+" ,j"+this.workingJob.getParentTask().getID()+",CurrentProiority() = "+this.workingJob.getCurrentProiority().getValue());
+            println(() -> "C"+this.ID+" ,j"+this.workingJob.getParentTask().getID()+",CurrentProiority() = "+this.workingJob.getCurrentProiority().getValue());
             this.parentProcessor.getController().jobPreemptedAction(workingJob, j);
         }
 
@@ -910,12 +1055,14 @@ public class Core
     /**
      * Accounts for blocking time of the current job in the local ready queue
      * when the core is in EXECUTION or WAIT state.
+     *
+     * @param processedTime the blocked time to account
      */
-    public void setbeBlockedTimeOfJobByLocalQueue()
+    public void setbeBlockedTimeOfJobByLocalQueue(long processedTime)
     {
-        if(this.status == CoreStatus.EXECUTION || this.status == CoreStatus.WAIT)
+        if(processedTime > 0 && (this.status == CoreStatus.EXECUTION || this.status == CoreStatus.WAIT))
         {
-            this.localReadyQueue.setBlockingTime(this.workingJob);
+            this.localReadyQueue.setBlockingTime(this.workingJob, processedTime);
         }
     }
 
@@ -1013,13 +1160,25 @@ public class Core
     }
 
     /**
-     * Returns the list of scheduling records produced by this core.
+     * Returns the scheduling records produced by this core.
+     *
+     * @return the core timeline
+     */
+    public CoreTimeline getTimeline()
+    {
+        return this.timeline;
+    }
+
+    /**
+     * Returns views of the scheduling records produced by this core. The
+     * vector is built on each call; use {@link #getTimeline()} to walk the
+     * records without creating views.
      *
      * @return a vector of {@link SchedulingInfo}
      */
     public Vector<SchedulingInfo> getSchedulingInfoSet()
     {
-        return this.schedulingInfoSet;
+        return this.timeline.toSchedulingInfoSet();
     }
 
     /**
@@ -19,8 +19,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ForkJoinPool;
 
+import RTSimulator.Definition.ArrivalType;
 import RTSimulator.Definition.DVFSType;
-import static RTSimulator.Definition.magnificationFactor;
 import static RTSimulator.RTSimulator.println;
 import RTSimulator.RTSimulatorMath;
 import org.dom4j.Attribute;
@@ -52,15 +52,29 @@ import org.dom4j.io.SAXReader;
 public class DataReader
 {
     private DataSetting dataSetting;
+    private SimulationContext context;
     private Element root;
     
     /**
      * Creates a new reader with an empty {@link DataSetting} container that will
-     * be populated after calling {@link #loadSource(String)}.
+     * be populated after calling {@link #loadSource(String)}, using a default
+     * {@link SimulationContext}.
      */
     public DataReader()
     {
-        this.dataSetting = new DataSetting();
+        this(new SimulationContext());
+    }
+    
+    /**
+     * Creates a new reader whose time values are scaled by the given context;
+     * pass the same context to the {@link Simulator} of the run.
+     *
+     * @param c the simulation context of the run
+     */
+    public DataReader(SimulationContext c)
+    {
+        this.context = c;
+        this.dataSetting = new DataSetting(c);
     }
     
     /**
@@ -99,7 +113,7 @@ public class DataReader
             }
             default:
             {
-                println("You loaded source is not supported(It's not Workload or Processor):" + this.root.getName().toString());
+                println(() -> "You loaded source is not supported(It's not Workload or Processor):" + this.root.getName().toString());
             }
         }
     }
@@ -143,6 +157,7 @@ public class DataReader
         }
         
         this.dataSetting.getTaskSet().setNestSetForTask();
+        this.dataSetting.getTaskSet().compileCriticalSectionPlans();
     }
     
     private void createSharedResource(Element re)
@@ -203,7 +218,7 @@ public class DataReader
                 String periodText = levelNum.elementText("period");
                 if (periodText != null) {
                     try {
-                        periodList.add((long)(Double.parseDouble(periodText) * magnificationFactor));
+                        periodList.add(this.context.toSimulationTime(Double.parseDouble(periodText)));
                     } catch (NumberFormatException e) {
                         System.err.println("Error: Invalid period value in criticalLevel! [" + periodText + "]");
                     }
@@ -214,7 +229,7 @@ public class DataReader
                 String deadlineText = levelNum.elementText("relativeDeadline");
                 if (deadlineText != null) {
                     try {
-                        relativeDeadLineList.add((long)(Double.parseDouble(deadlineText) * magnificationFactor));
+                        relativeDeadLineList.add(this.context.toSimulationTime(Double.parseDouble(deadlineText)));
                     } catch (NumberFormatException e) {
                         System.err.println("Error: Invalid relativeDeadline value in criticalLevel! [" + deadlineText + "]");
                     }
@@ -225,7 +240,7 @@ public class DataReader
                 String computationText = levelNum.elementText("computationAmount");
                 if (computationText != null) {
                     try {
-                        computationAmountList.add((long)(Double.parseDouble(computationText) * magnificationFactor));
+                        computationAmountList.add(this.context.toSimulationTime(Double.parseDouble(computationText)));
                     } catch (NumberFormatException e) {
                         System.err.println("Error: Invalid computationAmount value in criticalLevel! [" + computationText + "]");
                     }
@@ -236,7 +251,7 @@ public class DataReader
                 String levelValue = levelNum.attributeValue("value");
                 if (levelValue != null) {
                     try {
-                        criticalityLevelList.add((long)(Double.parseDouble(levelValue) * magnificationFactor));
+                        criticalityLevelList.add(this.context.toSimulationTime(Double.parseDouble(levelValue)));
                     } catch (NumberFormatException e) {
                         System.err.println("Error: Invalid criticalityLevel value in criticalLevel! [" + levelValue + "]");
                     }
@@ -260,73 +275,87 @@ public class DataReader
             
             String arrivalTimeStr = selectedPriorityElement.elementText("arrivalTime");
             if (arrivalTimeStr != null) {
-                task.setEnterTime((long)(Double.parseDouble(arrivalTimeStr) * magnificationFactor));
+                task.setEnterTime(this.context.toSimulationTime(Double.parseDouble(arrivalTimeStr)));
             } else {
                 task.setEnterTime(0L); 
             }
 
             String periodStr = selectedPriorityElement.elementText("period");
             if (periodStr != null) {
-                task.setPeriod((long)(Double.parseDouble(periodStr) * magnificationFactor));
+                task.setPeriod(this.context.toSimulationTime(Double.parseDouble(periodStr)));
             } else {
                 task.setPeriod(0L); 
             }
 
             String deadlineStr = selectedPriorityElement.elementText("relativeDeadline");
             if (deadlineStr != null) {
-                task.setRelativeDeadline((long)(Double.parseDouble(deadlineStr) * magnificationFactor));
+                task.setRelativeDeadline(this.context.toSimulationTime(Double.parseDouble(deadlineStr)));
             } else {
                 task.setRelativeDeadline(0L);  
             }
 
             String computationStr = selectedPriorityElement.elementText("computationAmount");
             if (computationStr != null) {
-                task.setComputationAmount((long)(Double.parseDouble(computationStr) * magnificationFactor));
+                task.setComputationAmount(this.context.toSimulationTime(Double.parseDouble(computationStr)));
             } else {
                 task.setComputationAmount(0L); 
             }
         } else if(selectedCriticalityLevelElement!=null){
             String arrivalTimeStr = selectedCriticalityLevelElement.elementText("arrivalTime");
             if (arrivalTimeStr != null) {
-                task.setEnterTime((long)(Double.parseDouble(arrivalTimeStr) * magnificationFactor));
+                task.setEnterTime(this.context.toSimulationTime(Double.parseDouble(arrivalTimeStr)));
             } else {
                 task.setEnterTime(0L); 
             }
             String periodStr = selectedCriticalityLevelElement.elementText("period");
             if (periodStr != null) {
-                task.setPeriod((long)(Double.parseDouble(periodStr) * magnificationFactor));
+                task.setPeriod(this.context.toSimulationTime(Double.parseDouble(periodStr)));
             } else {
                 task.setPeriod(0L); 
             }
 
             String deadlineStr = selectedCriticalityLevelElement.elementText("relativeDeadline");
             if (deadlineStr != null) {
-                task.setRelativeDeadline((long)(Double.parseDouble(deadlineStr) * magnificationFactor));
+                task.setRelativeDeadline(this.context.toSimulationTime(Double.parseDouble(deadlineStr)));
             } else {
                 task.setRelativeDeadline(0L);  
             }
 
             String computationStr = selectedCriticalityLevelElement.elementText("computationAmount");
             if (computationStr != null) {
-                task.setComputationAmount((long)(Double.parseDouble(computationStr) * magnificationFactor));
+                task.setComputationAmount(this.context.toSimulationTime(Double.parseDouble(computationStr)));
             } else {
                 task.setComputationAmount(0L); 
             }
             
             String criticalityLevelStr = selectedCriticalityLevelElement.attributeValue("value");
-            System.out.println("Test: "+criticalityLevelStr);
+            println(() -> "Test: "+criticalityLevelStr);
             if (criticalityLevelStr != null) {
-            	task.setCriticalityLevel((long)(Double.parseDouble(criticalityLevelStr) * magnificationFactor));
+            	task.setCriticalityLevel(this.context.toSimulationTime(Double.parseDouble(criticalityLevelStr)));
             } else {
                 task.setCriticalityLevel(0L); 
             }
             
         } else { //如果沒有就正常賦予數值
             RTSimulatorMath math = new RTSimulatorMath();
-            task.setEnterTime((long)(Double.parseDouble(te.elementText("arrivalTime"))*magnificationFactor));
-            task.setPeriod((long)(Double.parseDouble(te.elementText("period"))*magnificationFactor));
-            task.setRelativeDeadline((long)(Double.parseDouble(te.elementText("relativeDeadline"))*magnificationFactor));
-            task.setComputationAmount((long)(Double.parseDouble(te.elementText("computationAmount"))*magnificationFactor));
+            task.setEnterTime(this.context.toSimulationTime(Double.parseDouble(te.elementText("arrivalTime"))));
+            task.setPeriod(this.context.toSimulationTime(Double.parseDouble(te.elementText("period"))));
+            task.setRelativeDeadline(this.context.toSimulationTime(Double.parseDouble(te.elementText("relativeDeadline"))));
+            task.setComputationAmount(this.context.toSimulationTime(Double.parseDouble(te.elementText("computationAmount"))));
+        }
+        
+        // 處理 arrival model（可省略，預設為無jitter之Periodic）
+        if(te.elementText("arrivalType") != null)
+        {
+            task.setArrivalType(ArrivalType.valueOf(te.elementText("arrivalType").trim()));
+        }
+        if(te.elementText("releaseJitter") != null)
+        {
+            task.setReleaseJitter(this.context.toSimulationTime(Double.parseDouble(te.elementText("releaseJitter"))));
+        }
+        if(te.elementText("maxInterArrivalTime") != null)
+        {
+            task.setMaxInterArrivalTime(this.context.toSimulationTime(Double.parseDouble(te.elementText("maxInterArrivalTime"))));
         }
         
         // 處理 criticalSections
@@ -337,10 +366,11 @@ public class DataReader
             {
                 Element cse = (Element)cssIt.next();
                 CriticalSection cs = new CriticalSection();
-                cs.setUseSharedResource(this.dataSetting.getSharedResource(Integer.valueOf(cse.attribute("resourceID").getText()) - 1));
-                this.dataSetting.getSharedResource(Integer.valueOf(cse.attribute("resourceID").getText()) - 1).addAccessTask(task);
-                cs.setRelativeStartTime((long)(Double.parseDouble(cse.attribute("startTime").getText())*magnificationFactor));
-                cs.setRelativeEndTime((long)(Double.parseDouble(cse.attribute("endTime").getText())*magnificationFactor));
+                SharedResource r = this.dataSetting.getSymbolTable().getSharedResourceByID(Integer.valueOf(cse.attribute("resourceID").getText()));
+                cs.setUseSharedResource(r);
+                r.addAccessTask(task);
+                cs.setRelativeStartTime(this.context.toSimulationTime(Double.parseDouble(cse.attribute("startTime").getText())));
+                cs.setRelativeEndTime(this.context.toSimulationTime(Double.parseDouble(cse.attribute("endTime").getText())));
                 task.addCriticalSection(cs);
             }
         }  
@@ -457,7 +487,7 @@ public class DataReader
                 this.dataSetting.getProcessor().addCoreSet(coreSet);
             }
         }
-        println("!!!!!CoreSet::" + this.dataSetting.getProcessor().getCoresSets().size());
+        println(() -> "!!!!!CoreSet::" + this.dataSetting.getProcessor().getCoresSets().size());
     }
     
     private void setPowerConsumptionFunction(Element e ,CoreSet coreSet)
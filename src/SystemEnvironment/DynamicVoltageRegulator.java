@@ -182,6 +182,18 @@ public class DynamicVoltageRegulator
         this.method.checkEndSystemTimeAction(systemTime);
     }
     
+    /**
+     * Returns the next system time at which the DVFS method changes state on
+     * its own, used to bound event-driven time advance.
+     *
+     * @param systemTime the current system time
+     * @return the next time-triggered DVFS change, or {@link Long#MAX_VALUE}
+     */
+    public long getNextEventTime(long systemTime)
+    {
+        return this.method.getNextEventTime(systemTime);
+    }
+    
     /**
      * Notifies that a job has missed its deadline, enabling the DVFS method to
      * react for logging or remedial speed policies.
@@ -15,8 +15,8 @@ import java.io.FileReader;
 import java.util.ArrayList;
 import java.util.List;
 
+import RTSimulator.Definition.ArrivalType;
 import RTSimulator.Definition.DVFSType;
-import static RTSimulator.Definition.magnificationFactor;
 import static RTSimulator.RTSimulator.println;
 
 import com.google.gson.Gson;
@@ -39,13 +39,26 @@ import com.google.gson.JsonParser;
  */
 public class JSONDataReader {
     private DataSetting dataSetting;
+    private SimulationContext context;
     private JsonObject root;
     
     /**
-     * Creates a new JSON reader with an empty {@link DataSetting} container.
+     * Creates a new JSON reader with an empty {@link DataSetting} container
+     * and a default {@link SimulationContext}.
      */
     public JSONDataReader() {
-        this.dataSetting = new DataSetting();
+        this(new SimulationContext());
+    }
+    
+    /**
+     * Creates a new JSON reader whose time values are scaled by the given
+     * context; pass the same context to the {@link Simulator} of the run.
+     *
+     * @param c the simulation context of the run
+     */
+    public JSONDataReader(SimulationContext c) {
+        this.context = c;
+        this.dataSetting = new DataSetting(c);
     }
     
     /**
@@ -114,6 +127,7 @@ public class JSONDataReader {
         }
         
         this.dataSetting.getTaskSet().setNestSetForTask();
+        this.dataSetting.getTaskSet().compileCriticalSectionPlans();
     }
     
     private void createSharedResource(JsonObject resObj) {
@@ -160,16 +174,16 @@ public class JSONDataReader {
                 JsonObject levelObj = levelElement.getAsJsonObject();
                 
                 if (levelObj.has("period")) {
-                    periodList.add((long)(levelObj.get("period").getAsDouble() * magnificationFactor));
+                    periodList.add(this.context.toSimulationTime(levelObj.get("period").getAsDouble()));
                 }
                 if (levelObj.has("relativeDeadline")) {
-                    relativeDeadLineList.add((long)(levelObj.get("relativeDeadline").getAsDouble() * magnificationFactor));
+                    relativeDeadLineList.add(this.context.toSimulationTime(levelObj.get("relativeDeadline").getAsDouble()));
                 }
                 if (levelObj.has("computationAmount")) {
-                    computationAmountList.add((long)(levelObj.get("computationAmount").getAsDouble() * magnificationFactor));
+                    computationAmountList.add(this.context.toSimulationTime(levelObj.get("computationAmount").getAsDouble()));
                 }
                 if (levelObj.has("value")) {
-                    criticalityLevelList.add((long)(levelObj.get("value").getAsDouble() * magnificationFactor));
+                    criticalityLevelList.add(this.context.toSimulationTime(levelObj.get("value").getAsDouble()));
                 }
                 
                 if (criticalityLevelValue != null && 
@@ -191,24 +205,35 @@ public class JSONDataReader {
         } else if (selectedCriticalityObj != null) {
             setTaskParameters(task, selectedCriticalityObj);
             if (selectedCriticalityObj.has("value")) {
-                task.setCriticalityLevel((long)(selectedCriticalityObj.get("value").getAsDouble() * magnificationFactor));
+                task.setCriticalityLevel(this.context.toSimulationTime(selectedCriticalityObj.get("value").getAsDouble()));
             }
         } else {
             // Default parameters
             if (taskObj.has("arrivalTime")) {
-                task.setEnterTime((long)(taskObj.get("arrivalTime").getAsDouble() * magnificationFactor));
+                task.setEnterTime(this.context.toSimulationTime(taskObj.get("arrivalTime").getAsDouble()));
             }
             if (taskObj.has("period")) {
-                task.setPeriod((long)(taskObj.get("period").getAsDouble() * magnificationFactor));
+                task.setPeriod(this.context.toSimulationTime(taskObj.get("period").getAsDouble()));
             }
             if (taskObj.has("relativeDeadline")) {
-                task.setRelativeDeadline((long)(taskObj.get("relativeDeadline").getAsDouble() * magnificationFactor));
+                task.setRelativeDeadline(this.context.toSimulationTime(taskObj.get("relativeDeadline").getAsDouble()));
             }
             if (taskObj.has("computationAmount")) {
-                task.setComputationAmount((long)(taskObj.get("computationAmount").getAsDouble() * magnificationFactor));
+                task.setComputationAmount(this.context.toSimulationTime(taskObj.get("computationAmount").getAsDouble()));
             }
         }
         
+        // Handle arrival model (optional, periodic without jitter by default)
+        if (taskObj.has("arrivalType")) {
+            task.setArrivalType(ArrivalType.valueOf(taskObj.get("arrivalType").getAsString().trim()));
+        }
+        if (taskObj.has("releaseJitter")) {
+            task.setReleaseJitter(this.context.toSimulationTime(taskObj.get("releaseJitter").getAsDouble()));
+        }
+        if (taskObj.has("maxInterArrivalTime")) {
+            task.setMaxInterArrivalTime(this.context.toSimulationTime(taskObj.get("maxInterArrivalTime").getAsDouble()));
+        }
+        
         // Handle critical sections
         if (taskObj.has("criticalSections")) {
             JsonArray criticalSections = taskObj.getAsJsonArray("criticalSections");
@@ -217,10 +242,11 @@ public class JSONDataReader {
                 CriticalSection cs = new CriticalSection();
                 
                 int resourceID = csObj.get("resourceID").getAsInt();
-                cs.setUseSharedResource(this.dataSetting.getSharedResource(resourceID - 1));
-                this.dataSetting.getSharedResource(resourceID - 1).addAccessTask(task);
-                cs.setRelativeStartTime((long)(csObj.get("startTime").getAsDouble() * magnificationFactor));
-                cs.setRelativeEndTime((long)(csObj.get("endTime").getAsDouble() * magnificationFactor));
+                SharedResource r = this.dataSetting.getSymbolTable().getSharedResourceByID(resourceID);
+                cs.setUseSharedResource(r);
+                r.addAccessTask(task);
+                cs.setRelativeStartTime(this.context.toSimulationTime(csObj.get("startTime").getAsDouble()));
+                cs.setRelativeEndTime(this.context.toSimulationTime(csObj.get("endTime").getAsDouble()));
                 task.addCriticalSection(cs);
             }
         }
@@ -232,25 +258,25 @@ public class JSONDataReader {
     
     private void setTaskParameters(Task task, JsonObject paramObj) {
         if (paramObj.has("arrivalTime")) {
-            task.setEnterTime((long)(paramObj.get("arrivalTime").getAsDouble() * magnificationFactor));
+            task.setEnterTime(this.context.toSimulationTime(paramObj.get("arrivalTime").getAsDouble()));
         } else {
             task.setEnterTime(0L);
         }
         
         if (paramObj.has("period")) {
-            task.setPeriod((long)(paramObj.get("period").getAsDouble() * magnificationFactor));
+            task.setPeriod(this.context.toSimulationTime(paramObj.get("period").getAsDouble()));
         } else {
             task.setPeriod(0L);
         }
         
         if (paramObj.has("relativeDeadline")) {
-            task.setRelativeDeadline((long)(paramObj.get("relativeDeadline").getAsDouble() * magnificationFactor));
+            task.setRelativeDeadline(this.context.toSimulationTime(paramObj.get("relativeDeadline").getAsDouble()));
         } else {
             task.setRelativeDeadline(0L);
         }
         
         if (paramObj.has("computationAmount")) {
-            task.setComputationAmount((long)(paramObj.get("computationAmount").getAsDouble() * magnificationFactor));
+            task.setComputationAmount(this.context.toSimulationTime(paramObj.get("computationAmount").getAsDouble()));
         } else {
             task.setComputationAmount(0L);
         }
@@ -12,15 +12,26 @@ import WorkLoad.Job;
 import WorkLoad.SharedResource;
 import WorkLoad.Task;
 import WorkLoadSet.CoreSet;
+import WorkLoadSet.DeadlineIndex;
 import WorkLoadSet.JobQueue;
 import WorkLoadSet.SharedResourceSet;
 import WorkLoadSet.TaskSet;
 import concurrencyControlProtocol.ConcurrencyControlProtocol;
 import dynamicVoltageAndFrequencyScalingMethod.DynamicVoltageAndFrequencyScalingMethod;
+import java.util.IdentityHashMap;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import RTSimulator.Definition.CoreStatus;
 import RTSimulator.Definition.JobStatus;
 import RTSimulator.Definition.PriorityType;
 import RTSimulator.Definition.SchedulingType;
+import RTSimulator.Definition.TraceLevel;
+import RTSimulator.RTSimulator;
+import RTSimulator.TraceSink;
+import static RTSimulator.RTSimulator.isTracing;
 import static RTSimulator.RTSimulator.println;
 import schedulingAlgorithm.HybridSchedulingAlgorithm;
 import schedulingAlgorithm.PartitionedSchedulingAlgorithm;
@@ -71,9 +82,13 @@ public class Processor
     private DynamicVoltageRegulator regulator;
     private PartitionDistributor distributor;
     private JobQueue globalReadyQueue;
+    private DeadlineIndex deadlineIndex;//依AbsoluteDeadline排序之已釋放Job
     private TaskSet taskSet;
+    private ReleaseCalendar releaseCalendar;//各Task下一次釋放Job的時間
     private SharedResourceSet sharedResourceSet;
+    private BlockingAnalysis blockingAnalysis;//分割後才建立
     private long systemTime;
+    private ForkJoinPool corePool;//不為null時，獨立的Core可平行執行
     
     /**
      * Constructs a processor with empty core/core-set collections, initialized
@@ -94,6 +109,7 @@ public class Processor
         this.distributor = new PartitionDistributor();
         this.distributor.setParentProcessor(this);
         this.globalReadyQueue = new JobQueue();
+        this.deadlineIndex = new DeadlineIndex();
         this.systemTime = 0;
     }
     
@@ -110,7 +126,8 @@ public class Processor
     }
     
     /**
-     * Adds a core set (group) to this processor and assigns it a 1-based group ID.
+     * Adds a core set (group) to this processor, assigns it a 1-based group ID
+     * and precomputes the power of its speed levels.
      *
      * @param coreSet the core set to add
      */
@@ -118,6 +135,7 @@ public class Processor
     {
         this.coreSets.add(coreSet);
         coreSet.setGroupID(this.coreSets.size());
+        coreSet.setPowerTable();
     }
     
     /**
@@ -128,6 +146,7 @@ public class Processor
     public void loadTaskSet(TaskSet ts)
     {
         this.taskSet = ts;
+        this.releaseCalendar = null;
     }
     
     /**
@@ -152,13 +171,14 @@ public class Processor
         
         if(schedulingAlgorithm.getSchedulingType() == SchedulingType.Partition || schedulingAlgorithm.getSchedulingType() == SchedulingType.SingleCore)
         {
-            println("PartitionTasks = " + this.distributor.getSPartitionAlgorithm().getName());
+            println(() -> "PartitionTasks = " + this.distributor.getSPartitionAlgorithm().getName());
             
             this.distributor.split();
+            this.blockingAnalysis = null;
             
             for(Task t : this.taskSet)
             {
-                println("Task(" + t.getID() + ") to Core(" + t.getLocalCore().getID() + ")");
+                println(() -> "Task(" + t.getID() + ") to Core(" + t.getLocalCore().getID() + ")");
             }
         }
     }
@@ -184,6 +204,12 @@ public class Processor
      */
     public void globalExecute(long t)
     {
+        this.globalExecute(t, false);
+    }
+    
+    private long globalExecute(long t, boolean isToNextEvent)
+    {
+        this.controller.isBlockingOccurred = false;
         this.checkArrivalSystemJob();
         this.schedulerCalculatePriorityForDynamic();//使用到globalScheduler才有用到
         
@@ -235,6 +261,11 @@ public class Processor
             coreSet.setCurrentSpeed();
         }
         
+        if(isToNextEvent)
+        {
+            t = this.getNextEventInterval(t);
+        }
+        
         //執行前＾＾＾＾
         for(Core gc : this.allCore)
         {
@@ -265,6 +296,7 @@ public class Processor
 
 //        this.regulator.checkEndSystemTimeAction(this.systemTime);
         
+        return t;
     }
     
     /**
@@ -281,6 +313,38 @@ public class Processor
      */
     public void execute(long t)
     {
+        this.execute(t, false);
+    }
+    
+    /**
+     * Runs one event-driven step: performs the same sequence as
+     * {@link #execute(long)} (or {@link #globalExecute(long)} under Global
+     * scheduling) but, once jobs are ready and speeds are set, runs the cores
+     * up to the next instant at which the schedule can change instead of a
+     * single time unit.
+     *
+     * <p>That instant is the earliest of the next task release, absolute
+     * deadline of a queued job, working-job completion or critical-section
+     * boundary, runtime-cost expiry, time-triggered DVFS change and
+     * time-dependent priority change. A single time unit is taken whenever a
+     * job was blocked during the step, so per-tick protocol hooks fire exactly
+     * as in tick mode.</p>
+     *
+     * @param maxTime the largest slice to run (remaining simulation time)
+     * @return the time slice actually run
+     */
+    public long executeToNextEvent(long maxTime)
+    {
+        if(this.schedulingAlgorithm.getSchedulingType() == SchedulingType.Global)
+        {
+            return this.globalExecute(maxTime, true);
+        }
+        return this.execute(maxTime, true);
+    }
+    
+    private long execute(long t, boolean isToNextEvent)
+    {
+        this.controller.isBlockingOccurred = false;
         this.checkArrivalSystemJob();
         
         for(Core c : this.allCore)
@@ -312,17 +376,36 @@ public class Processor
             coreSet.setCurrentSpeed();
         }
         
-        //執行前＾＾＾＾
-        for(Core c : this.allCore)
+        if(isToNextEvent)
         {
-            c.run(t);
+            t = this.getNextEventInterval(t);
         }
-        this.systemTime += t;
-        //執行後VVVV
         
-        for(Core c : this.allCore)
+        if(this.isParallelStep(t))
         {
-            c.setbeBlockedTimeOfJobByLocalQueue();
+            this.runCoresInParallel(t);
+            this.systemTime += t;
+        }
+        else
+        {
+            //Blocking of all but the last unit, which sees the lock changes made by run.
+            for(Core c : this.allCore)
+            {
+                c.setbeBlockedTimeOfJobByLocalQueue(t - 1);
+            }
+
+            //執行前＾＾＾＾
+            for(Core c : this.allCore)
+            {
+                c.run(t);
+            }
+            this.systemTime += t;
+            //執行後VVVV
+
+            for(Core c : this.allCore)
+            {
+                c.setbeBlockedTimeOfJobByLocalQueue(1);
+            }
         }
         
         for(Core c : this.allCore)
@@ -339,125 +422,243 @@ public class Processor
         
         this.regulator.checkEndSystemTimeAction(this.systemTime);
         
+        return t;
     }
     
-    private void checkArrivalSystemJob()
+    /**
+     * Returns whether the cores can run the coming slice in parallel with the
+     * same outcome as in order: the processor must have a core pool and use
+     * partitioned scheduling, no working job may unlock a resource (the only
+     * way {@link Core#run(long)} reaches shared state), no job may be working
+     * on two cores, and per-event tracing must be off so the trace keeps its
+     * order.
+     */
+    private boolean isParallelStep(long t)
     {
-        for(Task t : this.taskSet)
+        if(this.corePool == null || this.allCore.size() < 2
+                || this.schedulingAlgorithm.getSchedulingType() != SchedulingType.Partition
+                || isTracing(TraceLevel.DEBUG))
+        {
+            return false;
+        }
+        
+        IdentityHashMap<Job, Core> workingJobs = new IdentityHashMap<>();
+        for(Core c : this.allCore)
         {
-            if(this.systemTime >= t.getEnterTime())
+            if(c.isUnlockingWithin(t))
             {
-                //需注意到達時間及週期算法
-                if(((this.systemTime - t.getEnterTime()) % t.getPeriod()) == 0 )
-                {
-                    Job j = t.produceJob(this.systemTime);
-                    j.setLocalProcessor(this);
-
-                    switch(schedulingAlgorithm.getSchedulingType())
-                    {
-                        case SingleCore:
-                            t.getLocalCore().JobToCore(j);
-                        break;
-
-                        case Partition:
-                            t.getLocalCore().JobToCore(j);
-                        break;
-
-                        case Global:
-                            this.globalReadyQueue.add(j);
-                            this.schedulerCalculatePriorityForDynamic();
-                        break;
-
-                        case Hybrid://尚未驗證2017/10/27
-                            //待加入
-                        break;
-
-                        default:      
-                    }
-                    
-//                    //防止SRP到達繼承問題
-//                    this.schedulerCalculatePriorityForDynamic();//使用到globalScheduler才有用到
-
-                    //ControllerAction
-                    this.controller.checkJobArrives(j);
-                    
-                    //DVSAction
-                    this.regulator.checkJobArrivesProcessor(j, this);
-                }
+                return false;
+            }
+            if(c.getStatus() == CoreStatus.EXECUTION && workingJobs.put(c.getWorkingJob(), c) != null)
+            {
+                return false;
             }
         }
+        return true;
     }
     
-    private void checkMissDeadlineJob()//
+    /**
+     * Runs every core for {@code t} on the core pool, one task per core, and
+     * waits for all of them (the per-step barrier). Each task accounts the
+     * blocking of its local queue around its run, as the serial path does.
+     */
+    private void runCoresInParallel(long t)
     {
-        Job tempJob;
-        JobQueue tempQueue = new JobQueue();
-        /*Processor GlobalQueue*/
+        TraceSink sink = RTSimulator.getTraceSink();
+        TraceLevel level = RTSimulator.getTraceLevel();
+        Vector<Callable<Void>> steps = new Vector<>(this.allCore.size());
         
+        for(Core c : this.allCore)
+        {
+            steps.add(() ->
+            {
+                RTSimulator.setTrace(sink, level);
+                c.setbeBlockedTimeOfJobByLocalQueue(t - 1);
+                c.run(t);
+                c.setbeBlockedTimeOfJobByLocalQueue(1);
+                return null;
+            });
+        }
         
-        while((tempJob = this.globalReadyQueue.poll()) != null)
+        for(Future<Void> f : this.corePool.invokeAll(steps))
         {
-            if(tempJob.getAbsoluteDeadline() <= this.systemTime)
+            try
             {
-                tempJob.setStatus(JobStatus.MISSDEADLINE, this.systemTime);//JOB的狀態改為MissDeadline
-                
-                //CortrollerAction
-                this.controller.checkJobDeadline(tempJob);
-                
-                //DVSAction
-                this.regulator.checkJobMissDeadline(tempJob);
-                
-                println("XXXXXXXXXXXXXXXX " + this.systemTime + " : MissDeadline : (" + tempJob.getParentTask().getID() + "," + tempJob.getID() + ")= " + tempJob.getReleaseTime());
-                
-                MissDeadlineInfo md = new MissDeadlineInfo((int)this.systemTime, tempJob);
-                if(tempJob.getCurrentCore() != null && tempJob.getCurrentCore().getLocalReadyQueue().contains(tempJob))//確保在migration期間也能確實remove已MissDeadline的Job
+                f.get();
+            }
+            catch(ExecutionException ex)
+            {
+                if(ex.getCause() instanceof RuntimeException)
                 {
-                    tempJob.getCurrentCore().getLocalReadyQueue().remove(tempJob);
+                    throw (RuntimeException)ex.getCause();
                 }
-                this.parentSimlator.addMissDeadlineInfo(md);
+                throw new IllegalStateException(ex.getCause());
             }
-            else
+            catch(InterruptedException ex)
             {
-                tempQueue.add(tempJob);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
             }
         }
-        this.globalReadyQueue = tempQueue;
+    }
+    
+    private long getNextEventInterval(long limit)
+    {
+        if(this.controller.isBlockingOccurred)
+        {
+            return 1;
+        }
+        
+        long interval = limit;
+        
+        interval = Math.min(interval, this.releaseCalendar.getNextReleaseTime() - this.systemTime);
+        
+        if(this.deadlineIndex.hasQueuedOverdueJob())
+        {
+            return 1;
+        }
+        interval = Math.min(interval, this.deadlineIndex.getNextDeadline() - this.systemTime);
         
-        /*Core LocalQueue*/
         for(Core c : this.allCore)
         {
-            tempQueue = new JobQueue();
-            while((tempJob = c.getLocalReadyQueue().poll()) != null)
+            interval = Math.min(interval, c.getNextEventInterval(limit));
+        }
+        
+        interval = Math.min(interval, this.regulator.getNextEventTime(this.systemTime) - this.systemTime);
+        
+        if(this.schedulingAlgorithm.getSchedulingType() == SchedulingType.Global)
+        {
+            interval = Math.min(interval, this.globalScheduler.getSchedAlgorithm().getNextPriorityChangeTime(this.systemTime) - this.systemTime);
+        }
+        
+        return Math.max(1, interval);
+    }
+    
+    private void checkArrivalSystemJob()
+    {
+        if(this.releaseCalendar == null)
+        {
+            this.releaseCalendar = new ReleaseCalendar(this.taskSet, this.getSimulationContext().getRandom());
+        }
+        
+        Task t;
+        while((t = this.releaseCalendar.pollReleasedTask(this.systemTime)) != null)//只處理此時間點需釋放Job的Task
+        {
+            Job j = t.produceJob(this.releaseCalendar.getReleasedArrivalTime(), this.systemTime);
+            j.setLocalProcessor(this);
+            this.deadlineIndex.add(j);
+
+            switch(schedulingAlgorithm.getSchedulingType())
             {
-                if(tempJob.getAbsoluteDeadline() <= this.systemTime)
-                {
-                    tempJob.setStatus(JobStatus.MISSDEADLINE, this.systemTime);//JOB的狀態改為MissDeadline
-                
-                    //CortrollerAction
-                    this.controller.checkJobDeadline(tempJob);
+                case SingleCore:
+                    t.getLocalCore().getLocalScheduler().calculatePriority(j);
+                    t.getLocalCore().JobToCore(j);
+                break;
 
-                    //DVSAction
-                    this.regulator.checkJobMissDeadline(tempJob);
+                case Partition:
+                    t.getLocalCore().getLocalScheduler().calculatePriority(j);
+                    t.getLocalCore().JobToCore(j);
+                break;
 
-                    println("XXXXXXXXXXXXXXXX " + this.systemTime + " : MissDeadline : (" + tempJob.getParentTask().getID() + "," + tempJob.getID() + ")= " + tempJob.getReleaseTime());
-                
-                    MissDeadlineInfo md = new MissDeadlineInfo((int)this.systemTime, tempJob);
-                    
-                    if(tempJob.getCurrentCore().getLocalReadyQueue().contains(tempJob))//確保在migration期間也能確實remove已MissDeadline的Job
+                case Global:
+                    this.globalScheduler.calculatePriority(j);
+                    this.globalReadyQueue.add(j);
+                    this.schedulerCalculatePriorityForDynamic();
+                break;
+
+                case Hybrid://尚未驗證2017/10/27
+                    //待加入
+                break;
+
+                default:      
+            }
+            
+//            //防止SRP到達繼承問題
+//            this.schedulerCalculatePriorityForDynamic();//使用到globalScheduler才有用到
+
+            //ControllerAction
+            this.controller.checkJobArrives(j);
+            
+            //DVSAction
+            this.regulator.checkJobArrivesProcessor(j, this);
+        }
+    }
+    
+    private void checkMissDeadlineJob()//只處理AbsoluteDeadline已到且仍在ReadyQueue中之Job，不重建ReadyQueue
+    {
+        Vector<Job> overdueJobs = this.deadlineIndex.getOverdueJobs(this.systemTime);
+        if(overdueJobs.isEmpty())
+        {
+            return;
+        }
+        
+        /*依所在的ReadyQueue分組：GlobalQueue在前，其次依Core順序*/
+        JobQueue[] queues = new JobQueue[this.allCore.size() + 1];
+        queues[0] = this.globalReadyQueue;
+        for(int i = 0 ; i < this.allCore.size() ; i++)
+        {
+            queues[i + 1] = this.allCore.get(i).getLocalReadyQueue();
+        }
+        
+        Vector<Vector<Job>> missJobs = new Vector<Vector<Job>>();
+        for(int i = 0 ; i < queues.length ; i++)
+        {
+            missJobs.add(null);
+        }
+        for(Job j : overdueJobs)
+        {
+            for(int i = 0 ; i < queues.length ; i++)
+            {
+                if(queues[i].contains(j))
+                {
+                    if(missJobs.get(i) == null)
                     {
-                        tempJob.getCurrentCore().getLocalReadyQueue().remove(tempJob);
+                        missJobs.set(i, new Vector<Job>());
                     }
-                    this.parentSimlator.addMissDeadlineInfo(md);
+                    missJobs.get(i).add(j);
+                    break;
                 }
-                else
+            }
+        }
+        
+        /*每個Queue內依優先權處理，與清空Queue時的順序相同*/
+        for(int i = 0 ; i < queues.length ; i++)
+        {
+            if(missJobs.get(i) != null)
+            {
+                missJobs.get(i).sort(Job::compareTo);
+                for(Job tempJob : missJobs.get(i))
                 {
-                    tempQueue.add(tempJob);
+                    if(queues[i].contains(tempJob))
+                    {
+                        queues[i].remove(tempJob);
+                        this.missDeadline(tempJob);
+                    }
                 }
             }
-            c.setLocalReadyQueue(tempQueue);
         }
     }
     
+    private void missDeadline(Job tempJob)
+    {
+        tempJob.setStatus(JobStatus.MISSDEADLINE, this.systemTime);//JOB的狀態改為MissDeadline
+        
+        //CortrollerAction
+        this.controller.checkJobDeadline(tempJob);
+        
+        //DVSAction
+        this.regulator.checkJobMissDeadline(tempJob);
+        
+        println(() -> "XXXXXXXXXXXXXXXX " + this.systemTime + " : MissDeadline : (" + tempJob.getParentTask().getID() + "," + tempJob.getID() + ")= " + tempJob.getReleaseTime());
+        
+        MissDeadlineInfo md = new MissDeadlineInfo((int)this.systemTime, tempJob, this.getSimulationContext());
+        if(tempJob.getCurrentCore() != null && tempJob.getCurrentCore().getLocalReadyQueue().contains(tempJob))//確保在migration期間也能確實remove已MissDeadline的Job
+        {
+            tempJob.getCurrentCore().getLocalReadyQueue().remove(tempJob);
+        }
+        this.parentSimlator.addMissDeadlineInfo(md);
+    }
+    
     /**
      * Calculates fixed priorities for tasks according to the configured
      * scheduling type and installed algorithms.
@@ -532,21 +733,21 @@ public class Processor
     {
         for(CoreSet cSet : this.coreSets)
         {
-            println("CoreSet(" + cSet.getGroupID() + "):");
+            println(() -> "CoreSet(" + cSet.getGroupID() + "):");
             
             for(Core c : cSet)
             {
-                println("    Core :" + c.getID());
+                println(() -> "    Core :" + c.getID());
             }
             
-            println("        Alpha :" + cSet.getAlphaValue());
-            println("        Beta :" + cSet.getBetaValue());
-            println("        Gamma :" + cSet.getGammaValue());
+            println(() -> "        Alpha :" + cSet.getAlphaValue());
+            println(() -> "        Beta :" + cSet.getBetaValue());
+            println(() -> "        Gamma :" + cSet.getGammaValue());
             
             for(CoreSpeed cSpeed : cSet.getCoreSpeedSet())
             {
-                println("        CoreSpeed :" + cSpeed.getSpeed());
-                println("        PowerConsumption :" + cSpeed.getPowerConsumption()); 
+                println(() -> "        CoreSpeed :" + cSpeed.getSpeed());
+                println(() -> "        PowerConsumption :" + cSpeed.getPowerConsumption()); 
             }
         }
         println();
@@ -563,6 +764,18 @@ public class Processor
         this.modelName = s;
     }
     
+    /**
+     * Sets the pool used to run independent cores in parallel during
+     * partitioned scheduling, or {@code null} to always run them in order.
+     * The schedule is the same either way.
+     *
+     * @param pool the core pool, or {@code null}
+     */
+    public void setCorePool(ForkJoinPool pool)
+    {
+        this.corePool = pool;
+    }
+    
     /**
      * Sets the parent simulator reference used for reporting (e.g., deadline
      * misses) and global configuration.
@@ -591,7 +804,7 @@ public class Processor
             case SingleCore:
                 SingleCoreSchedulingAlgorithm sa = (SingleCoreSchedulingAlgorithm) a;
                 this.allCore.firstElement().setLocalSchedAlgorithm(a);
-                println("Core(" + this.allCore.firstElement().getID() + ") Scheduler=" + this.allCore.firstElement().getLocalScheduler().getSchedAlgorithm().getName());
+                println(() -> "Core(" + this.allCore.firstElement().getID() + ") Scheduler=" + this.allCore.firstElement().getLocalScheduler().getSchedAlgorithm().getName());
             break;
                 
             case Partition:
@@ -600,13 +813,13 @@ public class Processor
 
                 for(Core c : this.allCore)
                 {
-                    println("Core(" + c.getID() + ") Scheduler=" + c.getLocalScheduler().getSchedAlgorithm().getName());
+                    println(() -> "Core(" + c.getID() + ") Scheduler=" + c.getLocalScheduler().getSchedAlgorithm().getName());
                 }
             break;
                 
             case Global:
                 this.globalScheduler.setSchedAlgorithm(a);
-                println("Processor SchedAlgorithm=" + this.globalScheduler.getSchedAlgorithm().getName());
+                println(() -> "Processor SchedAlgorithm=" + this.globalScheduler.getSchedAlgorithm().getName());
             break;
                 
             case Hybrid://尚未驗證2017/10/27
@@ -629,7 +842,7 @@ public class Processor
     {
         this.controller.setConcurrencyControlProtocol(p);
         
-        println("Processor ControlProtocol=" + this.controller.getConcurrencyControlProtocol().getName());
+        println(() -> "Processor ControlProtocol=" + this.controller.getConcurrencyControlProtocol().getName());
     }
     
     /**
@@ -641,7 +854,7 @@ public class Processor
     {
         this.regulator.setDynamicVoltageAndFrequencyScalingMethod(m);
         
-        println("Processor DVFSMethod=" + this.regulator.getDynamicVoltageAndFrequencyScalingMethod().getName());
+        println(() -> "Processor DVFSMethod=" + this.regulator.getDynamicVoltageAndFrequencyScalingMethod().getName());
     }
     
     /**
@@ -675,6 +888,16 @@ public class Processor
         return this.parentSimlator;
     }
     
+    /**
+     * Returns the simulation context of the parent simulator.
+     *
+     * @return the simulation context
+     */
+    public SimulationContext getSimulationContext()
+    {
+        return this.parentSimlator.getSimulationContext();
+    }
+    
     /**
      * Returns the DVFS regulator associated with this processor.
      *
@@ -705,6 +928,21 @@ public class Processor
         return this.controller;
     }
     
+    /**
+     * Returns the blocking and spin analysis of the task set as currently
+     * partitioned, building it on the first call after partitioning.
+     *
+     * @return the blocking analysis
+     */
+    public BlockingAnalysis getBlockingAnalysis()
+    {
+        if(this.blockingAnalysis == null)
+        {
+            this.blockingAnalysis = new BlockingAnalysis(this);
+        }
+        return this.blockingAnalysis;
+    }
+    
     /**
      * Returns the configured partition distributor facade.
      *
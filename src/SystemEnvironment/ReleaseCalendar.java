@@ -0,0 +1,141 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package SystemEnvironment;
+
+import WorkLoad.Task;
+import WorkLoadSet.TaskSet;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Calendar of the next job release of every task, used by the
+ * {@link Processor} so that only tasks actually releasing at the current
+ * instant are touched.
+ *
+ * <p>Each task has one entry holding its next arrival time and the release
+ * time derived from it (arrival plus a jitter drawn from the run's random
+ * generator, see {@link Task#drawReleaseJitter(Random)}). Entries are kept in
+ * a heap ordered by release time and, for equal times, by the position of the
+ * task in its {@link TaskSet}, so tasks released together are handed out in
+ * the same order as a scan of the task set. After a release the entry is
+ * rescheduled for the task's next arrival ({@link Task#getNextArrivalTime(long, Random)}),
+ * which covers periodic, jittered periodic and sporadic arrivals alike. The
+ * arrival time of the released job stays available from
+ * {@link #getReleasedArrivalTime()}, since its deadline counts from it.</p>
+ *
+ * <p>Polling costs O(log n) per released job; instants without releases cost
+ * O(1).</p>
+ *
+ * @author ShiuJia
+ */
+public class ReleaseCalendar
+{
+    private PriorityQueue<Entry> calendar;
+    private Random random;
+    private long releasedArrivalTime;
+
+    /**
+     * Builds the calendar with the first arrival of every task at its enter
+     * time.
+     *
+     * @param ts the task set to release
+     * @param r the random generator used for release jitter
+     */
+    public ReleaseCalendar(TaskSet ts, Random r)
+    {
+        this.calendar = new PriorityQueue<Entry>();
+        this.random = r;
+        this.releasedArrivalTime = Long.MIN_VALUE;
+
+        int order = 0;
+        for(Task t : ts)
+        {
+            this.schedule(new Entry(t, order++), t.getEnterTime());
+        }
+    }
+
+    /*Operating*/
+    /**
+     * Removes and returns the next task whose release time is not after
+     * {@code time}, and reschedules it for its next arrival.
+     *
+     * @param time the current system time
+     * @return the releasing task, or {@code null} if no task releases by {@code time}
+     */
+    public Task pollReleasedTask(long time)
+    {
+        Entry e = this.calendar.peek();
+        if(e == null || e.releaseTime > time)
+        {
+            return null;
+        }
+
+        this.calendar.poll();
+        this.releasedArrivalTime = e.arrivalTime;
+        this.schedule(e, e.task.getNextArrivalTime(e.arrivalTime, this.random));
+        return e.task;
+    }
+
+    private void schedule(Entry e, long arrivalTime)
+    {
+        if(arrivalTime == Long.MAX_VALUE)
+        {
+            return;
+        }
+
+        e.arrivalTime = arrivalTime;
+        e.releaseTime = arrivalTime + e.task.drawReleaseJitter(this.random);
+        this.calendar.add(e);
+    }
+
+    /*GetValue*/
+    /**
+     * Returns the arrival time of the job of the task last returned by
+     * {@link #pollReleasedTask(long)}.
+     *
+     * @return the arrival time, not after the release time
+     */
+    public long getReleasedArrivalTime()
+    {
+        return this.releasedArrivalTime;
+    }
+
+    /**
+     * Returns the earliest pending release time.
+     *
+     * @return the next release time, or {@code Long.MAX_VALUE} if no task releases again
+     */
+    public long getNextReleaseTime()
+    {
+        Entry e = this.calendar.peek();
+        return e == null ? Long.MAX_VALUE : e.releaseTime;
+    }
+
+    private static class Entry implements Comparable<Entry>
+    {
+        private final Task task;
+        private final int order;
+        private long arrivalTime;
+        private long releaseTime;
+
+        private Entry(Task t, int order)
+        {
+            this.task = t;
+            this.order = order;
+        }
+
+        @Override
+        public int compareTo(Entry e)
+        {
+            if(this.releaseTime != e.releaseTime)
+            {
+                return Long.compare(this.releaseTime, e.releaseTime);
+            }
+            return Integer.compare(this.order, e.order);
+        }
+    }
+}
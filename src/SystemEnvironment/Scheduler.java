@@ -21,10 +21,12 @@ import schedulingAlgorithm.PriorityDrivenSchedulingAlgorithm;
  *   <li>a per-core "local" (or single-core) scheduler via {@link #setParentCore(Core)}.</li>
  * </ul>
  *
- * <p>For dynamic-priority algorithms, {@link #calculatePriority(JobQueue)} is used on
- * each tick to recompute priorities. In that path the original priority is updated to
- * reflect the current dynamic priority, inherited priorities override the current one,
- * and suspended jobs are assigned {@link Definition#Ohm}.</p>
+ * <p>Released jobs get their priority from {@link #calculatePriority(Job)}.
+ * For dynamic-priority algorithms, {@link #calculatePriority(JobQueue)} is used on
+ * each tick to recompute the priorities that may have changed. Algorithms assign
+ * them through {@link Job#setSchedulingPriority(WorkLoad.Priority)}, so the
+ * original priority follows the dynamic priority, inherited priorities override
+ * the current one, and suspended jobs keep {@link Definition#Ohm}.</p>
  *
  * @author ShiuJia
  */
@@ -53,43 +55,43 @@ public class Scheduler
         this.algorithm.calculatePriority(ts);
     }
     
+    void calculatePriority(Job j)
+    {
+        this.algorithm.calculatePriority(j);
+    }
+    
     /**
      * Recalculates the priority of jobs in the given job queue using a dynamic scheduling algorithm.
      *
-     * <p>Integrated behavior from inline comments:
-     * <ul>
-     *   <li>Dynamic algorithms recompute priorities every time unit.</li>
-     *   <li>Each job's original priority is set to the newly computed current priority.</li>
-     *   <li>If a job has an inherited priority, it replaces the current priority.</li>
-     *   <li>Suspended jobs receive {@link Definition#Ohm} as their current priority.</li>
-     * </ul>
-     * Only dynamic-priority algorithms should call this method.
+     * <p>The algorithm updates only the jobs whose priority changed, through
+     * {@link Job#setSchedulingPriority(WorkLoad.Priority)}: the original
+     * priority takes the new value, an inherited priority still overrides
+     * the current one and suspended jobs keep {@link Definition#Ohm}.
+     * Algorithms that fix a job's priority at release do nothing here.
+     * A priority a locking protocol raised with
+     * {@link Job#raisePriority(WorkLoad.Priority, int)} falls back to the
+     * algorithm's priority, as if every job were recalculated; the queue
+     * counts its raised jobs, so this costs nothing when there are none.
+     * Jobs are updated in place, so the queue is never rebuilt. Only
+     * dynamic-priority algorithms should call this method.</p>
      *
      * @param jp the {@link JobQueue} containing the jobs to update
-     * @return a new {@link JobQueue} whose jobs have updated priorities (inheritance and suspension applied)
+     * @return the same {@link JobQueue}, whose jobs have updated priorities (inheritance and suspension applied)
      */
     public JobQueue calculatePriority(JobQueue jp)//此方法只有在動態排程方法時被呼叫
     {
-        JobQueue newJQ = this.algorithm.calculatePriority(jp);//動態的排程方法每個時間單位都會重新計算新的Proiority
-        JobQueue inheritJQ = new JobQueue();
-        Job tempJob;
-        while((tempJob = newJQ.poll()) != null)
+        JobQueue newJQ = this.algorithm.calculatePriority(jp);
+        if(newJQ.hasRaisedJob())//被協定拉高的優先權只維持到下次重新計算
         {
-            tempJob.setOriginalPriority(tempJob.getCurrentProiority());//因為是動態的排程方法，因此新的Proiority也需要更改到OriginalPriority
-            
-            if(tempJob.isInherit)
-            {
-                tempJob.setCurrentProiority(tempJob.getInheritPriority());
-            }
-            
-            if(tempJob.isSuspended)
+            for(Job tempJob : newJQ.toArray(new Job[newJQ.size()]))
             {
-                tempJob.setCurrentProiority(Definition.Ohm);
+                if(tempJob.isRaised())
+                {
+                    tempJob.setSchedulingPriority(tempJob.getOriginalPriority());
+                }
             }
-            
-            inheritJQ.add(tempJob);
         }
-        return inheritJQ;
+        return newJQ;
     }
     
     /*SetValue*/
@@ -0,0 +1,357 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package SystemEnvironment;
+
+import RTSimulator.Definition.TraceLevel;
+import RTSimulator.TraceSink;
+
+import java.io.PrintStream;
+import java.text.DecimalFormat;
+import java.util.Random;
+
+/**
+ * Per-run settings shared by one simulation and the readers and results that
+ * belong to it.
+ *
+ * <p>A context carries everything that used to be global:
+ * <ul>
+ *   <li>the time scale ({@code magnificationFactor}) that converts the time
+ *       values of workload files into internal ticks, and the matching
+ *       display format;</li>
+ *   <li>context-switch and migration time in internal ticks;</li>
+ *   <li>the log sink for simulation messages;</li>
+ *   <li>the trace sink and trace level of the run (see
+ *       {@link RTSimulator.RTSimulator#setTrace(TraceSink, TraceLevel)});</li>
+ *   <li>the random seed for any randomized decision of the run;</li>
+ *   <li>whether tasks keep their jobs after the jobs finish.</li>
+ * </ul>
+ * Pass the same context to the {@link DataReader} (or
+ * {@link JSONDataReader}) and the {@link Simulator} of a run; runs with
+ * different contexts may then execute concurrently in one JVM.</p>
+ *
+ * @author ShiuJia
+ */
+public class SimulationContext
+{
+    private long magnificationFactor;
+    private String magnificationFormat;
+    private long contextSwitchTime;
+    private long migrationTime;
+    private PrintStream logStream;
+    private TraceSink traceSink;
+    private TraceLevel traceLevel;
+    private long randomSeed;
+    private Random random;
+    private boolean isJobRetained;
+
+    /**
+     * Constructs a context with a time scale of 1, no context-switch or
+     * migration cost, logging and full tracing to {@code System.out},
+     * random seed 0 and jobs retained.
+     */
+    public SimulationContext()
+    {
+        this.magnificationFactor = 1;
+        this.magnificationFormat = "##.#####";
+        this.contextSwitchTime = 0;
+        this.migrationTime = 0;
+        this.logStream = System.out;
+        this.traceSink = TraceSink.STDOUT;
+        this.traceLevel = TraceLevel.DEBUG;
+        this.setRandomSeed(0);
+        this.isJobRetained = true;
+    }
+
+    /**
+     * Constructs a context with the given accuracy (see {@link #setAccuracy(int)}).
+     *
+     * @param accuracy number of decimal digits of time resolution
+     */
+    public SimulationContext(int accuracy)
+    {
+        this();
+        this.setAccuracy(accuracy);
+    }
+
+    /**
+     * Constructs a context with the same settings as {@code c}; the random
+     * generator is reseeded, so the copy starts an independent sequence.
+     *
+     * @param c the context to copy
+     */
+    public SimulationContext(SimulationContext c)
+    {
+        this.magnificationFactor = c.magnificationFactor;
+        this.magnificationFormat = c.magnificationFormat;
+        this.contextSwitchTime = c.contextSwitchTime;
+        this.migrationTime = c.migrationTime;
+        this.logStream = c.logStream;
+        this.traceSink = c.traceSink;
+        this.traceLevel = c.traceLevel;
+        this.setRandomSeed(c.randomSeed);
+        this.isJobRetained = c.isJobRetained;
+    }
+
+    /*Operating*/
+    /**
+     * Converts a time value as written in workload files into internal ticks.
+     *
+     * @param time the time in workload units
+     * @return the time in ticks
+     */
+    public long toSimulationTime(double time)
+    {
+        return (long)(time * this.magnificationFactor);
+    }
+
+    /**
+     * Converts internal ticks back into workload time units.
+     *
+     * @param time the time in ticks
+     * @return the time in workload units
+     */
+    public double toRealTime(double time)
+    {
+        return time / this.magnificationFactor;
+    }
+
+    /**
+     * Rounds a value in workload units to the resolution of this context.
+     *
+     * @param d the value to format
+     * @return the formatted value
+     */
+    public double changeDecimalFormat(double d)
+    {
+        DecimalFormat df = new DecimalFormat(this.magnificationFormat);
+        return Double.parseDouble(df.format(d));
+    }
+
+    /**
+     * Writes one line to the log sink of this context.
+     *
+     * @param message the message to log
+     */
+    public void log(String message)
+    {
+        if(this.logStream != null)
+        {
+            this.logStream.println(message);
+        }
+    }
+
+    /*SetValue*/
+    /**
+     * Sets the time resolution to {@code accuracy} decimal digits: the
+     * magnification factor becomes 10^accuracy and the display format keeps
+     * that many digits. Negative values are treated as 0.
+     *
+     * @param accuracy number of decimal digits of time resolution
+     */
+    public void setAccuracy(int accuracy)
+    {
+        if(accuracy < 0)
+        {
+            accuracy = 0;
+        }
+
+        this.magnificationFactor = (long)Math.pow(10, accuracy);
+
+        String s = "##.";
+        for(int i = 0 ; i < accuracy ; i++)
+        {
+            s += "0";
+        }
+        this.magnificationFormat = s;
+    }
+
+    /**
+     * Sets the magnification factor directly.
+     *
+     * @param factor ticks per workload time unit
+     */
+    public void setMagnificationFactor(long factor)
+    {
+        this.magnificationFactor = factor;
+    }
+
+    /**
+     * Sets the context-switch time in ticks.
+     *
+     * @param time the context-switch time
+     */
+    public void setContextSwitchTime(long time)
+    {
+        this.contextSwitchTime = time;
+    }
+
+    /**
+     * Sets the migration time in ticks.
+     *
+     * @param time the migration time
+     */
+    public void setMigrationTime(long time)
+    {
+        this.migrationTime = time;
+    }
+
+    /**
+     * Sets the log sink; {@code null} discards all messages.
+     *
+     * @param s the stream to log to
+     */
+    public void setLogStream(PrintStream s)
+    {
+        this.logStream = s;
+    }
+
+    /**
+     * Sets the trace sink of the run; {@code null} discards all trace output.
+     *
+     * @param s the sink to trace to
+     */
+    public void setTraceSink(TraceSink s)
+    {
+        this.traceSink = s == null ? TraceSink.NULL : s;
+    }
+
+    /**
+     * Sets the most verbose trace level kept; {@link TraceLevel#OFF} turns
+     * tracing off, so no trace message is even built.
+     *
+     * @param level the trace level
+     */
+    public void setTraceLevel(TraceLevel level)
+    {
+        this.traceLevel = level;
+    }
+
+    /**
+     * Sets the random seed and resets the random generator of this context.
+     *
+     * @param seed the seed
+     */
+    public void setRandomSeed(long seed)
+    {
+        this.randomSeed = seed;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Sets whether tasks keep every job they release. When not retained, a
+     * task folds each finished job into running statistics and drops it, so
+     * {@link WorkLoad.Task#getJobSet()} stays empty and memory no longer
+     * grows with the number of jobs; the per-task averages are unchanged.
+     *
+     * @param b {@code false} to stream job statistics
+     */
+    public void setJobRetained(boolean b)
+    {
+        this.isJobRetained = b;
+    }
+
+    /*GetValue*/
+    /**
+     * Returns the number of ticks per workload time unit.
+     *
+     * @return the magnification factor
+     */
+    public long getMagnificationFactor()
+    {
+        return this.magnificationFactor;
+    }
+
+    /**
+     * Returns the display format matching the time resolution.
+     *
+     * @return the decimal format pattern
+     */
+    public String getMagnificationFormat()
+    {
+        return this.magnificationFormat;
+    }
+
+    /**
+     * Returns the context-switch time in ticks.
+     *
+     * @return the context-switch time
+     */
+    public long getContextSwitchTime()
+    {
+        return this.contextSwitchTime;
+    }
+
+    /**
+     * Returns the migration time in ticks.
+     *
+     * @return the migration time
+     */
+    public long getMigrationTime()
+    {
+        return this.migrationTime;
+    }
+
+    /**
+     * Returns the log sink, or {@code null} if logging is disabled.
+     *
+     * @return the log stream
+     */
+    public PrintStream getLogStream()
+    {
+        return this.logStream;
+    }
+
+    /**
+     * Returns the trace sink of the run.
+     *
+     * @return the trace sink
+     */
+    public TraceSink getTraceSink()
+    {
+        return this.traceSink;
+    }
+
+    /**
+     * Returns the most verbose trace level kept.
+     *
+     * @return the trace level
+     */
+    public TraceLevel getTraceLevel()
+    {
+        return this.traceLevel;
+    }
+
+    /**
+     * Returns the random seed of this context.
+     *
+     * @return the seed
+     */
+    public long getRandomSeed()
+    {
+        return this.randomSeed;
+    }
+
+    /**
+     * Returns the random generator of this context, seeded with
+     * {@link #getRandomSeed()}.
+     *
+     * @return the random generator
+     */
+    public Random getRandom()
+    {
+        return this.random;
+    }
+
+    /**
+     * Returns whether tasks keep every job they release.
+     *
+     * @return {@code true} if jobs are retained
+     */
+    public boolean isJobRetained()
+    {
+        return this.isJobRetained;
+    }
+}
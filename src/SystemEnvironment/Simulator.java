@@ -11,7 +11,12 @@ import WorkLoadSet.DataSetting;
 import RTSimulator.Definition.SchedulingType;
 import userInterface.frontEnd.SimulationViewer;
 
-import static RTSimulator.RTSimulator.println;
+import RTSimulator.Definition.TraceLevel;
+import RTSimulator.RTSimulator;
+import RTSimulator.TraceSink;
+import java.util.concurrent.ForkJoinPool;
+
+import static RTSimulator.RTSimulator.trace;
 
 /**
  * Top-level simulation orchestrator that ties together the {@link Processor},
@@ -26,7 +31,8 @@ import static RTSimulator.RTSimulator.println;
  *   <li>Invoke DVFS speed definition on the regulator.</li>
  *   <li>Iteratively execute one simulation time unit until {@code simulationTime}
  *       is reached (using global or per-core execution path based on
- *       {@link SchedulingType}).</li>
+ *       {@link SchedulingType}), or, in event-driven mode, advance straight to
+ *       the next instant at which the schedule can change.</li>
  *   <li>Finalize per-core scheduling records and accumulate power usage.</li>
  *   <li>Collect miss-deadline information and produce a {@link ResultSet}.</li>
  * </ol>
@@ -48,8 +54,10 @@ public class Simulator
     //private SharedResourceSet sharedResourceSet;
     private long simulationTime;
     private long elapsedTime;
-    private long contextSwitchTime = 0;
-    private long migrationTime = 0;
+    private long stepCount;
+    private SimulationContext context;
+    private boolean isEventDriven = false;
+    private int parallelism = 1;
     private ResultSet resultSet;
     
     /**
@@ -59,11 +67,25 @@ public class Simulator
      * the processor and workload before calling {@link #start()}.
      */
     public Simulator()
+    {
+        this(new SimulationContext());
+    }
+    
+    /**
+     * Constructs a simulator for one run described by the given context. The
+     * same context should be passed to the {@link DataReader} that loads the
+     * run's workload and processor.
+     *
+     * @param c the simulation context of the run
+     */
+    public Simulator(SimulationContext c)
     {
         //this.parentSimuationViewer = sv;
+        this.context = c;
         this.processor = null;
         this.simulationTime = 0;
         this.elapsedTime = 0;
+        this.stepCount = 0;
         this.resultSet = new ResultSet();
     }
     
@@ -114,12 +136,47 @@ public class Simulator
      * records power consumption, aggregates core info and prints summary
      * statistics (missed deadlines, per-core power, total elapsed wall-clock
      * time).</p>
+     *
+     * <p>Trace output of the run goes to the trace sink of the simulation
+     * context, filtered by its trace level; the summary lines are traced at
+     * {@link TraceLevel#INFO}.</p>
+     *
+     * <p>With a parallelism above 1 the cores of a partitioned processor are
+     * stepped on a pool of that many threads, created for this run only,
+     * unless the context traces at {@link TraceLevel#DEBUG}.</p>
      */
     public void start()
+    {
+        TraceSink previousSink = RTSimulator.getTraceSink();
+        TraceLevel previousLevel = RTSimulator.getTraceLevel();
+        RTSimulator.setTrace(this.context.getTraceSink(), this.context.getTraceLevel());
+        ForkJoinPool pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+        this.processor.setCorePool(pool);
+        
+        try
+        {
+            this.run();
+        }
+        finally
+        {
+            this.processor.setCorePool(null);
+            if(pool != null)
+            {
+                pool.shutdown();
+            }
+            RTSimulator.setTrace(previousSink, previousLevel);
+        }
+    }
+    
+    private void run()
     {
         long time1,time2;
         time1 = System.currentTimeMillis();
-        println(("Start"));
+        trace(TraceLevel.INFO, "Start");
+        if(this.parallelism > 1 && this.context.getTraceLevel() == TraceLevel.DEBUG)
+        {
+            trace(TraceLevel.INFO, () -> "Parallelism " + this.parallelism + " ignored: cores are stepped serially while tracing at DEBUG");
+        }
         
         this.processor.partitionTasks();
         this.processor.schedulerCalculatePriorityForFixed();
@@ -132,6 +189,13 @@ public class Simulator
         
         while(this.elapsedTime < this.simulationTime)
         {
+            this.stepCount++;
+            if(this.isEventDriven)
+            {
+                this.elapsedTime += this.processor.executeToNextEvent(this.simulationTime - this.elapsedTime);
+                continue;
+            }
+            
             if(this.processor.getSchedulingAlgorithm().getSchedulingType()== SchedulingType.Global)
             {
                 this.processor.globalExecute(1);
@@ -146,16 +210,16 @@ public class Simulator
         // Finalize core records and aggregate results
         for(Core c : this.processor.getAllCore())
         {
-            c.getSchedulingInfoSet().get(c.getSchedulingInfoSet().size() - 1).setEndTime(this.simulationTime);
+            c.getTimeline().setEndTime(c.getTimeline().size() - 1, this.simulationTime);
             c.finalRecording();
             this.resultSet.addCoreInfo(c);
-            println("PowerConsumption(" + c.getID() + ")= " + c.getPowerConsumption());
+            trace(TraceLevel.INFO, () -> "PowerConsumption(" + c.getID() + ")= " + c.getPowerConsumption());
         }
-        println("MissDeadline= " + this.resultSet.getMissDeadlineInfoSet().size());
-        println("End");
+        trace(TraceLevel.INFO, () -> "MissDeadline= " + this.resultSet.getMissDeadlineInfoSet().size());
+        trace(TraceLevel.INFO, "End");
         
         time2 = System.currentTimeMillis();
-        System.out.println(("！！！！ Spend：" + (double)(time2-time1)/1000 + " second. ！！！！"));
+        this.context.log("！！！！ Spend：" + (double)(time2-time1)/1000 + " second. ！！！！");
     }
     
     /*SetValue*/
@@ -176,7 +240,7 @@ public class Simulator
      */
     public void setContextSwitchTime(long i)
     {
-        this.contextSwitchTime = i;
+        this.context.setContextSwitchTime(i);
     }
     
     /**
@@ -186,7 +250,44 @@ public class Simulator
      */
     public void setMigrationTime(long i)
     {
-        this.migrationTime = i;
+        this.context.setMigrationTime(i);
+    }
+    
+    /**
+     * Enables or disables event-driven time advance. When enabled, each
+     * simulation step runs the cores up to the next release, completion,
+     * critical-section boundary, deadline or cost expiry instead of a single
+     * time unit; the resulting schedule is identical to tick mode.
+     *
+     * @param b {@code true} to advance by events, {@code false} for tick mode
+     */
+    public void setEventDriven(boolean b)
+    {
+        this.isEventDriven = b;
+    }
+    
+    /**
+     * Sets how many threads may step the cores of a partitioned processor at
+     * once. Cores are only run in parallel for steps in which they cannot
+     * affect each other, so the resulting schedule is identical to a run with
+     * parallelism 1 (the default).
+     *
+     * <p>Debug trace lines are written in core order, so while the trace
+     * level of the simulation context is {@link TraceLevel#DEBUG} (its
+     * default) every step runs serially; lower it with
+     * {@link SimulationContext#setTraceLevel(TraceLevel)} to step in
+     * parallel. {@link #start()} traces a note at {@link TraceLevel#INFO}
+     * when that happens.</p>
+     *
+     * @param n the number of threads, at least 1
+     */
+    public void setParallelism(int n)
+    {
+        if(n < 1)
+        {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + n);
+        }
+        this.parallelism = n;
     }
     
     /*GetValue*/
@@ -200,6 +301,26 @@ public class Simulator
         return this.processor;
     }
     
+    /**
+     * Returns whether event-driven time advance is enabled.
+     *
+     * @return {@code true} if the simulation advances by events
+     */
+    public boolean isEventDriven()
+    {
+        return this.isEventDriven;
+    }
+    
+    /**
+     * Returns the number of threads used to step partitioned cores.
+     *
+     * @return the parallelism, 1 for sequential stepping
+     */
+    public int getParallelism()
+    {
+        return this.parallelism;
+    }
+
     /**
      * Returns the amount of simulated time already executed.
      *
@@ -210,6 +331,17 @@ public class Simulator
         return this.elapsedTime;
     }
     
+    /**
+     * Returns the number of processor steps the run took: one per time unit,
+     * or one per event in event-driven mode.
+     *
+     * @return the number of steps executed
+     */
+    public long getStepCount()
+    {
+        return this.stepCount;
+    }
+    
     /**
      * Returns the total simulation time target configured.
      *
@@ -227,7 +359,7 @@ public class Simulator
      */
     public long getContextSwitchTime()
     {
-        return this.contextSwitchTime;
+        return this.context.getContextSwitchTime();
     }
     
     /**
@@ -237,7 +369,17 @@ public class Simulator
      */
     public long getMigrationTime()
     {
-        return this.migrationTime;
+        return this.context.getMigrationTime();
+    }
+    
+    /**
+     * Returns the context of this run (time scale, costs, log sink, seed).
+     *
+     * @return the simulation context
+     */
+    public SimulationContext getSimulationContext()
+    {
+        return this.context;
     }
     
     /**
@@ -158,6 +158,16 @@ public class Cost
         this.costTime = time;
     }
     
+    /**
+     * Return the remaining cost time.
+     *
+     * @return the time still to be consumed before this cost completes
+     */
+    public long getCostTime()
+    {
+        return this.costTime;
+    }
+    
     /**
      * Check whether this cost has completed and apply completion side-effects.
      * <p>
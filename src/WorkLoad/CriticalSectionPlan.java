@@ -0,0 +1,155 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package WorkLoad;
+
+import WorkLoadSet.CriticalSectionSet;
+import java.util.PriorityQueue;
+import java.util.Vector;
+
+/**
+ * The critical sections of a task in the order its jobs enter them, compiled
+ * once per task and shared by all of its jobs.
+ * <p>
+ * The order is the one a {@link PriorityQueue} of the task's critical
+ * sections yields when drained, i.e. by relative start time, the longer
+ * section first on equal start times (see
+ * {@link CriticalSection#compareTo(Object)}). The start time, end time and
+ * resource ID of each section are also kept in primitive arrays, so a job
+ * only needs an index of its next section (see
+ * {@link Job#peekNotEnteredCriticalSection()}) to find its next lock point,
+ * and a stack of positions for the sections it has entered.
+ * </p>
+ * <p>
+ * A plan is compiled when the workload is loaded (see
+ * {@link WorkLoadSet.TaskSet#compileCriticalSectionPlans()}) and must not be
+ * modified afterwards, since the sets it returns are shared by every job of
+ * the task.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public class CriticalSectionPlan
+{
+    /**
+     * The plan of a job without critical sections.
+     */
+    public static final CriticalSectionPlan EMPTY = new CriticalSectionPlan(new CriticalSectionSet());
+
+    private CriticalSectionSet criticalSectionSet;
+    private Vector<SharedResource> resourceSet;
+    private CriticalSection[] criticalSections;
+    private long[] relativeStartTime;
+    private long[] relativeEndTime;
+    private int[] resourceID;
+
+    /**
+     * Compile the entering order of a set of critical sections.
+     *
+     * @param css the critical sections of a task
+     */
+    public CriticalSectionPlan(CriticalSectionSet css)
+    {
+        this.criticalSectionSet = css;
+        this.resourceSet = new Vector<SharedResource>();
+
+        PriorityQueue<CriticalSection> order = new PriorityQueue<CriticalSection>();
+        for(CriticalSection cs : css)
+        {
+            order.add(cs);
+            this.resourceSet.add(cs.getUseSharedResource());
+        }
+
+        int n = order.size();
+        this.criticalSections = new CriticalSection[n];
+        this.relativeStartTime = new long[n];
+        this.relativeEndTime = new long[n];
+        this.resourceID = new int[n];
+        for(int i = 0 ; i < n ; i++)
+        {
+            CriticalSection cs = order.poll();
+            this.criticalSections[i] = cs;
+            this.relativeStartTime[i] = cs.getRelativeStartTime();
+            this.relativeEndTime[i] = cs.getRelativeEndTime();
+            this.resourceID[i] = cs.getUseSharedResource().getID();
+        }
+    }
+
+    /*GetValue*/
+    /**
+     * Return the critical sections in their declared order.
+     *
+     * @return the critical section set the plan was compiled from
+     */
+    public CriticalSectionSet getCriticalSectionSet()
+    {
+        return this.criticalSectionSet;
+    }
+
+    /**
+     * Return the shared resources of the critical sections in their declared
+     * order.
+     *
+     * @return a Vector of SharedResource, one per critical section
+     */
+    public Vector<SharedResource> getResourceSet()
+    {
+        return this.resourceSet;
+    }
+
+    /**
+     * Return the number of critical sections.
+     *
+     * @return the critical section count
+     */
+    public int size()
+    {
+        return this.criticalSections.length;
+    }
+
+    /**
+     * Return the i-th critical section to be entered.
+     *
+     * @param i the position in entering order
+     * @return the critical section
+     */
+    public CriticalSection get(int i)
+    {
+        return this.criticalSections[i];
+    }
+
+    /**
+     * Return the relative start time of the i-th critical section.
+     *
+     * @param i the position in entering order
+     * @return the relative start time
+     */
+    public long getRelativeStartTime(int i)
+    {
+        return this.relativeStartTime[i];
+    }
+
+    /**
+     * Return the relative end time of the i-th critical section.
+     *
+     * @param i the position in entering order
+     * @return the relative end time
+     */
+    public long getRelativeEndTime(int i)
+    {
+        return this.relativeEndTime[i];
+    }
+
+    /**
+     * Return the ID of the shared resource of the i-th critical section.
+     *
+     * @param i the position in entering order
+     * @return the resource ID
+     */
+    public int getResourceID(int i)
+    {
+        return this.resourceID[i];
+    }
+}
@@ -5,11 +5,14 @@
  */
 package WorkLoad;
 
-import ResultSet.SchedulingInfo;
+import ResultSet.CoreTimeline;
 import SystemEnvironment.Core;
 import SystemEnvironment.Processor;
-import WorkLoadSet.CriticalSectionSet;
-import java.util.PriorityQueue;
+import SystemEnvironment.SimulationContext;
+import WorkLoadSet.JobQueue;
+import WorkLoadSet.JobWaitQueue;
+import java.util.Arrays;
+import java.util.EmptyStackException;
 import java.util.Stack;
 import java.util.Vector;
 
@@ -17,7 +20,6 @@ import javax.xml.crypto.dsig.spec.C14NMethodParameterSpec;
 
 import RTSimulator.Definition;
 import RTSimulator.Definition.JobStatus;
-import static RTSimulator.Definition.magnificationFactor;
 import RTSimulator.RTSimulatorMath;
 import static RTSimulator.RTSimulator.println;
 /**
@@ -47,8 +49,8 @@ public class Job implements Comparable
     private long pendingTime;//待機時間
     private long responseTime;//回應時間
     private long beBlockedTime;//被阻擋的時間
-    private double targetAmount; //目標工作量
-    private double progressAmount; //目前工作量
+    private long targetAmount; //目標工作量，單位為RTSimulatorMath.WORK_SCALE分之一
+    private long progressAmount; //目前工作量，單位為RTSimulatorMath.WORK_SCALE分之一
     private Priority originalPriority; //最初的優先權(來自Task)
     private Priority currentPriority; //目前的優先權
     private Priority inheritPriority;
@@ -57,14 +59,30 @@ public class Job implements Comparable
     private Core originalCore;//第一次分配的Core
     private Core currentCore;//當前的分配的Core
     private Processor localProcessor;
-    private Vector<CriticalSection> criticalSectionSet;
-    private PriorityQueue<CriticalSection> notEnteredCriticalSectionSet;
-    private Stack<CriticalSection> enteredCriticalSectionSet;
+    private static final int[] NO_ENTERED_CRITICAL_SECTIONS = new int[0];
+    private static final JobWaitQueue[] NO_WAIT_QUEUES = new JobWaitQueue[0];
+    private static final int[] NO_WAIT_QUEUE_SLOTS = new int[0];
+    private static final CoreTimeline[] NO_RECORD_TIMELINES = new CoreTimeline[0];
+    
+    private CriticalSectionPlan criticalSectionPlan;
+    private int nextCriticalSection;//下一個要進入的CriticalSection在plan中的位置
+    private int[] enteredCriticalSections;//已進入的CriticalSection在plan中的位置，由外而內
+    private int enteredCriticalSectionCount;
     private double maxProcessingSpeed;
-    private Vector<SharedResource> resourceSet;
-    private Vector<SchedulingInfo> schedulingInfoSet;
+    private CoreTimeline lastRecordTimeline;//最後一筆排程紀錄所在的timeline
+    private int lastRecordIndex;
+    private CoreTimeline[] recordTimelines = NO_RECORD_TIMELINES;//有此Job紀錄的timeline，以及其中的Job條目
+    private int[] recordEntries = NO_WAIT_QUEUE_SLOTS;
+    private boolean isRecordReleased = false;
+    private int statusVersion = 0;//每次setStatus加一，排程紀錄據此判斷是否沿用Job的計數
+    private int statusCompletedCount = 0;
+    private int statusMissDeadlineCount = 0;
     private JobStatus status = JobStatus.NONCOMPUTE;
     private long timeOfStatus = 0;//改變狀態的當前時間
+    private JobQueue[] readyQueues = new JobQueue[2];//所在的JobQueue，以及在其中的位置
+    private int[] readyQueueSlots = new int[2];
+    private JobWaitQueue[] waitQueues = NO_WAIT_QUEUES;//所在的資源等待佇列，以及在其中的位置
+    private int[] waitQueueSlots = NO_WAIT_QUEUE_SLOTS;
     
     /**
      * In this system a Job can only be blocked by one shared resource at a
@@ -77,6 +95,7 @@ public class Job implements Comparable
     public boolean isInherit;
     /** Whether this job is suspended */
     public boolean isSuspended;
+    private boolean isRaised = false;//優先權被協定暫時拉高，下次重算動態優先權時還原
     
     /**
      * Create an empty Job with default, zeroed or null fields.
@@ -95,12 +114,13 @@ public class Job implements Comparable
         this.originalCore = null;
         this.currentCore = null;
         this.localProcessor = null;
-        this.criticalSectionSet = new Vector<CriticalSection>();
-        this.notEnteredCriticalSectionSet = new PriorityQueue<CriticalSection>();
-        this.enteredCriticalSectionSet = new Stack<CriticalSection>();
+        this.criticalSectionPlan = CriticalSectionPlan.EMPTY;
+        this.nextCriticalSection = 0;
+        this.enteredCriticalSections = NO_ENTERED_CRITICAL_SECTIONS;
+        this.enteredCriticalSectionCount = 0;
         this.maxProcessingSpeed = 0;
-        this.schedulingInfoSet = new Vector<SchedulingInfo>();
-        this.resourceSet = new Vector<SharedResource>();
+        this.lastRecordTimeline = null;
+        this.lastRecordIndex = -1;
         this.isInherit = false;
         this.inheritPriority = null;
         
@@ -113,7 +133,8 @@ public class Job implements Comparable
      * <p>
      * Jobs are ordered primarily by current priority (higher value means
      * higher scheduling precedence). Ties are broken by inheritance status
-     * (inherited jobs win) and then by earlier release time.
+     * (inherited jobs win), then by earlier release time, then by task and job
+     * ID, so the order is total and does not depend on the heap layout.
      * </p>
      *
      * @param o another Job to compare
@@ -133,18 +154,21 @@ public class Job implements Comparable
         {
             return 1;
         }
-        else if(this.currentPriority.getValue() == j.currentPriority.getValue())
+        else if(this.isInherit != j.isInherit)
         {
-            if(this.isInherit)
-            {
-                return -1;
-            }
-            else if(this.getReleaseTime() < j.getReleaseTime())
-            {
-                return -1;
-            }
-            
-            return 1;
+            return this.isInherit ? -1 : 1;
+        }
+        else if(this.getReleaseTime() != j.getReleaseTime())
+        {
+            return this.getReleaseTime() < j.getReleaseTime() ? -1 : 1;
+        }
+        else if(this.parentTask != j.parentTask)
+        {
+            return this.parentTask.getID() < j.parentTask.getID() ? -1 : 1;
+        }
+        else if(this.ID != j.ID)
+        {
+            return this.ID < j.ID ? -1 : 1;
         }
         
         return 0;
@@ -159,10 +183,11 @@ public class Job implements Comparable
      * is cleared and progress is advanced by {@code executionTime}.
      * </p>
      *
-     * @param executionTime amount of work/time to execute (same units as targetAmount)
+     * @param executionTime amount of work to execute, in work units
+     *        (see {@link RTSimulatorMath#WORK_SCALE})
      * @param curTime the current global time used to compute pending time when needed
      */
-    public void execute(double executionTime, long curTime)//當剩餘的工作量大於executionTime時被呼叫 (2017/7/22)
+    public void execute(long executionTime, long curTime)//當剩餘的工作量大於executionTime時被呼叫 (2017/7/22)
     {                                                        //目前每次執行的時間單位為executionTime = 1  (2017/7/22)
         if(this.progressAmount == 0)
         {
@@ -171,7 +196,7 @@ public class Job implements Comparable
         
         this.setBlockingResource(null);
         
-        this.progressAmount = RTSimulatorMath.add(this.progressAmount,executionTime);//每次執行executionTime的時間單位 (2017/7/22)
+        this.progressAmount += executionTime;//每次執行executionTime的工作量 (2017/7/22)
     }
     
     /**
@@ -190,14 +215,23 @@ public class Job implements Comparable
     /**
      * Lock the next not-entered critical section on the provided shared
      * resource and move it into the entered stack.
+     * <p>
+     * The entered stack holds plan positions; it is allocated on the first
+     * lock, with room for every critical section of the plan.
+     * </p>
      *
      * @param sr the SharedResource to lock
      */
     public void lockSharedResource(SharedResource sr)
     {
-        CriticalSection enterCS = this.notEnteredCriticalSectionSet.poll();
+        int i = this.nextCriticalSection;
+        CriticalSection enterCS = this.pollNotEnteredCriticalSection();
         sr.setLock(this, enterCS);
-        this.enteredCriticalSectionSet.add(enterCS);
+        if(this.enteredCriticalSections.length < this.criticalSectionPlan.size())
+        {
+            this.enteredCriticalSections = new int[this.criticalSectionPlan.size()];
+        }
+        this.enteredCriticalSections[this.enteredCriticalSectionCount++] = i;
     }
     
     /**
@@ -209,12 +243,18 @@ public class Job implements Comparable
     public void unLockSharedResource(SharedResource sr)
     {
         sr.setUnlock(this);
-        this.enteredCriticalSectionSet.pop();
+        if(this.enteredCriticalSectionCount == 0)
+        {
+            throw new EmptyStackException();
+        }
+        this.enteredCriticalSectionCount--;
     }
     
     /**
      * Increase this job's priority by creating and setting a higher Priority
-     * instance derived from the provided one.
+     * instance derived from the provided one. Under a dynamic-priority
+     * algorithm the raise lasts until the priorities of the job's ready queue
+     * are next recalculated.
      *
      * @param p the Priority value prompting the raise
      * @param i additional offset used when computing the raised priority
@@ -223,6 +263,7 @@ public class Job implements Comparable
     {
         Priority priority = new Priority(-p.getValue()-i);
         this.setCurrentProiority(priority);
+        this.setRaised(true);
     }
     
     /**
@@ -240,7 +281,7 @@ public class Job implements Comparable
         Priority priority = new Priority((-p.getValue())-1);
         if(!this.isInherit || priority.isHigher(this.currentPriority))
         {
-            this.isInherit = true;
+            this.setInherit(true);
             this.inheritPriority = priority;
             if(!this.isSuspended)
             {
@@ -256,9 +297,9 @@ public class Job implements Comparable
     public void endInheritance()
     {
         /*檢查是否還有使用資源，若有，則進一步檢查是否有阻擋其他Job*/
-        if(this.enteredCriticalSectionSet.isEmpty())
+        if(this.enteredCriticalSectionCount == 0)
         {
-            this.isInherit = false;
+            this.setInherit(false);
             this.inheritPriority = null;
             this.setCurrentProiority(this.getOriginalPriority());//還原優先權的部分
         }
@@ -270,15 +311,14 @@ public class Job implements Comparable
      */
     public void recoverInheritance()
     {
-        this.isInherit = false;
-        if(!this.enteredCriticalSectionSet.isEmpty())
+        this.setInherit(false);
+        if(this.enteredCriticalSectionCount != 0)
         {
-            Object[] css = this.enteredCriticalSectionSet.toArray();
             Priority p = Definition.Ohm;
             
-            for(int i = 0 ; i < css.length ; i++)
+            for(int i = 0 ; i < this.enteredCriticalSectionCount ; i++)
             {
-                Vector<Job> waittingJobs = ((CriticalSection)css[i]).getUseSharedResource().getPIPQueue();
+                JobWaitQueue waittingJobs = this.getEnteredCriticalSection(i).getUseSharedResource().getPIPQueue();
                 
                 for(Job j : waittingJobs)
                 {
@@ -320,15 +360,16 @@ public class Job implements Comparable
      */
     public void showInfo()
     {
-        println("Job(" + this.parentTask.getID() + ", " + this.ID + "):");
-        println("    ReleaseTime: " + this.releaseTime);
-        println("    AbsoluteDeadline: " + this.absoluteDeadline);
-        println("    TargetAmount: " + this.targetAmount);
-        println("    OriginalPriority: " + this.originalPriority);
+        println(() -> "Job(" + this.parentTask.getID() + ", " + this.ID + "):");
+        println(() -> "    ReleaseTime: " + this.releaseTime);
+        println(() -> "    AbsoluteDeadline: " + this.absoluteDeadline);
+        println(() -> "    TargetAmount: " + this.getTargetAmount());
+        println(() -> "    OriginalPriority: " + this.originalPriority);
         println("    CriticalSection:");
-        for(CriticalSection cs : this.notEnteredCriticalSectionSet)
+        for(int i = this.nextCriticalSection ; i < this.criticalSectionPlan.size() ; i++)
         {
-            println("        CriticalSection(" + cs.getUseSharedResource() + "):" + cs.getRelativeStartTime() + "/" + cs.getRelativeEndTime());
+            CriticalSection cs = this.criticalSectionPlan.get(i);
+            println(() -> "        CriticalSection(" + cs.getUseSharedResource() + "):" + cs.getRelativeStartTime() + "/" + cs.getRelativeEndTime());
         }
         println();
     }
@@ -403,10 +444,11 @@ public class Job implements Comparable
      * Set the target amount (total work) for this job.
      *
      * @param a the target work amount
+     * @throws ArithmeticException if the amount is too large for work units
      */
     public void setTargetAmount(long a)
     {
-        this.targetAmount = a;
+        this.targetAmount = RTSimulatorMath.wholeToWorkUnits(a);
     }
     
     /**
@@ -419,6 +461,31 @@ public class Job implements Comparable
         this.originalPriority = p;
     }
     
+    /**
+     * Set the priority the scheduling algorithm assigns to this job. It
+     * becomes the original priority, and the current priority unless the job
+     * is suspended ({@code Definition.Ohm}) or inherits a priority.
+     *
+     * @param p the Priority assigned by the scheduling algorithm
+     */
+    public void setSchedulingPriority(Priority p)
+    {
+        this.setRaised(false);
+        this.originalPriority = p;
+        if(this.isSuspended)
+        {
+            this.setCurrentProiority(Definition.Ohm);
+        }
+        else if(this.isInherit)
+        {
+            this.setCurrentProiority(this.inheritPriority);
+        }
+        else
+        {
+            this.setCurrentProiority(p);
+        }
+    }
+    
     /**
      * Update the current priority and refresh the job's position in ready
      * queues if it is present.
@@ -428,17 +495,137 @@ public class Job implements Comparable
     public void setCurrentProiority(Priority p)
     {
         this.currentPriority = p;
+        this.updateReadyQueues();
+    }
+    
+    /**
+     * Set whether the job runs with an inherited priority. The flag breaks
+     * priority ties, so the job is repositioned in the queues holding it.
+     *
+     * @param b {@code true} if the current priority is inherited
+     */
+    public void setInherit(boolean b)
+    {
+        if(this.isInherit != b)
+        {
+            this.isInherit = b;
+            this.updateReadyQueues();
+        }
+    }
+    
+    /**
+     * Record the slot of this job in a {@link JobQueue}; a negative slot
+     * means the job left the queue. Only {@link JobQueue} calls this.
+     *
+     * @param q the queue
+     * @param slot the heap slot in {@code q}, or -1
+     */
+    public void setQueueSlot(JobQueue q, int slot)
+    {
+        int free = -1;
+        for(int i = 0 ; i < this.readyQueues.length ; i++)
+        {
+            if(this.readyQueues[i] == q)
+            {
+                if(slot < 0)
+                {
+                    this.readyQueues[i] = null;
+                }
+                else
+                {
+                    this.readyQueueSlots[i] = slot;
+                }
+                return;
+            }
+            else if(this.readyQueues[i] == null && free < 0)
+            {
+                free = i;
+            }
+        }
         
-        if(this.localProcessor != null && this.localProcessor.getGlobalReadyQueue().contains(this))
+        if(slot < 0)
         {
-            this.localProcessor.getGlobalReadyQueue().remove(this);
-            this.localProcessor.getGlobalReadyQueue().add(this);
+            return;
         }
         
-        if(this.currentCore != null && this.currentCore.getLocalReadyQueue().contains(this))
+        if(free < 0)
         {
-            this.currentCore.getLocalReadyQueue().remove(this);
-            this.currentCore.getLocalReadyQueue().add(this);
+            free = this.readyQueues.length;
+            this.readyQueues = Arrays.copyOf(this.readyQueues, free * 2);
+            this.readyQueueSlots = Arrays.copyOf(this.readyQueueSlots, free * 2);
+        }
+        this.readyQueues[free] = q;
+        this.readyQueueSlots[free] = slot;
+    }
+    
+    /**
+     * Record the slot of this job in a {@link JobWaitQueue}; a negative slot
+     * means the job left the queue. Only {@link JobWaitQueue} calls this.
+     *
+     * @param q the wait queue
+     * @param slot the slot in {@code q}, or -1
+     */
+    public void setWaitQueueSlot(JobWaitQueue q, int slot)
+    {
+        int free = -1;
+        for(int i = 0 ; i < this.waitQueues.length ; i++)
+        {
+            if(this.waitQueues[i] == q)
+            {
+                if(slot < 0)
+                {
+                    this.waitQueues[i] = null;
+                }
+                else
+                {
+                    this.waitQueueSlots[i] = slot;
+                }
+                return;
+            }
+            else if(this.waitQueues[i] == null && free < 0)
+            {
+                free = i;
+            }
+        }
+        
+        if(slot < 0)
+        {
+            return;
+        }
+        
+        if(free < 0)
+        {
+            free = this.waitQueues.length;
+            this.waitQueues = Arrays.copyOf(this.waitQueues, Math.max(2, free * 2));
+            this.waitQueueSlots = Arrays.copyOf(this.waitQueueSlots, Math.max(2, free * 2));
+        }
+        this.waitQueues[free] = q;
+        this.waitQueueSlots[free] = slot;
+    }
+    
+    private void setRaised(boolean b)
+    {
+        if(this.isRaised != b)
+        {
+            this.isRaised = b;
+            for(JobQueue q : this.readyQueues)
+            {
+                if(q != null)
+                {
+                    q.setRaised(b);
+                }
+            }
+        }
+    }
+    
+    private void updateReadyQueues()//重新調整在所有JobQueue中的位置，O(log n)
+    {
+        for(JobQueue q : this.readyQueues)
+        {
+            if(q != null)
+            {
+                q.update(this);
+            }
         }
     }
     
@@ -473,22 +660,20 @@ public class Job implements Comparable
     }
     
     /**
-     * Populate this job's critical section collections from a CriticalSectionSet.
+     * Attach the parent task's critical section plan to this job.
      * <p>
-     * Adds each CriticalSection to both the full set and the not-entered
-     * priority queue, and records the used shared resources.
+     * The plan is shared, not copied: the job only keeps a cursor to its next
+     * not-entered critical section, starting at the first one, and the plan
+     * positions of the sections it has entered.
      * </p>
      *
-     * @param css the CriticalSectionSet to import
+     * @param plan the CriticalSectionPlan of the parent task
      */
-    public void setCriticalSectionSet(CriticalSectionSet css)
+    public void setCriticalSectionPlan(CriticalSectionPlan plan)
     {
-        for(CriticalSection cs : css)
-        {
-            this.criticalSectionSet.add(cs);
-            this.notEnteredCriticalSectionSet.add(cs);
-            this.resourceSet.add(cs.getUseSharedResource());
-        }
+        this.criticalSectionPlan = plan;
+        this.nextCriticalSection = 0;
+        this.enteredCriticalSectionCount = 0;
     }
     
     /**
@@ -502,16 +687,75 @@ public class Job implements Comparable
     }
     
     /**
-     * Add a scheduling info record for result reporting.
+     * Remember the latest scheduling record of this job for result reporting.
      *
-     * @param s SchedulingInfo object to record
+     * @param timeline the core timeline holding the record
+     * @param index the record index in the timeline
      */
-    public void addSchedulingInfo(SchedulingInfo s)
+    public void setLastRecord(CoreTimeline timeline, int index)
     {
-        this.schedulingInfoSet.add(s);
+        this.lastRecordTimeline = timeline;
+        this.lastRecordIndex = index;
+    }
+    
+    /**
+     * Remember the job entry of this job in a core timeline, so that the
+     * entry can be released when the job finishes. Only
+     * {@link CoreTimeline} calls this.
+     *
+     * @param timeline the core timeline
+     * @param entry the job entry in the timeline
+     */
+    public void addRecordEntry(CoreTimeline timeline, int entry)
+    {
+        this.recordTimelines = Arrays.copyOf(this.recordTimelines, this.recordTimelines.length + 1);
+        this.recordEntries = Arrays.copyOf(this.recordEntries, this.recordEntries.length + 1);
+        this.recordTimelines[this.recordTimelines.length - 1] = timeline;
+        this.recordEntries[this.recordEntries.length - 1] = entry;
+    }
+    
+    //Job不保留時，結束後讓各timeline只留下紀錄所需的欄位
+    private void releaseRecords()
+    {
+        for(int i = 0 ; i < this.recordTimelines.length ; i++)
+        {
+            this.recordTimelines[i].releaseJob(this.recordEntries[i], this);
+        }
+        this.recordTimelines = NO_RECORD_TIMELINES;
+        this.recordEntries = NO_WAIT_QUEUE_SLOTS;
+        this.isRecordReleased = true;
     }
     
     /*GetValue*/
+    /**
+     * Return the job entry of this job in a core timeline.
+     *
+     * @param timeline the core timeline
+     * @return the job entry, or -1 if the job has none there
+     */
+    public int getRecordEntry(CoreTimeline timeline)
+    {
+        for(int i = 0 ; i < this.recordTimelines.length ; i++)
+        {
+            if(this.recordTimelines[i] == timeline)
+            {
+                return this.recordEntries[i];
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Return whether this job released its scheduling records, i.e. it
+     * finished in a run that does not retain jobs.
+     *
+     * @return true if the records were released
+     */
+    public boolean isRecordReleased()
+    {
+        return this.isRecordReleased;
+    }
+    
     /**
      * Return the integer job identifier.
      *
@@ -578,7 +822,61 @@ public class Job implements Comparable
      */
     public double getTargetAmount()
     {
-        return this.targetAmount;
+        return RTSimulatorMath.toAmount(this.targetAmount);
+    }
+    
+    /**
+     * Return the slot of this job in a {@link JobQueue}.
+     *
+     * @param q the queue
+     * @return the heap slot in {@code q}, or -1 if the job is not queued there
+     */
+    public int getQueueSlot(JobQueue q)
+    {
+        for(int i = 0 ; i < this.readyQueues.length ; i++)
+        {
+            if(this.readyQueues[i] == q)
+            {
+                return this.readyQueueSlots[i];
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Return the slot of this job in a {@link JobWaitQueue}.
+     *
+     * @param q the wait queue
+     * @return the slot in {@code q}, or -1 if the job is not waiting there
+     */
+    public int getWaitQueueSlot(JobWaitQueue q)
+    {
+        for(int i = 0 ; i < this.waitQueues.length ; i++)
+        {
+            if(this.waitQueues[i] == q)
+            {
+                return this.waitQueueSlots[i];
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Return whether this job is held by any {@link JobQueue}, i.e. is in the
+     * global or a local ready queue.
+     *
+     * @return true if the job is queued somewhere
+     */
+    public boolean isQueued()
+    {
+        for(JobQueue q : this.readyQueues)
+        {
+            if(q != null)
+            {
+                return true;
+            }
+        }
+        return false;
     }
     
     /**
@@ -587,10 +885,41 @@ public class Job implements Comparable
      * @return the progress amount
      */
     public double getProgressAmount()
+    {
+        return RTSimulatorMath.toAmount(this.progressAmount);
+    }
+    
+    /**
+     * Return the total target work amount in work units.
+     *
+     * @return the target amount in work units
+     */
+    public long getTargetWorkUnits()
+    {
+        return this.targetAmount;
+    }
+    
+    /**
+     * Return the progress amount performed so far in work units.
+     *
+     * @return the progress amount in work units
+     */
+    public long getProgressWorkUnits()
     {
         return this.progressAmount;
     }
     
+    /**
+     * Return the whole amounts of work performed so far, i.e. the progress
+     * amount rounded down, computed exactly from the work units.
+     *
+     * @return the completed whole amount
+     */
+    public long getWholeProgressAmount()
+    {
+        return RTSimulatorMath.toWholeAmount(this.progressAmount);
+    }
+    
     /**
      * Return the original priority assigned from the task template.
      *
@@ -611,6 +940,18 @@ public class Job implements Comparable
         return this.currentPriority;
     }
     
+    /**
+     * Return whether a locking protocol raised the current priority with
+     * {@link #raisePriority(Priority, int)} since the scheduling algorithm
+     * last assigned it.
+     *
+     * @return true if the current priority is raised
+     */
+    public boolean isRaised()
+    {
+        return this.isRaised;
+    }
+    
     /**
      * Return the originally assigned core (first allocation).
      *
@@ -652,7 +993,7 @@ public class Job implements Comparable
      */
     public CriticalSection getCriticalSection(SharedResource r)
     {
-        for(CriticalSection cs : this.criticalSectionSet)
+        for(CriticalSection cs : this.criticalSectionPlan.getCriticalSectionSet())
         {
             if(cs.getUseSharedResource().equals(r))
             {
@@ -663,55 +1004,148 @@ public class Job implements Comparable
     }
     
     /**
-     * Return the full list of critical sections for this job.
+     * Return the full list of critical sections for this job, shared with
+     * the parent task's plan.
      *
      * @return a Vector of CriticalSection objects
      */
     public Vector<CriticalSection> getCriticalSectionSet()
     {
-        return this.criticalSectionSet;
+        return this.criticalSectionPlan.getCriticalSectionSet();
+    }
+    
+    /**
+     * Return the next critical section to be entered without entering it.
+     *
+     * @return the next not-entered CriticalSection, or null if all were entered
+     */
+    public CriticalSection peekNotEnteredCriticalSection()
+    {
+        return this.nextCriticalSection < this.criticalSectionPlan.size() ? this.criticalSectionPlan.get(this.nextCriticalSection) : null;
+    }
+    
+    /**
+     * Return the next critical section to be entered and move the cursor
+     * past it.
+     *
+     * @return the next not-entered CriticalSection, or null if all were entered
+     */
+    public CriticalSection pollNotEnteredCriticalSection()
+    {
+        CriticalSection cs = this.peekNotEnteredCriticalSection();
+        if(cs != null)
+        {
+            this.nextCriticalSection++;
+        }
+        return cs;
     }
     
     /**
-     * Return the priority queue of critical sections not yet entered.
+     * Return the number of critical sections not yet entered.
      *
-     * @return a PriorityQueue of CriticalSection
+     * @return the not-entered critical section count
      */
-    public PriorityQueue<CriticalSection> getNotEnteredCriticalSectionSet()
+    public int getNotEnteredCriticalSectionCount()
     {
-        return this.notEnteredCriticalSectionSet;
+        return this.criticalSectionPlan.size() - this.nextCriticalSection;
     }
     
     /**
-     * Extract and return a snapshot Vector of not-entered critical sections
-     * while preserving the underlying priority queue.
+     * Return the i-th critical section still to be entered, in entering order.
+     *
+     * @param i 0 for the next critical section
+     * @return the not-entered CriticalSection
+     */
+    public CriticalSection getNotEnteredCriticalSection(int i)
+    {
+        return this.criticalSectionPlan.get(this.nextCriticalSection + i);
+    }
+    
+    /**
+     * Return a snapshot Vector of the not-entered critical sections in
+     * entering order.
      *
      * @return a Vector copy of not-entered CriticalSection elements
      */
     public Vector<CriticalSection> getNotEnteredCriticalSectionArray()
     {
         Vector<CriticalSection> newCS = new Vector<CriticalSection>();
-        PriorityQueue<CriticalSection> tempCS = new PriorityQueue<CriticalSection>();
-        
-        while(this.getNotEnteredCriticalSectionSet().size() != 0)
+        for(int i = this.nextCriticalSection ; i < this.criticalSectionPlan.size() ; i++)
         {
-            CriticalSection cs = this.getNotEnteredCriticalSectionSet().poll();
-            newCS.add(cs);
-            tempCS.add(cs);
+            newCS.add(this.criticalSectionPlan.get(i));
         }
-        this.notEnteredCriticalSectionSet = tempCS;
-        
         return newCS;
     }
     
     /**
-     * Return the stack of already-entered critical sections.
+     * Return the progress, in time units of work, at which this job locks
+     * its next critical section.
+     *
+     * @return the relative start time of the next not-entered critical
+     *         section, or {@code Long.MAX_VALUE} if all were entered
+     */
+    public long getNextLockBoundary()
+    {
+        return this.nextCriticalSection < this.criticalSectionPlan.size() ? this.criticalSectionPlan.getRelativeStartTime(this.nextCriticalSection) : Long.MAX_VALUE;
+    }
+    
+    /**
+     * Return the progress, in time units of work, at which this job unlocks
+     * its innermost entered critical section.
+     *
+     * @return the relative end time of the innermost entered critical
+     *         section, or {@code Long.MAX_VALUE} if none is entered
+     */
+    public long getNextUnlockBoundary()
+    {
+        return this.enteredCriticalSectionCount == 0 ? Long.MAX_VALUE : this.criticalSectionPlan.getRelativeEndTime(this.enteredCriticalSections[this.enteredCriticalSectionCount - 1]);
+    }
+    
+    /**
+     * Return the number of entered critical sections.
+     *
+     * @return the depth of the entered stack
+     */
+    public int getEnteredCriticalSectionCount()
+    {
+        return this.enteredCriticalSectionCount;
+    }
+    
+    /**
+     * Return the i-th entered critical section, from the outermost one.
+     *
+     * @param i 0 for the first entered critical section
+     * @return the entered CriticalSection
+     */
+    public CriticalSection getEnteredCriticalSection(int i)
+    {
+        return this.criticalSectionPlan.get(this.enteredCriticalSections[i]);
+    }
+    
+    /**
+     * Return the innermost entered critical section.
+     *
+     * @return the last entered CriticalSection, or null if none is entered
+     */
+    public CriticalSection peekEnteredCriticalSection()
+    {
+        return this.enteredCriticalSectionCount == 0 ? null : this.getEnteredCriticalSection(this.enteredCriticalSectionCount - 1);
+    }
+    
+    /**
+     * Return a Stack snapshot of the already-entered critical sections,
+     * the innermost one on top.
      *
      * @return a Stack of CriticalSection representing nested entries
      */
     public Stack<CriticalSection> getEnteredCriticalSectionSet()
     {
-        return this.enteredCriticalSectionSet;
+        Stack<CriticalSection> css = new Stack<CriticalSection>();
+        for(int i = 0 ; i < this.enteredCriticalSectionCount ; i++)
+        {
+            css.add(this.getEnteredCriticalSection(i));
+        }
+        return css;
     }
     
     /**
@@ -722,13 +1156,10 @@ public class Job implements Comparable
     public Vector<CriticalSection> getEnteredCriticalSectionArray()
     {
         Vector<CriticalSection> newCSs = new Vector<CriticalSection>();
-        
-        Object[] css = this.getEnteredCriticalSectionSet().toArray();
-        for(int i = 0 ; i< css.length ; i++)
+        for(int i = 0 ; i < this.enteredCriticalSectionCount ; i++)
         {
-            newCSs.add((CriticalSection)css[i]);
+            newCSs.add(this.getEnteredCriticalSection(i));
         }
-        
         return newCSs;
     }
     
@@ -759,15 +1190,17 @@ public class Job implements Comparable
      */
     public Vector<SharedResource> getResourceSet()
     {
-        return this.resourceSet;
+        return this.criticalSectionPlan.getResourceSet();
     }
     
     /**
      * Update job status and apply bookkeeping side-effects (completed/miss counters).
      * <p>
      * When marking COMPLETED or MISSDEADLINE this method updates the parent
-     * task counters and notifies attached SchedulingInfo records of the
-     * new completed/missed totals.
+     * task counters. Every call also snapshots the task's completed/missed
+     * totals and bumps the status version, which the job's scheduling records
+     * read instead of being rewritten one by one. A completed or missed job
+     * is folded into the parent task's job statistics.
      * </p>
      *
      * @param sta the new JobStatus value
@@ -789,27 +1222,35 @@ public class Job implements Comparable
 //                if(this.status != JobStatus.COMPLETED)
 //                {
                     this.parentTask.addJobCompletedCount();
-                    println("@@COMPLETED  --  Job("+this.parentTask.getID()+","+this.getID()+")");
+                    println(() -> "@@COMPLETED  --  Job("+this.parentTask.getID()+","+this.getID()+")");
 //                }
                 break;
             case MISSDEADLINE:
 //                if(this.status != JobStatus.MISSDEADLINE)
 //                {    
-                    println("@@MISSDEADLINE  --  Job("+this.parentTask.getID()+","+this.getID()+")");
+                    println(() -> "@@MISSDEADLINE  --  Job("+this.parentTask.getID()+","+this.getID()+")");
                     this.parentTask.addJobMissDeadlineCount();
 //                }
                 break;
             default:
         }
         
-        for(SchedulingInfo schedulingInfo: this.schedulingInfoSet)
-        {
-            schedulingInfo.setJobCompletedNum(this.parentTask.getJobCompletedCount());
-            schedulingInfo.setJobMissDeadlineNum(this.parentTask.getJobMissDeadlineCount());
-        }
+        //排程紀錄在讀取時比對statusVersion，取代逐筆更新
+        this.statusCompletedCount = this.parentTask.getJobCompletedCount();
+        this.statusMissDeadlineCount = this.parentTask.getJobMissDeadlineCount();
+        this.statusVersion++;
         
         this.setTimeOfStatus(time);
         this.setResponseTime(this.timeOfStatus - this.releaseTime);
+        
+        if(sta == JobStatus.COMPLETED || sta == JobStatus.MISSDEADLINE)
+        {
+            this.parentTask.addFinishedJob(this);
+            if(!this.parentTask.isJobRetained())
+            {
+                this.releaseRecords();
+            }
+        }
     }
     
     /**
@@ -819,7 +1260,18 @@ public class Job implements Comparable
      */
     public String getStatusString()
     {
-        switch(this.status)
+        return getStatusString(this.status);
+    }
+    
+    /**
+     * Return a human-readable label for a job status.
+     *
+     * @param status the job status
+     * @return status string
+     */
+    public static String getStatusString(JobStatus status)
+    {
+        switch(status)
         { 
             case NONCOMPUTE:
                 return " NonCompute ";
@@ -857,8 +1309,8 @@ public class Job implements Comparable
     /**
      * Return a formatted representation of the time the job entered its current status.
      * <p>
-     * If {@code timeOfStatus} is non-zero it is formatted using the global
-     * magnification factor; otherwise the last scheduling info end time is used.
+     * If {@code timeOfStatus} is non-zero it is formatted using the simulation
+     * context of the task set; otherwise the last scheduling info end time is used.
      * </p>
      *
      * @return formatted time-of-status string
@@ -866,17 +1318,60 @@ public class Job implements Comparable
     public String getTimeOfStatus()
     {
         
-        RTSimulatorMath math = new RTSimulatorMath();
         if(this.timeOfStatus != 0)
         {
-            return ""+ math.changeDecimalFormat((double)this.timeOfStatus/magnificationFactor);
+            SimulationContext context = this.parentTask.ParentTaskSet().getSimulationContext();
+            return ""+ context.changeDecimalFormat(context.toRealTime(this.timeOfStatus));
         }
         else
         {
-            return ""+this.schedulingInfoSet.lastElement().getEndTime();
+            return ""+this.lastRecordTimeline.getEndTime(this.lastRecordIndex);
         }
     }
     
+    /**
+     * Return the time the job entered its current status, in ticks.
+     *
+     * @return the time of status
+     */
+    public long getTimeOfStatusTick()
+    {
+        return this.timeOfStatus;
+    }
+    
+    /**
+     * Return the number of status changes of this job so far. A scheduling
+     * record created at an older version reports
+     * {@link #getStatusCompletedCount()} and
+     * {@link #getStatusMissDeadlineCount()} instead of its own snapshot.
+     *
+     * @return the status version
+     */
+    public int getStatusVersion()
+    {
+        return this.statusVersion;
+    }
+    
+    /**
+     * Return the parent task's completed job count at the latest status change.
+     *
+     * @return the completed job count
+     */
+    public int getStatusCompletedCount()
+    {
+        return this.statusCompletedCount;
+    }
+    
+    /**
+     * Return the parent task's missed job count at the latest status change.
+     *
+     * @return the deadline-missed job count
+     */
+    public int getStatusMissDeadlineCount()
+    {
+        return this.statusMissDeadlineCount;
+    }
+    
     /**
      * Set the measured response time for this job.
      *
@@ -935,9 +1430,9 @@ public class Job implements Comparable
                 && this.status != JobStatus.MISSDEADLINE)
         {
             println("!!");
-            println("currentCore:"+currentCore.getCurrentTime()+", getLocalReadyQueue: "+currentCore.getLocalReadyQueue().peek().getParentTask().getID()+","+currentCore.getLocalReadyQueue().peek().getID());
-            println("nextCore:"+nextCore.getCurrentTime()+", getLocalReadyQueue: "+currentCore.getLocalReadyQueue().peek().getParentTask().getID()+","+currentCore.getLocalReadyQueue().peek().getID());
-            println("Migration ~~~~~ :"+"Job("+this.parentTask.getID()+","+this.getID()+")"+", Core: "+this.currentCore.getID()+" to "+ nextCore.getID());
+            println(() -> "currentCore:"+currentCore.getCurrentTime()+", getLocalReadyQueue: "+currentCore.getLocalReadyQueue().peek().getParentTask().getID()+","+currentCore.getLocalReadyQueue().peek().getID());
+            println(() -> "nextCore:"+nextCore.getCurrentTime()+", getLocalReadyQueue: "+currentCore.getLocalReadyQueue().peek().getParentTask().getID()+","+currentCore.getLocalReadyQueue().peek().getID());
+            println(() -> "Migration ~~~~~ :"+"Job("+this.parentTask.getID()+","+this.getID()+")"+", Core: "+this.currentCore.getID()+" to "+ nextCore.getID());
             println("!!");
             
             this.currentCore.getLocalReadyQueue().remove(this);
@@ -978,8 +1473,8 @@ public class Job implements Comparable
      */
     public double getBeBlockedTimeRatio()
     {
-        println("T"+this.parentTask.getID()+" J"+this.ID+", beBlockedTime="+this.beBlockedTime);
-        println("T"+this.parentTask.getID()+" J"+this.ID+", beBlockedTimeRatio="+RTSimulatorMath.div(this.beBlockedTime,this.parentTask.getPeriod()) );
+        println(() -> "T"+this.parentTask.getID()+" J"+this.ID+", beBlockedTime="+this.beBlockedTime);
+        println(() -> "T"+this.parentTask.getID()+" J"+this.ID+", beBlockedTimeRatio="+RTSimulatorMath.div(this.beBlockedTime,this.parentTask.getPeriod()) );
         
         return RTSimulatorMath.div(this.beBlockedTime,this.parentTask.getPeriod()) ;
     }
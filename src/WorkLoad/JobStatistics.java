@@ -0,0 +1,122 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package WorkLoad;
+
+import java.util.Arrays;
+
+/**
+ * Running aggregate of one non-negative quantity over the finished jobs of a
+ * task: count, sum, minimum, maximum and a histogram.
+ * <p>
+ * The histogram has one bucket per power of two: bucket 0 counts the value
+ * 0 and bucket {@code k} the values in {@code [2^(k-1), 2^k)}, so it needs no
+ * range up front and its size does not grow with the number of jobs.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public class JobStatistics
+{
+    /**
+     * Number of histogram buckets, enough for any non-negative {@code long}.
+     */
+    public static final int BUCKET_COUNT = Long.SIZE;
+
+    private long count;
+    private long sum;
+    private long min;
+    private long max;
+    private long[] histogram;
+
+    /**
+     * Create an empty aggregate.
+     */
+    public JobStatistics()
+    {
+        this.count = 0;
+        this.sum = 0;
+        this.min = Long.MAX_VALUE;
+        this.max = Long.MIN_VALUE;
+        this.histogram = new long[BUCKET_COUNT];
+    }
+
+    /*Operating*/
+    /**
+     * Fold one value into the aggregate.
+     *
+     * @param value the value, negative values are counted in bucket 0
+     */
+    public void add(long value)
+    {
+        this.count++;
+        this.sum += value;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+        this.histogram[getBucket(value)]++;
+    }
+
+    /**
+     * Return the histogram bucket of a value.
+     *
+     * @param value the value
+     * @return the bucket index
+     */
+    public static int getBucket(long value)
+    {
+        return value <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    /*GetValue*/
+    /**
+     * Return the number of values folded in.
+     *
+     * @return the count
+     */
+    public long getCount()
+    {
+        return this.count;
+    }
+
+    /**
+     * Return the sum of the values.
+     *
+     * @return the sum
+     */
+    public long getSum()
+    {
+        return this.sum;
+    }
+
+    /**
+     * Return the smallest value.
+     *
+     * @return the minimum, or 0 when empty
+     */
+    public long getMin()
+    {
+        return this.count == 0 ? 0 : this.min;
+    }
+
+    /**
+     * Return the largest value.
+     *
+     * @return the maximum, or 0 when empty
+     */
+    public long getMax()
+    {
+        return this.count == 0 ? 0 : this.max;
+    }
+
+    /**
+     * Return the number of values of each histogram bucket.
+     *
+     * @return a copy of the histogram
+     */
+    public long[] getHistogram()
+    {
+        return Arrays.copyOf(this.histogram, BUCKET_COUNT);
+    }
+}
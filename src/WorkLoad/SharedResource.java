@@ -5,7 +5,11 @@
  */
 package WorkLoad;
 
+import WorkLoadSet.JobWaitQueue;
 import WorkLoadSet.TaskSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
 import java.util.Vector;
 import static RTSimulator.RTSimulator.println;
 
@@ -24,15 +28,25 @@ import static RTSimulator.RTSimulator.println;
  * detection (isGlobal) and that {@code Resource} objects are created and
  * assigned IDs when {@link #createResources(int)} is invoked.
  * </p>
+ * <p>
+ * The free resource instances are kept in a bitset and the instances locked
+ * by each job in an owner index, so locking takes the lowest free instance
+ * without scanning the pool and unlocking visits only the instances of the
+ * releasing job.
+ * </p>
  *
  * @author ShiuJia
  */
 public class SharedResource extends Vector<Resource>
 {
     private int ID;
+    private int index;//在SymbolTable中的位置，由0開始連續編號
     private TaskSet accessTaskSet;
-    private Vector<Job> PIPQueue;
+    private JobWaitQueue PIPQueue;
     private int idleResourceNum;
+    private BitSet freeResources;//閒置的Resource在pool中的位置
+    private IdentityHashMap<Job, Integer> firstLockedResource;//Job鎖定的第一個Resource位置
+    private int[] nextLockedResource;//同一個Job鎖定的下一個Resource位置，-1表示沒有
     private boolean isGlobal = false;//for MSRP
     
     /**
@@ -42,9 +56,13 @@ public class SharedResource extends Vector<Resource>
     {
         super();
         this.ID = 0;
+        this.index = -1;
         this.accessTaskSet = new TaskSet();
-        this.PIPQueue = new Vector<Job>();
+        this.PIPQueue = new JobWaitQueue();
         this.idleResourceNum = 0;
+        this.freeResources = new BitSet();
+        this.firstLockedResource = new IdentityHashMap<Job, Integer>();
+        this.nextLockedResource = new int[0];
     }
     
     /**
@@ -67,6 +85,9 @@ public class SharedResource extends Vector<Resource>
             this.add(r);
         }
         this.idleResourceNum = n;
+        this.freeResources.set(0, n);
+        this.nextLockedResource = new int[n];
+        Arrays.fill(this.nextLockedResource, -1);
     }
     
     /**
@@ -83,10 +104,10 @@ public class SharedResource extends Vector<Resource>
      * Attempt to lock a free Resource for the given Job and mark it with the
      * specified critical section end time.
      * <p>
-     * The method iterates resources in the pool and assigns the first free
-     * Resource it finds to the Job. The resource's relative end time is set
-     * from the critical section, and the job is recorded as having locked that
-     * resource. The idle resource count is decremented.
+     * The first free Resource of the pool, taken from the free bitset, is
+     * assigned to the Job. The resource's relative end time is set from the
+     * critical section, and the resource is added to the job's entry of the
+     * owner index. The idle resource count is decremented.
      * </p>
      *
      * @param j the Job acquiring a lock
@@ -94,37 +115,43 @@ public class SharedResource extends Vector<Resource>
      */
     public void setLock(Job j, CriticalSection cs)
     {
-        for(Resource r : this)
+        int i = this.freeResources.nextSetBit(0);
+        if(i < 0)
         {
-            if(r.whoLocked() == null)
-            {
-                r.setLockedBy(j);
-                r.setRelativeEndTime(cs.getRelativeEndTime());
-                cs.setResourceID(r.getID());
-                this.idleResourceNum--;
-                break;
-            }
+            return;
         }
+        
+        Resource r = this.get(i);
+        r.setLockedBy(j);
+        r.setRelativeEndTime(cs.getRelativeEndTime());
+        cs.setResourceID(r.getID());
+        this.freeResources.clear(i);
+        Integer first = this.firstLockedResource.put(j, i);
+        this.nextLockedResource[i] = first == null ? -1 : first;
+        this.idleResourceNum--;
     }
     
     /**
      * Release resources locked by the specified Job.
      * <p>
-     * All Resource instances whose {@link Resource#whoLocked()} equals {@code j}
-     * are unlocked and the idle resource counter is incremented.
+     * All Resource instances whose {@link Resource#whoLocked()} equals {@code j},
+     * found through the owner index, are unlocked and the idle resource
+     * counter is incremented.
      * </p>
      *
      * @param j the Job releasing locks
      */
     public void setUnlock(Job j)
     {
-        for(Resource r : this)
+        Integer first = this.firstLockedResource.remove(j);
+        for(int i = first == null ? -1 : first ; i >= 0 ; )
         {
-            if(r.whoLocked() == j)
-            {
-                r.unlock();
-                this.idleResourceNum++;
-            }
+            int next = this.nextLockedResource[i];
+            this.get(i).unlock();
+            this.freeResources.set(i);
+            this.nextLockedResource[i] = -1;
+            this.idleResourceNum++;
+            i = next;
         }
     }
     
@@ -133,7 +160,7 @@ public class SharedResource extends Vector<Resource>
      */
     public void releasePIPQueueJob()
     {   
-        this.PIPQueue.removeAllElements();
+        this.PIPQueue.clear();
     }
     
     /**
@@ -149,16 +176,16 @@ public class SharedResource extends Vector<Resource>
     /**
      * Return the last locked resource's owner whose current core equals the
      * provided Job's current core. This helps resolve ownership when mixing
-     * local/global resources.
+     * local/global resources. Only the locked resources are visited.
      *
      * @param j the Job used to compare the owner core
      * @return the Job that locked the most recently used resource on the same core, or null
      */
     public Job getWhoLockedLastResource(Job j)//between local and global resource 會有問題
     {
-        for (int i = this.getResourcesAmount()-1 ; i>=0 ; i--)
+        for (int i = this.freeResources.previousClearBit(this.getResourcesAmount()-1) ; i>=0 ; i = this.freeResources.previousClearBit(i-1))
         {
-            if(this.getResource(i).whoLocked() != null && this.getResource(i).whoLocked().getCurrentCore() == j.getCurrentCore())
+            if(this.getResource(i).whoLocked().getCurrentCore() == j.getCurrentCore())
             {
                 return this.getResource(i).whoLocked();
             }
@@ -199,6 +226,17 @@ public class SharedResource extends Vector<Resource>
         }
         
     }
+    /**
+     * Set whether this SharedResource is global, as decided by the
+     * {@link SystemEnvironment.BlockingAnalysis} of the partitioned task set.
+     *
+     * @param b true if tasks on more than one core access this resource
+     */
+    public void setIsGlobal(boolean b)//for MSRP
+    {
+        this.isGlobal = b;
+    }
+    
     /**
      * Return whether this resource is considered global (MSRP usage).
      *
@@ -214,11 +252,11 @@ public class SharedResource extends Vector<Resource>
      */
     public void showInfo()
     {
-        println("Resource(" + this.ID + "):");
+        println(() -> "Resource(" + this.ID + "):");
         println("    AccessSet:");
         for(Task t : this.accessTaskSet)
         {
-            println("        Task(" + t.getID() + ")");
+            println(() -> "        Task(" + t.getID() + ")");
         }
         println();
     }
@@ -244,11 +282,33 @@ public class SharedResource extends Vector<Resource>
     }
     
     /**
-     * Return the PIP waiting queue as a Vector of Jobs.
+     * Set the dense index of this SharedResource; only
+     * {@link WorkLoadSet.SymbolTable} calls this.
      *
-     * @return the PIPQueue vector
+     * @param i the resource index
      */
-    public Vector<Job> getPIPQueue()
+    public void setIndex(int i)
+    {
+        this.index = i;
+    }
+    
+    /**
+     * Return the dense index of this SharedResource, from 0 in loading order,
+     * for per-resource tables.
+     *
+     * @return the resource index, or -1 if the resource was not registered
+     */
+    public int getIndex()
+    {
+        return this.index;
+    }
+    
+    /**
+     * Return the PIP waiting queue of Jobs.
+     *
+     * @return the PIPQueue
+     */
+    public JobWaitQueue getPIPQueue()
     {
         return this.PIPQueue;
     }
@@ -295,22 +355,13 @@ public class SharedResource extends Vector<Resource>
     }
     
     /**
-     * Count and return the number of currently free Resource instances.
+     * Return the number of currently free Resource instances.
      *
      * @return the count of resources not currently locked
      */
     public int getLeftResourceAmount()
     {
-        int i = 0;
-        for(Resource res : this)
-        {
-            if(res.whoLocked() == null)
-            {
-                i += 1;
-            }
-        }
-        return i ;
-        
+        return this.freeResources.cardinality();
     }
 
 }
\ No newline at end of file
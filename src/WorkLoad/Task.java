@@ -6,15 +6,18 @@
 package WorkLoad;
 
 import SystemEnvironment.Core;
+import SystemEnvironment.SimulationContext;
 import WorkLoadSet.CriticalSectionSet;
+import WorkLoadSet.SymbolTable;
 import WorkLoadSet.TaskSet;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.Random;
 import java.util.Vector;
+import RTSimulator.Definition.ArrivalType;
 import RTSimulator.Definition.JobStatus;
-import static RTSimulator.Definition.magnificationFactor;
 import RTSimulator.RTSimulatorMath;
 import static RTSimulator.RTSimulator.println;
 
@@ -35,10 +38,14 @@ import static RTSimulator.RTSimulator.println;
 public class Task
 {
     private int ID; //代碼
+    private int index; //在SymbolTable中的位置，由0開始連續編號
     private int JobCount; //產生的Job個數
     private long enterTime; //初次進入系統的時間
     private long period; //週期
     private List<Long> periodList;
+    private ArrivalType arrivalType; //到達模式，Sporadic時period為最小到達間隔
+    private long releaseJitter; //每次到達後最多延遲多久才釋放Job
+    private long maxInterArrivalTime; //Sporadic時的最大到達間隔，0為兩倍period
     private long relativeDeadline; //相對截止時間
     private List<Long> relativeDeadlineList;
     private long computationAmount; //所需工作量
@@ -49,12 +56,16 @@ public class Task
     private List<Long> criticalityLevelList;
     private Core localCore; //使用於Partitioned Scheduling分配Core
     private CriticalSectionSet criticalSectionSet; //執行過程中所需的CriticalSection
+    private CriticalSectionPlan criticalSectionPlan; //Job進入CriticalSection的順序，載入工作負載時編譯
     private long totalCriticalSectionTime;//整體的CriticalSectionTime
     private TaskSet parentTaskSet; //所屬工作集合
     private Job curJob;
     private int jobMissDeadlineCount = 0;
     private int jobCompletedCount = 0;
     private Vector<Job> jobSet;
+    private JobStatistics responseTimeStatistics; //已結束Job的統計，不保留Job時據此計算平均
+    private JobStatistics pendingTimeStatistics;
+    private JobStatistics beBlockedTimeRatioStatistics; //以work units累計
     private Vector<SharedResource> sharedResourceSet;
     private Vector<Nest> nestSet;
 
@@ -64,9 +75,13 @@ public class Task
     public Task()
     {
         this.ID = 0;
+        this.index = -1;
         this.JobCount = 0;
         this.enterTime = 0;
         this.period = 0;
+        this.arrivalType = ArrivalType.Periodic;
+        this.releaseJitter = 0;
+        this.maxInterArrivalTime = 0;
         this.relativeDeadline = 0;
         this.relativeDeadlineList = new ArrayList<>();
         this.computationAmount = 0;
@@ -77,9 +92,13 @@ public class Task
         this.priority = new Priority(0);
         this.localCore = null;
         this.criticalSectionSet = new CriticalSectionSet();
+        this.criticalSectionPlan = null;
         this.parentTaskSet = null;
         this.sharedResourceSet = new Vector<SharedResource>();
         this.jobSet = new Vector<>();
+        this.responseTimeStatistics = new JobStatistics();
+        this.pendingTimeStatistics = new JobStatistics();
+        this.beBlockedTimeRatioStatistics = new JobStatistics();
         this.curJob = new Job();
         this.nestSet = new Vector<Nest>();
     }
@@ -125,21 +144,38 @@ public class Task
         {
             this.criticalSectionSet.add(PCS.poll());
         }
+        this.criticalSectionPlan = null;
     }
     
     /**
-     * Produce a new Job instance for this Task at the given production time.
-     * <p>
-     * The job is initialized with IDs, timing (release and absolute
-     * deadline), target work amount and priority/criticality values derived
-     * from this Task. The job is recorded in the task's job set and returned
-     * to the caller for scheduling/placement.
-     * </p>
+     * Produce a new Job instance for this Task that arrives and is released
+     * at the given production time.
      *
      * @param produceTime the absolute time at which the job is released
      * @return the newly created Job
+     * @see #produceJob(long, long)
      */
     public Job produceJob(long produceTime)
+    {
+        return this.produceJob(produceTime, produceTime);
+    }
+    
+    /**
+     * Produce a new Job instance for this Task.
+     * <p>
+     * The job is initialized with IDs, timing (release time and an absolute
+     * deadline counted from the arrival, so release jitter does not extend
+     * it), target work amount and priority/criticality values derived from
+     * this Task. The job is recorded in the task's job set, unless the run
+     * does not retain jobs (see {@link SimulationContext#isJobRetained()}),
+     * and returned to the caller for scheduling/placement.
+     * </p>
+     *
+     * @param arrivalTime the absolute time at which the job arrives
+     * @param produceTime the absolute time at which the job is released, not before its arrival
+     * @return the newly created Job
+     */
+    public Job produceJob(long arrivalTime, long produceTime)
     {
         this.JobCount++;
         Job j = new Job();
@@ -147,40 +183,104 @@ public class Task
         j.setID(this.JobCount);
         j.setParentTask(this);
         j.setReleaseTime(produceTime);
-        j.setAbsoluteDeadline(produceTime + this.relativeDeadline);
+        j.setAbsoluteDeadline(arrivalTime + this.relativeDeadline);
         j.setTargetAmount(this.computationAmount);
         j.setPriorityLevel(this.priorityLevel);
         j.setCriticalityLevel(this.criticalityLevel);
         
         j.setOriginalPriority(this.priority);
         j.setCurrentProiority(this.priority);
-        j.setCriticalSectionSet(this.criticalSectionSet);
+        j.setCriticalSectionPlan(this.getCriticalSectionPlan());
         j.setMaxProcessingSpeed(this.ParentTaskSet().getProcessingSpeed());
-        this.jobSet.add(j);
+        if(this.isJobRetained())
+        {
+            this.jobSet.add(j);
+        }
        // println("t("+ this.ID +","+ j.getID() +") :" + j.getReleaseTime() );
         return j;
     }
     
+    /**
+     * Fold a job that just completed or missed its deadline into the task's
+     * job statistics. Called once per job by {@link Job#setStatus}.
+     *
+     * @param j the finished job
+     */
+    void addFinishedJob(Job j)
+    {
+        this.responseTimeStatistics.add(j.getResponseTime());
+        this.pendingTimeStatistics.add(j.getPendingTime());
+        this.beBlockedTimeRatioStatistics.add(RTSimulatorMath.toWorkUnits(RTSimulatorMath.div(j.getBeBlockedTime(), this.period)));
+    }
+    
+    /**
+     * Return the arrival instant that follows one job of this task.
+     * <p>
+     * A periodic task arrives every period after its previous arrival. A
+     * sporadic task arrives after an inter-arrival time drawn uniformly from
+     * {@code [period, maxInterArrivalTime]} (see
+     * {@link #getMaxInterArrivalTime()}). Arrivals never depend on release
+     * jitter, so the jitter of one job does not shift the following ones.
+     * A task without a positive period arrives only once.
+     * </p>
+     *
+     * @param arrivalTime the previous arrival time
+     * @param random the random generator of the run
+     * @return the next arrival time, or {@code Long.MAX_VALUE} if there is none
+     */
+    public long getNextArrivalTime(long arrivalTime, Random random)
+    {
+        if(this.period <= 0)
+        {
+            return Long.MAX_VALUE;
+        }
+        
+        switch(this.arrivalType)
+        {
+            case Sporadic:
+                return arrivalTime + this.period + random.nextLong(this.getMaxInterArrivalTime() - this.period + 1);
+                
+            default:
+                return arrivalTime + this.period;
+        }
+    }
+    
+    /**
+     * Draw the delay between an arrival of this task and the release of its
+     * job, uniformly from {@code [0, releaseJitter]}.
+     *
+     * @param random the random generator of the run
+     * @return the release delay
+     */
+    public long drawReleaseJitter(Random random)
+    {
+        if(this.releaseJitter <= 0)
+        {
+            return 0;
+        }
+        return random.nextLong(this.releaseJitter + 1);
+    }
+    
     /**
      * Print debug information about this Task and its configuration.
      */
     public void showInfo()
     {
-        println("Task(" + this.ID + "):");
-        println("    EnterTime: " + this.enterTime);
-        println("    period: " + this.period);
-        println("    periodList: " + this.periodList);
-        println("    RelativeDeadline: " + this.relativeDeadline);
-        println("    RelativeDeadlineList: " + this.relativeDeadlineList);
-        println("    ComputationAmount: " + this.computationAmount);
-        println("    ComputationAmountList: " + this.computationAmountList);
-        println("    PriorityLevel: " + this.priorityLevel);
-        println("    CriticalityLevel: " + this.criticalityLevel);
-        println("    CriticalityLevelList: " + this.criticalityLevelList);
+        println(() -> "Task(" + this.ID + "):");
+        println(() -> "    EnterTime: " + this.enterTime);
+        println(() -> "    period: " + this.period);
+        println(() -> "    periodList: " + this.periodList);
+        println(() -> "    RelativeDeadline: " + this.relativeDeadline);
+        println(() -> "    RelativeDeadlineList: " + this.relativeDeadlineList);
+        println(() -> "    ComputationAmount: " + this.computationAmount);
+        println(() -> "    ComputationAmountList: " + this.computationAmountList);
+        println(() -> "    PriorityLevel: " + this.priorityLevel);
+        println(() -> "    CriticalityLevel: " + this.criticalityLevel);
+        println(() -> "    CriticalityLevelList: " + this.criticalityLevelList);
         println("    CriticalSection:");
         for(CriticalSection cs : this.criticalSectionSet)
         {
-            println("        CriticalSection(R" + cs.getUseSharedResource().getID() + "):" + cs.getRelativeStartTime() + "/" + cs.getRelativeEndTime());
+            println(() -> "        CriticalSection(R" + cs.getUseSharedResource().getID() + "):" + cs.getRelativeStartTime() + "/" + cs.getRelativeEndTime());
         }
         println();
     }
@@ -196,6 +296,16 @@ public class Task
         this.ID = id;
     }
     
+    /**
+     * Set the dense index of the task; only {@link SymbolTable} calls this.
+     *
+     * @param i the task index
+     */
+    public void setIndex(int i)
+    {
+        this.index = i;
+    }
+    
     /**
      * Set the time this task first entered the system.
      *
@@ -216,6 +326,36 @@ public class Task
         this.period = p;
     }
     
+    /**
+     * Set the arrival model of this task.
+     *
+     * @param t the arrival type
+     */
+    public void setArrivalType(ArrivalType t)
+    {
+        this.arrivalType = t;
+    }
+    
+    /**
+     * Set the largest delay between an arrival and the release of its job.
+     *
+     * @param j the release jitter
+     */
+    public void setReleaseJitter(long j)
+    {
+        this.releaseJitter = j;
+    }
+    
+    /**
+     * Set the largest time between two arrivals of a sporadic task.
+     *
+     * @param t the maximum inter-arrival time; 0 for twice the period
+     */
+    public void setMaxInterArrivalTime(long t)
+    {
+        this.maxInterArrivalTime = t;
+    }
+    
     /**
      * Set the list of per-criticality periods used in multi-criticality modes.
      *
@@ -372,6 +512,17 @@ public class Task
         return this.ID;
     }
     
+    /**
+     * Return the dense index of the task, from 0 in loading order, for
+     * per-task tables.
+     *
+     * @return the task index, or -1 if the task was not registered
+     */
+    public int getIndex()
+    {
+        return this.index;
+    }
+    
     /**
      * Return the time this task first entered the system.
      *
@@ -392,6 +543,38 @@ public class Task
         return this.period;
     }
     
+    /**
+     * Return the arrival model of this task.
+     *
+     * @return the arrival type
+     */
+    public ArrivalType getArrivalType()
+    {
+        return this.arrivalType;
+    }
+    
+    /**
+     * Return the largest delay between an arrival and the release of its job.
+     *
+     * @return the release jitter
+     */
+    public long getReleaseJitter()
+    {
+        return this.releaseJitter;
+    }
+    
+    /**
+     * Return the largest time between two arrivals of a sporadic task: the
+     * value set, twice the period if none was set, and never less than the
+     * period, which is the minimum inter-arrival time.
+     *
+     * @return the maximum inter-arrival time
+     */
+    public long getMaxInterArrivalTime()
+    {
+        return Math.max(this.period, this.maxInterArrivalTime > 0 ? this.maxInterArrivalTime : 2 * this.period);
+    }
+    
     /**
      * Return the list of per-criticality periods.
      *
@@ -528,6 +711,23 @@ public class Task
         return this.criticalSectionSet;
     }
     
+    /**
+     * Return the entering order of this task's critical sections, shared by
+     * all of its jobs. The plan is compiled when the workload is loaded (see
+     * {@link TaskSet#compileCriticalSectionPlans()}), otherwise on first use,
+     * and again after a critical section is added.
+     *
+     * @return the critical section plan
+     */
+    public CriticalSectionPlan getCriticalSectionPlan()
+    {
+        if(this.criticalSectionPlan == null)
+        {
+            this.criticalSectionPlan = new CriticalSectionPlan(this.criticalSectionSet);
+        }
+        return this.criticalSectionPlan;
+    }
+    
     /**
      * Return the currently produced Job for this task (latest job instance).
      *
@@ -575,7 +775,8 @@ public class Task
     }
     
     /**
-     * Return the vector of all jobs produced by this task.
+     * Return the vector of all jobs produced by this task; empty when the run
+     * does not retain jobs.
      *
      * @return the job set vector
      */
@@ -611,13 +812,13 @@ public class Task
      */
     public double getAverageResponseTimeOfJob()
     {
-        double time = 0;
+        long time = this.isJobRetained() ? 0 : this.responseTimeStatistics.getSum();
         
         for(Job j : this.jobSet)
         {
             if(j.getStatus() == JobStatus.COMPLETED || j.getStatus() == JobStatus.MISSDEADLINE)
             {
-                time = RTSimulatorMath.add(time, j.getResponseTime());
+                time += j.getResponseTime();
             }
         }
         
@@ -638,13 +839,13 @@ public class Task
      */
     public double getAveragePendingTimeOfJob()
     {
-        double time = 0;
+        long time = this.isJobRetained() ? 0 : this.pendingTimeStatistics.getSum();
         
         for(Job j : this.jobSet)
         {
             if(j.getStatus() == JobStatus.COMPLETED || j.getStatus() == JobStatus.MISSDEADLINE)
             {
-                time = RTSimulatorMath.add(time, j.getPendingTime());
+                time += j.getPendingTime();
             }
         }
         
@@ -665,18 +866,18 @@ public class Task
      */
     public double getAverageBeBlockedTimeRatioOfJob()
     {
-        double ratio = 0;
+        long ratio = this.isJobRetained() ? 0 : this.beBlockedTimeRatioStatistics.getSum();//In work units, so the sum is exact.
         for(Job j : this.jobSet)
         {
             if(j.getStatus() == JobStatus.COMPLETED || j.getStatus() == JobStatus.MISSDEADLINE)
             {
-                ratio = RTSimulatorMath.add(ratio,j.getBeBlockedTimeRatio());
+                ratio += RTSimulatorMath.toWorkUnits(j.getBeBlockedTimeRatio());
             }
         }
         
         if(this.getJobCount() != 0)
         {
-            return RTSimulatorMath.div(ratio,this.getJobCount());
+            return RTSimulatorMath.div(RTSimulatorMath.toAmount(ratio),this.getJobCount());
         }
         else
         {
@@ -684,6 +885,49 @@ public class Task
         }
     }
     
+    /**
+     * Return the response time statistics of the finished jobs.
+     *
+     * @return response times in ticks
+     */
+    public JobStatistics getResponseTimeStatistics()
+    {
+        return this.responseTimeStatistics;
+    }
+    
+    /**
+     * Return the pending time statistics of the finished jobs.
+     *
+     * @return pending times in ticks
+     */
+    public JobStatistics getPendingTimeStatistics()
+    {
+        return this.pendingTimeStatistics;
+    }
+    
+    /**
+     * Return the blocked-time ratio statistics of the finished jobs.
+     *
+     * @return blocked-time ratios in work units (see {@link RTSimulatorMath#toWorkUnits(double)})
+     */
+    public JobStatistics getBeBlockedTimeRatioStatistics()
+    {
+        return this.beBlockedTimeRatioStatistics;
+    }
+    
+    /**
+     * Return whether this task keeps the jobs it releases, as set by the
+     * simulation context of its task set. Helper task sets without a context
+     * keep them.
+     *
+     * @return {@code true} if jobs are retained
+     */
+    public boolean isJobRetained()
+    {
+        SimulationContext c = this.parentTaskSet == null ? null : this.parentTaskSet.getSimulationContext();
+        return c == null || c.isJobRetained();
+    }
+    
     /**
      * Return the list of nests (nested critical sections) for this task.
      *
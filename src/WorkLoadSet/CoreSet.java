@@ -7,6 +7,7 @@ package WorkLoadSet;
 
 import SystemEnvironment.*;
 import WorkLoad.CoreSpeed;
+import java.util.Arrays;
 import java.util.Vector;
 import static RTSimulator.RTSimulator.println;
 import RTSimulator.RTSimulatorMath;
@@ -41,6 +42,9 @@ public class CoreSet extends Vector<Core>
     private double beta;
     private double gamma;
     private boolean hasPowerConsumptionFunction;
+    private boolean isPowerConsumptionValid;//currentPowerConsumption matches currentSpeed
+    private double[] levelSpeed;//CoreSpeedSet中不重複的速度，遞增
+    private double[] levelPower;//各速度的PowerConsumption，null時需重建
     /**
      * Whether this group uses an idealized power model.
      * <p>
@@ -68,6 +72,7 @@ public class CoreSet extends Vector<Core>
         this.beta = 0;
         this.gamma = 0;
         this.hasPowerConsumptionFunction = false;
+        this.isPowerConsumptionValid = false;
         this.isIdeal = false;
     }
     
@@ -90,6 +95,7 @@ public class CoreSet extends Vector<Core>
         this.gamma = cSet.getGammaValue();
         this.isIdeal = cSet.isIdeal;
         this.hasPowerConsumptionFunction = cSet.hasPowerConsumptionFunction;
+        this.isPowerConsumptionValid = false;
         
         for(CoreSpeed cSpeed : cSet.getCoreSpeedSet())
         {
@@ -116,6 +122,8 @@ public class CoreSet extends Vector<Core>
     public void addCoreSpeed(CoreSpeed s)
     {
         this.coreSpeedSet.addSpeed(s);
+        this.isPowerConsumptionValid = false;
+        this.levelPower = null;
     }
     
     /**
@@ -175,6 +183,8 @@ public class CoreSet extends Vector<Core>
         {
             println("CoreType Error!!!!!");
         }
+        this.isPowerConsumptionValid = false;
+        this.levelPower = null;
     }
     
     /**
@@ -187,6 +197,8 @@ public class CoreSet extends Vector<Core>
     {
         this.alpha = a;
         this.hasPowerConsumptionFunction = true;
+        this.isPowerConsumptionValid = false;
+        this.levelPower = null;
     }
     
     /**
@@ -199,6 +211,8 @@ public class CoreSet extends Vector<Core>
     {
         this.beta = b;
         this.hasPowerConsumptionFunction = true;
+        this.isPowerConsumptionValid = false;
+        this.levelPower = null;
     }
     
     /**
@@ -211,6 +225,8 @@ public class CoreSet extends Vector<Core>
     {
         this.gamma = r;
         this.hasPowerConsumptionFunction = true;
+        this.isPowerConsumptionValid = false;
+        this.levelPower = null;
     }
     
     /**
@@ -221,6 +237,8 @@ public class CoreSet extends Vector<Core>
     public void setCoreSpeedSet(CoreSpeedSet ss)
     {
         this.coreSpeedSet = ss;
+        this.isPowerConsumptionValid = false;
+        this.levelPower = null;
     }
     
     /**
@@ -234,7 +252,8 @@ public class CoreSet extends Vector<Core>
      * - The group currentSpeed is set to the mapped speed equal to the maximum
      *   core speed seen. If the group speed changed, each core is flagged
      *   with isChangeSpeed = true.
-     * - Finally, power consumption is updated via setPowerConsumption().
+     * - Finally, power consumption is updated via setPowerConsumption() when
+     *   the speed (or the power model) changed since it was last computed.
      * </p>
      */
     public void setCurrentSpeed()
@@ -271,8 +290,50 @@ public class CoreSet extends Vector<Core>
             {
                 core.isChangeSpeed = true;
             }
+            this.isPowerConsumptionValid = false;
+        }
+        
+        if(!this.isPowerConsumptionValid)
+        {
+            this.setPowerConsumption();
         }
-        this.setPowerConsumption();
+    }
+    
+    /**
+     * Precompute the power consumption of every speed level of the
+     * CoreSpeedSet, so that a speed change costs a table lookup instead of the
+     * analytical function or a scan of the CoreSpeedSet. Called when the
+     * CoreSet is added to its processor, and again on the next speed change
+     * after the speeds or the power model are modified.
+     * <p>
+     * Each level gets the value setPowerConsumption() would compute for it:
+     * the analytical function if ideal or if coefficients are provided,
+     * otherwise the level's own power (the last one listed for a speed that
+     * appears more than once).
+     * </p>
+     */
+    public void setPowerTable()
+    {
+        int n = 0;
+        this.levelSpeed = new double[this.coreSpeedSet.size()];
+        this.levelPower = new double[this.coreSpeedSet.size()];
+        for(CoreSpeed s : this.coreSpeedSet)//CoreSpeedSet依速度遞增
+        {
+            if(n == 0 || s.getSpeed() != this.levelSpeed[n - 1])
+            {
+                n++;
+            }
+            this.levelSpeed[n - 1] = s.getSpeed();
+            this.levelPower[n - 1] = this.isIdeal || this.hasPowerConsumptionFunction
+                                   ? this.getPowerOfFunction(s.getSpeed()) : s.getPowerConsumption();
+        }
+        this.levelSpeed = Arrays.copyOf(this.levelSpeed, n);
+        this.levelPower = Arrays.copyOf(this.levelPower, n);
+    }
+    
+    private double getPowerOfFunction(double speed)
+    {
+        return RTSimulatorMath.mul((this.alpha + (this.beta * Math.pow(RTSimulatorMath.div(speed, 1000), this.gamma) ) ),1000);
     }
     
     /**
@@ -284,38 +345,32 @@ public class CoreSet extends Vector<Core>
      * - Otherwise, attempt to find a matching per-speed power from CoreSpeedSet;
      *   if not found, print a warning and set to -1 (Chinese inline note:
      *   "檢查是否取得相對應的 PowerConsumption").
+     * Speeds of the CoreSpeedSet are looked up in the table of
+     * setPowerTable(); only an ideal speed between two levels is computed.
      * </p>
      */
     public void setPowerConsumption()
     {
-        if(this.isIdeal)
+        if(this.levelPower == null)
         {
-            this.currentPowerConsumption = RTSimulatorMath.mul((this.alpha + (this.beta * Math.pow(RTSimulatorMath.div(this.currentSpeed, 1000), this.gamma) ) ),1000);
+            this.setPowerTable();
         }
-        else
+        
+        int level = Arrays.binarySearch(this.levelSpeed, this.currentSpeed);
+        if(level >= 0)
         {
-            if(this.hasPowerConsumptionFunction)
-            {
-                this.currentPowerConsumption = RTSimulatorMath.mul((this.alpha + (this.beta * Math.pow(RTSimulatorMath.div(this.currentSpeed, 1000), this.gamma) ) ),1000);
-            }
-            else
-            {
-                boolean isFound = false;
-                for(CoreSpeed s : this.coreSpeedSet)
-                {
-                    if( this.currentSpeed == s.getSpeed() )
-                    {
-                        this.currentPowerConsumption = s.getPowerConsumption();
-                        isFound = true;
-                    }
-                }
-                if(!isFound)//檢查是否取得相對應的 PowerConsumption
-                {
-                    println("Not found PowerConsumption of Speed");
-                    this.currentPowerConsumption = -1;
-                }
-            }
+            this.currentPowerConsumption = this.levelPower[level];
+        }
+        else if(this.isIdeal || this.hasPowerConsumptionFunction)
+        {
+            this.currentPowerConsumption = this.getPowerOfFunction(this.currentSpeed);
+        }
+        else//檢查是否取得相對應的 PowerConsumption
+        {
+            println("Not found PowerConsumption of Speed");
+            this.currentPowerConsumption = -1;
         }
+        this.isPowerConsumptionValid = true;
     }
     
     /*GetValue*/
@@ -6,6 +6,7 @@
 package WorkLoadSet;
 
 import SystemEnvironment.Processor;
+import SystemEnvironment.SimulationContext;
 import WorkLoad.SharedResource;
 import WorkLoad.Task;
 
@@ -25,34 +26,53 @@ public class DataSetting
     Processor processor;
     TaskSet taskSet;
     SharedResourceSet sharedResourceSet;
+    SymbolTable symbolTable;
+    SimulationContext context;
     
     /**
-     * Construct a DataSetting with fresh Processor, TaskSet and SharedResourceSet instances.
+     * Construct a DataSetting with fresh Processor, TaskSet and SharedResourceSet
+     * instances and a default {@link SimulationContext}.
      */
     public DataSetting()
     {
+        this(new SimulationContext());
+    }
+    
+    /**
+     * Construct a DataSetting with fresh Processor, TaskSet and SharedResourceSet
+     * instances whose time values follow the given context.
+     * @param c the simulation context of the run
+     */
+    public DataSetting(SimulationContext c)
+    {
+        this.context = c;
         this.processor = new Processor();
         this.taskSet = new TaskSet();
+        this.taskSet.setSimulationContext(c);
         this.sharedResourceSet = new SharedResourceSet();
+        this.symbolTable = new SymbolTable();
     }
     
     /*Operating*/
     /**
-     * Add a task to the internal task set.
+     * Add a task to the internal task set and give it the next task index.
      * @param t task to add
      */
     public void addTask(Task t)
     {
         this.taskSet.add(t);
+        this.symbolTable.addTask(t);
     }
     
     /**
-     * Add a shared resource to the internal shared resource set.
+     * Add a shared resource to the internal shared resource set and give it
+     * the next resource index.
      * @param r shared resource to add
      */
     public void addSharedResource(SharedResource r)
     {
         this.sharedResourceSet.add(r);
+        this.symbolTable.addSharedResource(r);
     }
     
     /*GetValue*/
@@ -105,4 +125,23 @@ public class DataSetting
     
  
     
-}
\ No newline at end of file
+    
+    /**
+     * Get the symbol table holding the dense indices of the tasks and
+     * shared resources.
+     * @return symbol table
+     */
+    public SymbolTable getSymbolTable()
+    {
+        return this.symbolTable;
+    }
+    
+    /**
+     * Get the simulation context the data was read with.
+     * @return simulation context
+     */
+    public SimulationContext getSimulationContext()
+    {
+        return this.context;
+    }
+}
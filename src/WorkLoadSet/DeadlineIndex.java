@@ -0,0 +1,136 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package WorkLoadSet;
+
+import WorkLoad.Job;
+import RTSimulator.Definition.JobStatus;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Vector;
+
+/**
+ * Index of released jobs ordered by absolute deadline, used to find the jobs
+ * that may miss their deadline without scanning the ready queues.
+ * <p>
+ * Jobs are added once, when they are released. A job stays in the deadline
+ * heap until its deadline has passed; it is then moved to the set of overdue
+ * jobs, which the processor checks for membership in its ready queues. An
+ * overdue job is dropped once it is completed or has missed its deadline and
+ * is no longer queued, so completion and migration need no bookkeeping here.
+ * </p>
+ * <p>
+ * The cost of one check is O(k log n) for the k jobs whose deadline has just
+ * passed, plus the size of the overdue set, which only holds jobs that are
+ * about to be reported as deadline misses or are kept out of the ready
+ * queues (e.g. suspended) past their deadline.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public class DeadlineIndex
+{
+    private PriorityQueue<Job> deadlineQueue;
+    private Vector<Job> overdueJobs;
+
+    /**
+     * Create an empty deadline index.
+     */
+    public DeadlineIndex()
+    {
+        this.deadlineQueue = new PriorityQueue<Job>((a, b) -> Long.compare(a.getAbsoluteDeadline(), b.getAbsoluteDeadline()));
+        this.overdueJobs = new Vector<Job>();
+    }
+
+    /*Operating*/
+    /**
+     * Add a newly released job.
+     *
+     * @param j the released job
+     */
+    public void add(Job j)
+    {
+        this.deadlineQueue.add(j);
+    }
+
+    /**
+     * Remove every job from this index.
+     */
+    public void clear()
+    {
+        this.deadlineQueue.clear();
+        this.overdueJobs.clear();
+    }
+
+    /**
+     * Move every job whose absolute deadline is not after {@code time} into the
+     * overdue set and drop the overdue jobs that are finished and no longer
+     * queued.
+     *
+     * @param time the current system time
+     * @return the overdue jobs, in no particular order
+     */
+    public Vector<Job> getOverdueJobs(long time)
+    {
+        while(!this.deadlineQueue.isEmpty() && this.deadlineQueue.peek().getAbsoluteDeadline() <= time)
+        {
+            this.overdueJobs.add(this.deadlineQueue.poll());
+        }
+
+        Iterator<Job> it = this.overdueJobs.iterator();
+        while(it.hasNext())
+        {
+            Job j = it.next();
+            if(this.isFinished(j))
+            {
+                it.remove();
+            }
+        }
+        return this.overdueJobs;
+    }
+
+    /**
+     * Return the earliest absolute deadline that has not passed yet among the
+     * unfinished jobs. Finished jobs found on top of the deadline heap are
+     * dropped on the way.
+     *
+     * @return the earliest pending deadline, or {@code Long.MAX_VALUE} if there is none
+     */
+    public long getNextDeadline()
+    {
+        while(!this.deadlineQueue.isEmpty() && this.isFinished(this.deadlineQueue.peek()))
+        {
+            this.deadlineQueue.poll();
+        }
+
+        Job j = this.deadlineQueue.peek();
+        return j == null ? Long.MAX_VALUE : j.getAbsoluteDeadline();
+    }
+
+    private boolean isFinished(Job j)
+    {
+        return !j.isQueued() && (j.getStatus() == JobStatus.COMPLETED || j.getStatus() == JobStatus.MISSDEADLINE);
+    }
+
+    /*GetValue*/
+    /**
+     * Return whether any overdue job is currently in a ready queue, i.e. will
+     * be reported as a deadline miss at the next check.
+     *
+     * @return true if an overdue job is queued
+     */
+    public boolean hasQueuedOverdueJob()
+    {
+        for(Job j : this.overdueJobs)
+        {
+            if(j.isQueued())
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
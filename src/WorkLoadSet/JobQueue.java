@@ -6,10 +6,12 @@
 package WorkLoadSet;
 
 import WorkLoad.Job;
-import WorkLoad.Task;
 
-import java.util.PriorityQueue;
-import java.util.Vector;
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * Priority queue of jobs ordered according to their natural ordering
@@ -17,76 +19,310 @@ import java.util.Vector;
  * resorting after in-place priority mutations and setting blocking time
  * indicators for higher-priority jobs.
  * <p>
+ * The queue is an indexed binary heap: every {@link Job} remembers its slot in
+ * each queue that holds it, so {@link #contains(Object)} is O(1) and
+ * {@link #remove(Object)} and {@link #update(Job)} are O(log n). A job is held
+ * at most once; adding a job that is already queued only repositions it.
+ * </p>
+ * <p>
  * The {@link #peek()} override returns null when the head job is suspended,
  * allowing callers to treat a suspended head as an empty queue condition.
  * </p>
  *
  * @author ShiuJia
  */
-public class JobQueue extends PriorityQueue<Job>
+public class JobQueue extends AbstractQueue<Job>
 {
+    private Job[] heap;
+    private int size;
+    private int modCount;
+    private int raisedCount;//佇列中優先權被協定暫時拉高的Job數
+
     /**
      * Create an empty job priority queue.
      */
     public JobQueue()
     {
         super();
+        this.heap = new Job[16];
+        this.size = 0;
+        this.modCount = 0;
+    }
+
+    /*Operating*/
+    /**
+     * Insert a job. If the job is already in this queue it is only moved to
+     * the position matching its current priority.
+     *
+     * @param j the job to insert
+     * @return always {@code true}
+     * @throws NullPointerException if {@code j} is null
+     */
+    @Override
+    public boolean offer(Job j)
+    {
+        if(j == null)
+        {
+            throw new NullPointerException();
+        }
+
+        if(this.update(j))
+        {
+            return true;
+        }
+
+        if(this.size == this.heap.length)
+        {
+            this.heap = Arrays.copyOf(this.heap, this.size * 2);
+        }
+
+        this.modCount++;
+        this.setAt(this.size, j);
+        this.size++;
+        if(j.isRaised())
+        {
+            this.raisedCount++;
+        }
+        this.siftUp(this.size - 1);
+        return true;
+    }
+
+    /**
+     * Remove and return the highest-priority job, regardless of suspension.
+     *
+     * @return the head job, or null if the queue is empty
+     */
+    @Override
+    public Job poll()
+    {
+        if(this.size == 0)
+        {
+            return null;
+        }
+
+        Job j = this.heap[0];
+        this.removeAt(0);
+        return j;
+    }
+
+    /**
+     * Remove a job from this queue in O(log n).
+     *
+     * @param o the job to remove
+     * @return true if the job was queued here
+     */
+    @Override
+    public boolean remove(Object o)
+    {
+        int slot = this.slotOf(o);
+        if(slot < 0)
+        {
+            return false;
+        }
+
+        this.removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Test whether a job is in this queue in O(1).
+     *
+     * @param o the job to look for
+     * @return true if the job is queued here
+     */
+    @Override
+    public boolean contains(Object o)
+    {
+        return this.slotOf(o) >= 0;
+    }
+
+    /**
+     * Move a queued job to the position matching its current ordering key,
+     * after its priority was raised or lowered in place. Only jobs whose key
+     * actually changed move; otherwise this costs a few comparisons.
+     *
+     * @param j the job whose priority changed
+     * @return true if the job is in this queue
+     */
+    public boolean update(Job j)
+    {
+        int slot = j.getQueueSlot(this);
+        if(slot < 0)
+        {
+            return false;
+        }
+
+        this.modCount++;
+        if(this.siftUp(slot) == slot)
+        {
+            this.siftDown(slot);
+        }
+        return true;
     }
-    
+
     /**
-     * Rebuild ordering by polling all elements into a fresh queue and adding
-     * them back. Useful when job priorities change in-place and the underlying
-     * heap needs to be re-heapified.
+     * Remove every job from this queue.
+     */
+    @Override
+    public void clear()
+    {
+        this.modCount++;
+        for(int i = 0 ; i < this.size ; i++)
+        {
+            this.heap[i].setQueueSlot(this, -1);
+            this.heap[i] = null;
+        }
+        this.size = 0;
+        this.raisedCount = 0;
+    }
+
+    /**
+     * Restore the heap order in O(n) after the priorities of many jobs were
+     * changed in place without {@link #update(Job)}.
      */
     public void reSort()
     {
-        JobQueue newQ = new JobQueue();
-        while(this.size()!=0)
+        this.modCount++;
+        for(int i = (this.size >>> 1) - 1 ; i >= 0 ; i--)
         {
-            newQ.add(this.poll());
-        } 
-        this.addAll(newQ);
+            this.siftDown(i);
+        }
+    }
+
+    /**
+     * Record that a queued job's priority was raised by a locking protocol,
+     * or assigned again by the scheduling algorithm. Only {@link Job} calls
+     * this.
+     *
+     * @param isRaised true if the job's priority was raised
+     */
+    public void setRaised(boolean isRaised)
+    {
+        this.raisedCount += isRaised ? 1 : -1;
     }
-    
+
     /**
      * Mark jobs with higher original priority than the blocking job as having
-     * been blocked for one time unit (setBeBlockedTime(1)). Iterates in current
-     * queue order until a job with lower or equal priority is encountered.
+     * been blocked for one time unit (setBeBlockedTime(1)).
      *
      * @param blockingJob the job causing potential blocking of higher-priority jobs
      */
     public void setBlockingTime(Job blockingJob)
     {
-        if(!this.isEmpty())
+        this.setBlockingTime(blockingJob, 1);
+    }
+
+    /**
+     * Mark every job with higher original priority than the blocking job as
+     * having been blocked for the given amount of time. All queued jobs are
+     * examined, since the heap's internal order says nothing about original
+     * priorities.
+     *
+     * @param blockingJob the job causing potential blocking of higher-priority jobs
+     * @param time the blocked time to add to each such job
+     */
+    public void setBlockingTime(Job blockingJob, long time)
+    {
+        for(int i = 0 ; i < this.size ; i++)
         {
-            Object[] jobs = this.toArray();
-            for(int i = 0 ; i<jobs.length ; i++)
+            Job j = this.heap[i];
+            if(j != blockingJob && j.getOriginalPriority().compare(blockingJob.getOriginalPriority()) == 1)
             {
-                if(blockingJob != ((Job)jobs[i]))
-                {
-                    if(((Job)jobs[i]).getOriginalPriority().compare(blockingJob.getOriginalPriority()) == 1)
-                    {
-                        ((Job)jobs[i]).setBeBlockedTime(1);
-                    }
-                    else 
-                    {
-                        break;
-                    }
-                }
+                j.setBeBlockedTime(time);
+            }
+        }
+    }
+
+    private void removeAt(int slot)
+    {
+        this.modCount++;
+        if(this.heap[slot].isRaised())
+        {
+            this.raisedCount--;
+        }
+        this.heap[slot].setQueueSlot(this, -1);
+        this.size--;
+
+        if(slot == this.size)
+        {
+            this.heap[slot] = null;
+            return;
+        }
+
+        Job last = this.heap[this.size];
+        this.heap[this.size] = null;
+        this.setAt(slot, last);
+        if(this.siftUp(slot) == slot)
+        {
+            this.siftDown(slot);
+        }
+    }
+
+    private int siftUp(int slot)
+    {
+        Job j = this.heap[slot];
+        while(slot > 0)
+        {
+            int parent = (slot - 1) >>> 1;
+            if(j.compareTo(this.heap[parent]) >= 0)
+            {
+                break;
+            }
+            this.setAt(slot, this.heap[parent]);
+            slot = parent;
+        }
+        this.setAt(slot, j);
+        return slot;
+    }
+
+    private int siftDown(int slot)
+    {
+        Job j = this.heap[slot];
+        int half = this.size >>> 1;
+        while(slot < half)
+        {
+            int child = (slot << 1) + 1;
+            int right = child + 1;
+            if(right < this.size && this.heap[right].compareTo(this.heap[child]) < 0)
+            {
+                child = right;
+            }
+            if(j.compareTo(this.heap[child]) <= 0)
+            {
+                break;
             }
+            this.setAt(slot, this.heap[child]);
+            slot = child;
         }
+        this.setAt(slot, j);
+        return slot;
     }
-    
+
+    private void setAt(int slot, Job j)
+    {
+        this.heap[slot] = j;
+        j.setQueueSlot(this, slot);
+    }
+
+    private int slotOf(Object o)
+    {
+        if(!(o instanceof Job))
+        {
+            return -1;
+        }
+        return ((Job)o).getQueueSlot(this);
+    }
+
+    /*GetValue*/
     /**
      * Return the head job unless it is suspended, in which case null is returned.
-     * Overrides {@link PriorityQueue#peek()} to filter suspended jobs.
      *
      * @return head job or null if queue empty or head is suspended
      */
     @Override
-    public Job peek() 
+    public Job peek()
     {
-        Job j = super.peek();
+        Job j = this.size == 0 ? null : this.heap[0];
         if(j==null || j.isSuspended)
         {
             return null;
@@ -94,5 +330,61 @@ public class JobQueue extends PriorityQueue<Job>
         return j;
     }
 
+    /**
+     * Return the number of queued jobs.
+     *
+     * @return the queue size
+     */
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Return whether a queued job has a priority raised by a locking protocol,
+     * in O(1).
+     *
+     * @return true if some queued job is raised
+     */
+    public boolean hasRaisedJob()
+    {
+        return this.raisedCount > 0;
+    }
+
+    /**
+     * Return an iterator over the queued jobs in heap order (not priority
+     * order). The iterator is fail-fast and does not support removal.
+     *
+     * @return an iterator over the queued jobs
+     */
+    @Override
+    public Iterator<Job> iterator()
+    {
+        return new Iterator<Job>()
+        {
+            private int cursor = 0;
+            private final int expectedModCount = JobQueue.this.modCount;
 
-}
\ No newline at end of file
+            @Override
+            public boolean hasNext()
+            {
+                return this.cursor < JobQueue.this.size;
+            }
+
+            @Override
+            public Job next()
+            {
+                if(this.expectedModCount != JobQueue.this.modCount)
+                {
+                    throw new ConcurrentModificationException();
+                }
+                if(this.cursor >= JobQueue.this.size)
+                {
+                    throw new NoSuchElementException();
+                }
+                return JobQueue.this.heap[this.cursor++];
+            }
+        };
+    }
+}
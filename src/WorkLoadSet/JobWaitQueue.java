@@ -0,0 +1,305 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package WorkLoadSet;
+
+import WorkLoad.Job;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * First-in first-out queue of jobs waiting for a shared resource, as kept by
+ * the concurrency control protocols.
+ * <p>
+ * Like {@link JobQueue} the queue is intrusive: every {@link Job} remembers
+ * its slot in each wait queue that holds it, so {@link #contains(Object)} is
+ * O(1) and {@link #remove(Object)} of a job anywhere in the queue is O(1)
+ * amortized. A removed job leaves an empty slot behind, which is skipped by
+ * the head and dropped when the slots are compacted. A job is held at most
+ * once; adding a job that is already queued keeps its place.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public class JobWaitQueue extends AbstractQueue<Job>
+{
+    private Job[] slots;
+    private int head;//第一個Job的位置
+    private int tail;//下一個加入的位置
+    private int size;
+    private int modCount;
+
+    /**
+     * Create an empty wait queue.
+     */
+    public JobWaitQueue()
+    {
+        super();
+        this.slots = new Job[8];
+        this.head = 0;
+        this.tail = 0;
+        this.size = 0;
+        this.modCount = 0;
+    }
+
+    /*Operating*/
+    /**
+     * Append a job to the end of the queue, unless it is already waiting.
+     *
+     * @param j the job to append
+     * @return always {@code true}
+     * @throws NullPointerException if {@code j} is null
+     */
+    @Override
+    public boolean offer(Job j)
+    {
+        if(j == null)
+        {
+            throw new NullPointerException();
+        }
+
+        if(j.getWaitQueueSlot(this) >= 0)
+        {
+            return true;
+        }
+
+        if(this.tail == this.slots.length)
+        {
+            this.compact();
+        }
+
+        this.modCount++;
+        this.slots[this.tail] = j;
+        j.setWaitQueueSlot(this, this.tail);
+        this.tail++;
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Remove and return the job at the head of the queue.
+     *
+     * @return the head job, or null if the queue is empty
+     */
+    @Override
+    public Job poll()
+    {
+        if(this.size == 0)
+        {
+            return null;
+        }
+
+        Job j = this.slots[this.head];
+        this.removeAt(this.head);
+        return j;
+    }
+
+    /**
+     * Remove a job from anywhere in the queue in O(1).
+     *
+     * @param o the job to remove
+     * @return true if the job was queued here
+     */
+    @Override
+    public boolean remove(Object o)
+    {
+        int slot = this.slotOf(o);
+        if(slot < 0)
+        {
+            return false;
+        }
+
+        this.removeAt(slot);
+        return true;
+    }
+
+    /**
+     * Test whether a job is in this queue in O(1).
+     *
+     * @param o the job to look for
+     * @return true if the job is queued here
+     */
+    @Override
+    public boolean contains(Object o)
+    {
+        return this.slotOf(o) >= 0;
+    }
+
+    /**
+     * Remove every job from this queue.
+     */
+    @Override
+    public void clear()
+    {
+        this.modCount++;
+        for(int i = this.head ; i < this.tail ; i++)
+        {
+            if(this.slots[i] != null)
+            {
+                this.slots[i].setWaitQueueSlot(this, -1);
+                this.slots[i] = null;
+            }
+        }
+        this.head = 0;
+        this.tail = 0;
+        this.size = 0;
+    }
+
+    private void removeAt(int slot)
+    {
+        this.modCount++;
+        this.slots[slot].setWaitQueueSlot(this, -1);
+        this.slots[slot] = null;
+        this.size--;
+
+        while(this.head < this.tail && this.slots[this.head] == null)
+        {
+            this.head++;
+        }
+        if(this.size == 0)
+        {
+            this.head = 0;
+            this.tail = 0;
+        }
+    }
+
+    private void compact()//移除空位，至多一半是Job時不擴充
+    {
+        Job[] target = this.size * 2 > this.slots.length ? new Job[this.slots.length * 2] : this.slots;
+        int n = 0;
+        for(int i = this.head ; i < this.tail ; i++)
+        {
+            Job j = this.slots[i];
+            if(j != null)
+            {
+                this.slots[i] = null;
+                target[n] = j;
+                j.setWaitQueueSlot(this, n);
+                n++;
+            }
+        }
+        this.slots = target;
+        this.head = 0;
+        this.tail = n;
+    }
+
+    private int slotOf(Object o)
+    {
+        if(!(o instanceof Job))
+        {
+            return -1;
+        }
+        return ((Job)o).getWaitQueueSlot(this);
+    }
+
+    /*GetValue*/
+    /**
+     * Return the job at the head of the queue without removing it.
+     *
+     * @return the head job, or null if the queue is empty
+     */
+    @Override
+    public Job peek()
+    {
+        return this.size == 0 ? null : this.slots[this.head];
+    }
+
+    /**
+     * Return the number of waiting jobs.
+     *
+     * @return the queue size
+     */
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Iterate the waiting jobs from the head. The iterator fails fast when
+     * the queue is modified other than through it.
+     *
+     * @return an iterator in FIFO order
+     */
+    @Override
+    public Iterator<Job> iterator()
+    {
+        return new Iterator<Job>()
+        {
+            private int cursor = JobWaitQueue.this.head;
+            private int last = -1;
+            private int expectedModCount = JobWaitQueue.this.modCount;
+
+            @Override
+            public boolean hasNext()
+            {
+                while(this.cursor < JobWaitQueue.this.tail && JobWaitQueue.this.slots[this.cursor] == null)
+                {
+                    this.cursor++;
+                }
+                return this.cursor < JobWaitQueue.this.tail;
+            }
+
+            @Override
+            public Job next()
+            {
+                if(this.expectedModCount != JobWaitQueue.this.modCount)
+                {
+                    throw new ConcurrentModificationException();
+                }
+                if(!this.hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.cursor++;
+                return JobWaitQueue.this.slots[this.last];
+            }
+
+            @Override
+            public void remove()
+            {
+                if(this.last < 0)
+                {
+                    throw new IllegalStateException();
+                }
+                if(this.expectedModCount != JobWaitQueue.this.modCount)
+                {
+                    throw new ConcurrentModificationException();
+                }
+                JobWaitQueue.this.removeAt(this.last);
+                if(this.cursor < JobWaitQueue.this.head)
+                {
+                    this.cursor = JobWaitQueue.this.head;
+                }
+                this.last = -1;
+                this.expectedModCount = JobWaitQueue.this.modCount;
+            }
+        };
+    }
+
+    /**
+     * Return a copy of the waiting jobs in FIFO order.
+     *
+     * @return an array of the queued jobs
+     */
+    @Override
+    public Object[] toArray()
+    {
+        Job[] jobs = new Job[this.size];
+        int n = 0;
+        for(int i = this.head ; i < this.tail ; i++)
+        {
+            if(this.slots[i] != null)
+            {
+                jobs[n++] = this.slots[i];
+            }
+        }
+        return Arrays.copyOf(jobs, n, Object[].class);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package WorkLoadSet;
+
+import WorkLoad.SharedResource;
+import WorkLoad.Task;
+import java.util.HashMap;
+import java.util.Vector;
+
+/**
+ * Dense internal indices of the tasks and shared resources of one run.
+ * <p>
+ * The readers register every task and shared resource as they load them, and
+ * each one receives the next index from 0 (see {@link Task#getIndex()} and
+ * {@link SharedResource#getIndex()}). Protocols size their per-task and
+ * per-resource tables by {@link #getTaskCount()} and
+ * {@link #getSharedResourceCount()} and index them by these indices, so the
+ * IDs in the workload file may start anywhere and have gaps. Cores need no
+ * entry here: {@link SystemEnvironment.Processor#addCore} already numbers them
+ * densely from 1.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public class SymbolTable
+{
+    private Vector<Task> tasks;
+    private Vector<SharedResource> sharedResources;
+    private HashMap<Integer, Task> taskOfID;
+    private HashMap<Integer, SharedResource> sharedResourceOfID;
+
+    /**
+     * Create an empty symbol table.
+     */
+    public SymbolTable()
+    {
+        this.tasks = new Vector<Task>();
+        this.sharedResources = new Vector<SharedResource>();
+        this.taskOfID = new HashMap<Integer, Task>();
+        this.sharedResourceOfID = new HashMap<Integer, SharedResource>();
+    }
+
+    /*Operating*/
+    /**
+     * Give a task the next task index.
+     *
+     * @param t the task, with its ID already set
+     */
+    public void addTask(Task t)
+    {
+        t.setIndex(this.tasks.size());
+        this.tasks.add(t);
+        this.taskOfID.put(t.getID(), t);
+    }
+
+    /**
+     * Give a shared resource the next resource index.
+     *
+     * @param r the shared resource, with its ID already set
+     */
+    public void addSharedResource(SharedResource r)
+    {
+        r.setIndex(this.sharedResources.size());
+        this.sharedResources.add(r);
+        this.sharedResourceOfID.put(r.getID(), r);
+    }
+
+    /*GetValue*/
+    /**
+     * Return the number of registered tasks.
+     *
+     * @return the size of the task tables
+     */
+    public int getTaskCount()
+    {
+        return this.tasks.size();
+    }
+
+    /**
+     * Return the number of registered shared resources.
+     *
+     * @return the size of the resource tables
+     */
+    public int getSharedResourceCount()
+    {
+        return this.sharedResources.size();
+    }
+
+    /**
+     * Return the task of an index.
+     *
+     * @param i the task index
+     * @return the task
+     */
+    public Task getTask(int i)
+    {
+        return this.tasks.get(i);
+    }
+
+    /**
+     * Return the shared resource of an index.
+     *
+     * @param i the resource index
+     * @return the shared resource
+     */
+    public SharedResource getSharedResource(int i)
+    {
+        return this.sharedResources.get(i);
+    }
+
+    /**
+     * Return the task with the given ID from the workload file.
+     *
+     * @param id the task ID
+     * @return the task, or null if no task has this ID
+     */
+    public Task getTaskByID(int id)
+    {
+        return this.taskOfID.get(id);
+    }
+
+    /**
+     * Return the shared resource with the given ID from the workload file.
+     *
+     * @param id the resource ID
+     * @return the shared resource, or null if no resource has this ID
+     */
+    public SharedResource getSharedResourceByID(int id)
+    {
+        return this.sharedResourceOfID.get(id);
+    }
+}
@@ -12,10 +12,12 @@ import WorkLoad.Task;
 import java.util.Vector;
 import RTSimulator.Definition;
 import RTSimulator.Definition.JobStatus;
-import static RTSimulator.Definition.magnificationFactor;
+import RTSimulator.Definition.TraceLevel;
+import static RTSimulator.RTSimulator.isTracing;
 import static RTSimulator.RTSimulator.print;
 import static RTSimulator.RTSimulator.println;
 import RTSimulator.RTSimulatorMath;
+import SystemEnvironment.SimulationContext;
 
 /**
  * Collection of tasks participating in the workload. Extends {@link Vector}
@@ -25,7 +27,7 @@ import RTSimulator.RTSimulatorMath;
  * <p>
  * maxProcessingSpeed is expressed in MHz (單位=MHz). Scheduling horizon
  * calculation integrates least common multiple (LCM) of periods and may fall
- * back to a scaled constant (200 * magnificationFactor) when tasks have
+ * back to a scaled constant (200 * magnification factor) when tasks have
  * non-zero arrival offsets. Nest set construction (see {@link #setNestSetForTask()})
  * groups critical sections into nested structures based on start/end inclusion
  * forming hierarchical resource usage patterns.
@@ -37,6 +39,7 @@ public class TaskSet extends Vector<Task>
 {
     private double maxProcessingSpeed; // 單位=MHz
     private double maximumCriticalSectionRatio,actualCriticalSectionRatio,maximumUtilization,actualUtilization;
+    private SimulationContext context = null;
     
     
     /**
@@ -57,6 +60,29 @@ public class TaskSet extends Vector<Task>
         this.maxProcessingSpeed = s;
     }
     
+    /**
+     * Set the simulation context whose time scale the task times use.
+     * @param c simulation context
+     */
+    public void setSimulationContext(SimulationContext c)
+    {
+        this.context = c;
+    }
+    
+    /**
+     * Get the simulation context whose time scale the task times use.
+     * @return simulation context, or null for helper sets built by algorithms
+     */
+    public SimulationContext getSimulationContext()
+    {
+        return this.context;
+    }
+    
+    private long getMagnificationFactor()
+    {
+        return this.context == null ? 1 : this.context.getMagnificationFactor();
+    }
+    
     /**
      * Set configured maximum critical section ratio (CSR) bound.
      * @param ratio maximum CSR
@@ -107,7 +133,7 @@ public class TaskSet extends Vector<Task>
      * Compute scheduling horizon for the task set.
      * <p>
      * Returns LCM of all task periods when all arrival times are zero;
-     * otherwise returns a fallback constant (200 * magnificationFactor).
+     * otherwise returns a fallback constant (200 * magnification factor).
      * </p>
      * @return schedule horizon time units
      */
@@ -117,7 +143,7 @@ public class TaskSet extends Vector<Task>
         
         long biggestEnterTime = getBiggestEnterTime();
         
-        return biggestEnterTime == 0 ? lcmPeriod : 200*magnificationFactor;
+        return biggestEnterTime == 0 ? lcmPeriod : 200*this.getMagnificationFactor();
         
     }
     
@@ -230,48 +256,48 @@ public class TaskSet extends Vector<Task>
     }
     
     /**
-     * Average pending time across tasks (scaled by magnificationFactor).
+     * Average pending time across tasks (scaled by the magnification factor).
      * @return average pending time
      */
     public double getAveragePendingTimeOfTask()
     {
-        double time = 0;
+        long time = 0;//In work units, so the sum is exact.
         for(Task t : this)
         {
-            time = RTSimulatorMath.add(time,t.getAveragePendingTimeOfJob());
+            time += RTSimulatorMath.toWorkUnits(t.getAveragePendingTimeOfJob());
         }
         
-        return RTSimulatorMath.div(RTSimulatorMath.div(time, this.size()),magnificationFactor);
+        return RTSimulatorMath.div(RTSimulatorMath.div(RTSimulatorMath.toAmount(time), this.size()),this.getMagnificationFactor());
     }
     
     /**
-     * Average response time across tasks (scaled by magnificationFactor).
+     * Average response time across tasks (scaled by the magnification factor).
      * @return average response time
      */
     public double getAverageResponseTimeOfTask()
     {
-        double time = 0;
+        long time = 0;//In work units, so the sum is exact.
         for(Task t : this)
         {
-            time = RTSimulatorMath.add(time,t.getAverageResponseTimeOfJob());
+            time += RTSimulatorMath.toWorkUnits(t.getAverageResponseTimeOfJob());
         }
         
-        return RTSimulatorMath.div(RTSimulatorMath.div(time, this.size()),magnificationFactor);
+        return RTSimulatorMath.div(RTSimulatorMath.div(RTSimulatorMath.toAmount(time), this.size()),this.getMagnificationFactor());
     }
     
     /**
-     * Average ratio of blocked time across tasks (scaled by magnificationFactor).
+     * Average ratio of blocked time across tasks (scaled by the magnification factor).
      * @return average blocked time ratio
      */
     public double getAverageBeBlockedTimeRatioOfTask()
     {
-        double ratio = 0;
+        long ratio = 0;//In work units, so the sum is exact.
         for(Task t : this)
         {
-            ratio = RTSimulatorMath.add(ratio,t.getAverageBeBlockedTimeRatioOfJob());  
+            ratio += RTSimulatorMath.toWorkUnits(t.getAverageBeBlockedTimeRatioOfJob());
         }
         
-        return RTSimulatorMath.div(RTSimulatorMath.div(ratio, this.size()),magnificationFactor);
+        return RTSimulatorMath.div(RTSimulatorMath.div(RTSimulatorMath.toAmount(ratio), this.size()),this.getMagnificationFactor());
     }
     
     /**
@@ -408,6 +434,10 @@ public class TaskSet extends Vector<Task>
             } 
         }
         
+        if(!isTracing(TraceLevel.DEBUG))
+        {
+            return;
+        }
         
         for(int i=0;i<this.size();i++)
         {
@@ -443,6 +473,20 @@ public class TaskSet extends Vector<Task>
         } 
     }
     
+    /**
+     * Compile the critical section plan of each task, so the jobs released
+     * during the simulation share it instead of copying the task's critical
+     * sections. Called once the workload is loaded, after
+     * {@link #setNestSetForTask()}.
+     */
+    public void compileCriticalSectionPlans()
+    {
+        for(Task t : this)
+        {
+            t.getCriticalSectionPlan();
+        }
+    }
+    
     
     
 }
\ No newline at end of file
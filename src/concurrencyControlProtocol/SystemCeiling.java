@@ -0,0 +1,268 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package concurrencyControlProtocol;
+
+import WorkLoad.Priority;
+import WorkLoad.SharedResource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * The locked resources of a ceiling protocol (PCP, SRP, MSRP) together with
+ * their ceilings, kept so the system ceiling is known without scanning them.
+ * <p>
+ * The resources are held both in locking order, for {@link #pop()}, and in an
+ * indexed binary heap ordered by ceiling, the earlier lock first on equal
+ * ceilings, i.e. the resource a scan of the locking order keeping only
+ * strictly higher ceilings would find. Locking and unlocking cost O(log r)
+ * and the system ceiling query O(1), for r locked resources.
+ * </p>
+ * <p>
+ * The ceilings are compared through the {@link Priority} objects given to
+ * {@link #push(SharedResource, Priority)}. A protocol that changes those
+ * objects in place (e.g. DPCP) calls {@link #reSort()} afterwards.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public class SystemCeiling
+{
+    private class Entry
+    {
+        SharedResource resource;
+        Priority ceiling;
+        long order;//加入的順序
+        int slot;//在heap中的位置
+        Entry prev;//前一個鎖定的資源
+        Entry next;
+    }
+
+    private Entry[] heap;
+    private int size;
+    private long nextOrder;
+    private Entry last;//最後鎖定的資源
+    private IdentityHashMap<SharedResource, ArrayList<Entry>> entriesOfResource;
+
+    /**
+     * Create an empty system ceiling.
+     */
+    public SystemCeiling()
+    {
+        this.heap = new Entry[8];
+        this.size = 0;
+        this.nextOrder = 0;
+        this.last = null;
+        this.entriesOfResource = new IdentityHashMap<SharedResource, ArrayList<Entry>>();
+    }
+
+    /*Operating*/
+    /**
+     * Record a locked resource on top of the locking order.
+     *
+     * @param r the locked resource
+     * @param ceiling the ceiling of the resource
+     */
+    public void push(SharedResource r, Priority ceiling)
+    {
+        Entry e = new Entry();
+        e.resource = r;
+        e.ceiling = ceiling;
+        e.order = this.nextOrder++;
+        e.prev = this.last;
+        if(this.last != null)
+        {
+            this.last.next = e;
+        }
+        this.last = e;
+        this.entriesOfResource.computeIfAbsent(r, k -> new ArrayList<Entry>(1)).add(e);
+
+        if(this.size == this.heap.length)
+        {
+            this.heap = Arrays.copyOf(this.heap, this.size * 2);
+        }
+        this.setAt(this.size, e);
+        this.size++;
+        this.siftUp(e.slot);
+    }
+
+    /**
+     * Remove the most recently locked resource, whatever resource it is.
+     *
+     * @return the removed resource, or null if none is locked
+     */
+    public SharedResource pop()
+    {
+        if(this.last == null)
+        {
+            return null;
+        }
+
+        Entry e = this.last;
+        ArrayList<Entry> entries = this.entriesOfResource.get(e.resource);
+        entries.remove(e);
+        if(entries.isEmpty())
+        {
+            this.entriesOfResource.remove(e.resource);
+        }
+        this.removeEntry(e);
+        return e.resource;
+    }
+
+    /**
+     * Remove every lock record of a resource.
+     *
+     * @param r the unlocked resource
+     * @return true if the resource was recorded
+     */
+    public boolean remove(SharedResource r)
+    {
+        ArrayList<Entry> entries = this.entriesOfResource.remove(r);
+        if(entries == null)
+        {
+            return false;
+        }
+
+        for(Entry e : entries)
+        {
+            this.removeEntry(e);
+        }
+        return true;
+    }
+
+    /**
+     * Restore the heap order in O(r) after ceilings were changed in place.
+     */
+    public void reSort()
+    {
+        for(int i = (this.size >>> 1) - 1 ; i >= 0 ; i--)
+        {
+            this.siftDown(i);
+        }
+    }
+
+    private void removeEntry(Entry e)
+    {
+        if(e.prev != null)
+        {
+            e.prev.next = e.next;
+        }
+        if(e.next != null)
+        {
+            e.next.prev = e.prev;
+        }
+        else
+        {
+            this.last = e.prev;
+        }
+
+        int slot = e.slot;
+        this.size--;
+        Entry moved = this.heap[this.size];
+        this.heap[this.size] = null;
+        if(slot != this.size)
+        {
+            this.setAt(slot, moved);
+            if(this.siftUp(slot) == slot)
+            {
+                this.siftDown(slot);
+            }
+        }
+    }
+
+    private boolean isBefore(Entry a, Entry b)
+    {
+        int c = a.ceiling.compare(b.ceiling);
+        return c > 0 || (c == 0 && a.order < b.order);
+    }
+
+    private int siftUp(int slot)
+    {
+        Entry e = this.heap[slot];
+        while(slot > 0)
+        {
+            int parent = (slot - 1) >>> 1;
+            if(!this.isBefore(e, this.heap[parent]))
+            {
+                break;
+            }
+            this.setAt(slot, this.heap[parent]);
+            slot = parent;
+        }
+        this.setAt(slot, e);
+        return slot;
+    }
+
+    private void siftDown(int slot)
+    {
+        Entry e = this.heap[slot];
+        int half = this.size >>> 1;
+        while(slot < half)
+        {
+            int child = (slot << 1) + 1;
+            int right = child + 1;
+            if(right < this.size && this.isBefore(this.heap[right], this.heap[child]))
+            {
+                child = right;
+            }
+            if(!this.isBefore(this.heap[child], e))
+            {
+                break;
+            }
+            this.setAt(slot, this.heap[child]);
+            slot = child;
+        }
+        this.setAt(slot, e);
+    }
+
+    private void setAt(int slot, Entry e)
+    {
+        this.heap[slot] = e;
+        e.slot = slot;
+    }
+
+    /*GetValue*/
+    /**
+     * Return the locked resource with the highest ceiling, the earliest
+     * locked one on equal ceilings.
+     *
+     * @return the resource setting the system ceiling, or null if none is locked
+     */
+    public SharedResource peekResource()
+    {
+        return this.size == 0 ? null : this.heap[0].resource;
+    }
+
+    /**
+     * Return the highest ceiling of the locked resources.
+     *
+     * @return the system ceiling, or null if none is locked
+     */
+    public Priority peekCeiling()
+    {
+        return this.size == 0 ? null : this.heap[0].ceiling;
+    }
+
+    /**
+     * Return the number of lock records.
+     *
+     * @return the record count
+     */
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Return whether no resource is recorded.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+}
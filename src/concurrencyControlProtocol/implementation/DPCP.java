@@ -9,9 +9,9 @@ import SystemEnvironment.Processor;
 import WorkLoad.CriticalSection;
 import WorkLoad.Job;
 import WorkLoad.Priority;
+import WorkLoad.SharedResource;
 import WorkLoad.Task;
 import java.util.Vector;
-import RTSimulator.Definition;
 
 /**
  * Dynamic Priority Ceiling Protocol (DPCP) implementation.
@@ -34,13 +34,12 @@ public class DPCP extends PCP
         SQS = new SuspensionQueueSet(p.getSharedResourceSet());
         //DPCP 設定Resource的初始值方法如下：
         //挑出使用特定Resource的所有Task中最緊急的Deadline，設定給此Resource
-        for(int i = 0; i < p.getSharedResourceSet().size(); i++)
+        this.ceilingRes = new Priority[p.getSharedResourceSet().size()];
+        for(SharedResource r : p.getSharedResourceSet())
         {
-            this.ceilingRes.add(Definition.Ohm);
-            
             long Highest_Priority_Deadline=Integer.MAX_VALUE;
             
-            for(Task t : p.getSharedResourceSet().get(i).getAccessTaskSet())
+            for(Task t : r.getAccessTaskSet())
             {
                 if(t.getRelativeDeadline() < Highest_Priority_Deadline)
                 {
@@ -48,7 +47,7 @@ public class DPCP extends PCP
                 }
             }
             
-            this.ceilingRes.set(i, new Priority(Highest_Priority_Deadline));
+            this.ceilingRes[r.getIndex()] = new Priority(Highest_Priority_Deadline);
         }
         
     }
@@ -60,9 +59,9 @@ public class DPCP extends PCP
         Vector<Long> curDeadlineSet = new Vector<>();
         
         CriticalSection criticalSection = null;
-        for(int i=0;i<j.getNotEnteredCriticalSectionSet().size();i++)//設定下一輪的Resources Ceiling
+        for(int i=0;i<j.getNotEnteredCriticalSectionCount();i++)//設定下一輪的Resources Ceiling
         {
-            criticalSection = j.getNotEnteredCriticalSectionSet().poll();
+            criticalSection = j.pollNotEnteredCriticalSection();
         
             for(int k=0;k<criticalSection.getUseSharedResource().getAccessTaskSet().size();k++) //該Resource的所有Tasks
             {
@@ -88,8 +87,9 @@ public class DPCP extends PCP
                     earliestDeadline = Deadline;
                 }
             }
-            this.ceilingRes.get(criticalSection.getUseSharedResource().getID() - 1).setValue(earliestDeadline);
+            this.ceilingRes[criticalSection.getUseSharedResource().getIndex()].setValue(earliestDeadline);
         }
+        this.lockResource.reSort();//ceiling已改變，重新排列已鎖定的資源
         
     }
     
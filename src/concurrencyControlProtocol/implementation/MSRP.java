@@ -5,11 +5,13 @@
  */
 package concurrencyControlProtocol.implementation;
 
+import SystemEnvironment.BlockingAnalysis;
 import SystemEnvironment.Processor;
 import WorkLoad.Job;
 import WorkLoad.Priority;
 import WorkLoad.SharedResource;
-import java.util.Stack;
+import WorkLoadSet.JobWaitQueue;
+import concurrencyControlProtocol.SystemCeiling;
 import java.util.Vector;
 import RTSimulator.Definition;
 
@@ -32,14 +34,14 @@ public class MSRP extends SRP
         /** Resource associated with this preemption level */
         public SharedResource levelRes = null;
     
-        /** Stack of locked resources on this core */
-        public Stack<SharedResource> lockResource = new Stack<SharedResource>();
+        /** Local resources locked on this core, with their preemption levels */
+        public SystemCeiling lockResource = new SystemCeiling();
     }
     
     /** Preemption core state for each processor core */
     public Vector<PreemptionCore> preemptionCore = new Vector<PreemptionCore>();
     /** FIFO job queue for each global resource */
-    public Vector<Vector<Job>> globalResourceFIFOJobQueue = new Vector<Vector<Job>>();
+    public Vector<JobWaitQueue> globalResourceFIFOJobQueue = new Vector<JobWaitQueue>();
     
     /**
      * Constructs a new MSRP instance.
@@ -50,25 +52,29 @@ public class MSRP extends SRP
     }
     
     /**
-     * Pre-action to initialize MSRP for the processor.
+     * Pre-action to initialize MSRP for the processor. Marks the global
+     * resources and computes the blocking bounds of the tasks in the
+     * processor's {@link BlockingAnalysis}.
      * @param p the processor
      */
     public void preAction(Processor p)
     {
         super.preAction(p);
+        BlockingAnalysis analysis = p.getBlockingAnalysis();
         for(int i = 0; i < p.getAllCore().size(); i++)
         {
             this.preemptionCore.add(new PreemptionCore());
         }
         for(int i = 0; i < p.getSharedResourceSet().size(); i++)
         {
-            this.globalResourceFIFOJobQueue.add(new Vector<Job>());
+            this.globalResourceFIFOJobQueue.add(new JobWaitQueue());
         }
         
         for(SharedResource r :p.getSharedResourceSet())
         {
-            r.setIsGlobal();
+            r.setIsGlobal(analysis.isGlobal(r));
         }
+        analysis.computeBlocking(this.preemptionLevelForTask, this.preemptionLevelForRes);
     }
     
     @Override
@@ -96,19 +102,13 @@ public class MSRP extends SRP
         
         if(r.isGlobal())
         {
-            if(!this.globalResourceFIFOJobQueue.get(r.getID()-1).contains(j))
-            {
-                this.globalResourceFIFOJobQueue.get(r.getID()-1).add(j);
-            }
+            this.globalResourceFIFOJobQueue.get(r.getIndex()).add(j);//已在佇列中的Job保持原位
             
-            if(r.getIdleResourceNum() > 0 && this.globalResourceFIFOJobQueue.get(r.getID()-1).get(0).equals(j))
+            if(r.getIdleResourceNum() > 0 && this.globalResourceFIFOJobQueue.get(r.getIndex()).element().equals(j))
             {
                 j.lockSharedResource(r);
-                this.lockResource.add(r);
                 j.getCurrentCore().isPreemption=false;
                 
-                this.preemptionCore.get(j.getCurrentCore().getID() - 1).lockResource = this.lockResource;
-                
                 return null;
             }
             else
@@ -147,14 +147,13 @@ public class MSRP extends SRP
         if(r.isGlobal())
         {
             j.unLockSharedResource(r);
-            this.lockResource.remove(r);
 
             boolean lockGlobal = false;
-            if(j.getEnteredCriticalSectionSet().size() > 0)
+            if(j.getEnteredCriticalSectionCount() > 0)
             {
-                for(int i = 0; i < j.getEnteredCriticalSectionSet().size(); i++)
+                for(int i = 0; i < j.getEnteredCriticalSectionCount(); i++)
                 {
-                    if(j.getEnteredCriticalSectionSet().get(i).getUseSharedResource().isGlobal())
+                    if(j.getEnteredCriticalSection(i).getUseSharedResource().isGlobal())
                     {
                         lockGlobal = true;
                         break;
@@ -168,7 +167,7 @@ public class MSRP extends SRP
             }
             
             
-            this.globalResourceFIFOJobQueue.get(r.getID() - 1).remove(j);
+            this.globalResourceFIFOJobQueue.get(r.getIndex()).remove(j);
         }
         else
         {
@@ -202,7 +201,7 @@ public class MSRP extends SRP
         {
             if(blockingResource.isGlobal())
             {
-                this.globalResourceFIFOJobQueue.get(blockingResource.getID() - 1).remove(j);
+                this.globalResourceFIFOJobQueue.get(blockingResource.getIndex()).remove(j);
             }
             else
             {
@@ -11,10 +11,9 @@ import WorkLoad.Job;
 import WorkLoad.Priority;
 import WorkLoad.SharedResource;
 import WorkLoad.Task;
+import WorkLoadSet.JobWaitQueue;
 import WorkLoadSet.SharedResourceSet;
 import concurrencyControlProtocol.ConcurrencyControlProtocol;
-import java.util.Dictionary;
-import java.util.Hashtable;
 import java.util.Vector;
 import RTSimulator.Definition;
 import static RTSimulator.RTSimulator.println;
@@ -40,29 +39,23 @@ public class MrsP extends ConcurrencyControlProtocol
         return true;
     }
     
-    class ResourceLocalCeiling extends Vector<Dictionary<Core, Priority>>
+    class ResourceLocalCeiling
     {
+        private Priority[][] ceiling;//[資源的index][Core ID - 1]，沒有Task使用時為null
+        
         public ResourceLocalCeiling(Processor p)
         {
+            this.ceiling = new Priority[p.getSharedResourceSet().size()][p.getAllCore().size()];
             for(SharedResource r : p.getSharedResourceSet())
             {
-                Dictionary<Core, Priority> dictionary = new Hashtable<Core, Priority>();
-                this.add(dictionary);
-                
-                for(Core c : p.getAllCore())
+                Priority[] ceilingOfCore = this.ceiling[r.getIndex()];
+                for(Task t : r.getAccessTaskSet())
                 {
-                    Priority priority = Definition.Ohm;
-                    for(Task t : r.getAccessTaskSet())
-                    {
-                        if(t.getLocalCore().equals(c) && t.getPriority().isHigher(priority))
-                        {
-                            priority = t.getPriority();
-                        }
-                    }
-                    
-                    if(!priority.equals(Definition.Ohm))
+                    int k = t.getLocalCore().getID() - 1;
+                    Priority priority = ceilingOfCore[k] == null ? Definition.Ohm : ceilingOfCore[k];
+                    if(t.getPriority().isHigher(priority))
                     {
-                        dictionary.put(c, priority);
+                        ceilingOfCore[k] = t.getPriority();
                     }
                 }
             }
@@ -70,36 +63,33 @@ public class MrsP extends ConcurrencyControlProtocol
         
         public Priority getPriority(SharedResource r,Core c)
         {
-            return this.get(r.getID()-1).get(c);
+            return this.ceiling[r.getIndex()][c.getID() - 1];
         }
     }
     
-    class ResourceFIFOJobQueue extends Vector<Vector<Job>>
+    class ResourceFIFOJobQueue extends Vector<JobWaitQueue>
     {
         public ResourceFIFOJobQueue(SharedResourceSet rSet)
         {
             for(int i = 0 ; i<rSet.size() ; i++ )
             {
-                this.add(new Vector<Job>());
+                this.add(new JobWaitQueue());
             }
         }
         
         public void addJob(SharedResource r, Job j)
         {
-            if(!this.get(r.getID()-1).contains(j))
-            {
-                this.get(r.getID()-1).add(j);
-            }
+            this.get(r.getIndex()).add(j);//已在佇列中的Job保持原位
         }
         
         public void removeJob(SharedResource r, Job j)
         {
-            this.get(r.getID()-1).remove(j);
+            this.get(r.getIndex()).remove(j);
         }
         
         public Job getFirstJob(SharedResource r)
         {
-            return this.get(r.getID()-1).get(0);
+            return this.get(r.getIndex()).element();
         }
     }
     
@@ -126,9 +116,9 @@ public class MrsP extends ConcurrencyControlProtocol
         if(preemptedJob.getCurrentCore() != preemptedJob.getOriginCore())
         {
             preemptedJob.migrateTo(preemptedJob.getOriginCore());
-            if(preemptedJob.getEnteredCriticalSectionSet().size()>0)
+            if(preemptedJob.getEnteredCriticalSectionCount()>0)
             {
-                SharedResource r = preemptedJob.getEnteredCriticalSectionSet().get(0).getUseSharedResource();
+                SharedResource r = preemptedJob.getEnteredCriticalSection(0).getUseSharedResource();
                 preemptedJob.raisePriority(this.resourceLocalCeiling.getPriority(r, preemptedJob.getCurrentCore()),0);//這時的preemptedJob.getCurrentCore() == preemptedJob.getOriginCore();
             }
         }
@@ -168,7 +158,7 @@ public class MrsP extends ConcurrencyControlProtocol
                     println("firstJob != firstJob.getCurrentCore().getLocalReadyQueue().peek()");
                 }
                 
-                println("Proiority:"+(-firstJob.getCurrentProiority().getValue())+","+(-firstJob.getCurrentCore().getLocalReadyQueue().peek().getCurrentProiority().getValue()));
+                println(() -> "Proiority:"+(-firstJob.getCurrentProiority().getValue())+","+(-firstJob.getCurrentCore().getLocalReadyQueue().peek().getCurrentProiority().getValue()));
                 if(firstJob.getCurrentProiority().isHigher(firstJob.getCurrentCore().getLocalReadyQueue().peek().getCurrentProiority()))
                 {
                     println("OOOOOOOOOH!!!!");
@@ -209,9 +199,9 @@ public class MrsP extends ConcurrencyControlProtocol
         
         /*找出尚未解鎖的資源中最高的resourcePriorityCeiling*/
         Priority resourcePriorityCeiling = Definition.Ohm;
-        for(int i = 0 ; i<j.getEnteredCriticalSectionArray().size() ; i++)
+        for(int i = 0 ; i<j.getEnteredCriticalSectionCount() ; i++)
         {
-            SharedResource sr = j.getEnteredCriticalSectionArray().get(i).getUseSharedResource();
+            SharedResource sr = j.getEnteredCriticalSection(i).getUseSharedResource();
             if(this.resourceLocalCeiling.getPriority(sr, j.getOriginCore()).isHigher(resourcePriorityCeiling))
             {
                 resourcePriorityCeiling = this.resourceLocalCeiling.getPriority(sr, j.getOriginCore());
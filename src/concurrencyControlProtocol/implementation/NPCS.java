@@ -58,7 +58,7 @@ public class NPCS extends ConcurrencyControlProtocol
     public void jobUnlockAction(Job j, SharedResource r)
     {
         j.unLockSharedResource(r);
-        if(j.getEnteredCriticalSectionSet().isEmpty())
+        if(j.getEnteredCriticalSectionCount() == 0)
         {
             j.getCurrentCore().isPreemption=true;
         }
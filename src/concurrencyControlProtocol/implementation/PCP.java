@@ -10,8 +10,7 @@ import WorkLoad.Job;
 import WorkLoad.Priority;
 import WorkLoad.SharedResource;
 import WorkLoad.Task;
-import java.util.Stack;
-import java.util.Vector;
+import concurrencyControlProtocol.SystemCeiling;
 import RTSimulator.Definition;
 import static RTSimulator.RTSimulator.println;
 
@@ -22,11 +21,11 @@ import static RTSimulator.RTSimulator.println;
  */
 public class PCP extends PIP
 {
-    Vector<Priority> ceilingRes = new Vector<Priority>();
+    Priority[] ceilingRes;//依資源的index
     Priority ceilingSystem = Definition.Ohm;
     Job ceilingJob;
     SharedResource ceilingResource;
-    Stack<SharedResource> lockResource = new Stack<SharedResource>();
+    SystemCeiling lockResource = new SystemCeiling();
     
     /**
      * Constructs a new PCP instance.
@@ -40,21 +39,22 @@ public class PCP extends PIP
     public void preAction(Processor p)
     {
         super.preAction(p);
-        for(int i = 0; i < p.getSharedResourceSet().size(); i++)
+        this.ceilingRes = new Priority[p.getSharedResourceSet().size()];
+        for(SharedResource r : p.getSharedResourceSet())
         {
-            this.ceilingRes.add(Definition.Ohm);
-            for(Task t : p.getSharedResourceSet().get(i).getAccessTaskSet())
+            this.ceilingRes[r.getIndex()] = Definition.Ohm;
+            for(Task t : r.getAccessTaskSet())
             {
-                if(t.getPriority().isHigher(this.ceilingRes.get(i)))
+                if(t.getPriority().isHigher(this.ceilingRes[r.getIndex()]))
                 {
-                    this.ceilingRes.set(i, t.getPriority());
+                    this.ceilingRes[r.getIndex()] = t.getPriority();
                 }
             }
         }
         
-        for(int i = 0; i < this.ceilingRes.size(); i++)
+        for(SharedResource r : p.getSharedResourceSet())
         {
-            println("Res" + (i+1) + ":" + this.ceilingRes.get(i).getValue());
+            println(() -> "Res" + r.getID() + ":" + this.ceilingRes[r.getIndex()].getValue());
         }
     }
 
@@ -66,11 +66,11 @@ public class PCP extends PIP
             if(j == this.ceilingJob)
             {
                 j.lockSharedResource(r);
-                this.lockResource.add(r);
-                if(this.ceilingRes.get(r.getID() - 1).isHigher(ceilingSystem))
+                this.lockResource.push(r, this.ceilingRes[r.getIndex()]);
+                if(this.ceilingRes[r.getIndex()].isHigher(ceilingSystem))
                 {
                     this.ceilingJob = j;
-                    this.ceilingSystem = this.ceilingRes.get(r.getID() - 1);
+                    this.ceilingSystem = this.ceilingRes[r.getIndex()];
                     this.ceilingResource = r;
                 }
                 return null;
@@ -80,11 +80,11 @@ public class PCP extends PIP
                 if(j.getCurrentProiority().isHigher(this.ceilingSystem))
                 {
                     j.lockSharedResource(r);
-                    this.lockResource.add(r);
-                    if(this.ceilingRes.get(r.getID() - 1).isHigher(ceilingSystem))
+                    this.lockResource.push(r, this.ceilingRes[r.getIndex()]);
+                    if(this.ceilingRes[r.getIndex()].isHigher(ceilingSystem))
                     {
                         this.ceilingJob = j;
-                        this.ceilingSystem = this.ceilingRes.get(r.getID() - 1);
+                        this.ceilingSystem = this.ceilingRes[r.getIndex()];
                         this.ceilingResource = r;
                     }
                     return null;
@@ -110,15 +110,12 @@ public class PCP extends PIP
         this.ceilingSystem = Definition.Ohm;
         this.ceilingJob = null;
         this.ceilingResource = null;
-        for(int i = 0; i < this.lockResource.size(); i++)
+        if(!this.lockResource.isEmpty() && this.lockResource.peekCeiling().isHigher(ceilingSystem))//剩下的資源中最高的ceiling
         {
-            if(this.ceilingRes.get(this.lockResource.get(i).getID() - 1).isHigher(ceilingSystem))
-            {
-                ceilingSystem = this.ceilingRes.get(this.lockResource.get(i).getID() - 1);
-                this.ceilingResource = this.lockResource.get(i);
-                this.ceilingJob = this.lockResource.get(i).getWhoLockedLastResource(j); 
-            }
-        }    
+            ceilingSystem = this.lockResource.peekCeiling();
+            this.ceilingResource = this.lockResource.peekResource();
+            this.ceilingJob = this.ceilingResource.getWhoLockedLastResource(j); 
+        }
     }
 
     @Override
@@ -8,6 +8,7 @@ package concurrencyControlProtocol.implementation;
 import SystemEnvironment.Processor;
 import WorkLoad.Job;
 import WorkLoad.SharedResource;
+import WorkLoadSet.JobWaitQueue;
 import WorkLoadSet.SharedResourceSet;
 import concurrencyControlProtocol.ConcurrencyControlProtocol;
 import java.util.Vector;
@@ -20,19 +21,19 @@ import static RTSimulator.RTSimulator.println;
  * @author ShiuJia
  */
 
-    class SuspensionQueueSet extends Vector<Vector<Job>>
+    class SuspensionQueueSet extends Vector<JobWaitQueue>
     {
         public SuspensionQueueSet(SharedResourceSet rSet)
         {
             for(int i = 0 ; i<rSet.size() ; i++)
             {
-                this.add(new Vector<Job>());
+                this.add(new JobWaitQueue());
             }
         }
         
-        public Vector<Job> getSuspensionQueue(SharedResource r)
+        public JobWaitQueue getSuspensionQueue(SharedResource r)
         {
-            return this.get(r.getID()-1);
+            return this.get(r.getIndex());
         }
     }
     
@@ -139,8 +140,8 @@ public class PIP extends ConcurrencyControlProtocol
         blockedJob.setSuspended(true);
         SQS.getSuspensionQueue(blockingRes).add(blockedJob);
         
-        println("blockingJob("+blockingJob.getParentTask().getID()+")"+"= "+ blockingJob.getCurrentProiority().getValue());
-        println("blockedJob("+blockedJob.getParentTask().getID()+")"+"= "+ blockedJob.getCurrentProiority().getValue());
+        println(() -> "blockingJob("+blockingJob.getParentTask().getID()+")"+"= "+ blockingJob.getCurrentProiority().getValue());
+        println(() -> "blockedJob("+blockedJob.getParentTask().getID()+")"+"= "+ blockedJob.getCurrentProiority().getValue());
     }
 
     @Override
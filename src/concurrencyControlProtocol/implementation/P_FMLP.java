@@ -2,12 +2,16 @@ package concurrencyControlProtocol.implementation;
 
 
 import SystemEnvironment.Processor;
+import WorkLoad.CriticalSection;
 import WorkLoad.Job;
 import WorkLoad.Nest;
 import WorkLoad.Priority;
 import WorkLoad.SharedResource;
+import WorkLoad.Task;
+import WorkLoadSet.JobWaitQueue;
 import java.util.Vector;
 import RTSimulator.Definition;
+import RTSimulator.Definition.TraceLevel;
 import static RTSimulator.Definition.Ohm;
 import static RTSimulator.RTSimulator.*;
 
@@ -25,8 +29,6 @@ public class P_FMLP extends MSRP
         SharedResource R = null;
         /** Parent resource group */
         ResourceGroup parentRG = null;
-        /** Whether this resource is in a group */
-        boolean isgroup = false;
         /**
          * Constructs a new Resource.
          * @param r the shared resource
@@ -48,7 +50,7 @@ public class P_FMLP extends MSRP
             }
             else
             {
-                println("R="+null);
+                println(() -> "R="+null);
                 return false;
             }
         }
@@ -60,9 +62,9 @@ public class P_FMLP extends MSRP
     private class ResourceGroup extends Vector<Resource>
     {  
         /** FIFO queue of jobs waiting for resources in this group */
-        Vector<Job> FIFOJobQueue = new Vector<Job>();
+        JobWaitQueue FIFOJobQueue = new JobWaitQueue();
         /** Queue of suspended jobs */
-        Vector<Job> suspensionQueue = new Vector<Job>();
+        JobWaitQueue suspensionQueue = new JobWaitQueue();
         
         /**
          * Adds a resource to this group.
@@ -80,10 +82,7 @@ public class P_FMLP extends MSRP
          */
         public void addJobForFIFOJobQueue(Job j)
         {
-            if(!this.FIFOJobQueue.contains(j))
-            {
-                this.FIFOJobQueue.add(j);
-            }
+            this.FIFOJobQueue.add(j);//已在佇列中的Job保持原位
         }
         
         /**
@@ -105,7 +104,7 @@ public class P_FMLP extends MSRP
             {
                 return null;
             }
-            return this.FIFOJobQueue.get(0);
+            return this.FIFOJobQueue.peek();
         }
         
         /**
@@ -138,7 +137,14 @@ public class P_FMLP extends MSRP
          */
         public Job getJobForSuspensionQueue(int i)
         {
-            return this.suspensionQueue.get(i);
+            for(Job j : this.suspensionQueue)
+            {
+                if(i-- == 0)
+                {
+                    return j;
+                }
+            }
+            throw new ArrayIndexOutOfBoundsException();
         }
         
         /**
@@ -151,26 +157,6 @@ public class P_FMLP extends MSRP
         }
     }
     
-    /**
-     * Inner class representing a nest with FMLP-specific properties.
-     */
-    class FMLP_Nest
-    {
-        /** The nest */
-        Nest nest = null;
-        /** Whether this nest is in a group */
-        boolean isgroup = false;
-        
-        /**
-         * Constructs a new FMLP_Nest.
-         * @param n the nest
-         */
-        public FMLP_Nest(Nest n)
-        {
-            this.nest = n;
-        }
-    }
-    
     /**
      * Searches for the resource group containing the specified resource.
      * @param s the shared resource to search for
@@ -178,9 +164,9 @@ public class P_FMLP extends MSRP
      */
     public ResourceGroup searchResourceGroup(SharedResource s)
     {
-        if(s.equals(allR.get(s.getID()-1).R))
+        if(s.equals(allR.get(s.getIndex()).R))
         {
-           return  allR.get(s.getID()-1).parentRG;
+           return  allR.get(s.getIndex()).parentRG;
         }
         else 
         {
@@ -188,6 +174,44 @@ public class P_FMLP extends MSRP
         }
     }
     
+    /**
+     * Returns whether a resource is short.
+     * @param s the shared resource
+     * @return true if the resource is short
+     */
+    public boolean isShortResource(SharedResource s)
+    {
+        return allR.get(s.getIndex()).isShort;
+    }
+    
+    /**
+     * Returns the position of the group of a resource in the order the groups were formed.
+     * @param s the shared resource
+     * @return the index of the group, or -1 if the resource is in no group
+     */
+    public int getResourceGroupIndex(SharedResource s)
+    {
+        ResourceGroup rg = searchResourceGroup(s);
+        for(int i=0;i<allRG.size();i++)
+        {
+            if(allRG.get(i)==rg)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Returns the status of a task: all short, all long or complex.
+     * @param i the position of the task in the task set
+     * @return the status of the task
+     */
+    public String getTaskStatus(int i)
+    {
+        return status.get(i);
+    }
+    
     /**
      * Searches for a resource in the job's critical section array.
      * @param j the job
@@ -196,7 +220,7 @@ public class P_FMLP extends MSRP
      */
     public SharedResource searchResourceForCriticalSectionArray(Job j,int i)
     {
-        return j.getEnteredCriticalSectionArray().get(i).getUseSharedResource();
+        return j.getEnteredCriticalSection(i).getUseSharedResource();
     }
     
     /**
@@ -211,13 +235,13 @@ public class P_FMLP extends MSRP
             if(i<allR.size()*proportion)
             {
                 allR.get(i).isShort=true;
-                println("R"+allR.get(i).R.getID()+" = "+allR.get(i).isShort);
             }
             else
             {
                 allR.get(i).isShort=false;
-                println("R"+allR.get(i).R.getID()+" = "+allR.get(i).isShort);
             }
+            Resource R = allR.get(i);
+            println(() -> "R"+R.R.getID()+" = "+R.isShort);
         }
     }
     
@@ -227,34 +251,51 @@ public class P_FMLP extends MSRP
      */
     public void modifyResource(Processor p)
     {
-        boolean change=true;
-        int run=0;
+        //outsideR.get(i)：直接包住資源i的外層資源
+        Vector<Vector<Resource>> outsideR = new Vector<Vector<Resource>>();
+        for(int i=0;i<allR.size();i++)
+        {
+            outsideR.add(new Vector<Resource>());
+        }
         
-        while(change)
-        {    
-            change=false;
-            println("run:"+ ++run);
-            for(int i=0;i<p.getTaskSet().size();i++)//task
+        for(int i=0;i<p.getTaskSet().size();i++)//task
+        {
+            Task t = p.getTaskSet().getTask(i);
+            for(int j=0;j<t.getNestSet().size();j++)//task allnests
             {
-                for(int j=0;j<p.getTaskSet().getTask(i).getNestSet().size();j++)//task allnests
+                print(() -> "Task "+t.getID()+" : ");
+                for(int k=0;k<p.getTaskSet().getTask(i).getNestSet().get(j).size();k++)//task allnests nests
                 {
-                    int temp=0;
-                    print("Task "+p.getTaskSet().getTask(i).getID()+" : ");
-                    for(int k=0;k<p.getTaskSet().getTask(i).getNestSet().get(j).size();k++)//task allnests nests
+                    CriticalSection cs = p.getTaskSet().getTask(i).getNestSet().get(j).getCriticalSection(k);
+                    print(() -> ""+cs.getResourceID());
+                    if(cs.getOutsideCriticalSection()!=null)
                     {
-                        print(""+p.getTaskSet().getTask(i).getNestSet().get(j).getCriticalSection(k).getResourceID());
-                        if(p.getTaskSet().getTask(i).getNestSet().get(j).getCriticalSection(k).getOutsideCriticalSection()!=null)
-                        {   
-                            SharedResource rOut=p.getTaskSet().getTask(i).getNestSet().get(j).getCriticalSection(k).getOutsideCriticalSection().getUseSharedResource();
-                            SharedResource r=p.getTaskSet().getTask(i).getNestSet().get(j).getCriticalSection(k).getUseSharedResource();
-                            if(allR.get(rOut.getID()-1).isShort&& !allR.get(r.getID()-1).isShort)
-                            {
-                                allR.get(rOut.getID()-1).isShort=false;
-                                change=true;
-                            }
-                        }
+                        SharedResource rOut=cs.getOutsideCriticalSection().getUseSharedResource();
+                        outsideR.get(cs.getUseSharedResource().getIndex()).add(allR.get(rOut.getIndex()));
                     }
                 }
+                println("");
+            }
+        }
+        
+        //包住長資源的外層資源也是長資源：由長資源往外傳遞，每個資源最多加入一次
+        Vector<Resource> longR = new Vector<Resource>();
+        for(int i=0;i<allR.size();i++)
+        {
+            if(!allR.get(i).isShort)
+            {
+                longR.add(allR.get(i));
+            }
+        }
+        for(int i=0;i<longR.size();i++)
+        {
+            for(Resource rOut : outsideR.get(longR.get(i).R.getIndex()))
+            {
+                if(rOut.isShort)
+                {
+                    rOut.isShort=false;
+                    longR.add(rOut);
+                }
             }
         }
         
@@ -262,13 +303,14 @@ public class P_FMLP extends MSRP
         
         for(int i=0;i<p.getTaskSet().size();i++)//設定Task狀態
         {
+            Task t = p.getTaskSet().getTask(i);
             int temp=0;
             SharedResource r = p.getTaskSet().getTask(i).getCriticalSectionSet().get(0).getUseSharedResource();
             
             for(int j=0;j<p.getTaskSet().getTask(i).getCriticalSectionSet().size();j++)
             {
                 SharedResource rj = p.getTaskSet().getTask(i).getCriticalSectionSet().get(j).getUseSharedResource();
-                if(allR.get(r.getID()-1).isGlobal() && allR.get(r.getID()-1).isShort==allR.get(rj.getID()-1).isShort)
+                if(allR.get(r.getIndex()).isGlobal() && allR.get(r.getIndex()).isShort==allR.get(rj.getIndex()).isShort)
                 {
                     temp++;
                 }
@@ -276,20 +318,20 @@ public class P_FMLP extends MSRP
             
                 if(temp==p.getTaskSet().getTask(i).getCriticalSectionSet().size())
                 {
-                    if(allR.get(r.getID()-1).isShort)
+                    if(allR.get(r.getIndex()).isShort)
                     {
-                        println("Task"+p.getTaskSet().getTask(i).getID()+" isShort");
+                        println(() -> "Task"+t.getID()+" isShort");
                         status.add(allIsShort);
                     }
                     else
                     {
-                        println("Task"+p.getTaskSet().getTask(i).getID()+" allIsLong");
+                        println(() -> "Task"+t.getID()+" allIsLong");
                         status.add(allIsLong);
                     }
                 }
                 else
                 {
-                    println("Task"+p.getTaskSet().getTask(i).getID()+" complex");
+                    println(() -> "Task"+t.getID()+" complex");
                     status.add(complex);
                 }
             
@@ -297,148 +339,122 @@ public class P_FMLP extends MSRP
         
         println("===============");
         
-        for(int i=0;i<p.getTaskSet().size();i++)
+        if(isTracing(TraceLevel.DEBUG))
         {
-            println("Task:"+p.getTaskSet().getTask(i).getID()+" status:"+status.get(i).toString());
+            for(int i=0;i<p.getTaskSet().size();i++)
+            {
+                println("Task:"+p.getTaskSet().getTask(i).getID()+" status:"+status.get(i).toString());
+            }
         }
     }
     
     /**
      * Sets resource groups based on task similarity.
+     * Resources are grouped first come first served: a nest forms a group of
+     * its resources that no earlier group has taken, so each resource and
+     * nest is visited a constant number of times.
      * @param p the processor
      */
     public void setResourceGroup(Processor p)
     {
         int rNum=0;
-        int runtemp=0;
-        println("size:"+allR.size());
+        println(() -> "size:"+allR.size());
         
-        while(rNum<globalResourceNumber)
+        //第一輪：全為短資源或全為長資源的Task，其中尚無資源被分群的巢狀資源自成一群
+        for(int i=0;i<p.getTaskSet().size();i++)
         {
-            for(int i=0;i<allR.size();i++)
+            if(status.get(i)==allIsShort||status.get(i)==allIsLong)
             {
-                if(allR.get(i).isGlobal() && allR.get(i).parentRG!=null)
+                for(int j=0;j<p.getTaskSet().getTask(i).getNestSet().size();j++)
                 {
-                    print(" GlobalResource"+allR.get(i).R.getID());
+                    Nest n = p.getTaskSet().getTask(i).getNestSet().get(j);
+                    if(n.size()>1 && !isGrouped(n))
+                    {
+                        rNum+=groupNest(p.getTaskSet().getTask(i),status.get(i),n);
+                    }
                 }
             }
-            
-            println("");
-            
+        }
+        
+        //第二輪：其餘巢狀資源中尚未分群的資源各自成一群
+        if(rNum<globalResourceNumber)
+        {
             for(int i=0;i<p.getTaskSet().size();i++)
             {
-                if(runtemp==0)
-                {
-                    if(status.get(i)==allIsShort||status.get(i)==allIsLong)
-                    {
-                        for(int j=0;j<p.getTaskSet().getTask(i).getNestSet().size();j++)
-                        {
-                            ResourceGroup rg = new ResourceGroup();
-                            if(p.getTaskSet().getTask(i).getNestSet().get(j).size()>1 && !allNests.get(i).get(j).isgroup)
-                            {
-                                for(int k=0;k<p.getTaskSet().getTask(i).getNestSet().get(j).size();k++)
-                                {   
-                                    SharedResource r =p.getTaskSet().getTask(i).getNestSet().get(j).getCriticalSection(k).getUseSharedResource();
-                                    if(allR.get(r.getID()-1).isGlobal() && allR.get(r.getID()-1).parentRG==null && !allR.get(r.getID()-1).isgroup)
-                                    {
-                                        rg.add(allR.get(r.getID()-1));
-                                        allR.get(r.getID()-1).parentRG=rg;
-                                        ++rNum;
-                                        print("Rnum:"+rNum +"   Task"+p.getTaskSet().getTask(i).getID()+"  R"+allR.get(r.getID()-1).R.getID());
-                                        println("("+status.get(i)+")");
-                                        mark(allR.get(r.getID()-1).R);
-                                    }
-                                }
-                                if(rg.size()>0)
-                                {
-                                    allRG.add(rg);
-                                }
-                            }
-                        }
-                    }
-                }
-                else if(runtemp==1)
+                for(int j=0;j<p.getTaskSet().getTask(i).getNestSet().size();j++)
                 {
-                    for(int j=0;j<p.getTaskSet().getTask(i).getNestSet().size();j++)
-                    {
-                        ResourceGroup rg = new ResourceGroup();
-                        for(int k=0;k<p.getTaskSet().getTask(i).getNestSet().get(j).size();k++)
-                        {
-                            SharedResource r =p.getTaskSet().getTask(i).getNestSet().get(j).getCriticalSection(k).getUseSharedResource();
-                            if(allR.get(r.getID()-1).isGlobal() && allR.get(r.getID()-1).parentRG==null)
-                            {
-                                rg.add(allR.get(r.getID()-1));
-                                allR.get(r.getID()-1).parentRG=rg;
-                                ++rNum;
-                                print("Rnum:"+rNum +"   Task"+p.getTaskSet().getTask(i).getID()+"  R"+allR.get(r.getID()-1).R.getID());
-                                println("("+status.get(i)+")");
-                                mark(allR.get(r.getID()-1).R);
-                            }
-                        }
-                        if(rg.size()>0)
-                        {
-                            allRG.add(rg);
-                        }
-                    }
+                    rNum+=groupNest(p.getTaskSet().getTask(i),status.get(i),p.getTaskSet().getTask(i).getNestSet().get(j));
                 }
             }
-            
-            runtemp=1;
         }
         
-        for(int i=0;i<allRG.size();i++)
+        //沒有Task使用的資源單獨成一群
+        for(int i=0;i<allR.size();i++)
+        {
+            if(allR.get(i).isGlobal() && allR.get(i).parentRG==null)
+            {
+                ResourceGroup rg = new ResourceGroup();
+                rg.addResource(allR.get(i));
+                allRG.add(rg);
+            }
+        }
+        
+        if(isTracing(TraceLevel.DEBUG))
         {
-            print("RG"+i+" : ");
-            for(int j=0;j<allRG.get(i).size();j++)
+            for(int i=0;i<allRG.size();i++)
             {
-                print("  R"+allRG.get(i).get(j).R.getID());
+                print("RG"+i+" : ");
+                for(int j=0;j<allRG.get(i).size();j++)
+                {
+                    print("  R"+allRG.get(i).get(j).R.getID());
+                }
+                println("");
             }
-            println("");
         }
     }
     
     /**
-     * Marks a resource and related nests as grouped.
-     * @param r the shared resource
+     * Checks whether any global resource of a nest is already in a group.
+     * @param n the nest
+     * @return true if a resource of the nest is in a group
      */
-    public void mark (SharedResource r)
+    public boolean isGrouped(Nest n)
     {
-        if(!allR.get(r.getID()-1).isgroup && allR.get(r.getID()-1).isGlobal())
-        {    
-            allR.get(r.getID()-1).isgroup=true;
-            for(int i=0;i<allNests.size();i++)
+        for(int k=0;k<n.size();k++)
+        {
+            SharedResource r = n.getCriticalSection(k).getUseSharedResource();
+            if(allR.get(r.getIndex()).isGlobal() && allR.get(r.getIndex()).parentRG!=null)
             {
-                for(int j=0 ;j<allNests.get(i).size();j++)
-                {
-                    for(int k=0;k<allNests.get(i).get(j).nest.size();k++)
-                    {
-                        if(r.equals(allNests.get(i).get(j).nest.getCriticalSection(k).getUseSharedResource()))
-                        {
-                            allNests.get(i).get(j).isgroup=true;
-                        }
-                    }
-                }
+                return true;
             }
         }
+        return false;
     }
     
     /**
-     * Sets up nests for all tasks.
-     * @param p the processor
+     * Puts the global resources of a nest that are in no group yet into a new group.
+     * @param t the task of the nest
+     * @param s the status of the task
+     * @param n the nest
+     * @return the number of resources put into the group
      */
-    public void setNests(Processor p)
+    public int groupNest(Task t, String s, Nest n)
     {
-        for(int i = 0;i<p.getTaskSet().size();i++)
+        ResourceGroup rg = new ResourceGroup();
+        for(int k=0;k<n.size();k++)
         {
-            taskNests = new Vector<FMLP_Nest>();
-            for(int j =0;j<p.getTaskSet().getTask(i).getNestSet().size();j++)
+            SharedResource r = n.getCriticalSection(k).getUseSharedResource();
+            if(allR.get(r.getIndex()).isGlobal() && allR.get(r.getIndex()).parentRG==null)
             {
-                println("i"+i+" j"+j+"   "+p.getTaskSet().getTask(i).getNestSet().get(j));
-                FMLP_Nest n = new FMLP_Nest(p.getTaskSet().getTask(i).getNestSet().get(j));
-                taskNests.add(n);
+                rg.addResource(allR.get(r.getIndex()));
+                println(() -> "R"+r.getID()+"   Task"+t.getID()+"("+s+")");
             }
-            allNests.add(taskNests);
         }
+        if(rg.size()>0)
+        {
+            allRG.add(rg);
+        }
+        return rg.size();
     }
     
     /** All resources */
@@ -447,10 +463,6 @@ public class P_FMLP extends MSRP
     Vector<ResourceGroup> allRG = new Vector<ResourceGroup>();//只用於print
     /** Task status indicators */
     Vector<String> status = new Vector<String>();
-    /** Task nests */
-    Vector<FMLP_Nest> taskNests;
-    /** All task nests */
-    Vector<Vector<FMLP_Nest>> allNests = new Vector<Vector<FMLP_Nest>>();
     /** Number of global resources */
     int globalResourceNumber=0;
     /** Status constant for all short resources */
@@ -477,13 +489,12 @@ public class P_FMLP extends MSRP
             allR.add(R);
             if(R.isGlobal())
             {
-                println("R "+R.R.getID()+" is Global Resource.");
+                println(() -> "R "+R.R.getID()+" is Global Resource.");
                 globalResourceNumber++; 
             }
             
         }  
         setResourceStatus();//設置資源長短狀態
-        setNests(p);//設置巢狀資源
         modifyResource(p);
         setResourceGroup(p);
     }
@@ -547,8 +558,8 @@ public class P_FMLP extends MSRP
             ResourceGroup rg = searchResourceGroup(r);
             j.unLockSharedResource(r);
 
-            println("J = "+j.getParentTask().getID());
-            println("R = "+r.getID());
+            println(() -> "J = "+j.getParentTask().getID());
+            println(() -> "R = "+r.getID());
 
             //判斷需不需要解鎖群組 預設值為要解鎖
             int lockCount=0;
@@ -566,7 +577,7 @@ public class P_FMLP extends MSRP
                 rg.removeJobForFIFOJobQueue(j);
                 j.getCurrentCore().isPreemption = true;  
 
-                for(int i=0;i<j.getEnteredCriticalSectionArray().size();i++)
+                for(int i=0;i<j.getEnteredCriticalSectionCount();i++)
                 {
                     SharedResource s = searchResourceForCriticalSectionArray(j,i);
                     
@@ -581,7 +592,7 @@ public class P_FMLP extends MSRP
                     rg.releaseJobForSuspensionQueue(rg.getFirstJobForFIFOJobQueue());
                 }
             }   
-            println("isPreemption = "+j.getCurrentCore().isPreemption);
+            println(() -> "isPreemption = "+j.getCurrentCore().isPreemption);
         }
         else
         {
@@ -12,8 +12,7 @@ import WorkLoad.Priority;
 import WorkLoad.SharedResource;
 import WorkLoad.Task;
 import WorkLoadSet.TaskSet;
-import java.util.Stack;
-import java.util.Vector;
+import concurrencyControlProtocol.SystemCeiling;
 import RTSimulator.Definition;
 
 /**
@@ -23,15 +22,15 @@ import RTSimulator.Definition;
  */
 public class SRP extends PIP
 {
-    public Vector<Priority> preemptionLevelForTask = new Vector<Priority>();
-    public Vector<Priority> preemptionLevelForRes = new Vector<Priority>();
+    public Priority[] preemptionLevelForTask;//依Task.getIndex()
+    public Priority[] preemptionLevelForRes;//依SharedResource.getIndex()
     public Priority preemptionLevelSystem = Definition.Ohm;
     public Job levelJob = null;
     public SharedResource levelRes = null;
     
-    public Stack<SharedResource> lockResource = new Stack<SharedResource>();
+    public SystemCeiling lockResource = new SystemCeiling();//已鎖定的local resource
     
-    public Vector<Long> blockingTimeForTask = new Vector<Long>();
+    public long[] blockingTimeForTask;//依Task.getIndex()
     
     /**
      * Constructs a new SRP instance.
@@ -45,9 +44,11 @@ public class SRP extends PIP
     public void preAction(Processor p)
     {
         super.preAction(p);
+        this.preemptionLevelForTask = new Priority[p.getTaskSet().size()];
+        this.preemptionLevelForRes = new Priority[p.getSharedResourceSet().size()];
         for(Task t : p.getTaskSet())
         {
-            this.preemptionLevelForTask.add(new Priority(t.getPeriod()));
+            this.preemptionLevelForTask[t.getIndex()] = new Priority(t.getPeriod());
             //println("SRP:Job" + t.getID() + ":" + this.preemptionLevelForJob.get(t.getID() - 1).getValue());
         }
         
@@ -56,14 +57,14 @@ public class SRP extends PIP
             Priority tempPriority = Definition.Ohm;
             for(Task t : r.getAccessTaskSet())
             {
-                if(this.preemptionLevelForTask.get(t.getID() - 1).isHigher(tempPriority))
+                if(this.preemptionLevelForTask[t.getIndex()].isHigher(tempPriority))
                 {
-                    tempPriority = this.preemptionLevelForTask.get(t.getID() - 1);
+                    tempPriority = this.preemptionLevelForTask[t.getIndex()];
                 }
             }
-            this.preemptionLevelForRes.add(tempPriority);
+            this.preemptionLevelForRes[r.getIndex()] = tempPriority;
             
-            //println("SRP:Res" + r.getID() + ":" + this.preemptionLevelForRes.get(r.getID() - 1).getValue());
+            //println("SRP:Res" + r.getID() + ":" + this.preemptionLevelForRes[r.getIndex()].getValue());
         }
         
         this.setBlockingTime(p.getTaskSet());
@@ -78,24 +79,22 @@ public class SRP extends PIP
     @Override
     public boolean checkJobFirstExecuteAction(Job j)//已加入global resource判斷
     {
-        if(!this.preemptionLevelForTask.get(j.getParentTask().getID() - 1).isHigher(preemptionLevelSystem))
+        if(!this.preemptionLevelForTask[j.getParentTask().getIndex()].isHigher(preemptionLevelSystem))
         {
             this.getParentController().checkBlockedAction(j, levelRes);
             return false;
         }
         else
         {
-            if(j.getNotEnteredCriticalSectionSet().size() > 0)
+            for(int i = 0; i < j.getNotEnteredCriticalSectionCount(); i++)
             {
-                for(int i = 0; i < j.getNotEnteredCriticalSectionArray().size(); i++)
+                SharedResource r = j.getNotEnteredCriticalSection(i).getUseSharedResource();
+                if(r.getIdleResourceNum() <= 0)
                 {
-                    if(j.getNotEnteredCriticalSectionArray().get(i).getUseSharedResource().getIdleResourceNum() <= 0)
+                    if(!r.isGlobal())
                     {
-                        if(!j.getNotEnteredCriticalSectionArray().get(i).getUseSharedResource().isGlobal())
-                        {
-                            this.getParentController().checkBlockedAction(j, j.getNotEnteredCriticalSectionArray().get(i).getUseSharedResource());
-                            return false;
-                        }
+                        this.getParentController().checkBlockedAction(j, r);
+                        return false;
                     }
                 }
             }
@@ -107,10 +106,13 @@ public class SRP extends PIP
     public SharedResource checkJobLockAction(Job j, SharedResource r)
     {
         j.lockSharedResource(r);
-        this.lockResource.add(r);
-        if(this.preemptionLevelForRes.get(r.getID() - 1).isHigher(preemptionLevelSystem))
+        if(!r.isGlobal())
+        {
+            this.lockResource.push(r, this.preemptionLevelForRes[r.getIndex()]);
+        }
+        if(this.preemptionLevelForRes[r.getIndex()].isHigher(preemptionLevelSystem))
         {
-            this.preemptionLevelSystem = this.preemptionLevelForRes.get(r.getID() - 1);
+            this.preemptionLevelSystem = this.preemptionLevelForRes[r.getIndex()];
             this.levelJob = j;
             this.levelRes = r;
         }
@@ -121,31 +123,17 @@ public class SRP extends PIP
     public void jobUnlockAction(Job j, SharedResource r)
     {
         super.jobUnlockAction(j, r);
-        for(int i = 0; i < this.lockResource.size(); i++)
-        {
-            if(this.lockResource.get(i).getID() == r.getID())
-            {
-                this.lockResource.remove(i);
-            }
-        }
         this.lockResource.remove(r);
         this.preemptionLevelSystem = Definition.Ohm;
         
         this.levelJob = null;
         this.levelRes = null;
-        for(int i = 0; i < this.lockResource.size(); i++)
+        if(!this.lockResource.isEmpty() && this.lockResource.peekCeiling().isHigher(this.preemptionLevelSystem))//剩下的資源中最高的preemption level
         {
-            if(!this.lockResource.get(i).isGlobal())
-            {
-                if(this.preemptionLevelForRes.get(this.lockResource.get(i).getID() - 1).isHigher(this.preemptionLevelSystem))
-                {
-                    this.preemptionLevelSystem = this.preemptionLevelForRes.get(this.lockResource.get(i).getID() - 1);
-                    this.levelRes = this.lockResource.get(i);
-                    this.levelJob = this.lockResource.get(i).getWhoLockedLastResource(j);
-                }
-            }
+            this.preemptionLevelSystem = this.lockResource.peekCeiling();
+            this.levelRes = this.lockResource.peekResource();
+            this.levelJob = this.levelRes.getWhoLockedLastResource(j);
         }
-        
     }
 
     @Override
@@ -169,28 +157,29 @@ public class SRP extends PIP
     
     public long getBlockingTime(Task t) 
     {   
-        return this.blockingTimeForTask.get(t.getID()-1);
+        return this.blockingTimeForTask[t.getIndex()];
     }
     
     private void setBlockingTime(TaskSet ts) 
     {   
+        this.blockingTimeForTask = new long[ts.size()];
         for(Task t : ts)
         {
             long maxBlockingTime = 0;
             for(Task task : ts)
             {
-                if(t != task && this.preemptionLevelForTask.get(t.getID()-1).isHigher(this.preemptionLevelForTask.get(task.getID()-1)))
+                if(t != task && this.preemptionLevelForTask[t.getIndex()].isHigher(this.preemptionLevelForTask[task.getIndex()]))
                 {
                     for(CriticalSection cs : task.getCriticalSectionSet())
                     {
-                        if(this.preemptionLevelForRes.get(cs.getUseSharedResource().getID()-1).compare(this.preemptionLevelForTask.get(t.getID()-1)) >= 0)
+                        if(this.preemptionLevelForRes[cs.getUseSharedResource().getIndex()].compare(this.preemptionLevelForTask[t.getIndex()]) >= 0)
                         {
                             maxBlockingTime = cs.getRelativeEndTime() - cs.getRelativeStartTime() > maxBlockingTime ? cs.getRelativeEndTime() - cs.getRelativeStartTime() : maxBlockingTime;
                         }
                     }
                 }
             }
-            this.blockingTimeForTask.add(maxBlockingTime);
+            this.blockingTimeForTask[t.getIndex()] = maxBlockingTime;
         }
     }
 }
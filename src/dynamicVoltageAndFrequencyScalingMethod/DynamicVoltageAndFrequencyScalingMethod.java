@@ -101,6 +101,17 @@ public abstract class DynamicVoltageAndFrequencyScalingMethod
      * @param blockingRes the blocking resource
      */
     public abstract void jobBlockedAction(Job blockedJob, SharedResource blockingRes);
+    /**
+     * Next system time at which {@link #checkEndSystemTimeAction(long)} will
+     * change the method's state. Methods that only react to job events keep
+     * the default {@link Long#MAX_VALUE}.
+     * @param systemTime the current system time
+     * @return the next time-triggered change, or {@link Long#MAX_VALUE} if none
+     */
+    public long getNextEventTime(long systemTime)
+    {
+        return Long.MAX_VALUE;
+    }
     
     /*SetValue*/
     /**
@@ -23,6 +23,7 @@ public class BATS extends DynamicVoltageAndFrequencyScalingMethod
 {
     
     private double lowSpeed = 0;
+    private double[] responseTime;//依Task.getIndex()，被阻擋時不含阻擋時間的response time
     private Stack<hightSpeed> hightSpeedSet = new Stack<hightSpeed>();
     
     /**
@@ -62,9 +63,9 @@ public class BATS extends DynamicVoltageAndFrequencyScalingMethod
                     double n = p.getTaskSet().size(); // Task Amount
                     lowSpeed=(p.getTaskSet().getTotalUtilization()/(n*((Math.pow(2,1/n))-1))) * p.getTaskSet().getProcessingSpeed(); 
                     // (n*((Math.pow(2,1/n))-1)) is utilization of tasks which RMS schedulability analysis
-                    println("S_b = " + (p.getTaskSet().getTotalUtilization()/(n*((Math.pow(2,1/n))-1))));
+                    println(() -> "S_b = " + (p.getTaskSet().getTotalUtilization()/(n*((Math.pow(2,1/n))-1))));
                 
-                    println("LowSpeed = " + lowSpeed);
+                    println(() -> "LowSpeed = " + lowSpeed);
                 break;
                     
                 case "EDF":
@@ -74,8 +75,45 @@ public class BATS extends DynamicVoltageAndFrequencyScalingMethod
                 default:
                     lowSpeed = 0;
             }
+            
+            this.responseTime = new double[p.getTaskSet().size()];
+            for(Task task : p.getTaskSet())
+            {
+                this.responseTime[task.getIndex()] = this.responseTime(task, p.getSchedulingAlgorithm().getClass().getSimpleName());
+            }
         }
     }
+    
+    private double responseTime(Task task, String schedulingAlgorithm)
+    {
+        double rpt = 0;
+        switch(schedulingAlgorithm)
+        {
+            case "RMS":
+                for (Task t : task.ParentTaskSet())
+                {
+                    if(task.getPeriod() <= t.getPeriod())
+                    {
+                        rpt+= Math.ceil(task.getPeriod()/t.getPeriod())*t.getComputationAmount();
+                    }
+                }
+            break;
+
+            case "EDF":
+                for (Task t : task.ParentTaskSet())
+                {
+                    if(task.getPeriod() <= t.getPeriod())
+                    {
+                        rpt+= Math.floor(task.getPeriod()/t.getPeriod())*t.getComputationAmount();
+                    }
+                }
+            break;
+
+            default:
+                rpt = 0;
+        }
+        return rpt;
+    }
 
     @Override
     public void jobArrivesProcessorAction(Job j, Processor p) {
@@ -144,6 +182,21 @@ public class BATS extends DynamicVoltageAndFrequencyScalingMethod
         }
     }
 
+    @Override
+    public long getNextEventTime(long systemTime)
+    {
+        if(!this.hightSpeedSet.isEmpty())
+        {
+            double popTime = this.hightSpeedSet.peek().speed;
+            
+            if(popTime > systemTime && popTime == Math.floor(popTime))
+            {
+                return (long)popTime;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
     @Override
     public void jobMissDeadlineAction(Job j) {
         
@@ -164,31 +217,7 @@ public class BATS extends DynamicVoltageAndFrequencyScalingMethod
 
             b = blockingJob.getCriticalSection(blockingRes).getRelativeEndTime() - blockingJob.getProgressAmount();
             
-            switch(p.getSchedulingAlgorithm().getClass().getSimpleName())
-            {
-                case "RMS":
-                    for (Task t : blockedJob.getParentTask().ParentTaskSet())
-                    {
-                        if(blockedJob.getParentTask().getPeriod() <= t.getPeriod())
-                        {
-                            rpt+= Math.ceil(blockedJob.getParentTask().getPeriod()/t.getPeriod())*t.getComputationAmount();
-                        }
-                    }
-                break;
-                    
-                case "EDF":
-                    for (Task t : blockedJob.getParentTask().ParentTaskSet())
-                    {
-                        if(blockedJob.getParentTask().getPeriod() <= t.getPeriod())
-                        {
-                            rpt+= Math.floor(blockedJob.getParentTask().getPeriod()/t.getPeriod())*t.getComputationAmount();
-                        }
-                    }
-                break;
-
-                default:
-                    rpt = 0;
-            }
+            rpt = this.responseTime[blockedJob.getParentTask().getIndex()];
             
             speed = (b+rpt)/blockedJob.getParentTask().getPeriod()*blockedJob.getParentTask().ParentTaskSet().getProcessingSpeed();
 
@@ -5,15 +5,14 @@
  */
 package dynamicVoltageAndFrequencyScalingMethod.implementation;
 
+import SystemEnvironment.BlockingAnalysis;
 import SystemEnvironment.Core;
 import SystemEnvironment.Processor;
 import WorkLoad.CoreSpeed;
-import WorkLoad.CriticalSection;
 import WorkLoad.Job;
 import WorkLoad.Priority;
 import WorkLoad.SharedResource;
 import WorkLoad.Task;
-import WorkLoadSet.TaskSet;
 import concurrencyControlProtocol.implementation.MSRP;
 import dynamicVoltageAndFrequencyScalingMethod.DynamicVoltageAndFrequencyScalingMethod;
 import java.util.Vector;
@@ -24,13 +23,15 @@ import java.util.Vector;
  */
 public class BS extends DynamicVoltageAndFrequencyScalingMethod
 {
-    Vector<Priority> preemptionLevelRes;
-    Vector<Priority> preemptionLevelJob;
+    Priority[] preemptionLevelRes;
+    Priority[] preemptionLevelJob;
     
     
     Vector<Double> baseSpeedSet = new Vector<Double>();
     
-    Vector<Double> worstBlocked = new Vector<Double>();
+    double[] worstBlocked;//依Task.getIndex()
+    
+    BlockingAnalysis analysis;
     
     CoreSpeed baseSpeedForFC;
     
@@ -49,24 +50,18 @@ public class BS extends DynamicVoltageAndFrequencyScalingMethod
     {
         preemptionLevelRes = ((MSRP)p.getController().getConcurrencyControlProtocol()).preemptionLevelForRes;
         preemptionLevelJob = ((MSRP)p.getController().getConcurrencyControlProtocol()).preemptionLevelForTask;
-        
-        for(int i = 0; i < p.getTaskSet().size(); i++)
-        {
-            this.worstBlocked.add(0.0);
-        }
+        this.analysis = p.getBlockingAnalysis();
+        this.worstBlocked = new double[p.getTaskSet().size()];
         
         for(Core c : p.getAllCore())
         {
             double tempU = 0;
-            for(Task t : p.getTaskSet())
+            for(int i : this.analysis.getTaskIndicesOfCore(c))
             {
-                if(t.getLocalCore() == c)
+                double tempWU = this.worstCaseUtilization(this.analysis.getTask(i));
+                if(tempU < tempWU)
                 {
-                    double tempWU = this.worstCaseUtilization(t, p.getTaskSet());
-                    if(tempU < tempWU)
-                    {
-                        tempU = tempWU;
-                    }
+                    tempU = tempWU;
                 }
             }
             this.baseSpeedSet.add(tempU * c.getParentProcessor().getTaskSet().getProcessingSpeed());
@@ -121,123 +116,23 @@ public class BS extends DynamicVoltageAndFrequencyScalingMethod
     {
     }
     
-    private double worstCaseUtilization(Task t, TaskSet ts)
+    private double worstCaseUtilization(Task t)
     {
         double tempWorst = 0;
-        for(Task tt : ts)
+        for(int i : this.analysis.getTaskIndicesOfCore(t.getLocalCore()))
         {
-            if(tt.getLocalCore() == t.getLocalCore() && tt.getPeriod() >= t.getPeriod() && tt.getID() != t.getID())
+            Task tt = this.analysis.getTask(i);
+            if(tt.getPeriod() >= t.getPeriod() && tt.getID() != t.getID())
             {
-                tempWorst += ((double)(tt.getComputationAmount() + this.spin(tt.getLocalCore(), tt))) / tt.getPeriod();
+                tempWorst += ((double)(tt.getComputationAmount() + this.analysis.getSpin(tt))) / tt.getPeriod();
             }
         }
         
-        this.worstBlocked.set(t.getID() - 1, tempWorst);
-        tempWorst += ((double)(t.getComputationAmount() + this.spin(t.getLocalCore(), t) + this.block(t))) / t.getPeriod();
+        this.worstBlocked[t.getIndex()] = tempWorst;
+        //B_i取B^l_i與B^g_i的較大者
+        tempWorst += ((double)(t.getComputationAmount() + this.analysis.getSpin(t) + this.analysis.getBlocking(t))) / t.getPeriod();
         return tempWorst;
     }
-    
-    private double block(Task task)
-    {
-        TaskSet ts = this.getParentRegulator().getParentProcessor().getTaskSet();
-        double csTime = 0;
-        
-        for(Task t : ts)
-        {
-            if(t != task && t.getLocalCore() == task.getLocalCore())
-            {
-                if(this.preemptionLevelJob.get(task.getID() - 1).isHigher(this.preemptionLevelJob.get(t.getID() - 1)))
-                {
-                    if(t.getCriticalSectionSet().size() > 0)
-                    {
-                        for(CriticalSection c : t.getCriticalSectionSet())
-                        {
-                            //計算 B^g_i
-                            if(c.getUseSharedResource().isGlobal())
-                            {
-                                double spinTime = this.spin(t.getLocalCore(), c.getUseSharedResource());
-                                spinTime += c.getRelativeEndTime() - c.getRelativeStartTime();
-                                
-                                if(spinTime > csTime)
-                                {
-                                    csTime = spinTime;
-                                }
-                                //System.out.println("  Global=" + csTime/100000);
-                            }
-                            //計算B^l_i
-                            else
-                            {
-                                if(this.preemptionLevelRes.get(c.getUseSharedResource().getID() - 1).isHigher(this.preemptionLevelJob.get(task.getID() - 1)))
-                                {
-                                    if(c.getRelativeEndTime() - c.getRelativeStartTime() > csTime)
-                                    {
-                                        csTime = c.getRelativeEndTime() - c.getRelativeStartTime();
-                                    }
-                                }
-                                //System.out.println("  Local=" + csTime/100000);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return csTime;
-    }
-    
-    //計算 Spin^k(r_g)
-    private double spin(Core k, SharedResource rg)
-    {
-        double spinTime = 0;
-                                
-        for(Core tempC : this.getParentRegulator().getParentProcessor().getAllCore())
-        {
-            if(tempC != k)
-            {
-                double spinCore = 0;
-
-                for(Task tempT : this.getParentRegulator().getParentProcessor().getTaskSet())
-                {
-                    if(tempT.getLocalCore() == tempC)
-                    {
-                        if(tempT.getCriticalSectionSet().size() > 0)
-                        {
-                            for(CriticalSection cs : tempT.getCriticalSectionSet())
-                            {
-                                if(cs.getUseSharedResource() == rg)
-                                {
-                                    if(cs.getRelativeEndTime() - cs.getRelativeStartTime() > spinCore)
-                                    {
-                                        spinCore = cs.getRelativeEndTime() - cs.getRelativeStartTime();
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-                
-                spinTime += spinCore;
-            }
-        }
-        
-        return spinTime;
-    }
-    
-    //計算spin^c_t
-    private double spin(Core c, Task t)
-    {
-        double spinTime = 0;
-        if(t.getCriticalSectionSet().size() > 0)
-        {
-            for(CriticalSection cs : t.getCriticalSectionSet())
-            {
-                if(cs.getUseSharedResource().isGlobal())
-                {
-                    spinTime += this.spin(t.getLocalCore(), cs.getUseSharedResource());
-                }
-            }
-        }
-        return spinTime;
-    }
 
     @Override
     public void jobFirstExecuteAction(Job j)
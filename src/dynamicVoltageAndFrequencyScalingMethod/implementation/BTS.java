@@ -110,7 +110,7 @@ public class BTS extends DynamicVoltageAndFrequencyScalingMethod
     @Override
     public void coreExecuteAction(Core c) 
     {
-        if(c.getWorkingJob()!=null && !c.getWorkingJob().getEnteredCriticalSectionSet().isEmpty())
+        if(c.getWorkingJob()!=null && c.getWorkingJob().getEnteredCriticalSectionCount() != 0)
         {
             c.setCurrentSpeed(baseSpeed);
         }
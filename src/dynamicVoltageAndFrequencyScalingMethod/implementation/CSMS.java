@@ -57,7 +57,7 @@ public class CSMS extends DynamicVoltageAndFrequencyScalingMethod
     {
         if(c.getWorkingJob() != null)
         {
-            if(c.getWorkingJob().getEnteredCriticalSectionSet().size() > 0)
+            if(c.getWorkingJob().getEnteredCriticalSectionCount() > 0)
             {
                 c.setCurrentSpeed(c.getParentCoreSet().getCoreSpeedSet().getMaxFrequencyOfSpeed());
             }
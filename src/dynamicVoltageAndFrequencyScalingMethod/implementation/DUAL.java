@@ -5,16 +5,15 @@
  */
 package dynamicVoltageAndFrequencyScalingMethod.implementation;
 
+import SystemEnvironment.BlockingAnalysis;
 import SystemEnvironment.Core;
 import SystemEnvironment.Processor;
 import WorkLoad.CoreSpeed;
-import WorkLoad.CriticalSection;
 import WorkLoad.Job;
 import WorkLoad.Priority;
 import WorkLoad.SharedResource;
 import WorkLoad.Task;
 import WorkLoadSet.CoreSpeedSet;
-import WorkLoadSet.TaskSet;
 import concurrencyControlProtocol.implementation.MSRP;
 import dynamicVoltageAndFrequencyScalingMethod.DynamicVoltageAndFrequencyScalingMethod;
 import java.util.Vector;
@@ -46,18 +45,20 @@ public class DUAL extends DynamicVoltageAndFrequencyScalingMethod
         }
     }
     
-    Vector<Priority> preemptionLevelRes;
-    Vector<Priority> preemptionLevelJob;
+    Priority[] preemptionLevelRes;
+    Priority[] preemptionLevelJob;
     
     Vector<Job> blockedJob = new Vector<Job>();
     Vector<Long> blockedTime = new Vector<Long>();
     
-    Vector<Double> worstBlocked = new Vector<Double>();
-    Vector<Double> worstSpin = new Vector<Double>();
-    Vector<Double> worstBlock = new Vector<Double>();
+    //依Task.getIndex()
+    double[] worstBlocked;
+    double[] worstSpin;
+    double[] worstBlock;
     
-    Vector<Double> acBlock = new Vector<Double>();
-    Vector<Double> acSpin = new Vector<Double>();
+    double[] acBlock;
+    double[] acSpin;
+    BlockingAnalysis analysis;
     Vector<RemoteBlocking> remoteBlocking = new Vector<RemoteBlocking>();
     boolean isSpin = false;
     
@@ -77,30 +78,23 @@ public class DUAL extends DynamicVoltageAndFrequencyScalingMethod
         preemptionLevelRes = ((MSRP)p.getController().getConcurrencyControlProtocol()).preemptionLevelForRes;
         preemptionLevelJob = ((MSRP)p.getController().getConcurrencyControlProtocol()).preemptionLevelForTask;
         
-        for(int i = 0; i < p.getTaskSet().size(); i++)
-        {
-            this.worstBlocked.add(0.0);
-            this.worstSpin.add(0.0);
-            this.worstBlock.add(0.0);
-            this.acBlock.add(0.0);
-            this.acSpin.add(0.0);
-        }
-        
-        
+        this.analysis = p.getBlockingAnalysis();
+        int taskCount = p.getTaskSet().size();
+        this.worstBlocked = new double[taskCount];
+        this.worstSpin = new double[taskCount];
+        this.worstBlock = new double[taskCount];
+        this.acBlock = new double[taskCount];
+        this.acSpin = new double[taskCount];
 
         for(Core c : p.getAllCore())
         {
-            this.acBlock.add(0.0);
             double tempU = 0;
-            for(Task t : p.getTaskSet())
+            for(int i : this.analysis.getTaskIndicesOfCore(c))
             {
-                if(t.getLocalCore() == c)
+                double tempWU = this.worstCaseUtilization(this.analysis.getTask(i));
+                if(tempU < tempWU)
                 {
-                    double tempWU = this.worstCaseUtilization(t, p.getTaskSet());
-                    if(tempU < tempWU)
-                    {
-                        tempU = tempWU;
-                    }
+                    tempU = tempWU;
                 }
             }
             
@@ -153,17 +147,13 @@ public class DUAL extends DynamicVoltageAndFrequencyScalingMethod
             }
             
             double tempU = 0;
-            TaskSet ts = this.getParentRegulator().getParentProcessor().getTaskSet();
-            for(Task t : ts)
+            for(int i : this.analysis.getTaskIndicesOfCore(j.getCurrentCore()))
             {
-                if(t.getLocalCore() == j.getCurrentCore())
-                {
-                    double tempWU = this.actualSpinUtilization(t, ts, j, r, block);
+                double tempWU = this.actualSpinUtilization(this.analysis.getTask(i), j, r, block);
 
-                    if(tempU < tempWU)
-                    {
-                        tempU = tempWU;
-                    }
+                if(tempU < tempWU)
+                {
+                    tempU = tempWU;
                 }
             }
             
@@ -211,175 +201,74 @@ public class DUAL extends DynamicVoltageAndFrequencyScalingMethod
         }
     }
     
-    private double worstCaseUtilization(Task t, TaskSet ts)
+    private double worstCaseUtilization(Task t)
     {
         double tempWorst = 0;
-        for(Task tt : ts)
+        for(int i : this.analysis.getTaskIndicesOfCore(t.getLocalCore()))
         {
-            if(tt.getLocalCore() == t.getLocalCore() && tt.getPeriod() >= t.getPeriod() && tt.getID() != t.getID())
+            Task tt = this.analysis.getTask(i);
+            if(tt.getPeriod() >= t.getPeriod() && tt.getID() != t.getID())
             {
-                tempWorst += ((double)(tt.getComputationAmount() + this.spin(tt.getLocalCore(), tt))) / tt.getPeriod();
+                tempWorst += ((double)(tt.getComputationAmount() + this.analysis.getSpin(tt))) / tt.getPeriod();
             }
         }
         
-        this.worstBlocked.set(t.getID() - 1, tempWorst);
-        this.worstSpin.set(t.getID() - 1, this.spin(t.getLocalCore(), t));
-        this.worstBlock.set(t.getID() - 1, this.block(t));
-        tempWorst += ((double)(t.getComputationAmount() + this.worstSpin.get(t.getID() - 1) + this.worstBlock.get(t.getID() - 1))) / t.getPeriod();
+        this.worstBlocked[t.getIndex()] = tempWorst;
+        this.worstSpin[t.getIndex()] = this.analysis.getSpin(t);
+        this.worstBlock[t.getIndex()] = this.analysis.getBlocking(t);//B^l_i與B^g_i的較大者
+        tempWorst += ((double)(t.getComputationAmount() + this.worstSpin[t.getIndex()] + this.worstBlock[t.getIndex()])) / t.getPeriod();
         return tempWorst;
     }
     
-    private double actualBlockUtilization(Task t, TaskSet ts, Job j, double blockTime)
+    private double actualBlockUtilization(Task t, Job j, double blockTime)
     {
-        double tempWorst = this.worstBlocked.get(t.getID() - 1);
+        double tempWorst = this.worstBlocked[t.getIndex()];
         if(t == j.getParentTask())
         {
-            tempWorst += ((double)(t.getComputationAmount() + this.worstSpin.get(t.getID() - 1) + blockTime)) / t.getPeriod();
+            tempWorst += ((double)(t.getComputationAmount() + this.worstSpin[t.getIndex()] + blockTime)) / t.getPeriod();
         }
         else
         {
-            tempWorst += ((double)(t.getComputationAmount() + this.worstSpin.get(t.getID() - 1) + this.worstBlock.get(t.getID() - 1))) / t.getPeriod();
+            tempWorst += ((double)(t.getComputationAmount() + this.worstSpin[t.getIndex()] + this.worstBlock[t.getIndex()])) / t.getPeriod();
         }
         return tempWorst;
     }
     
-    private double actualSpinUtilization(Task t, TaskSet ts, Job j, SharedResource r, double blockTime)
+    private double actualSpinUtilization(Task t, Job j, SharedResource r, double blockTime)
     {
-        double gap = this.spin(j.getCurrentCore(), r) - blockTime;
-        double newAcSpin = this.acSpin.get(j.getParentTask().getID() - 1) - gap;
-        this.acSpin.set(j.getParentTask().getID() - 1, newAcSpin);
+        int job = j.getParentTask().getIndex();
+        double gap = this.analysis.getSpin(j.getCurrentCore(), r) - blockTime;
+        this.acSpin[job] = this.acSpin[job] - gap;
         
         double tempWorst = 0;
-        for(Task tt : ts)
+        for(int i : this.analysis.getTaskIndicesOfCore(t.getLocalCore()))
         {
-            if(tt.getLocalCore() == t.getLocalCore() && tt.getPeriod() >= t.getPeriod() && tt.getID() != t.getID())
+            Task tt = this.analysis.getTask(i);
+            if(tt.getPeriod() >= t.getPeriod() && tt.getID() != t.getID())
             {
                 if(tt == j.getParentTask())
                 {
                     
-                    tempWorst += ((double)(tt.getComputationAmount() + this.acSpin.get(j.getParentTask().getID() - 1))) / tt.getPeriod();
+                    tempWorst += ((double)(tt.getComputationAmount() + this.acSpin[job])) / tt.getPeriod();
                 }
                 else
                 {
-                    tempWorst += ((double)(tt.getComputationAmount() + this.worstSpin.get(tt.getID() - 1))) / tt.getPeriod();
+                    tempWorst += ((double)(tt.getComputationAmount() + this.worstSpin[tt.getIndex()])) / tt.getPeriod();
                 }
             }
         }
         
         if(t == j.getParentTask())
         {
-            tempWorst += ((double)(t.getComputationAmount() + this.acSpin.get(j.getParentTask().getID() - 1) + this.acBlock.get(j.getParentTask().getID() - 1))) / t.getPeriod();
+            tempWorst += ((double)(t.getComputationAmount() + this.acSpin[job] + this.acBlock[job])) / t.getPeriod();
         }
         else
         {
-            tempWorst += ((double)(t.getComputationAmount() + this.worstSpin.get(t.getID() - 1) + this.worstBlock.get(t.getID() - 1))) / t.getPeriod();
+            tempWorst += ((double)(t.getComputationAmount() + this.worstSpin[t.getIndex()] + this.worstBlock[t.getIndex()])) / t.getPeriod();
         }
         
         return tempWorst;
     }
-    
-    
-    private double block(Task task)
-    {
-        TaskSet ts = this.getParentRegulator().getParentProcessor().getTaskSet();
-        double csTime = 0;
-        
-        for(Task t : ts)
-        {
-            if(t != task && t.getLocalCore() == task.getLocalCore())
-            {
-                if(this.preemptionLevelJob.get(task.getID() - 1).isHigher(this.preemptionLevelJob.get(t.getID() - 1)))
-                {
-                    if(t.getCriticalSectionSet().size() > 0)
-                    {
-                        for(CriticalSection c : t.getCriticalSectionSet())
-                        {
-                            //計算 B^g_i
-                            if(c.getUseSharedResource().isGlobal())
-                            {
-                                double spinTime = this.spin(t.getLocalCore(), c.getUseSharedResource());
-                                spinTime += c.getRelativeEndTime() - c.getRelativeStartTime();
-                                
-                                if(spinTime > csTime)
-                                {
-                                    csTime = spinTime;
-                                }
-                                //System.out.println("  Global=" + csTime/100000);
-                            }
-                            //計算B^l_i
-                            else
-                            {
-                                if(this.preemptionLevelRes.get(c.getUseSharedResource().getID() - 1).isHigher(this.preemptionLevelJob.get(task.getID() - 1)))
-                                {
-                                    if(c.getRelativeEndTime() - c.getRelativeStartTime() > csTime)
-                                    {
-                                        csTime = c.getRelativeEndTime() - c.getRelativeStartTime();
-                                    }
-                                }
-                                //System.out.println("  Local=" + csTime/100000);
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        return csTime;
-    }
-    
-    //計算 Spin^k(r_g)
-    private double spin(Core k, SharedResource rg)
-    {
-        double spinTime = 0;
-                                
-        for(Core tempC : this.getParentRegulator().getParentProcessor().getAllCore())
-        {
-            if(tempC != k)
-            {
-                double spinCore = 0;
-
-                for(Task tempT : this.getParentRegulator().getParentProcessor().getTaskSet())
-                {
-                    if(tempT.getLocalCore() == tempC)
-                    {
-                        if(tempT.getCriticalSectionSet().size() > 0)
-                        {
-                            for(CriticalSection cs : tempT.getCriticalSectionSet())
-                            {
-                                if(cs.getUseSharedResource() == rg)
-                                {
-                                    if(cs.getRelativeEndTime() - cs.getRelativeStartTime() > spinCore)
-                                    {
-                                        spinCore = cs.getRelativeEndTime() - cs.getRelativeStartTime();
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-                
-                spinTime += spinCore;
-            }
-        }
-        
-        return spinTime;
-    }
-    
-    //計算spin^c_t
-    private double spin(Core c, Task t)
-    {
-        double spinTime = 0;
-        if(t.getCriticalSectionSet().size() > 0)
-        {
-            for(CriticalSection cs : t.getCriticalSectionSet())
-            {
-                if(cs.getUseSharedResource().isGlobal())
-                {
-                    spinTime += this.spin(t.getLocalCore(), cs.getUseSharedResource());
-                }
-            }
-        }
-        return spinTime;
-    }
 
     @Override
     public void jobFirstExecuteAction(Job j)
@@ -398,23 +287,19 @@ public class DUAL extends DynamicVoltageAndFrequencyScalingMethod
             }
         }
         
-        this.acBlock.set(j.getParentTask().getID() - 1, block);
-        this.acSpin.set(j.getParentTask().getID() - 1, this.worstSpin.get(j.getParentTask().getID() - 1));
+        this.acBlock[j.getParentTask().getIndex()] = block;
+        this.acSpin[j.getParentTask().getIndex()] = this.worstSpin[j.getParentTask().getIndex()];
 
         
         double tempU = 0;
         
-        TaskSet ts = this.getParentRegulator().getParentProcessor().getTaskSet();
-        for(Task t : ts)
+        for(int i : this.analysis.getTaskIndicesOfCore(j.getCurrentCore()))
         {
-            if(t.getLocalCore() == j.getCurrentCore())
-            {
-                double tempWU = this.actualBlockUtilization(t, ts, j, block);
+            double tempWU = this.actualBlockUtilization(this.analysis.getTask(i), j, block);
 
-                if(tempU < tempWU)
-                {
-                    tempU = tempWU;
-                }
+            if(tempU < tempWU)
+            {
+                tempU = tempWU;
             }
         }
         
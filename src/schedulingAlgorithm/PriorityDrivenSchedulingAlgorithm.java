@@ -5,6 +5,7 @@
  */
 package schedulingAlgorithm;
 
+import WorkLoad.Job;
 import WorkLoadSet.JobQueue;
 import WorkLoadSet.TaskSet;
 import RTSimulator.Definition.PriorityType;
@@ -91,6 +92,16 @@ public class PriorityDrivenSchedulingAlgorithm
      */
     public void calculatePriority(TaskSet ts){}
     
+    /**
+     * Assigns a job its priority when it is released, before it enters a
+     * ready queue. Algorithms whose job priorities never change after release
+     * (job-level fixed priorities such as EDF and FCFS) assign them here and
+     * have nothing to do in {@link #calculatePriority(WorkLoadSet.JobQueue)};
+     * the default keeps the priority of the job's task.
+     * @param j the released job
+     */
+    public void calculatePriority(Job j){}
+    
     /**
      * Calculates or updates priorities for a queue of jobs.
      * @param jq the job queue to process
@@ -100,4 +111,18 @@ public class PriorityDrivenSchedulingAlgorithm
     {
         return null;
     }
+    
+    /**
+     * Returns the earliest time after {@code systemTime} at which job
+     * priorities may change without any job arriving, completing or changing
+     * lock state. Deadline- and release-based algorithms never do, so the
+     * default is {@link Long#MAX_VALUE}; algorithms whose priorities depend on
+     * the current time override this.
+     * @param systemTime the current system time
+     * @return the next time priorities may change on their own
+     */
+    public long getNextPriorityChangeTime(long systemTime)
+    {
+        return Long.MAX_VALUE;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,245 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package schedulingAlgorithm;
+
+import WorkLoad.Task;
+import WorkLoadSet.TaskSet;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Response time analysis for Audsley-style priority assignment on a single
+ * core, shared by {@link schedulingAlgorithm.implementation.OPA} and
+ * {@link schedulingAlgorithm.implementation.SMC}.
+ * <p>
+ * Priorities are assigned from the lowest level up. While a level is being
+ * filled every task not yet assigned is taken to have a higher priority than
+ * the candidate, so a candidate's response time is the least fixed point of
+ * R = C_i + &Sigma; ceil(R / T_j) C_j over the other unassigned tasks.
+ * Tasks are identified by their position in the task set given to the
+ * constructor, and {@link #assign(int)} takes a task out of the interference
+ * of the levels still to be filled.
+ * </p>
+ * <p>
+ * Each candidate is first checked with cheap bounds. If the candidate's
+ * response time converged within its deadline at a lower level, it is
+ * schedulable with no iteration, since its interference has only shrunk
+ * since. If the sum of the unassigned execution times, or C_i / (1 - U) for
+ * the utilization U of the other unassigned tasks, already exceeds the
+ * deadline, it is not schedulable. Otherwise the fixed point iteration
+ * starts from the larger of these lower bounds instead of from C_i. All
+ * arithmetic is on the integer time units of the tasks, so the result is
+ * the same as the iteration from C_i. The candidates of a large level are
+ * tested in parallel, and the answer is still the first schedulable one in
+ * task set order.
+ * </p>
+ *
+ * @author ShiuJia
+ */
+public class ResponseTimeAnalysis
+{
+    private static final int PARALLEL_THRESHOLD = 64;//候選Task至少這麼多時才平行檢查
+    private static final double MIN_SLACK_UTILIZATION = 1e-3;//1 - U太小時不用C_i / (1 - U)，避免浮點誤差
+    private static final double BOUND_MARGIN = 1e-6;
+
+    private long[] computation;
+    private long[] period;
+    private long[] deadline;
+    private boolean[] assigned;
+    private int[] unassigned;//尚未指派的Task位置，遞增
+    private long unassignedComputation;
+    private double unassignedUtilization;
+    private long[] responseBound;//較低層級時已收斂且不超過截止時間的回應時間，-1為沒有
+    private long busyPeriod;//目前層級busy period的迭代值，不超過其最小不動點
+    private boolean isBusyPeriodConverged;
+
+    /**
+     * Creates the analysis of a task set with no priority assigned yet.
+     *
+     * @param ts the task set; tasks are identified by their position in it
+     */
+    public ResponseTimeAnalysis(TaskSet ts)
+    {
+        int n = ts.size();
+        this.computation = new long[n];
+        this.period = new long[n];
+        this.deadline = new long[n];
+        this.assigned = new boolean[n];
+        this.responseBound = new long[n];
+        Arrays.fill(this.responseBound, -1);
+
+        for(int i = 0; i < n; i++)
+        {
+            Task t = ts.get(i);
+            this.computation[i] = t.getComputationAmount();
+            this.period[i] = t.getPeriod();
+            this.deadline[i] = t.getRelativeDeadline();
+        }
+        this.setUnassigned();
+    }
+
+    /*Operating*/
+    private void setUnassigned()
+    {
+        int n = 0;
+        this.unassigned = new int[this.assigned.length];
+        this.unassignedComputation = 0;
+        this.unassignedUtilization = 0;
+        for(int i = 0; i < this.assigned.length; i++)
+        {
+            if(!this.assigned[i])
+            {
+                this.unassigned[n++] = i;
+                this.unassignedComputation += this.computation[i];
+                this.unassignedUtilization += this.getUtilization(i);
+            }
+        }
+        this.unassigned = Arrays.copyOf(this.unassigned, n);
+        this.busyPeriod = this.unassignedComputation;
+        this.isBusyPeriodConverged = false;
+    }
+
+    /**
+     * Assigns the current lowest level to a task, taking it out of the
+     * interference of the levels still to be filled.
+     *
+     * @param i the position of the task
+     */
+    public void assign(int i)
+    {
+        this.assigned[i] = true;
+        this.setUnassigned();
+    }
+
+    private double getUtilization(int i)
+    {
+        return (double)this.computation[i] / this.period[i];
+    }
+
+    private static long ceilDiv(long a, long b)
+    {
+        return (a + b - 1) / b;
+    }
+
+    //R = C_i + Σ ceil(R / T_j) C_j，從不超過最小不動點的start開始迭代
+    private long iterate(int i, long start, long limit)
+    {
+        long r = start;
+        while(true)
+        {
+            long next = this.computation[i];
+            for(int j : this.unassigned)
+            {
+                if(j != i)
+                {
+                    next += ceilDiv(r, this.period[j]) * this.computation[j];
+                }
+            }
+
+            if(next == r || next > limit)
+            {
+                return next;
+            }
+            r = next;
+        }
+    }
+
+    /*GetValue*/
+    /**
+     * Returns whether a task is schedulable at the current lowest level, with
+     * every other unassigned task at a higher priority.
+     *
+     * @param i the position of the task
+     * @return true if its response time does not exceed its deadline
+     */
+    public boolean isSchedulable(int i)
+    {
+        if(this.responseBound[i] >= 0 && this.responseBound[i] <= this.deadline[i])
+        {
+            return true;//較高優先權的Task只會變少，回應時間不會變長
+        }
+
+        long start = this.unassignedComputation;//C_i + Σ C_j
+        double slack = 1 - (this.unassignedUtilization - this.getUtilization(i));
+        if(slack >= MIN_SLACK_UTILIZATION)
+        {
+            start = Math.max(start, (long)Math.floor(this.computation[i] / slack * (1 - BOUND_MARGIN)));
+        }
+        if(start > this.deadline[i])
+        {
+            return false;
+        }
+
+        long r = this.iterate(i, start, this.deadline[i]);
+        if(r > this.deadline[i])
+        {
+            return false;
+        }
+        this.responseBound[i] = r;
+        return true;
+    }
+
+    /**
+     * Returns the first task, in task set order, that is schedulable at the
+     * current lowest level. Large levels are checked in parallel.
+     *
+     * @return the position of the task, or -1 if no unassigned task is schedulable
+     */
+    public int findSchedulable()
+    {
+        IntStream candidates = IntStream.of(this.unassigned);
+        if(this.unassigned.length >= PARALLEL_THRESHOLD)
+        {
+            candidates = candidates.parallel();
+        }
+        return candidates.filter(this::isSchedulable).findFirst().orElse(-1);
+    }
+
+    /**
+     * Returns the level-i busy period of the unassigned tasks: the least fixed
+     * point of B = &Sigma; ceil(B / T_j) C_j over all of them, starting from
+     * the sum of their execution times. The iteration stops as soon as it
+     * exceeds the limit, and a later call at the same level resumes it.
+     *
+     * @param limit the largest busy period of interest
+     * @return the busy period, or a value above the limit if it is longer
+     */
+    public long getBusyPeriod(long limit)
+    {
+        while(!this.isBusyPeriodConverged && this.busyPeriod <= limit)
+        {
+            long next = 0;
+            for(int j : this.unassigned)
+            {
+                next += ceilDiv(this.busyPeriod, this.period[j]) * this.computation[j];
+            }
+            this.isBusyPeriodConverged = next == this.busyPeriod;
+            this.busyPeriod = next;
+        }
+        return this.busyPeriod;
+    }
+
+    /**
+     * Returns the sum of the execution times of the unassigned tasks.
+     *
+     * @return the total execution time
+     */
+    public long getUnassignedComputation()
+    {
+        return this.unassignedComputation;
+    }
+
+    /**
+     * Returns whether a task has been assigned a level.
+     *
+     * @param i the position of the task
+     * @return true if assigned
+     */
+    public boolean isAssigned(int i)
+    {
+        return this.assigned[i];
+    }
+}
@@ -38,29 +38,30 @@ public class EDF extends SingleCoreSchedulingAlgorithm
     }
     
     /**
-     * Calculate and assign priorities for every job in the provided job queue.
+     * Assigns a released job the {@link Priority} of its absolute deadline;
+     * earlier absolute deadlines map to higher scheduling priority. The priority
+     * never changes afterwards.
      *
-     * <p>This method iterates through the supplied {@code jq}, polling each
-     * {@link Job} and assigning its current priority to a {@link Priority}
-     * constructed from the job's absolute deadline (earlier deadlines map to
-     * higher scheduling priority). Polled jobs are added to and returned in a
-     * newly created {@link JobQueue}.</p>
+     * @param j the released job
+     */
+    @Override
+    public void calculatePriority(Job j)
+    {
+        j.setSchedulingPriority(new Priority(j.getAbsoluteDeadline()));
+    }
+
+    /**
+     * Job priorities are assigned once at release by
+     * {@link #calculatePriority(Job)} and never change, so there is nothing
+     * to recalculate.
      *
-     * @param jq the source {@link JobQueue} containing jobs whose priorities will be recalculated;
-     *           may be empty but should not be {@code null}
-     * @return a new {@link JobQueue} containing the same jobs with updated current priorities
+     * @param jq the {@link JobQueue} holding the jobs
+     * @return {@code jq}, unchanged
      */
     @Override
     public JobQueue calculatePriority(JobQueue jq)
     {
-        JobQueue newJQ = new JobQueue();
-        Job j;
-        while((j = jq.poll()) != null)
-        {
-            j.setCurrentProiority(new Priority(j.getAbsoluteDeadline()));
-            newJQ.add(j);
-        }
-        return newJQ;
+        return jq;
     }
 
     /**
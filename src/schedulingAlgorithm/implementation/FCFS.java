@@ -40,29 +40,30 @@ public class FCFS extends SingleCoreSchedulingAlgorithm
     }
 
     /**
-     * Recalculates job-level priorities for the provided job queue according to FCFS.
+     * Assigns a released job the {@link Priority} of its release time;
+     * earlier release times map to higher scheduling priority. The priority
+     * never changes afterwards.
      *
-     * <p>This method iterates through {@code jq}, polling each {@link Job} and
-     * setting its current priority to a new {@link WorkLoad.Priority} constructed
-     * from the job's release time. Polled jobs are added into a new
-     * {@link JobQueue} which is returned. Effectively, jobs with earlier release
-     * times will receive higher scheduling precedence.</p>
+     * @param j the released job
+     */
+    @Override
+    public void calculatePriority(Job j)
+    {
+        j.setSchedulingPriority(new Priority(j.getReleaseTime()));
+    }
+
+    /**
+     * Job priorities are assigned once at release by
+     * {@link #calculatePriority(Job)} and never change, so there is nothing
+     * to recalculate.
      *
-     * @param jq the source {@link JobQueue} containing jobs whose priorities will be recalculated;
-     *           must not be {@code null}
-     * @return a new {@link JobQueue} containing the same jobs with updated current priorities
+     * @param jq the {@link JobQueue} holding the jobs
+     * @return {@code jq}, unchanged
      */
     @Override
     public JobQueue calculatePriority(JobQueue jq)
     {
-        JobQueue newJQ = new JobQueue();
-        Job j;
-        while((j = jq.poll()) != null)
-        {
-            j.setCurrentProiority(new Priority(j.getReleaseTime()));
-            newJQ.add(j);
-        }
-        return newJQ;
+        return jq;
     }
 
     /**
@@ -40,29 +40,30 @@ public class GEDF extends GlobalSchedulingAlgorithm
     }
 
     /**
-     * Recalculates and assigns job-level priorities for the provided job queue.
+     * Assigns a released job the {@link Priority} of its absolute deadline;
+     * earlier absolute deadlines map to higher scheduling priority. The priority
+     * never changes afterwards.
      *
-     * <p>This method iterates through the supplied {@code jq}, polling each
-     * {@link Job} and setting its current priority to a new {@link Priority}
-     * constructed from the job's absolute deadline. Polled jobs are added to a
-     * newly created {@link JobQueue} which is returned. Jobs with earlier
-     * absolute deadlines will receive higher scheduling priority values.</p>
+     * @param j the released job
+     */
+    @Override
+    public void calculatePriority(Job j)
+    {
+        j.setSchedulingPriority(new Priority(j.getAbsoluteDeadline()));
+    }
+
+    /**
+     * Job priorities are assigned once at release by
+     * {@link #calculatePriority(Job)} and never change, so there is nothing
+     * to recalculate.
      *
-     * @param jq the source {@link JobQueue} containing jobs whose current priorities
-     *           will be recalculated; must not be {@code null}
-     * @return a new {@link JobQueue} containing the same jobs with updated current priorities
+     * @param jq the {@link JobQueue} holding the jobs
+     * @return {@code jq}, unchanged
      */
     @Override
     public JobQueue calculatePriority(JobQueue jq)
     {
-        JobQueue newJQ = new JobQueue();
-        Job j;
-        while((j = jq.poll()) != null)
-        {
-            j.setCurrentProiority(new Priority(j.getAbsoluteDeadline()));
-            newJQ.add(j);
-        }
-        return newJQ;
+        return jq;
     }
 
     /**
@@ -49,31 +49,45 @@ public class LST extends SingleCoreSchedulingAlgorithm
      * according to the Least Slack Time policy.
      *
      * <p>
-     * For each {@link Job} polled from {@code jq}, this method computes the
+     * For each {@link Job} in {@code jq}, this method computes the
      * remaining work amount as {@code ceil(targetAmount - progressAmount)} and
      * computes slack as {@code absoluteDeadline - currentCore.currentTime - remainingWork}.
-     * The job's current priority is then set to a {@link WorkLoad.Priority}
-     * constructed from that slack value. Polled jobs are added into and
-     * returned in a new {@link JobQueue}. Jobs with smaller slack receive
-     * higher scheduling precedence.
+     * Only a job whose slack differs from its priority is given a new
+     * {@link WorkLoad.Priority} of that slack value; it stays in {@code jq}
+     * and is repositioned. Jobs with smaller slack receive higher scheduling
+     * precedence.
      * </p>
      *
      * @param jq the source {@link JobQueue} containing jobs whose priorities will be recalculated;
      *           must not be {@code null}
-     * @return a new {@link JobQueue} containing the same jobs with updated current priorities
+     * @return {@code jq}, with its jobs' current priorities updated
      */
     @Override
     public JobQueue calculatePriority(JobQueue jq)
     {
-        JobQueue newJQ = new JobQueue();
-        Job j;
-        while((j = jq.poll()) != null)
+        for(Job j : jq.toArray(new Job[jq.size()]))
         {
             long lastAmount = (long) Math.ceil(j.getTargetAmount() - j.getProgressAmount());
-            j.setCurrentProiority(new Priority(j.getAbsoluteDeadline() - j.getCurrentCore().getCurrentTime() - lastAmount));
-            newJQ.add(j);
+            long slack = j.getAbsoluteDeadline() - j.getCurrentCore().getCurrentTime() - lastAmount;
+            if(j.getOriginalPriority() == null || j.getOriginalPriority().getValue() != slack)
+            {
+                j.setSchedulingPriority(new Priority(slack));
+            }
         }
-        return newJQ;
+        return jq;
+    }
+
+    /**
+     * Slack of waiting jobs shrinks every time unit, so LST priorities may
+     * change at the next time unit.
+     *
+     * @param systemTime the current system time
+     * @return {@code systemTime + 1}
+     */
+    @Override
+    public long getNextPriorityChangeTime(long systemTime)
+    {
+        return systemTime + 1;
     }
 
     /**
@@ -3,11 +3,15 @@ package schedulingAlgorithm.implementation;
 import WorkLoadSet.JobQueue;
 import WorkLoadSet.TaskSet;
 import RTSimulator.Definition;
+import RTSimulator.Definition.TraceLevel;
+import schedulingAlgorithm.ResponseTimeAnalysis;
 import schedulingAlgorithm.SingleCoreSchedulingAlgorithm;
 import java.util.ArrayList;
 import java.util.List;
 import WorkLoad.Priority;
 import WorkLoad.Task;
+import static RTSimulator.RTSimulator.println;
+import static RTSimulator.RTSimulator.trace;
 /*
  * Similiar to OPA algorithm, adding criticality level after RTA calculation.
  * In this version, i only used 1 and 2 to represent Low and High Criticality (Limitation).
@@ -31,36 +35,35 @@ public class SMC extends SingleCoreSchedulingAlgorithm{
 	@Override
 	public void calculatePriority(TaskSet ts) {
 	    int numTasks = ts.size();
-	    boolean[] assigned = new boolean[numTasks]; 
 	    Priority[] priorities = new Priority[numTasks];
 	    int priorityRiseTaskIndex[] = new int[numTasks];
 	    ArrayList<Double> responseTimeList = new ArrayList<Double>();
+	    ResponseTimeAnalysis rta = new ResponseTimeAnalysis(ts);
 	    for (int priorityIndex = 1; priorityIndex <= numTasks; priorityIndex++) { 
 	        Task bestTask = null;
 	        int bestTaskIndex = -1;
 	        
-	        Boolean isAssignBoolean = false;
 	        for (int i = 0; i < numTasks; i++) {
 	            Task t = ts.get(i);
-	            if (!assigned[i] && isSchedulableWithPriority(ts, t, priorityIndex, assigned, responseTimeList)) {          
+	            if (!rta.isAssigned(i) && isSchedulableWithPriority(rta, t, responseTimeList)) {          
                     bestTask = t;
                     bestTaskIndex = i;
-                    isAssignBoolean = true;
+                    break;
 	            }
-	            if(isAssignBoolean)
-	            	break;
 	        }
 	
 	        // 檢查是否找到合適的任務
+	        final int level = priorityIndex;
 	        if (bestTask == null) {
-	            System.out.println("No schedulable task found for priority level " + priorityIndex);
+	            trace(TraceLevel.INFO, () -> "No schedulable task found for priority level " + level);
 	            continue;
 	        }
 	
-	        assigned[bestTaskIndex] = true;
+	        rta.assign(bestTaskIndex);
 	        priorities[bestTaskIndex] = new Priority(priorityIndex);
 	        
-	        System.out.println("Task " + bestTask.getID() + " assigned priority: " + priorityIndex);
+	        final Task assigned = bestTask;
+	        trace(TraceLevel.INFO, () -> "Task " + assigned.getID() + " assigned priority: " + level);
 	    }   
 	
 	    // 設定優先權
@@ -79,7 +82,7 @@ public class SMC extends SingleCoreSchedulingAlgorithm{
 	        } else {
 	            t.setCriticalityLevel(0L);  // 設定為 Low Criticality
 	        }
-	        System.out.println("Task " + t.getID() + " assigned Criticality Level: " + t.getCriticalityLevel());
+	        trace(TraceLevel.INFO, () -> "Task " + t.getID() + " assigned Criticality Level: " + t.getCriticalityLevel());
 	    }
 	    
 	    // 依據priority的大小排序工作，由大到小儲存在priorityRiseTaskIndex裡面
@@ -117,58 +120,30 @@ public class SMC extends SingleCoreSchedulingAlgorithm{
 	    
 	    
 	    for (Task task : ts) {
-	        System.out.println("Task " + task.getID() + " has final priority: " + task.getPriority().getValue());
+	        trace(TraceLevel.INFO, () -> "Task " + task.getID() + " has final priority: " + task.getPriority().getValue());
 	    }
 	}
 
 	
-	private boolean isSchedulableWithPriority(TaskSet ts, Task t, int priorityIndex, boolean[] assigned, List<Double> responseTimeList) {
-		
-		System.out.println("現在Task("+t.getID()+")，確認是否可排程中");
-	    double responseTime = 0;
-	    double previousResponseTime = 0;
-	    double totalComputationTime = 0;
-	    // 只考慮尚未分配優先權的任務
-	    for (int i = 0; i < ts.size(); i++) {
-	        if (!assigned[i]) { // 只考慮尚未指派優先權的任務
-	        	totalComputationTime += ts.get(i).getComputationAmount();
-	        }
-	    }
-	
-	    // 如果所有其他尚未指派優先權的任務總計計算時間超過當前任務的週期，則無法排程
-	    if (totalComputationTime > t.getRelativeDeadline()) {
-	    	System.out.println("不可排程");
+	/*
+	 * 所有尚未指派優先權的任務（包含t）的busy period不超過t的截止時間即可排程，
+	 * busy period與t無關，同一層級的任務共用rta中的迭代結果。
+	 */
+	private boolean isSchedulableWithPriority(ResponseTimeAnalysis rta, Task t, List<Double> responseTimeList) {
+	    // 如果所有尚未指派優先權的任務總計計算時間超過當前任務的截止時間，則無法排程
+	    if (rta.getUnassignedComputation() > t.getRelativeDeadline()) {
+	        println(() -> "Task(" + t.getID() + ")不可排程");
 	        return false;
 	    }
 	
-	    previousResponseTime = totalComputationTime;
-	    boolean isNotConvergence = true;
-	    int calculationTimes = 0;
-	    // 計算回應時間，確認回應時間是否有收斂的情形
-	    while(isNotConvergence) {
-	    	++calculationTimes;
-	    	System.out.println("第"+calculationTimes+"次計算");
-		    for (int i = 0; i < ts.size(); i++) {
-		        if (!assigned[i]) { // 只考慮尚未指派優先權的任務
-		            responseTime += Math.ceil(previousResponseTime / ts.get(i).getPeriod()) * ts.get(i).getComputationAmount();
-		        }
-		    }
-		    System.out.println("回應時間："+responseTime+",上次回應時間："+previousResponseTime+",截止時間："+t.getRelativeDeadline());
-		    
-		    if(responseTime == previousResponseTime) {
-	    		System.out.println("RTA可排程");
-	    		responseTimeList.add(responseTime);
-	    		return true;
-		    } else if(responseTime > t.getRelativeDeadline()) {
-	    		System.out.println("RTA不可排程！");
-	    		return false;
-		    }
-		    else {
-		    	previousResponseTime = responseTime;
-		    	responseTime = 0;
-		    }
+	    long responseTime = rta.getBusyPeriod(t.getRelativeDeadline());
+	    if (responseTime > t.getRelativeDeadline()) {
+	        println(() -> "Task(" + t.getID() + ")RTA不可排程！");
+	        return false;
 	    }
-	    return false;
+	    println(() -> "Task(" + t.getID() + ")RTA可排程，回應時間：" + responseTime);
+	    responseTimeList.add((double)responseTime);
+	    return true;
 	}
 	
 	/*
@@ -6,6 +6,8 @@
 package scriptsetter;
 
 
+import java.io.File;
+import java.util.Arrays;
 import java.util.Vector;
 import RTSimulator.RTSimulatorMath;
 
@@ -34,8 +36,15 @@ public class Script
     private String ID,workloadSite,processorSite,partitionAlgorithm,DVFSMethod,schedAlgorithm,CCProtocol,simulationTime;
             
     private Vector<ScriptResult> scriptResultSet;
+    private boolean isResultRetained = true;
     private  RTSimulatorMath math = new RTSimulatorMath();
     
+    //running sums of the added results, in the order they were added
+    private int workloadCount,schedulableCount;
+    private double taskCountSum,powerConsumptionSum,jobCompeletedCountSum,jobMissDeadlineCountSum,completedRatioSum,deadlineMissRatioSum;
+    private double pendingTimeSum,responseTimeSum,maximumCriticalSectionRatioSum,actualCriticalSectionRatioSum;
+    private double maximumUtilizationSum,actualUtilizationSum,beBlockedTimeRatioSum;
+    
     /**
      * Constructs a new Script instance by reading values from the provided
      * {@link ScriptPanel} and registering the parent table.
@@ -57,6 +66,19 @@ public class Script
         this.simulationTime = SP.getSimulationTime();
     }
 
+    /**
+     * Constructs a script that belongs to no {@link ScriptTable}, for headless
+     * batch runs. All configuration values are set through the setters.
+     *
+     * @param ID the script ID
+     */
+    public Script(String ID)
+    {
+        this.parent = null;
+        this.scriptResultSet = new Vector<>();
+        this.ID = ID;
+    }
+
 //setValue
     /**
      * Update this script's configuration using values from the given panel.
@@ -70,7 +92,7 @@ public class Script
      */
     public void modifyScript(ScriptPanel SP)
     {
-        this.scriptResultSet.removeAllElements();
+        this.removeAllScriptResult();
         this.ID = SP.getScriptID();
         this.workloadSite = SP.getWorkloadSite();
         this.processorSite = SP.getProcessorSite();
@@ -82,24 +104,77 @@ public class Script
     }
     
     /**
-     * Appends a {@link ScriptResult} produced by running this script.
+     * Adds a {@link ScriptResult} produced by running this script to the
+     * average results, and keeps it in the result set if results are
+     * retained (see {@link #setResultRetained(boolean)}). Safe to call from
+     * several runs at once.
      *
      * @param SR the {@link ScriptResult} to add
      */
-    public void addScriptResult(ScriptResult SR)
+    public synchronized void addScriptResult(ScriptResult SR)
     {
-        this.scriptResultSet.add(SR);
+        if(this.isResultRetained)
+        {
+            this.scriptResultSet.add(SR);
+        }
+        
+        this.workloadCount += 1;
+        if(SR.isSchedulable)
+        {
+            this.schedulableCount += 1;
+        }
+        this.taskCountSum = RTSimulatorMath.add(this.taskCountSum,SR.getTaskCount());
+        this.powerConsumptionSum = RTSimulatorMath.add(this.powerConsumptionSum,SR.getTotalPowerConsumption());
+        this.jobCompeletedCountSum = RTSimulatorMath.add(this.jobCompeletedCountSum,SR.getTotalJobCompeletedCount());
+        this.jobMissDeadlineCountSum = RTSimulatorMath.add(this.jobMissDeadlineCountSum,SR.getTotalJobMissDeadlineCount());
+        this.completedRatioSum = RTSimulatorMath.add(this.completedRatioSum,SR.getCompletedRatio());
+        this.deadlineMissRatioSum = RTSimulatorMath.add(this.deadlineMissRatioSum,SR.getDeadlineMissRatio());
+        this.pendingTimeSum = RTSimulatorMath.add(this.pendingTimeSum,SR.getAveragePendingTime());
+        this.responseTimeSum = RTSimulatorMath.add(this.responseTimeSum,SR.getAverageResponseTime());
+        this.maximumCriticalSectionRatioSum = RTSimulatorMath.add(this.maximumCriticalSectionRatioSum,SR.getMaximumCriticalSectionRatio());
+        this.actualCriticalSectionRatioSum = RTSimulatorMath.add(this.actualCriticalSectionRatioSum,SR.getActualCriticalSectionRatio());
+        this.maximumUtilizationSum = RTSimulatorMath.add(this.maximumUtilizationSum,SR.getMaximumUtilization());
+        this.actualUtilizationSum = RTSimulatorMath.add(this.actualUtilizationSum,SR.getActualUtilization());
+        this.beBlockedTimeRatioSum = RTSimulatorMath.add(this.beBlockedTimeRatioSum,SR.getBeBlockedTimeRatio());
     }
     
     /**
-     * Removes all recorded {@link ScriptResult} entries for this script.
+     * Removes all recorded {@link ScriptResult} entries for this script and
+     * resets the average results.
      *
      * <p>Use this to reset accumulated results before re-running or modifying
      * the script configuration.</p>
      */
-    public void removeAllScriptResult()
+    public synchronized void removeAllScriptResult()
     {
         this.scriptResultSet.removeAllElements();
+        this.workloadCount = 0;
+        this.schedulableCount = 0;
+        this.taskCountSum = 0;
+        this.powerConsumptionSum = 0;
+        this.jobCompeletedCountSum = 0;
+        this.jobMissDeadlineCountSum = 0;
+        this.completedRatioSum = 0;
+        this.deadlineMissRatioSum = 0;
+        this.pendingTimeSum = 0;
+        this.responseTimeSum = 0;
+        this.maximumCriticalSectionRatioSum = 0;
+        this.actualCriticalSectionRatioSum = 0;
+        this.maximumUtilizationSum = 0;
+        this.actualUtilizationSum = 0;
+        this.beBlockedTimeRatioSum = 0;
+    }
+    
+    /**
+     * Sets whether added results are kept in the result set. When a sweep
+     * streams its results to a {@link ScriptResultWriter}, results need not
+     * be kept; the averages are computed either way.
+     *
+     * @param b {@code true} to keep every added result (the default)
+     */
+    public void setResultRetained(boolean b)
+    {
+        this.isResultRetained = b;
     }
     
     
@@ -185,6 +260,16 @@ public class Script
         return this.ID;
     }
     
+    /**
+     * Returns the ID of the group ({@link ScriptTable}) holding this script.
+     *
+     * @return the group ID, empty for a script outside a table
+     */
+    public String getGroupID()
+    {
+        return this.parent == null ? "" : this.parent.getGroupID();
+    }
+    
     /**
      * Returns the configured workload site for this script.
      *
@@ -254,9 +339,49 @@ public class Script
     {
         return this.simulationTime;
     }
+
+    /**
+     * Returns every configuration value of this script that affects its
+     * results (group ID, script ID, workload and processor sites, algorithms
+     * and simulation time), separated by tabs.
+     *
+     * @return the configuration string
+     */
+    public String getConfiguration()
+    {
+        return String.join("\t", this.getGroupID(), this.ID, this.workloadSite, this.processorSite,
+                this.partitionAlgorithm, this.DVFSMethod, this.schedAlgorithm, this.CCProtocol, this.simulationTime);
+    }
+
+    /**
+     * Returns the names of the XML workload files in the workload site,
+     * without the ".xml" extension and in name order; these are the workload
+     * file names expected by {@link ScriptRunnable}.
+     *
+     * @return the workload file names, empty if the workload site is not a folder
+     */
+    public Vector<String> getWorkloadFileNames()
+    {
+        Vector<String> names = new Vector<>();
+        String[] list = new File(this.workloadSite).list();
+        
+        if(list != null)
+        {
+            Arrays.sort(list);
+            for(String fileName : list)
+            {
+                if(fileName.endsWith(".xml") && !fileName.contains("$"))
+                {
+                    names.add(fileName.substring(0, fileName.length() - 4));
+                }
+            }
+        }
+        return names;
+    }
     
     /**
-     * Returns the collection of {@link ScriptResult} accumulated for this script.
+     * Returns the collection of {@link ScriptResult} accumulated for this
+     * script; empty if results are not retained.
      *
      * @return vector of {@link ScriptResult}
      */
@@ -269,11 +394,11 @@ public class Script
     /**
      * Returns the number of workload runs recorded for this script.
      *
-     * @return count of {@link ScriptResult} entries
+     * @return count of added {@link ScriptResult} entries
      */
-    public int getWorkloadCount()
+    public synchronized int getWorkloadCount()
     {
-        return this.scriptResultSet.size();
+        return this.workloadCount;
     }
     
     /**
@@ -281,17 +406,9 @@ public class Script
      *
      * @return number of schedulable runs
      */
-    public int getSchedulableCount()
+    public synchronized int getSchedulableCount()
     {
-        int n = 0;
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            if(this.scriptResultSet.get(i).isSchedulable)
-            {
-                n += 1;
-            }
-        }
-        return n;
+        return this.schedulableCount;
     }
             
     /**
@@ -299,17 +416,14 @@ public class Script
      *
      * @return number of non-schedulable runs
      */
-    public int getNonSchedulableCount()
+    public synchronized int getNonSchedulableCount()
     {
-        int n = 0;
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            if(!this.scriptResultSet.get(i).isSchedulable)
-            {
-                n += 1;
-            }
-        }
-        return n;
+        return this.workloadCount - this.schedulableCount;
+    }
+    
+    private double getAverage(double sum)
+    {
+        return math.changeDecimalFormatFor5(RTSimulatorMath.div(sum,this.workloadCount));
     }
     
     /**
@@ -317,16 +431,9 @@ public class Script
      *
      * @return average task count (formatted to 5 decimal places via {@link RTSimulatorMath})
      */
-    public double getAverageTaskCount()
+    public synchronized double getAverageTaskCount()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getTaskCount());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));
+        return this.getAverage(this.taskCountSum);
     }
     
     /**
@@ -334,16 +441,9 @@ public class Script
      *
      * @return average power consumption (formatted)
      */
-    public double getAveragePowerConsumption()
+    public synchronized double getAveragePowerConsumption()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getTotalPowerConsumption());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));                
+        return this.getAverage(this.powerConsumptionSum);
     }
     
     /**
@@ -351,16 +451,9 @@ public class Script
      *
      * @return average completed job count (formatted)
      */
-    public double getAverageJobCompeletedCount()
+    public synchronized double getAverageJobCompeletedCount()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getTotalJobCompeletedCount());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));                
+        return this.getAverage(this.jobCompeletedCountSum);
     }
     
     /**
@@ -368,16 +461,9 @@ public class Script
      *
      * @return average missed-deadline job count (formatted)
      */
-    public double getAverageJobMissDeadlineCount()
+    public synchronized double getAverageJobMissDeadlineCount()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getTotalJobMissDeadlineCount());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));                
+        return this.getAverage(this.jobMissDeadlineCountSum);
     }
     
     /**
@@ -385,16 +471,9 @@ public class Script
      *
      * @return average completed ratio (formatted)
      */
-    public double getAverageCompletedRatio()
+    public synchronized double getAverageCompletedRatio()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getCompletedRatio());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));                
+        return this.getAverage(this.completedRatioSum);
     }
     
     /**
@@ -402,16 +481,9 @@ public class Script
      *
      * @return average deadline miss ratio (formatted)
      */
-    public double getAverageDeadlineMissRatio()
+    public synchronized double getAverageDeadlineMissRatio()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getDeadlineMissRatio());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));                
+        return this.getAverage(this.deadlineMissRatioSum);
     }
     
     
@@ -420,15 +492,9 @@ public class Script
      *
      * @return average pending time (formatted)
      */
-    public double getAveragePendingTime()
+    public synchronized double getAveragePendingTime()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getAveragePendingTime());
-        }
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));                
+        return this.getAverage(this.pendingTimeSum);
     }
     
     /**
@@ -436,16 +502,9 @@ public class Script
      *
      * @return average response time (formatted)
      */
-    public double getAverageResponseTime()
+    public synchronized double getAverageResponseTime()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getAverageResponseTime());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));                
+        return this.getAverage(this.responseTimeSum);
     }
     
     /**
@@ -453,16 +512,9 @@ public class Script
      *
      * @return average maximum critical section ratio (formatted)
      */
-    public double getAverageMaximumCriticalSectionRatio()
+    public synchronized double getAverageMaximumCriticalSectionRatio()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getMaximumCriticalSectionRatio());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));    
+        return this.getAverage(this.maximumCriticalSectionRatioSum);
     }
     
     /**
@@ -470,16 +522,9 @@ public class Script
      *
      * @return average actual critical section ratio (formatted)
      */
-    public double getAverageActualCriticalSectionRatio()
+    public synchronized double getAverageActualCriticalSectionRatio()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getActualCriticalSectionRatio());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));    
+        return this.getAverage(this.actualCriticalSectionRatioSum);
     }
     
     /**
@@ -487,16 +532,9 @@ public class Script
      *
      * @return average maximum utilization (formatted)
      */
-    public double getAverageMaximumUtilization()
+    public synchronized double getAverageMaximumUtilization()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getMaximumUtilization());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size())); 
+        return this.getAverage(this.maximumUtilizationSum);
     }
     
     /**
@@ -504,16 +542,9 @@ public class Script
      *
      * @return average actual utilization (formatted)
      */
-    public double getAverageActualUtilization()
+    public synchronized double getAverageActualUtilization()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getActualUtilization());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));    
+        return this.getAverage(this.actualUtilizationSum);
     }
     
     /**
@@ -521,15 +552,8 @@ public class Script
      *
      * @return average blocked-time ratio (formatted)
      */
-    public double getAverageActualBeBlockedTimeRatio()
+    public synchronized double getAverageActualBeBlockedTimeRatio()
     {
-        double p = 0;
-        
-        for(int i = 0 ; i<this.scriptResultSet.size() ; i++)
-        {
-            p = RTSimulatorMath.add(p,this.scriptResultSet.get(i).getBeBlockedTimeRatio());
-        }
-        
-        return math.changeDecimalFormatFor5(RTSimulatorMath.div(p,this.scriptResultSet.size()));  
+        return this.getAverage(this.beBlockedTimeRatioSum);
     }
 }
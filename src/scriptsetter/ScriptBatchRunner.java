@@ -0,0 +1,234 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package scriptsetter;
+
+import SystemEnvironment.SimulationContext;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Headless command-line entry point that runs script experiments without the
+ * {@link ScriptSetter} window.
+ *
+ * <p>Usage: {@code ScriptBatchRunner <script.json> <result.csv> [threads]}</p>
+ *
+ * <p>The script definition file holds the same fields as a {@link Script}:
+ * <pre>
+ * {
+ *   "accuracy": 2,
+ *   "threads": 4,
+ *   "scripts": [
+ *     {
+ *       "ID": "1",
+ *       "workloadSite": "workloads/u50",
+ *       "processorSite": "processor.xml",
+ *       "partitionAlgorithm": "FF",
+ *       "schedulingAlgorithm": "PRMS",
+ *       "CCProtocol": "MSRP",
+ *       "DVFSMethod": "MaxSpeed",
+ *       "simulationTime": "1000"
+ *     }
+ *   ]
+ * }
+ * </pre>
+ * {@code accuracy} defaults to 5, like the window's accuracy field,
+ * {@code threads} to the number of available processors and the optional
+ * {@code checkpointInterval} to {@link ScriptResultWriter#DEFAULT_CHECKPOINT_INTERVAL};
+ * a thread count given on the command line overrides the file. The optional
+ * {@code jobRetained} may be set to {@code false} for long simulations, so
+ * that finished jobs are folded into the task statistics and dropped (see
+ * {@link SimulationContext#setJobRetained(boolean)}).</p>
+ *
+ * <p>Every script is run once for each XML workload file in its workload site
+ * (see {@link Script#getWorkloadFileNames()}), on a fixed pool of worker
+ * threads. Each {@link ScriptResult} is appended to the CSV file by a
+ * {@link ScriptResultWriter} as soon as its run completes and is not kept in
+ * memory, so the order of the rows follows completion. If the CSV file
+ * already exists the sweep is resumed: runs recorded in it are skipped. A
+ * file written with another configuration (see
+ * {@link ScriptResultWriter#getConfigurationHash(Iterable, SimulationContext)})
+ * is refused rather than resumed. A
+ * failing run is logged and does not stop the others; the exit status is 1
+ * if any run failed.</p>
+ *
+ * @author YC
+ */
+public class ScriptBatchRunner
+{
+    private SimulationContext context;
+    private int threadAmount;
+    private int checkpointInterval;
+    private Vector<Script> scriptSet;
+
+    /**
+     * Creates a runner for the scripts of a script definition file.
+     *
+     * @param scriptFile the script definition file
+     * @throws IOException if the file cannot be read
+     */
+    public ScriptBatchRunner(File scriptFile) throws IOException
+    {
+        JsonObject root;
+        try(Reader reader = new FileReader(scriptFile, StandardCharsets.UTF_8))
+        {
+            root = JsonParser.parseReader(reader).getAsJsonObject();
+        }
+
+        this.context = new SimulationContext(root.has("accuracy") ? root.get("accuracy").getAsInt() : 5);
+        this.context.setJobRetained(!root.has("jobRetained") || root.get("jobRetained").getAsBoolean());
+        this.threadAmount = root.has("threads") ? root.get("threads").getAsInt() : Runtime.getRuntime().availableProcessors();
+        this.checkpointInterval = root.has("checkpointInterval") ? root.get("checkpointInterval").getAsInt() : ScriptResultWriter.DEFAULT_CHECKPOINT_INTERVAL;
+        this.scriptSet = new Vector<>();
+
+        for(JsonElement e : root.getAsJsonArray("scripts"))
+        {
+            this.scriptSet.add(this.createScript(e.getAsJsonObject()));
+        }
+    }
+
+    private Script createScript(JsonObject o)
+    {
+        Script s = new Script(o.has("ID") ? o.get("ID").getAsString() : String.valueOf(this.scriptSet.size() + 1));
+        s.setWorkloadSite(o.get("workloadSite").getAsString());
+        s.setProcessorSite(o.get("processorSite").getAsString());
+        s.setPartitionAlgorithm(o.has("partitionAlgorithm") ? o.get("partitionAlgorithm").getAsString() : "None");
+        s.setSchedulingAlgorithm(o.get("schedulingAlgorithm").getAsString());
+        s.setCCProtocol(o.has("CCProtocol") ? o.get("CCProtocol").getAsString() : "None");
+        s.setDVFSMethod(o.has("DVFSMethod") ? o.get("DVFSMethod").getAsString() : "None");
+        s.setSimulationTime(o.get("simulationTime").getAsString());
+        return s;
+    }
+
+    /*Operating*/
+    /**
+     * Runs every script on every workload file of its workload site that is
+     * not yet recorded in the result file, and appends one CSV row per
+     * completed run.
+     *
+     * @param resultFile the CSV file to append to, created if it does not exist
+     * @return the number of failed runs
+     * @throws IOException if the result file cannot be written, or holds
+     *         results of another script configuration
+     * @throws InterruptedException if the calling thread is interrupted while waiting for runs
+     */
+    public int run(File resultFile) throws IOException, InterruptedException
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(this.threadAmount);
+        ExecutorCompletionService<ScriptResult> completion = new ExecutorCompletionService<>(executor);
+        int failed = 0;
+
+        try(ScriptResultWriter writer = new ScriptResultWriter(resultFile, ScriptResultWriter.getConfigurationHash(this.scriptSet, this.context), this.checkpointInterval))
+        {
+            int runCount = 0;
+            for(Script s : this.scriptSet)
+            {
+                for(String workloadFileName : s.getWorkloadFileNames())
+                {
+                    if(!writer.isRecorded(s, workloadFileName))
+                    {
+                        ScriptRunnable runnable = new ScriptRunnable(s, workloadFileName, this.context);
+                        completion.submit(runnable::simulate);
+                        runCount++;
+                    }
+                }
+            }
+
+            for(int i = 0 ; i < runCount ; i++)
+            {
+                try
+                {
+                    writer.write(completion.take().get());
+                }
+                catch(ExecutionException ex)
+                {
+                    failed++;
+                    Logger.getLogger(ScriptBatchRunner.class.getName()).log(Level.SEVERE, null, ex.getCause());
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+        return failed;
+    }
+
+    /*SetValue*/
+    /**
+     * Sets the number of worker threads, overriding the script definition file.
+     *
+     * @param n the number of threads, at least 1
+     */
+    public void setThreadAmount(int n)
+    {
+        if(n < 1)
+        {
+            throw new IllegalArgumentException("thread amount must be at least 1: " + n);
+        }
+        this.threadAmount = n;
+    }
+
+    /*GetValue*/
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return the thread amount
+     */
+    public int getThreadAmount()
+    {
+        return this.threadAmount;
+    }
+
+    /**
+     * Returns the scripts read from the script definition file.
+     *
+     * @return the scripts, in file order
+     */
+    public Vector<Script> getScriptSet()
+    {
+        return this.scriptSet;
+    }
+
+    /**
+     * Command-line entry point, see the class description.
+     *
+     * @param args the script definition file, the result CSV file and optionally the thread amount
+     * @throws Exception if the script definition cannot be read or the results cannot be written
+     */
+    public static void main(String[] args) throws Exception
+    {
+        if(args.length < 2 || args.length > 3)
+        {
+            System.err.println("Usage: ScriptBatchRunner <script.json> <result.csv> [threads]");
+            System.exit(2);
+        }
+
+        ScriptBatchRunner runner = new ScriptBatchRunner(new File(args[0]));
+        if(args.length == 3)
+        {
+            runner.setThreadAmount(Integer.parseInt(args[2]));
+        }
+
+        int failed = runner.run(new File(args[1]));
+        System.out.println("Failed runs : " + failed);
+        System.exit(failed == 0 ? 0 : 1);
+    }
+}
@@ -60,7 +60,7 @@ public class ScriptResult
     public ScriptResult(Script s)
     {
         this.parent = s;
-        this.ID = s.getScriptResultSet().size()+1;
+        this.ID = s.getWorkloadCount()+1;
         this.isSchedulable = true;
         this.powerConsumptions = new Vector<>();
         this.totalJobCompeletedCount = 0;
@@ -403,6 +403,163 @@ public class ScriptResult
         return this.beBlockedTimeRatio;
     }
     
+    /**
+     * Returns the parent script that produced this result.
+     *
+     * @return the parent {@code Script}
+     */
+    public Script getScript()
+    {
+        return this.parent;
+    }
+    
+    /**
+     * Returns the column names of the rows produced by {@link #toCSVRow()}.
+     *
+     * @return the CSV header line, without line terminator
+     */
+    public static String getCSVHeader()
+    {
+        return "groupID,scriptID,workloadFile,processorFile,partitionAlgorithm,schedulingAlgorithm,CCProtocol,DVFSMethod,simulationTime,"
+             + "taskCount,schedulable,completedCount,missDeadlineCount,completedRatio,deadlineMissRatio,"
+             + "averagePendingTime,averageResponseTime,beBlockedTimeRatio,"
+             + "maximumUtilization,actualUtilization,maximumCriticalSectionRatio,actualCriticalSectionRatio,"
+             + "totalPowerConsumption,powerConsumptions";
+    }
+    
+    /**
+     * Returns this result as one CSV row with the columns of
+     * {@link #getCSVHeader()}. The per-core power samples form the last
+     * column, separated by ';'. Values holding a comma, a quote or a line
+     * break are quoted.
+     *
+     * @return the CSV row, without line terminator
+     */
+    public String toCSVRow()
+    {
+        StringBuilder sb = new StringBuilder();
+        StringBuilder power = new StringBuilder();
+        for(int i = 0 ; i < this.powerConsumptions.size() ; i++)
+        {
+            power.append(i == 0 ? "" : ";").append(this.powerConsumptions.get(i));
+        }
+        
+        Object[] values =
+        {
+            this.parent.getGroupID(), this.parent.getID(), this.workloadFile, this.processorFile,
+            this.parent.getPartitionAlgorithm(), this.parent.getSchedulingAlgorithm(), this.parent.getCCProtocol(),
+            this.parent.getDVFSMethod(), this.parent.getSimulationTime(),
+            this.taskCount, this.isSchedulable, this.totalJobCompeletedCount, this.totalJobMissDeadlineCount,
+            this.completedRatio, this.deadlineMissRatio, this.averagePendingTime, this.averageResponseTime,
+            this.beBlockedTimeRatio, this.maximumUtilization, this.actualUtilization,
+            this.maximumCriticalSectionRatio, this.actualCriticalSectionRatio,
+            this.getTotalPowerConsumption(), power
+        };
+        
+        for(int i = 0 ; i < values.length ; i++)
+        {
+            String v = String.valueOf(values[i]);
+            if(i > 0)
+            {
+                sb.append(',');
+            }
+            if(v.indexOf(',') >= 0 || v.indexOf('"') >= 0 || v.indexOf('\r') >= 0 || v.indexOf('\n') >= 0)
+            {
+                sb.append('"').append(v.replace("\"", "\"\"")).append('"');
+            }
+            else
+            {
+                sb.append(v);
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Splits a row produced by {@link #toCSVRow()} into its values.
+     *
+     * @param row the CSV row, without line terminator; quoted values may hold line breaks
+     * @return the unquoted values
+     */
+    public static Vector<String> splitCSVRow(String row)
+    {
+        Vector<String> values = new Vector<>();
+        StringBuilder v = new StringBuilder();
+        boolean isQuoted = false;
+        
+        for(int i = 0 ; i < row.length() ; i++)
+        {
+            char c = row.charAt(i);
+            if(isQuoted)
+            {
+                if(c == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"')
+                {
+                    v.append('"');
+                    i++;
+                }
+                else if(c == '"')
+                {
+                    isQuoted = false;
+                }
+                else
+                {
+                    v.append(c);
+                }
+            }
+            else if(c == '"')
+            {
+                isQuoted = true;
+            }
+            else if(c == ',')
+            {
+                values.add(v.toString());
+                v.setLength(0);
+            }
+            else
+            {
+                v.append(c);
+            }
+        }
+        values.add(v.toString());
+        return values;
+    }
+    
+    /**
+     * Rebuilds a result of script {@code s} from a row produced by
+     * {@link #toCSVRow()}, e.g. when a sweep is resumed from its result file.
+     *
+     * @param s the script that produced the row
+     * @param values the row values, see {@link #splitCSVRow(String)}
+     * @return the result
+     */
+    public static ScriptResult fromCSVRow(Script s, Vector<String> values)
+    {
+        ScriptResult sr = new ScriptResult(s);
+        sr.setWorkloadFile(values.get(2));
+        sr.setProcessorFile(values.get(3));
+        sr.setTaskCount(Integer.parseInt(values.get(9)));
+        sr.setSchedulable(Boolean.parseBoolean(values.get(10)));
+        sr.setTotalJobCompeletedCount(Integer.parseInt(values.get(11)));
+        sr.setTotalJobMissDeadlineCount(Integer.parseInt(values.get(12)));
+        sr.setCompletedRatio(Double.parseDouble(values.get(13)));
+        sr.setDeadlineMissRatio(Double.parseDouble(values.get(14)));
+        sr.setAveragePendingTime(Double.parseDouble(values.get(15)));
+        sr.setAverageResponseTime(Double.parseDouble(values.get(16)));
+        sr.setBeBlockedTimeRatio(Double.parseDouble(values.get(17)));
+        sr.setMaximumUtilization(Double.parseDouble(values.get(18)));
+        sr.setActualUtilization(Double.parseDouble(values.get(19)));
+        sr.setMaximumCriticalSectionRatio(Double.parseDouble(values.get(20)));
+        sr.setActualCriticalSectionRatio(Double.parseDouble(values.get(21)));
+        
+        if(!values.get(23).isEmpty())
+        {
+            for(String p : values.get(23).split(";"))
+            {
+                sr.addPowerConsumption(Double.parseDouble(p));
+            }
+        }
+        return sr;
+    }
     
     /**
      * Prints a brief summary of this result to the simulator's output using
@@ -0,0 +1,349 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package scriptsetter;
+
+import SystemEnvironment.SimulationContext;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Vector;
+import java.util.function.Consumer;
+
+/**
+ * Append-only CSV file of {@link ScriptResult} rows, written as each run
+ * completes so that a sweep neither keeps its results in memory nor loses
+ * them when it is interrupted.
+ *
+ * <p>Every row is flushed to the operating system when it is written; every
+ * {@code checkpointInterval} rows, and on {@link #close()}, the file is also
+ * forced to the storage device, so a power loss costs at most one checkpoint
+ * interval of runs.</p>
+ *
+ * <p>The first line of the file holds a hash of the configuration of the
+ * sweep (see {@link #getConfigurationHash(Iterable, SimulationContext)}),
+ * followed by the column header. Values holding a line break are quoted, so
+ * a row may span several lines.</p>
+ *
+ * <p>Opening an existing file resumes it, but only if it was written with the
+ * same configuration hash; otherwise the results it holds would not match
+ * the scripts, and opening fails. A row cut short by a crash is dropped, and
+ * the runs already recorded (identified by group ID, script ID and workload
+ * file) are reported by {@link #isRecorded(Script, String)} so the caller can
+ * skip them. {@link #readRows(File, Consumer)} reads the rows back, e.g. to
+ * fold them into the script averages with
+ * {@link ScriptResult#fromCSVRow(Script, Vector)}.</p>
+ *
+ * <p>{@link #write(ScriptResult)} may be called from several runs at once.</p>
+ *
+ * @author YC
+ */
+public class ScriptResultWriter implements Closeable
+{
+    /**
+     * Number of rows between two forced writes when none is given.
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 64;
+
+    private static final String CONFIGURATION_PREFIX = "#configuration=";
+
+    private File file;
+    private FileOutputStream out;
+    private int checkpointInterval;
+    private int uncheckpointedCount;
+    private HashSet<String> recordedRuns;
+
+    /**
+     * Opens a result file with the default checkpoint interval.
+     *
+     * @param f the result file, created if it does not exist
+     * @param configurationHash the configuration hash of the sweep
+     * @throws IOException if the file cannot be read or written, is not a
+     *         result file or was written with another configuration
+     */
+    public ScriptResultWriter(File f, String configurationHash) throws IOException
+    {
+        this(f, configurationHash, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Opens a result file, resuming it if it already holds results of the
+     * same configuration.
+     *
+     * @param f the result file, created if it does not exist
+     * @param configurationHash the configuration hash of the sweep
+     * @param checkpointInterval the number of rows between two forced writes, at least 1
+     * @throws IOException if the file cannot be read or written, is not a
+     *         result file or was written with another configuration
+     */
+    public ScriptResultWriter(File f, String configurationHash, int checkpointInterval) throws IOException
+    {
+        if(checkpointInterval < 1)
+        {
+            throw new IllegalArgumentException("checkpoint interval must be at least 1: " + checkpointInterval);
+        }
+
+        this.file = f;
+        this.checkpointInterval = checkpointInterval;
+        this.uncheckpointedCount = 0;
+        this.recordedRuns = new HashSet<>();
+
+        boolean isNew = !f.exists() || f.length() == 0;
+        if(!isNew)
+        {
+            String hash = readConfigurationHash(f);//先確認是同一組設定的結果檔，再截掉不完整的row
+            if(!configurationHash.equals(hash))
+            {
+                throw new IOException(f + " holds results of another script configuration (" + hash + ", expected " + configurationHash + ")");
+            }
+            this.dropPartialRow();
+            readRows(f, values -> this.recordedRuns.add(getRunKey(values.get(0), values.get(1), values.get(2))));
+        }
+
+        this.out = new FileOutputStream(f, true);
+        if(isNew)
+        {
+            this.writeLine(CONFIGURATION_PREFIX + configurationHash);
+            this.writeLine(ScriptResult.getCSVHeader());
+            this.checkpoint();
+        }
+    }
+
+    //截掉最後一個不完整的row；引號內的換行不算row的結尾
+    private void dropPartialRow() throws IOException
+    {
+        long end = 0;
+        try(BufferedInputStream in = new BufferedInputStream(new FileInputStream(this.file)))
+        {
+            boolean isQuoted = false;
+            long position = 0;
+            int b;
+            while((b = in.read()) != -1)
+            {
+                position++;
+                if(b == '"')
+                {
+                    isQuoted = !isQuoted;
+                }
+                else if(b == '\n' && !isQuoted)
+                {
+                    end = position;
+                }
+            }
+        }
+
+        try(RandomAccessFile raf = new RandomAccessFile(this.file, "rw"))
+        {
+            if(end < raf.length())
+            {
+                raf.setLength(end);
+            }
+        }
+    }
+
+    //讀取一個row，引號內的換行屬於值；檔案結尾的不完整row回傳null
+    private static String readRecord(Reader reader) throws IOException
+    {
+        StringBuilder sb = new StringBuilder();
+        boolean isQuoted = false;
+        int c;
+        while((c = reader.read()) != -1)
+        {
+            if(c == '\n' && !isQuoted)
+            {
+                return sb.toString();
+            }
+            if(c == '"')
+            {
+                isQuoted = !isQuoted;
+            }
+            sb.append((char)c);
+        }
+        return null;
+    }
+
+    private static String getRunKey(String groupID, String scriptID, String workloadFile)
+    {
+        return groupID + '\u0000' + scriptID + '\u0000' + workloadFile;
+    }
+
+    /*Operating*/
+    /**
+     * Returns the configuration hash of a set of scripts run with a
+     * simulation context: a SHA-256 digest of the group ID, script ID,
+     * workload and processor sites, algorithms and simulation time of every
+     * script (see {@link Script#getConfiguration()}), in order, and of the
+     * accuracy. Two sweeps with the same hash produce the same results for
+     * the same workload files.
+     *
+     * @param scripts the scripts of the sweep
+     * @param c the simulation context the scripts run with
+     * @return the hash, in hexadecimal
+     */
+    public static String getConfigurationHash(Iterable<Script> scripts, SimulationContext c)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("magnification=").append(c.getMagnificationFactor()).append('\n');
+        for(Script s : scripts)
+        {
+            sb.append(s.getConfiguration()).append('\n');
+        }
+
+        try
+        {
+            StringBuilder hash = new StringBuilder();
+            for(byte b : MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8)))
+            {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        }
+        catch(NoSuchAlgorithmException ex)
+        {
+            throw new IllegalStateException(ex);//every Java platform provides SHA-256
+        }
+    }
+
+    /**
+     * Reads the configuration hash a result file was written with.
+     *
+     * @param f the result file
+     * @return the configuration hash
+     * @throws IOException if the file cannot be read or is not a result file
+     */
+    public static String readConfigurationHash(File f) throws IOException
+    {
+        try(Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8)))
+        {
+            return readHeader(f, reader);
+        }
+    }
+
+    private static String readHeader(File f, Reader reader) throws IOException
+    {
+        String configuration = readRecord(reader);
+        String header = readRecord(reader);
+        if(configuration == null || !configuration.startsWith(CONFIGURATION_PREFIX)
+           || header == null || !header.equals(ScriptResult.getCSVHeader()))
+        {
+            throw new IOException(f + " is not a script result file");
+        }
+        return configuration.substring(CONFIGURATION_PREFIX.length());
+    }
+
+    /**
+     * Reads the rows of a result file one at a time, so that the rows never
+     * need to be in memory together.
+     *
+     * @param f the result file
+     * @param action called with the values of each row, see {@link ScriptResult#splitCSVRow(String)}
+     * @throws IOException if the file cannot be read or is not a result file
+     */
+    public static void readRows(File f, Consumer<Vector<String>> action) throws IOException
+    {
+        try(Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8)))
+        {
+            readHeader(f, reader);
+
+            String row;
+            while((row = readRecord(reader)) != null)
+            {
+                if(!row.isEmpty())
+                {
+                    action.accept(ScriptResult.splitCSVRow(row));
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends the row of a completed run, and forces the file to storage if a
+     * checkpoint is due.
+     *
+     * @param sr the result to write
+     * @throws IOException if the row cannot be written
+     */
+    public synchronized void write(ScriptResult sr) throws IOException
+    {
+        this.writeLine(sr.toCSVRow());
+        this.recordedRuns.add(getRunKey(sr.getScript().getGroupID(), sr.getScript().getID(), sr.getWorkloadFile()));
+
+        if(++this.uncheckpointedCount >= this.checkpointInterval)
+        {
+            this.checkpoint();
+        }
+    }
+
+    private void writeLine(String line) throws IOException
+    {
+        this.out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        this.out.flush();
+    }
+
+    /**
+     * Forces every written row to the storage device.
+     *
+     * @throws IOException if the file cannot be synchronized
+     */
+    public synchronized void checkpoint() throws IOException
+    {
+        this.out.getFD().sync();
+        this.uncheckpointedCount = 0;
+    }
+
+    /**
+     * Forces the written rows to storage and closes the file.
+     *
+     * @throws IOException if the file cannot be synchronized or closed
+     */
+    @Override
+    public synchronized void close() throws IOException
+    {
+        try
+        {
+            this.checkpoint();
+        }
+        finally
+        {
+            this.out.close();
+        }
+    }
+
+    /*GetValue*/
+    /**
+     * Returns whether the run of a script on a workload file is already in
+     * the file.
+     *
+     * @param s the script
+     * @param workloadFile the workload file name, as given to {@link ScriptRunnable}
+     * @return {@code true} if the run was recorded
+     */
+    public synchronized boolean isRecorded(Script s, String workloadFile)
+    {
+        return this.recordedRuns.contains(getRunKey(s.getGroupID(), s.getID(), workloadFile));
+    }
+
+    /**
+     * Returns the result file.
+     *
+     * @return the file this writer appends to
+     */
+    public File getFile()
+    {
+        return this.file;
+    }
+}
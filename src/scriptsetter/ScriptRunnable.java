@@ -8,6 +8,7 @@ package scriptsetter;
 import PartitionAlgorithm.PartitionAlgorithm;
 import SystemEnvironment.Core;
 import SystemEnvironment.DataReader;
+import SystemEnvironment.SimulationContext;
 import SystemEnvironment.Simulator;
 import WorkLoad.Task;
 import WorkLoadSet.DataSetting;
@@ -18,9 +19,11 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.JOptionPane;
 import static javax.swing.JOptionPane.WARNING_MESSAGE;
-import static RTSimulator.Definition.magnificationFactor;
 import static RTSimulator.RTSimulator.println;
+import RTSimulator.Definition.TraceLevel;
+import RTSimulator.RTSimulator;
 import RTSimulator.RTSimulatorMath;
+import RTSimulator.TraceSink;
 import schedulingAlgorithm.PriorityDrivenSchedulingAlgorithm;
 import userInterface.frontEnd.SimulationViewer;
 
@@ -50,24 +53,77 @@ public class ScriptRunnable implements Runnable
     private Thread t;
     private Script script;
     private String workloadFileName;
+    private SimulationContext context;
+    private ScriptResultWriter resultWriter;
 
     /**
      * Parent UI/controller that created this runnable. Public to match the
      * project's existing usage where external code may access the parent
      * field directly (e.g. for error dialogs or higher-level coordination).
+     * {@code null} for headless runs.
      */
     public ScriptSetter parent;
     
-    ScriptRunnable(ScriptSetter p, Script s, String name) 
+    ScriptRunnable(ScriptSetter p, Script s, String name, SimulationContext c) 
     {
         this.parent = p;
+        this.context = new SimulationContext(c);
+        this.context.setTraceLevel(TraceLevel.OFF);//批次執行不輸出trace
         this.script = s;
         this.workloadFileName = name;
         System.out.println("creat : "+script.getID()+" , "+workloadFileName);
     }
    
     /**
-     * Runs the simulation for the configured {@link Script} and workload file.
+     * Creates a runnable without a parent window, for headless batch runs
+     * (see {@link ScriptBatchRunner}). Errors in {@link #run()} are only
+     * logged.
+     *
+     * @param s the script to run
+     * @param name the workload file name inside the script's workload site, without ".xml"
+     * @param c the simulation context to copy for this run
+     */
+    public ScriptRunnable(Script s, String name, SimulationContext c)
+    {
+        this(null, s, name, c);
+    }
+   
+    /**
+     * Runs the simulation for the configured {@link Script} and workload file,
+     * adds the resulting {@link ScriptResult} to the script and, if a result
+     * writer is set, appends it to the result file.
+     *
+     * <p>All exceptions are caught; on error a dialog is shown to the user
+     * when this runnable belongs to a {@link ScriptSetter} window, and the
+     * exception is logged. The method does not propagate checked exceptions
+     * because it handles them internally.</p>
+     *
+     * @see #simulate()
+     */
+    public void run() 
+    {
+        try
+        {
+            ScriptResult sr = this.simulate();
+            this.script.addScriptResult(sr);
+            if(this.resultWriter != null)
+            {
+                this.resultWriter.write(sr);
+            }
+        }
+        catch (Exception ex) 
+        {
+            if(this.parent != null)
+            {
+                JOptionPane.showMessageDialog(parent.parent.parent.getFrame(), "Error!!" ,"Error!!" ,WARNING_MESSAGE);
+            }
+            Logger.getLogger(SimulationViewer.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+    
+    /**
+     * Simulates the configured {@link Script} on the workload file and
+     * returns the result without adding it to the script.
      *
      * <p>This method performs the following actions in sequence:
      * <ul>
@@ -75,110 +131,111 @@ public class ScriptRunnable implements Runnable
      *       {@link DataReader} (workload path is formed from the script's
      *       workload site and the provided workload filename).</li>
      *   <li>Configures the {@link Simulator} with simulation time (scaled by
-     *       {@code magnificationFactor}), scheduling algorithm, partition
+     *       this run's own {@link SimulationContext}), scheduling algorithm, partition
      *       algorithm, concurrency control protocol and DVFS method obtained
      *       from the {@link Script} configuration.</li>
      *   <li>Starts the simulator and, when finished, gathers power samples and
-     *       other metrics into a new {@link ScriptResult} which is then added
-     *       to the parent {@link Script}.</li>
+     *       other metrics into a new {@link ScriptResult}.</li>
      * </ul>
      *
-     * <p>All runtime exceptions are caught; on error a dialog is shown to the
-     * user and the exception is logged. The method does not propagate
-     * checked exceptions because it handles them internally.</p>
+     * <p>The run's trace level is {@link TraceLevel#OFF}, so neither the
+     * simulation nor the loading code builds any trace message. The trace
+     * settings the calling thread had before are restored when the run
+     * ends, also if it fails.</p>
+     *
+     * @return the result of the run
+     * @throws Exception if a file cannot be loaded or an algorithm cannot be instantiated
      */
-    public void run() 
+    public ScriptResult simulate() throws Exception
     {
-        
         System.out.println("Start : "+script.getID()+" , "+workloadFileName);
+        TraceSink previousSink = RTSimulator.getTraceSink();
+        TraceLevel previousLevel = RTSimulator.getTraceLevel();
+        RTSimulator.setTrace(this.context.getTraceSink(), this.context.getTraceLevel());
         try
         {
-//            Vector<String> workloadFileNames = this.getFolderFile(script.getWorkloadSite());
-            //Vector<String> processorfileNames = this.getFolderFile(script.getProcessorSite());
             String processorFileName = script.getProcessorSite();
-            
-            println(script.getWorkloadSite()+"/"+workloadFileName + ".xml");
-            
+            DataReader dataReader = new DataReader(this.context);
+            Simulator simulator = new Simulator(this.context);
+            println(() -> script.getWorkloadSite()+"/"+workloadFileName + ".xml");
             println(processorFileName);
-            
-            
-            int i = 0;
-            
-                DataReader dataReader = new DataReader();
-                Simulator simulator = new Simulator();
-                println(script.getWorkloadSite()+"/"+workloadFileName + ".xml");
-                println(processorFileName);
-                
-                dataReader.loadSource(script.getWorkloadSite()+"/"+workloadFileName + ".xml");
-                dataReader.loadSource(processorFileName);
-                simulator.setSimulationTime
+
+            dataReader.loadSource(script.getWorkloadSite()+"/"+workloadFileName + ".xml");
+            dataReader.loadSource(processorFileName);
+            simulator.setSimulationTime
+            (
+                Double.valueOf
                 (
                     Double.valueOf
                     (
-                        Double.valueOf
-                        (
-                            script.getSimulationTime()
-                        )*magnificationFactor
-                    ).longValue()
-                );
+                        script.getSimulationTime()
+                    )*this.context.getMagnificationFactor()
+                ).longValue()
+            );
 
-                simulator.loadDataSetting(dataReader.getDataSetting());
-                simulator.getProcessor().setSchedAlgorithm(this.getPrioritySchedulingAlgorithm(script.getSchedulingAlgorithm()));
-                simulator.getProcessor().setPartitionAlgorithm(this.getPartitionAlgorithm(script.getPartitionAlgorithm()));
-                simulator.getProcessor().setCCProtocol(this.getConcurrencyControlProtocol(script.getCCProtocol()));
-                simulator.getProcessor().setDVFSMethod(this.getDynamicVoltageScalingMethod(script.getDVFSMethod()));
+            simulator.setEventDriven(true);
+            simulator.loadDataSetting(dataReader.getDataSetting());
+            simulator.getProcessor().setSchedAlgorithm(this.getPrioritySchedulingAlgorithm(script.getSchedulingAlgorithm()));
+            simulator.getProcessor().setPartitionAlgorithm(this.getPartitionAlgorithm(script.getPartitionAlgorithm()));
+            simulator.getProcessor().setCCProtocol(this.getConcurrencyControlProtocol(script.getCCProtocol()));
+            simulator.getProcessor().setDVFSMethod(this.getDynamicVoltageScalingMethod(script.getDVFSMethod()));
 
-                dataReader.getDataSetting().getProcessor().showInfo();
-                println("Workload:" + dataReader.getDataSetting().getTaskSet().getProcessingSpeed());
-                for(Task t : dataReader.getDataSetting().getTaskSet())
-                {
-                    t.showInfo();
-                }
+            dataReader.getDataSetting().getProcessor().showInfo();
+            println(() -> "Workload:" + dataReader.getDataSetting().getTaskSet().getProcessingSpeed());
+            for(Task t : dataReader.getDataSetting().getTaskSet())
+            {
+                t.showInfo();
+            }
 
-                simulator.start();
+            simulator.start();
 
             //setScriptResult---------{
-                {
-                    ScriptResult sr = new ScriptResult(script);
-                    sr.setWorkloadFile(workloadFileName);
-                    sr.setProcessorFile(processorFileName);
-                    
-                    RTSimulatorMath math = new RTSimulatorMath();
-                    for(Core c : simulator.getProcessor().getAllCore())
-                    {
-                        sr.addPowerConsumption(math.changeDecimalFormatFor5((double)c.getPowerConsumption()/magnificationFactor));
-                    }
+            ScriptResult sr = new ScriptResult(script);
+            sr.setWorkloadFile(workloadFileName);
+            sr.setProcessorFile(processorFileName);
 
-                    DataSetting ds = dataReader.getDataSetting();
+            RTSimulatorMath math = new RTSimulatorMath();
+            for(Core c : simulator.getProcessor().getAllCore())
+            {
+                sr.addPowerConsumption(math.changeDecimalFormatFor5(this.context.toRealTime(c.getPowerConsumption())));
+            }
 
-                    sr.setTaskCount(ds.getTaskSet().size());
-                    sr.setTotalJobCompeletedCount(ds.getTaskSet().getTotalJobCompletedNumber());
-                    // fix: DataSetting.getTaskSet() already returns the TaskSet; do not call getTaskSet() again
-                    sr.setTotalJobMissDeadlineCount(ds.getTaskSet().getTotalJobMissDeadlineNumber());
-                    sr.setCompletedRatio(ds.getTaskSet().getJobCompletedRatio());
-                    sr.setDeadlineMissRatio(ds.getTaskSet().getJobMissDeadlineRatio());
-                    sr.setAveragePendingTime(ds.getTaskSet().getAveragePendingTimeOfTask());
-                    sr.setAverageResponseTime(ds.getTaskSet().getAverageResponseTimeOfTask());
-                    sr.setMaximumUtilization(ds.getTaskSet().getMaximumUtilization());
-                    sr.setActualUtilization(ds.getTaskSet().getActualUtilization());
-                    sr.setMaximumCriticalSectionRatio(ds.getTaskSet().getMaximumCriticalSectionRatio());
-                    sr.setActualCriticalSectionRatio(ds.getTaskSet().getActualCriticalSectionRatio());
-                    sr.setBeBlockedTimeRatio(ds.getTaskSet().getAverageBeBlockedTimeRatioOfTask());
-                    script.addScriptResult(sr);
-                }
+            DataSetting ds = dataReader.getDataSetting();
+
+            sr.setTaskCount(ds.getTaskSet().size());
+            sr.setTotalJobCompeletedCount(ds.getTaskSet().getTotalJobCompletedNumber());
+            // fix: DataSetting.getTaskSet() already returns the TaskSet; do not call getTaskSet() again
+            sr.setTotalJobMissDeadlineCount(ds.getTaskSet().getTotalJobMissDeadlineNumber());
+            sr.setCompletedRatio(ds.getTaskSet().getJobCompletedRatio());
+            sr.setDeadlineMissRatio(ds.getTaskSet().getJobMissDeadlineRatio());
+            sr.setAveragePendingTime(ds.getTaskSet().getAveragePendingTimeOfTask());
+            sr.setAverageResponseTime(ds.getTaskSet().getAverageResponseTimeOfTask());
+            sr.setMaximumUtilization(ds.getTaskSet().getMaximumUtilization());
+            sr.setActualUtilization(ds.getTaskSet().getActualUtilization());
+            sr.setMaximumCriticalSectionRatio(ds.getTaskSet().getMaximumCriticalSectionRatio());
+            sr.setActualCriticalSectionRatio(ds.getTaskSet().getActualCriticalSectionRatio());
+            sr.setBeBlockedTimeRatio(ds.getTaskSet().getAverageBeBlockedTimeRatioOfTask());
             //------------------------}
-                
-                System.out.println("End :"+script.getID()+" , "+workloadFileName);
-//            }
+
+            System.out.println("End :"+script.getID()+" , "+workloadFileName);
+            return sr;
         }
-        catch (Exception ex) 
+        finally
         {
-            JOptionPane.showMessageDialog(parent.parent.parent.getFrame(), "Error!!" ,"Error!!" ,WARNING_MESSAGE);
-            Logger.getLogger(SimulationViewer.class.getName()).log(Level.SEVERE, null, ex);
+            RTSimulator.setTrace(previousSink, previousLevel);
         }
-        
     }
    
+    /**
+     * Sets the file the result of {@link #run()} is appended to.
+     *
+     * @param w the result writer, or {@code null} to only add the result to the script
+     */
+    public void setResultWriter(ScriptResultWriter w)
+    {
+        this.resultWriter = w;
+    }
+    
     /**
      * Starts this runnable in a new thread if it is not already running.
      *
@@ -5,6 +5,7 @@
  */
 package scriptsetter;
 import static RTSimulator.RTSimulator.println;
+import SystemEnvironment.SimulationContext;
 
 import java.awt.BorderLayout;
 import java.awt.Dimension;
@@ -13,6 +14,7 @@ import java.awt.event.ContainerEvent;
 import java.awt.event.ContainerListener;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.Vector;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -20,6 +22,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.swing.JFrame;
+import javax.swing.JOptionPane;
 import javax.swing.JSplitPane;
 import javax.swing.JTabbedPane;
 import javax.xml.transform.OutputKeys;
@@ -324,17 +327,27 @@ public class ScriptSetter extends JFrame
      * <ol>
      *   <li>Show a {@link FileDialog} save dialog; if the user cancels, no
      *       action is taken ("如果取消存檔則fileDialog.getFile()會是null").</li>
-     *   <li>Set the global magnification factor using the current accuracy
-     *       value from the UI.</li>
+     *   <li>Build a {@link SimulationContext} from the current accuracy value
+     *       of the UI; every {@link ScriptRunnable} runs on its own copy.</li>
+     *   <li>Open the per-run result file (the chosen name plus ".csv") with a
+     *       {@link ScriptResultWriter}. If the file already holds results the
+     *       user is asked first. A file written with the same configuration
+     *       hash can be resumed: its rows are added to the script averages and
+     *       the workload files they cover are not run again. Otherwise, or if
+     *       the user chooses to start over, the file is overwritten.</li>
      *   <li>Create a fixed thread pool sized by {@link #getThreadAmount()} and
-     *       submit one {@link ScriptRunnable} task per workload file for each
-     *       script in every group. The workload filenames are obtained via
-     *       {@link SimulationViewer#getFolderFile(String)}.</li>
+     *       submit one {@link ScriptRunnable} task per remaining workload file
+     *       for each script in every group. The workload filenames are
+     *       obtained via {@link SimulationViewer#getFolderFile(String)}. Each
+     *       task appends its result to the result file when it completes;
+     *       the scripts only keep the running averages.</li>
      *   <li>Await termination of all tasks. The implementation polls
      *       {@link ExecutorService#awaitTermination(long, TimeUnit)} every
      *       10 seconds until completion.</li>
-     *   <li>After completion collect and print summary information for each
-     *       script and write an XML file using {@code XMLWriter.creatXML(this)}.
+     *   <li>After completion print summary information for each script and
+     *       the {@link ScriptResult#showInfo()} of every run, read back from
+     *       the result file, and write the averages and the runs to an XML
+     *       file using {@link XMLWriter#creatXML(ScriptSetter, File)}.
      *       Transformer settings include pretty-print indentation.</li>
      * </ol>
      *
@@ -351,6 +364,34 @@ public class ScriptSetter extends JFrame
             if(fileDialog.getFile() != null)//如果取消存檔則fileDialog.getFile()會是null
             {
                 this.parent.setMagnificationFactor(this.getAccuracy());
+                SimulationContext context = this.parent.getSimulationContext();
+                Vector<Script> scripts = new Vector<>();
+                for(int i = 0 ; i<this.tableTabbedPane.getComponentCount() ; i++)
+                {
+                    scripts.addAll(((ScriptTable)this.tableTabbedPane.getComponent(i)).getScriptSet());
+                }
+                String configurationHash = ScriptResultWriter.getConfigurationHash(scripts, context);
+                File resultFile = new File(fileDialog.getDirectory()+fileDialog.getFile()+".csv");
+                if(!this.confirmResultFile(resultFile, configurationHash))
+                {
+                    return;
+                }
+                ScriptResultWriter writer = new ScriptResultWriter(resultFile, configurationHash);
+                
+                for(Script s : scripts)
+                {
+                    s.removeAllScriptResult();
+                    s.setResultRetained(false);
+                }
+                ScriptResultWriter.readRows(writer.getFile(), values -> //續跑：已記錄的結果直接計入平均
+                {
+                    Script s = this.getScript(values.get(0), values.get(1));
+                    if(s != null)
+                    {
+                        s.addScriptResult(ScriptResult.fromCSVRow(s, values));
+                    }
+                });
+                
                 ExecutorService executor = Executors.newFixedThreadPool(this.getThreadAmount()); 
         
                 for(int i = 0 ; i<this.tableTabbedPane.getComponentCount() ; i++)
@@ -358,12 +399,16 @@ public class ScriptSetter extends JFrame
                     ScriptTable st = (ScriptTable)this.tableTabbedPane.getComponent(i);
                     for(Script s : st.getScriptSet())
                     {
-                        s.removeAllScriptResult();
                         Vector<String> workloadFileNames = this.parent.getFolderFile(s.getWorkloadSite());
                         
                         for(String workloadFileName : workloadFileNames)
                         {
-                            executor.execute(new ScriptRunnable(this, s, workloadFileName));
+                            if(!writer.isRecorded(s, workloadFileName))
+                            {
+                                ScriptRunnable runnable = new ScriptRunnable(this, s, workloadFileName, context);
+                                runnable.setResultWriter(writer);
+                                executor.execute(runnable);
+                            }
                         }
                     }
                 }
@@ -378,6 +423,10 @@ public class ScriptSetter extends JFrame
                 {  
                     e.printStackTrace();  
                 }
+                finally
+                {
+                    writer.close();
+                }
                 
                 
                 for(int i = 0 ; i<this.tableTabbedPane.getComponentCount() ; i++)
@@ -386,38 +435,106 @@ public class ScriptSetter extends JFrame
                     println("GroupID :"+st.getGroupID());
                     for(Script s : st.getScriptSet())
                     {
-                        println(", ScriptID :"+s.getID() + ", ScriptResultSize :"+ s.getScriptResultSet().size());
+                        println(", ScriptID :"+s.getID() + ", WorkloadCount :"+ s.getWorkloadCount());
                     }
                 }
                 
-                //output showInfo
-                for(int i = 0 ; i<this.tableTabbedPane.getComponentCount() ; i++)
+                //output showInfo，逐筆從結果檔讀回
+                ScriptResultWriter.readRows(writer.getFile(), values ->
                 {
-                    ScriptTable st = (ScriptTable)this.tableTabbedPane.getComponent(i);
-                    for(Script s : st.getScriptSet())
+                    Script s = this.getScript(values.get(0), values.get(1));
+                    if(s != null)
                     {
-                        for(ScriptResult sr : s.getScriptResultSet())
-                        {
-                            sr.showInfo();
-                        }
+                        ScriptResult.fromCSVRow(s, values).showInfo();
                     }
-                }
+                });
                 
                 Transformer transformer = TransformerFactory.newInstance().newTransformer();
                 transformer.setOutputProperty(OutputKeys.INDENT, "yes");
                 transformer.setOutputProperty(OutputKeys.METHOD, "xml");
                 transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "4"); 
 
-                DOMSource source = new DOMSource(XMLWriter.creatXML(this));
+                DOMSource source = new DOMSource(XMLWriter.creatXML(this, writer.getFile()));
                 File file = new File(fileDialog.getDirectory()+fileDialog.getFile()+".xml");
                 StreamResult result = new StreamResult(file);
                 transformer.transform(source, result);
                 
             }
         }
-        catch (TransformerException ex) 
+        catch (TransformerException | IOException ex) 
         {
             Logger.getLogger(ScriptSetter.class.getName()).log(Level.SEVERE, null, ex);
         }
     }
+    
+    //結果檔已存在時詢問要續跑、重跑或取消；回傳false表示取消
+    private boolean confirmResultFile(File f, String configurationHash) throws IOException
+    {
+        if(!f.exists() || f.length() == 0)
+        {
+            return true;
+        }
+        
+        String hash;
+        try
+        {
+            hash = ScriptResultWriter.readConfigurationHash(f);
+        }
+        catch(IOException ex)
+        {
+            hash = null;
+        }
+        
+        if(configurationHash.equals(hash))
+        {
+            int option = JOptionPane.showConfirmDialog(this,
+                    f.getName() + " already holds results of these scripts.\n"
+                    + "Yes: resume the sweep and keep them.\nNo: delete them and start over.",
+                    "Resume", JOptionPane.YES_NO_CANCEL_OPTION);
+            if(option == JOptionPane.YES_OPTION)
+            {
+                return true;
+            }
+            if(option != JOptionPane.NO_OPTION)
+            {
+                return false;
+            }
+        }
+        else
+        {
+            int option = JOptionPane.showConfirmDialog(this,
+                    f.getName() + (hash == null ? " is not a script result file." : " holds results of another script configuration.")
+                    + "\nOverwrite it?",
+                    "Overwrite", JOptionPane.OK_CANCEL_OPTION, JOptionPane.WARNING_MESSAGE);
+            if(option != JOptionPane.OK_OPTION)
+            {
+                return false;
+            }
+        }
+        
+        if(!f.delete())
+        {
+            throw new IOException("Cannot delete " + f);
+        }
+        return true;
+    }
+    
+    private Script getScript(String groupID, String scriptID)
+    {
+        for(int i = 0 ; i<this.tableTabbedPane.getComponentCount() ; i++)
+        {
+            ScriptTable st = (ScriptTable)this.tableTabbedPane.getComponent(i);
+            if(st.getGroupID().equals(groupID))
+            {
+                for(Script s : st.getScriptSet())
+                {
+                    if(s.getID().equals(scriptID))
+                    {
+                        return s;
+                    }
+                }
+            }
+        }
+        return null;
+    }
 }
\ No newline at end of file
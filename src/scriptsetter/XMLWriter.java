@@ -6,12 +6,17 @@
 package scriptsetter;
 
 
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.Node;
 /**
  * Utility class for writing XML documents.
  * 
@@ -24,6 +29,13 @@ public class XMLWriter
         
     }
 
+    /**
+     * Builds the summary document of a script sweep: one {@code result}
+     * element with the averages of each script, grouped by script table.
+     *
+     * @param ss the script setter holding the scripts
+     * @return the document, or {@code null} if no document builder is available
+     */
     public static Document creatXML(ScriptSetter ss)
     {
         try 
@@ -112,4 +124,50 @@ public class XMLWriter
 	}
         return null;
     }
-}
+    
+    /**
+     * Builds the summary document of a script sweep like
+     * {@link #creatXML(ScriptSetter)}, and adds one {@code run} element per
+     * row of the result file under the {@code result} element of its script.
+     * The attributes of a run are the columns of
+     * {@link ScriptResult#getCSVHeader()} after the group and script IDs.
+     *
+     * @param ss the script setter holding the scripts
+     * @param resultFile the result file written by a {@link ScriptResultWriter}
+     * @return the document, or {@code null} if no document builder is available
+     * @throws IOException if the result file cannot be read or is not a result file
+     */
+    public static Document creatXML(ScriptSetter ss, File resultFile) throws IOException
+    {
+        Document doc = creatXML(ss);
+        if(doc == null)
+        {
+            return null;
+        }
+        
+        Map<String, Element> resultElements = new HashMap<>();
+        for(Node group = doc.getDocumentElement().getFirstChild() ; group != null ; group = group.getNextSibling())
+        {
+            for(Node result = group.getFirstChild() ; result != null ; result = result.getNextSibling())
+            {
+                resultElements.put(((Element)group).getAttribute("groupID") + "\t" + ((Element)result).getAttribute("resultID"), (Element)result);
+            }
+        }
+        
+        String[] columns = ScriptResult.getCSVHeader().split(",");
+        ScriptResultWriter.readRows(resultFile, values ->
+        {
+            Element resultElement = resultElements.get(values.get(0) + "\t" + values.get(1));
+            if(resultElement != null)
+            {
+                Element runElement = doc.createElement("run");
+                for(int i = 2 ; i < columns.length ; i++)
+                {
+                    runElement.setAttribute(columns[i], values.get(i));
+                }
+                resultElement.appendChild(runElement);
+            }
+        });
+        return doc;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+/*
+ * Sporadic and jittered arrival model test
+ */
+package test;
+
+import RTSimulator.Definition.ArrivalType;
+import SystemEnvironment.SimulationContext;
+import WorkLoad.Job;
+import WorkLoad.Task;
+import WorkLoadSet.DataSetting;
+import java.util.Vector;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+import static test.TestSupport.read;
+import static test.TestSupport.silently;
+
+/**
+ * Runs the single-core example with jittered periodic and with sporadic
+ * arrivals and checks the release times and deadlines of the produced jobs,
+ * and that tick and event-driven mode release the same jobs for the same
+ * random seed.
+ *
+ * @author ShiuJia
+ */
+public class ArrivalModelTest {
+
+    private static final String BASE_PATH = "RTSimulator_examples/Single_Core Scheduling Example/";
+    private static final long SEED = 42;
+
+    public static void main(String[] args) throws Exception {
+        printHeader("Arrival Model Test");
+
+        for (ArrivalType type : ArrivalType.values()) {
+            for (long jitter : new long[] {0, 50}) {
+                String name = type + " jitter=" + jitter;
+                Vector<Task> tick = simulate(type, jitter, false);
+                Vector<Task> event = simulate(type, jitter, true);
+
+                check(name + ": releases follow the arrival model", isValid(tick, type, jitter));
+                check(name + ": tick and event mode release the same jobs", releases(tick).equals(releases(event)));
+            }
+        }
+
+        Vector<Task> periodic = simulate(ArrivalType.Periodic, 0, false);
+        Vector<Task> sporadic = simulate(ArrivalType.Sporadic, 0, false);
+        check("sporadic inter-arrival times vary above the period", isSporadic(sporadic) && !releases(sporadic).equals(releases(periodic)));
+
+        Vector<Task> jittered = simulate(ArrivalType.Periodic, 50, false);
+        check("deadlines count from the arrival, not the jittered release", isDeadlineFromArrival(jittered));
+
+        finish();
+    }
+
+    // The arrival of a job is its absolute deadline minus the relative deadline
+    private static long arrival(Task t, Job j) {
+        return j.getAbsoluteDeadline() - t.getRelativeDeadline();
+    }
+
+    private static boolean isValid(Vector<Task> tasks, ArrivalType type, long jitter) {
+        for (Task t : tasks) {
+            Vector<Job> jobs = t.getJobSet();
+            for (int i = 0; i < jobs.size(); i++) {
+                long arrival = arrival(t, jobs.get(i));
+                long release = jobs.get(i).getReleaseTime();
+
+                if (type == ArrivalType.Periodic || i == 0) {
+                    if (arrival != t.getEnterTime() + i * t.getPeriod()) {
+                        return false;
+                    }
+                } else {
+                    long interArrival = arrival - arrival(t, jobs.get(i - 1));
+                    if (interArrival < t.getPeriod() || interArrival > t.getMaxInterArrivalTime()) {
+                        return false;
+                    }
+                }
+
+                if (release < arrival || release > arrival + jitter) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSporadic(Vector<Task> tasks) {
+        int longer = 0;
+        for (Task t : tasks) {
+            Vector<Job> jobs = t.getJobSet();
+            for (int i = 1; i < jobs.size(); i++) {
+                longer += jobs.get(i).getReleaseTime() - jobs.get(i - 1).getReleaseTime() > t.getPeriod() ? 1 : 0;
+            }
+        }
+        return longer > 0;
+    }
+
+    private static boolean isDeadlineFromArrival(Vector<Task> tasks) {
+        int delayed = 0;
+        for (Task t : tasks) {
+            Vector<Job> jobs = t.getJobSet();
+            for (int i = 0; i < jobs.size(); i++) {
+                Job j = jobs.get(i);
+                if (j.getAbsoluteDeadline() != t.getEnterTime() + i * t.getPeriod() + t.getRelativeDeadline()) {
+                    return false;
+                }
+                delayed += j.getReleaseTime() > arrival(t, j) ? 1 : 0;
+            }
+        }
+        return delayed > 0;
+    }
+
+    private static String releases(Vector<Task> tasks) {
+        StringBuilder sb = new StringBuilder();
+        for (Task t : tasks) {
+            sb.append(t.getID()).append(':');
+            for (Job j : t.getJobSet()) {
+                sb.append(' ').append(j.getReleaseTime());
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static Vector<Task> simulate(ArrivalType type, long jitter, boolean isEventDriven) throws Exception {
+        return silently(() -> {
+            SimulationContext context = new SimulationContext(2);
+            context.setRandomSeed(SEED);
+            DataSetting ds = read(context, BASE_PATH + "workload.xml", BASE_PATH + "processor.xml");
+
+            Vector<Task> tasks = new Vector<>();
+            for (Task t : ds.getTaskSet()) {
+                t.setArrivalType(type);
+                t.setReleaseJitter(jitter);
+                tasks.add(t);
+            }
+
+            TestSupport.simulate(ds, 100, new String[] {"None", "EDF", "SRP", "MaxSpeed"}, s -> s.setEventDriven(isEventDriven));
+            return tasks;
+        });
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Blocking and spin analysis test
+ */
+package test;
+
+import PartitionAlgorithm.implementation.WF;
+import RTSimulator.Definition;
+import SystemEnvironment.BlockingAnalysis;
+import SystemEnvironment.Core;
+import SystemEnvironment.Processor;
+import WorkLoad.CriticalSection;
+import WorkLoad.Priority;
+import WorkLoad.SharedResource;
+import WorkLoad.Task;
+import java.io.File;
+import java.util.Random;
+
+import static test.TestSupport.check;
+import static test.TestSupport.criticalSection;
+import static test.TestSupport.finish;
+import static test.TestSupport.load;
+import static test.TestSupport.printHeader;
+
+/**
+ * Partitions random workloads with shared resources and checks the global
+ * flags, spin times and blocking bounds of {@link BlockingAnalysis} against
+ * the scans over all cores, tasks and critical sections that the DVFS
+ * methods used to do on every query.
+ *
+ * @author ShiuJia
+ */
+public class BlockingAnalysisTest {
+
+    public static void main(String[] args) throws Exception {
+        printHeader("Blocking Analysis Test");
+
+        testAgainstScans();
+
+        finish();
+    }
+
+    private static void testAgainstScans() throws Exception {
+        Random random = new Random(11);
+        boolean global = true;
+        boolean spinOfResource = true;
+        boolean spinOfTask = true;
+        boolean blocking = true;
+        boolean cores = true;
+        int globalCount = 0;
+
+        for (int round = 0; round < 40; round++) {
+            Processor p = load(writeWorkload(random, 4 + random.nextInt(8), 1 + random.nextInt(5)));
+            new WF().taskToCore(p.getAllCore(), p.getTaskSet());
+            BlockingAnalysis analysis = p.getBlockingAnalysis();
+
+            Priority[] levelOfTask = new Priority[p.getTaskSet().size()];
+            Priority[] levelOfRes = new Priority[p.getSharedResourceSet().size()];
+            for (Task t : p.getTaskSet()) {
+                levelOfTask[t.getIndex()] = new Priority(t.getPeriod());
+            }
+            for (SharedResource r : p.getSharedResourceSet()) {
+                levelOfRes[r.getIndex()] = Definition.Ohm;
+                for (Task t : r.getAccessTaskSet()) {
+                    if (levelOfTask[t.getIndex()].isHigher(levelOfRes[r.getIndex()])) {
+                        levelOfRes[r.getIndex()] = levelOfTask[t.getIndex()];
+                    }
+                }
+            }
+
+            for (SharedResource r : p.getSharedResourceSet()) {
+                r.setIsGlobal();
+                global &= analysis.isGlobal(r) == r.isGlobal();
+                globalCount += r.isGlobal() ? 1 : 0;
+                for (Core c : p.getAllCore()) {
+                    spinOfResource &= analysis.getSpin(c, r) == spin(p, c, r);
+                }
+            }
+            analysis.computeBlocking(levelOfTask, levelOfRes);
+
+            for (Task t : p.getTaskSet()) {
+                spinOfTask &= analysis.getSpin(t) == spin(p, t);
+                blocking &= analysis.getBlocking(t) == block(p, t, levelOfTask, levelOfRes);
+            }
+
+            for (Core c : p.getAllCore()) {
+                int n = 0;
+                for (Task t : p.getTaskSet()) {
+                    if (t.getLocalCore() == c) {
+                        int[] indices = analysis.getTaskIndicesOfCore(c);
+                        cores &= n < indices.length && analysis.getTask(indices[n]) == t;
+                        n++;
+                    }
+                }
+                cores &= n == analysis.getTaskIndicesOfCore(c).length;
+            }
+        }
+
+        check("global resources match SharedResource.setIsGlobal() (" + globalCount + " global)", global && globalCount > 0);
+        check("Spin^k(r) matches scan over cores", spinOfResource);
+        check("task spin matches scan over critical sections", spinOfTask);
+        check("blocking bound matches scan over lower level tasks", blocking);
+        check("tasks of each core listed in task set order", cores);
+    }
+
+    // Spin^k(r): longest critical section on r of every other core
+    private static long spin(Processor p, Core k, SharedResource r) {
+        long spin = 0;
+        for (Core c : p.getAllCore()) {
+            if (c == k) {
+                continue;
+            }
+            long longest = 0;
+            for (Task t : p.getTaskSet()) {
+                if (t.getLocalCore() == c) {
+                    for (CriticalSection cs : t.getCriticalSectionSet()) {
+                        if (cs.getUseSharedResource() == r) {
+                            longest = Math.max(longest, cs.getRelativeEndTime() - cs.getRelativeStartTime());
+                        }
+                    }
+                }
+            }
+            spin += longest;
+        }
+        return spin;
+    }
+
+    private static long spin(Processor p, Task t) {
+        long spin = 0;
+        for (CriticalSection cs : t.getCriticalSectionSet()) {
+            if (cs.getUseSharedResource().isGlobal()) {
+                spin += spin(p, t.getLocalCore(), cs.getUseSharedResource());
+            }
+        }
+        return spin;
+    }
+
+    private static long block(Processor p, Task task, Priority[] levelOfTask, Priority[] levelOfRes) {
+        long block = 0;
+        for (Task t : p.getTaskSet()) {
+            if (t == task || t.getLocalCore() != task.getLocalCore()
+                    || !levelOfTask[task.getIndex()].isHigher(levelOfTask[t.getIndex()])) {
+                continue;
+            }
+            for (CriticalSection cs : t.getCriticalSectionSet()) {
+                long length = cs.getRelativeEndTime() - cs.getRelativeStartTime();
+                if (cs.getUseSharedResource().isGlobal()) {
+                    block = Math.max(block, spin(p, t.getLocalCore(), cs.getUseSharedResource()) + length);
+                } else if (levelOfRes[cs.getUseSharedResource().getIndex()].isHigher(levelOfTask[task.getIndex()])) {
+                    block = Math.max(block, length);
+                }
+            }
+        }
+        return block;
+    }
+
+    private static File writeWorkload(Random random, int taskCount, int resourceCount) throws Exception {
+        long[][] tasks = new long[taskCount][];
+        String[] criticalSections = new String[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            int computation = 4 + random.nextInt(8);
+            tasks[i] = new long[] {computation * (2 + random.nextInt(taskCount)), computation};
+            StringBuilder sb = new StringBuilder();
+            for (int start = 0; start < computation - 1; start += 2) {
+                if (random.nextBoolean()) {
+                    int end = start + 1 + random.nextInt(Math.min(2, computation - start - 1));
+                    sb.append(criticalSection(start, end, 1 + random.nextInt(resourceCount)));
+                }
+            }
+            criticalSections[i] = sb.toString();
+        }
+        return TestSupport.writeWorkload(resourceCount, tasks, criticalSections);
+    }
+}
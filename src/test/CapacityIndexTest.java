@@ -0,0 +1,136 @@
+/*
+ * Partition capacity index test
+ */
+package test;
+
+import PartitionAlgorithm.CapacityIndex;
+import PartitionAlgorithm.PartitionAlgorithm;
+import PartitionAlgorithm.implementation.FF;
+import SystemEnvironment.Core;
+import SystemEnvironment.Processor;
+import java.io.File;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.load;
+import static test.TestSupport.newInstance;
+import static test.TestSupport.printHeader;
+import static test.TestSupport.writeWorkload;
+
+/**
+ * Checks the first-fit, best-fit and worst-fit queries of
+ * {@link CapacityIndex} against linear scans over the residual capacities,
+ * that the bin packing partition algorithms report the tasks no core can take
+ * instead of looping on them, and that the response time admission test
+ * rejects a core the utilization bound alone would accept.
+ *
+ * @author ShiuJia
+ */
+public class CapacityIndexTest {
+
+    public static void main(String[] args) throws Exception {
+        printHeader("Capacity Index Test");
+
+        testAgainstLinearScan();
+        testUnplaceable();
+        testResponseTimeAdmission();
+
+        finish();
+    }
+
+    private static void testAgainstLinearScan() {
+        Random random = new Random(7);
+        boolean first = true;
+        boolean best = true;
+        boolean worst = true;
+        for (int round = 0; round < 200; round++) {
+            int m = 1 + random.nextInt(40);
+            double[] residual = new double[m];
+            for (int i = 0; i < m; i++) {
+                residual[i] = random.nextInt(5) / 4.0;
+            }
+            CapacityIndex index = new CapacityIndex(residual.clone());
+
+            for (int step = 0; step < 100; step++) {
+                double u = random.nextInt(5) / 8.0;
+                boolean[] admitted = new boolean[m];
+                for (int i = 0; i < m; i++) {
+                    admitted[i] = random.nextInt(4) != 0;
+                }
+                IntPredicate admission = random.nextBoolean() ? null : i -> admitted[i];
+
+                int expectFirst = -1;
+                int expectBest = -1;
+                int expectWorst = -1;
+                for (int i = 0; i < m; i++) {
+                    if (!(residual[i] > u) || (admission != null && !admitted[i])) {
+                        continue;
+                    }
+                    if (expectFirst == -1) {
+                        expectFirst = i;
+                    }
+                    if (expectBest == -1 || residual[i] < residual[expectBest]) {
+                        expectBest = i;
+                    }
+                    if (expectWorst == -1 || residual[i] > residual[expectWorst]) {
+                        expectWorst = i;
+                    }
+                }
+                first &= index.firstFit(u, admission) == expectFirst;
+                best &= index.bestFit(u, admission) == expectBest;
+                worst &= index.worstFit(u, admission) == expectWorst;
+
+                int i = random.nextInt(m);
+                double used = random.nextInt(3) / 8.0;
+                residual[i] -= used;
+                index.place(i, used);
+            }
+        }
+        check("first-fit matches linear scan", first);
+        check("best-fit matches linear scan", best);
+        check("worst-fit matches linear scan", worst);
+    }
+
+    private static void testUnplaceable() throws Exception {
+        // Five tasks of utilization 0.6 on two cores of capacity 1: only two fit
+        long[][] tasks = new long[5][];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = new long[] {10, 6};
+        }
+        File workload = writeWorkload(0, tasks, null);
+
+        for (String name : new String[] {"FF", "FFD", "BF", "BFD", "WF", "WFD"}) {
+            Processor p = load(workload);
+            PartitionAlgorithm algorithm = (PartitionAlgorithm) newInstance("PartitionAlgorithm.implementation." + name);
+            algorithm.taskToCore(p.getAllCore(), p.getTaskSet());
+
+            int placed = 0;
+            for (Core c : p.getAllCore()) {
+                placed += c.getTaskSet().size();
+            }
+            // Worst-fit places by load alone and has nothing to reject
+            boolean isWorstFit = name.startsWith("WF");
+            check(name + ": every task placed, " + (isWorstFit ? "none" : "three") + " reported",
+                    placed == 5 && algorithm.getUnplaceableTaskSet().size() == (isWorstFit ? 0 : 3));
+        }
+    }
+
+    private static void testResponseTimeAdmission() throws Exception {
+        // U = 0.4 + 0.57 fits one core, but the second task responds at 8 > 7
+        File workload = writeWorkload(0, new long[][] {{5, 2}, {7, 4}}, null);
+
+        for (boolean admission : new boolean[] {false, true}) {
+            Processor p = load(workload);
+            PartitionAlgorithm algorithm = new FF();
+            algorithm.setResponseTimeAdmission(admission);
+            algorithm.taskToCore(p.getAllCore(), p.getTaskSet());
+
+            int onFirstCore = p.getAllCore().get(0).getTaskSet().size();
+            check("FF with" + (admission ? "" : "out") + " response time admission: "
+                    + (admission ? "one task" : "both tasks") + " on the first core",
+                    onFirstCore == (admission ? 1 : 2) && algorithm.getUnplaceableTaskSet().isEmpty());
+        }
+    }
+}
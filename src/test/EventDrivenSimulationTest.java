@@ -0,0 +1,108 @@
+/*
+ * Tick mode vs. event-driven mode consistency test
+ */
+package test;
+
+import ResultSet.MissDeadlineInfo;
+import ResultSet.SchedulingInfo;
+import SystemEnvironment.Core;
+import SystemEnvironment.SimulationContext;
+import SystemEnvironment.Simulator;
+import WorkLoad.Task;
+import WorkLoadSet.DataSetting;
+import java.util.Arrays;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+import static test.TestSupport.read;
+import static test.TestSupport.silently;
+
+/**
+ * Runs the bundled examples once per time unit and once in event-driven mode
+ * and checks that both produce the same schedule, power and statistics.
+ *
+ * @author ShiuJia
+ */
+public class EventDrivenSimulationTest {
+
+    private static final String[][] CONFIGS = {
+        // example, partition, scheduling, protocol, DVFS
+        {"Single_Core Scheduling Example", "None", "RMS", "PIP", "MaxSpeed"},
+        {"Single_Core Scheduling Example", "None", "EDF", "SRP", "BATS"},
+        {"Single_Core Scheduling Example", "None", "LST", "PIP", "MaxSpeed"},
+        {"Multi_Core Scheduling Example", "FF", "PRMS", "MSRP", "MaxSpeed"},
+        {"Multi_Core Scheduling Example", "FFD", "PFCFS", "MSRP", "MaxSpeed"},
+        {"Multi_Core Scheduling Example", "WFD", "PRMS", "MSRP", "DUAL"},
+        {"Multi_Core Scheduling Example", "None", "GEDF", "G_FMLP", "None"},
+        {"OPA's Priority Example", "None", "OPA", "None", "None"}
+    };
+
+    public static void main(String[] args) throws Exception {
+        printHeader("Tick vs Event-Driven Simulation Test");
+
+        for (String[] config : CONFIGS) {
+            String name = String.join(" / ", config);
+
+            long start = System.nanoTime();
+            String tick = simulate(config, false, 2, 100);
+            long tickTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            String event = simulate(config, true, 2, 100);
+            long eventTime = System.nanoTime() - start;
+
+            check(name + String.format("  (tick %.1f ms, event %.1f ms)", tickTime / 1000000.0, eventTime / 1000000.0),
+                    tick.equals(event));
+        }
+
+        testDefaultAccuracy();
+
+        finish();
+    }
+
+    // At the default accuracy 5 a time unit is 10^5 ticks, so event mode must step over many ticks at once
+    private static void testDefaultAccuracy() throws Exception {
+        String[] config = {"Single_Core Scheduling Example", "None", "RMS", "NPCS", "MaxSpeed"};
+        long[] steps = new long[2];
+        String tick = simulate(config, false, 5, 20, steps);
+        String event = simulate(config, true, 5, 20, steps);
+        long ticks = 20 * 100000L;
+
+        check(String.join(" / ", config) + " at accuracy 5  (" + steps[0] + " ticks, " + steps[1] + " event steps)",
+                tick.equals(event) && steps[0] == ticks && steps[1] * 1000 < ticks);
+    }
+
+    private static String simulate(String[] config, boolean isEventDriven, int accuracy, long time) throws Exception {
+        return simulate(config, isEventDriven, accuracy, time, new long[2]);
+    }
+
+    private static String simulate(String[] config, boolean isEventDriven, int accuracy, long time, long[] steps) throws Exception {
+        return silently(() -> {
+            String basePath = "RTSimulator_examples/" + config[0] + "/";
+            DataSetting ds = read(new SimulationContext(accuracy), basePath + "workload.xml", basePath + "processor.xml");
+            Simulator simulator = TestSupport.simulate(ds, time, Arrays.copyOfRange(config, 1, 5),
+                    s -> s.setEventDriven(isEventDriven));
+            steps[isEventDriven ? 1 : 0] = simulator.getStepCount();
+
+            StringBuilder sb = new StringBuilder();
+            for (Core c : simulator.getProcessor().getAllCore()) {
+                sb.append("Core ").append(c.getID()).append(" power=").append(c.getPowerConsumption()).append('\n');
+                for (SchedulingInfo info : c.getSchedulingInfoSet()) {
+                    sb.append(info.getCoreStatus()).append(' ')
+                      .append(info.getJob() == null ? "-" : info.getJob().getParentTask().getID() + "," + info.getJob().getID()).append(' ')
+                      .append(info.getStartTime()).append('-').append(info.getEndTime()).append(' ')
+                      .append(info.getUseSpeed()).append(' ').append(info.getTotalPowerConsumption()).append('\n');
+                }
+            }
+            for (MissDeadlineInfo md : simulator.getResultSet().getMissDeadlineInfoSet()) {
+                sb.append("Miss ").append(md.getMissTime()).append(' ').append(md.getMissTask().getID()).append('\n');
+            }
+            for (Task t : ds.getTaskSet()) {
+                sb.append("Task ").append(t.getID()).append(' ').append(t.getJobCompletedCount()).append(' ')
+                  .append(t.getAverageResponseTimeOfJob()).append(' ').append(t.getAverageBeBlockedTimeRatioOfJob()).append('\n');
+            }
+            return sb.toString();
+        });
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * FMLP resource grouping test
+ */
+package test;
+
+import SystemEnvironment.Processor;
+import SystemEnvironment.SimulationContext;
+import SystemEnvironment.Simulator;
+import WorkLoad.CriticalSection;
+import WorkLoad.Nest;
+import WorkLoad.SharedResource;
+import WorkLoad.Task;
+import WorkLoadSet.DataSetting;
+import concurrencyControlProtocol.ConcurrencyControlProtocol;
+import concurrencyControlProtocol.implementation.G_FMLP;
+import concurrencyControlProtocol.implementation.P_FMLP;
+import java.io.File;
+import java.util.Random;
+import java.util.Vector;
+
+import static test.TestSupport.MULTI_CORE_PROCESSOR;
+import static test.TestSupport.check;
+import static test.TestSupport.criticalSection;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+import static test.TestSupport.read;
+import static test.TestSupport.simulate;
+
+/**
+ * Runs G_FMLP and P_FMLP on random workloads of nested critical sections and
+ * checks their short and long resources, task statuses and resource groups
+ * against the fixed point passes the protocols used to repeat over every
+ * nest until nothing changed.
+ *
+ * @author ShiuJia
+ */
+public class FMLPGroupingTest {
+
+    private static final String ALL_IS_SHORT = "allIsShort";
+    private static final String ALL_IS_LONG = "allIsLong";
+    private static final String COMPLEX = "complex";
+
+    public static void main(String[] args) throws Exception {
+        printHeader("FMLP Grouping Test");
+
+        testAgainstFixedPoint();
+
+        finish();
+    }
+
+    private static void testAgainstFixedPoint() throws Exception {
+        Random random = new Random(13);
+        boolean[] isShort = {true, true};
+        boolean[] status = {true, true};
+        boolean[] groups = {true, true};
+        int[] groupCount = new int[2];
+        int[] longCount = new int[2];
+        int merged = 0;
+
+        for (int round = 0; round < 60; round++) {
+            File workload = writeWorkload(random, 3 + random.nextInt(8), 2 + random.nextInt(10));
+            for (int protocol = 0; protocol < 2; protocol++) {
+                boolean partitioned = protocol == 1;
+                ConcurrencyControlProtocol cc = partitioned
+                        ? run(workload, "WF", "PEDF", "P_FMLP")
+                        : run(workload, "None", "GEDF", "G_FMLP");
+                Processor p = cc.getParentController().getParentProcessor();
+                Reference expected = new Reference(p, partitioned);
+
+                for (SharedResource r : p.getSharedResourceSet()) {
+                    int i = r.getIndex();
+                    boolean s = partitioned ? ((P_FMLP) cc).isShortResource(r) : ((G_FMLP) cc).isShortResource(r);
+                    int g = partitioned ? ((P_FMLP) cc).getResourceGroupIndex(r) : ((G_FMLP) cc).getResourceGroupIndex(r);
+                    isShort[protocol] &= s == expected.isShort[i];
+                    groups[protocol] &= g == expected.group[i];
+                    longCount[protocol] += expected.isShort[i] ? 0 : 1;
+                }
+                for (int i = 0; i < p.getTaskSet().size(); i++) {
+                    String s = partitioned ? ((P_FMLP) cc).getTaskStatus(i) : ((G_FMLP) cc).getTaskStatus(i);
+                    status[protocol] &= s.equals(expected.status[i]);
+                }
+                groupCount[protocol] += expected.groupCount;
+                merged += expected.merged;
+            }
+        }
+
+        check("G_FMLP short and long resources match fixed point (" + longCount[0] + " long)", isShort[0]);
+        check("G_FMLP task statuses match", status[0]);
+        check("G_FMLP resource groups match (" + groupCount[0] + " groups)", groups[0]);
+        check("P_FMLP short and long resources match fixed point (" + longCount[1] + " long)", isShort[1]);
+        check("P_FMLP task statuses match", status[1]);
+        check("P_FMLP global resource groups match (" + groupCount[1] + " groups)", groups[1] && groupCount[1] > 0);
+        check("workloads have groups of several resources (" + merged + ")", merged > 0);
+    }
+
+    /**
+     * The grouping as the protocols computed it before: the long flag
+     * propagates outward in repeated passes over every nest, and every
+     * grouped resource marks all nests that use it. A resource no nest uses
+     * made the old passes loop forever; it gets a group of its own.
+     */
+    private static class Reference {
+
+        boolean[] isShort;
+        String[] status;
+        int[] group;
+        int groupCount = 0;
+        int merged = 0;
+        private boolean[] isGroup;
+        private boolean[][] isNestGroup;
+        private Vector<Task> tasks;
+        private boolean[] isGlobal;
+
+        Reference(Processor p, boolean partitioned) {
+            int n = p.getSharedResourceSet().size();
+            this.tasks = p.getTaskSet();
+            this.isShort = new boolean[n];
+            this.isGlobal = new boolean[n];
+            this.group = new int[n];
+            this.isGroup = new boolean[n];
+            int target = 0;
+            for (SharedResource r : p.getSharedResourceSet()) {
+                int i = r.getIndex();
+                this.isShort[i] = i < n * 0.5;
+                this.isGlobal[i] = !partitioned || r.isGlobal();
+                this.group[i] = -1;
+                target += this.isGlobal[i] ? 1 : 0;
+            }
+
+            boolean change = true;
+            while (change) {
+                change = false;
+                for (Task t : this.tasks) {
+                    for (Nest nest : t.getNestSet()) {
+                        for (CriticalSection cs : nest) {
+                            if (cs.getOutsideCriticalSection() != null) {
+                                int out = cs.getOutsideCriticalSection().getUseSharedResource().getIndex();
+                                if (this.isShort[out] && !this.isShort[cs.getUseSharedResource().getIndex()]) {
+                                    this.isShort[out] = false;
+                                    change = true;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+
+            this.status = new String[this.tasks.size()];
+            for (int i = 0; i < this.tasks.size(); i++) {
+                Vector<CriticalSection> css = this.tasks.get(i).getCriticalSectionSet();
+                int r = css.get(0).getUseSharedResource().getIndex();
+                int same = 0;
+                for (CriticalSection cs : css) {
+                    // P_FMLP only counted the tasks whose first resource is global
+                    if ((!partitioned || this.isGlobal[r]) && this.isShort[r] == this.isShort[cs.getUseSharedResource().getIndex()]) {
+                        same++;
+                    }
+                }
+                this.status[i] = same != css.size() ? COMPLEX : this.isShort[r] ? ALL_IS_SHORT : ALL_IS_LONG;
+            }
+
+            this.isNestGroup = new boolean[this.tasks.size()][];
+            for (int i = 0; i < this.tasks.size(); i++) {
+                this.isNestGroup[i] = new boolean[this.tasks.get(i).getNestSet().size()];
+            }
+            int grouped = 0;
+            for (int i = 0; i < this.tasks.size(); i++) {
+                if (this.status[i].equals(ALL_IS_SHORT) || this.status[i].equals(ALL_IS_LONG)) {
+                    for (int j = 0; j < this.tasks.get(i).getNestSet().size(); j++) {
+                        Nest nest = this.tasks.get(i).getNestSet().get(j);
+                        if (nest.size() > 1 && !this.isNestGroup[i][j]) {
+                            grouped += this.groupNest(nest, true);
+                        }
+                    }
+                }
+            }
+            if (grouped < target) {
+                for (Task t : this.tasks) {
+                    for (Nest nest : t.getNestSet()) {
+                        this.groupNest(nest, false);
+                    }
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                if (this.isGlobal[i] && this.group[i] < 0) {
+                    this.group[i] = this.groupCount++;
+                }
+            }
+        }
+
+        private int groupNest(Nest nest, boolean checkMark) {
+            int size = 0;
+            for (CriticalSection cs : nest) {
+                int r = cs.getUseSharedResource().getIndex();
+                if (this.isGlobal[r] && this.group[r] < 0 && !(checkMark && this.isGroup[r])) {
+                    this.group[r] = this.groupCount;
+                    this.mark(cs.getUseSharedResource());
+                    size++;
+                }
+            }
+            if (size > 0) {
+                this.groupCount++;
+                this.merged += size > 1 ? 1 : 0;
+            }
+            return size;
+        }
+
+        private void mark(SharedResource r) {
+            if (!this.isGroup[r.getIndex()] && this.isGlobal[r.getIndex()]) {
+                this.isGroup[r.getIndex()] = true;
+                for (int i = 0; i < this.tasks.size(); i++) {
+                    for (int j = 0; j < this.tasks.get(i).getNestSet().size(); j++) {
+                        for (CriticalSection cs : this.tasks.get(i).getNestSet().get(j)) {
+                            if (r.equals(cs.getUseSharedResource())) {
+                                this.isNestGroup[i][j] = true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Nests of one to three critical sections, each inside the previous one
+    private static File writeWorkload(Random random, int taskCount, int resourceCount) throws Exception {
+        long[][] tasks = new long[taskCount][];
+        String[] criticalSections = new String[taskCount];
+        for (int i = 0; i < taskCount; i++) {
+            int computation = 20 + random.nextInt(10);
+            tasks[i] = new long[] {computation * (2 + random.nextInt(taskCount)), computation};
+            StringBuilder sb = new StringBuilder();
+            int start = 0;
+            while (true) {
+                int depth = 1 + random.nextInt(Math.min(3, resourceCount));
+                int length = 2 * depth + random.nextInt(2);
+                if (start + length > computation) {
+                    break;
+                }
+                if (start == 0 || random.nextBoolean()) {
+                    Vector<Integer> used = new Vector<>();
+                    for (int level = 0; level < depth; level++) {
+                        int resource;
+                        do {
+                            resource = 1 + random.nextInt(resourceCount);
+                        } while (used.contains(resource));
+                        used.add(resource);
+                        sb.append(criticalSection(start + level, start + length - level, resource));
+                    }
+                }
+                start += length + 1;
+            }
+            criticalSections[i] = sb.toString();
+        }
+        return TestSupport.writeWorkload(resourceCount, tasks, criticalSections);
+    }
+
+    private static ConcurrencyControlProtocol run(File workload, String partition, String scheduling, String protocol)
+            throws Exception {
+        DataSetting ds = read(new SimulationContext(1), workload.getPath(), MULTI_CORE_PROCESSOR);
+        Simulator simulator = simulate(ds, 1, new String[] {partition, scheduling, protocol, "None"}, null);
+        return simulator.getProcessor().getController().getConcurrencyControlProtocol();
+    }
+}
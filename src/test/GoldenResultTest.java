@@ -0,0 +1,145 @@
+/*
+ * Golden-result regression test for the bundled examples
+ */
+package test;
+
+import SystemEnvironment.Core;
+import SystemEnvironment.SimulationContext;
+import SystemEnvironment.Simulator;
+import WorkLoadSet.DataSetting;
+import WorkLoadSet.TaskSet;
+import java.util.Arrays;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+import static test.TestSupport.read;
+import static test.TestSupport.silently;
+
+/**
+ * Runs every algorithm family on the bundled examples and compares the
+ * deadline-miss count, the per-core power totals and the task set statistics
+ * bit for bit with recorded results, in tick and in event-driven mode.
+ * Any change to the numeric layer must keep these values identical.
+ *
+ * @author ShiuJia
+ */
+public class GoldenResultTest {
+
+    private static final int ACCURACY = 2;
+    private static final long SIMULATION_TIME = 100;
+
+    private static final String[][] CONFIGS = {
+        // example, partition, scheduling, protocol, DVFS, expected result
+        {"Single_Core Scheduling Example", "None", "RMS", "NPCS", "CSMS",
+         "miss=0 power=12008000, completed=29 response=5.1285714286 pending=0.8904761905 blocked=1.496599E-4"},
+        {"Single_Core Scheduling Example", "None", "RMS", "PIP", "MaxSpeed",
+         "miss=0 power=12008000, completed=29 response=5.1285714286 pending=0.7142857143 blocked=1.496599E-4"},
+        {"Single_Core Scheduling Example", "None", "DMS", "PCP", "CSMS",
+         "miss=0 power=12008000, completed=29 response=5.1285714286 pending=0.7142857143 blocked=1.496599E-4"},
+        {"Single_Core Scheduling Example", "None", "FCFS", "SRP", "MaxSpeed",
+         "miss=0 power=12008000, completed=29 response=4.3238095238 pending=1.3238095238 blocked=0.0"},
+        {"Single_Core Scheduling Example", "None", "EDF", "DPCP", "MaxSpeed",
+         "miss=0 power=12008000, completed=29 response=4.5238095238 pending=1.2380952381 blocked=0.0"},
+        {"Single_Core Scheduling Example", "None", "EDF", "SRP", "BTS",
+         "miss=0 power=9107480, completed=28 response=6.0823809524 pending=1.7519047619 blocked=2.44898E-5"},
+        {"Single_Core Scheduling Example", "None", "EDF", "SRP", "BATS",
+         "miss=0 power=7546600, completed=28 response=6.789047619 pending=2.2057142857 blocked=1.32653E-5"},
+        {"Single_Core Scheduling Example", "None", "LST", "PIP", "MaxSpeed",
+         "miss=0 power=12008000, completed=29 response=5.5801587302 pending=0.2885714286 blocked=1.089796E-4"},
+        {"Multi_Core Scheduling Example", "FF", "PRMS", "MSRP", "MaxSpeed",
+         "miss=1 power=14060000,2736000, completed=26 response=7.67 pending=2.23 blocked=7.22756E-5"},
+        {"Multi_Core Scheduling Example", "BFD", "PDMS", "MSRP", "MaxSpeed",
+         "miss=1 power=14288000,2052050, completed=25 response=9.16 pending=3.6 blocked=6.25E-5"},
+        {"Multi_Core Scheduling Example", "WFD", "PEDF", "MSRP", "MaxSpeed",
+         "miss=0 power=9272050,7676000, completed=27 response=5.2866666667 pending=0.63 blocked=3.125E-5"},
+        {"Multi_Core Scheduling Example", "FFD", "PFCFS", "MSRP", "MaxSpeed",
+         "miss=0 power=14592000,2052050, completed=26 response=8.315 pending=4.195 blocked=0.0"},
+        {"Multi_Core Scheduling Example", "WF", "PLST", "MSRP", "MaxSpeed",
+         "miss=0 power=9272050,7676000, completed=27 response=5.3033333333 pending=0.63 blocked=3.125E-5"},
+        {"Multi_Core Scheduling Example", "BF", "PRMS", "MrsP", "MaxSpeed",
+         "miss=1 power=14060000,2736000, completed=26 response=7.67 pending=2.23 blocked=7.22756E-5"},
+        {"Multi_Core Scheduling Example", "FF", "PEDF", "MrsP", "MaxSpeed",
+         "miss=6 power=10339150,2736000, completed=19 response=12.735 pending=5.7966666667 blocked=0.0"},
+        {"Multi_Core Scheduling Example", "WFD", "PEDF", "MrsP", "MaxSpeed",
+         "miss=2 power=8437700,7372000, completed=24 response=7.7716666667 pending=2.0266666667 blocked=1.818E-7"},
+        {"Multi_Core Scheduling Example", "FF", "PEDF", "P_FMLP", "MaxSpeed",
+         "miss=0 power=14212000,2736000, completed=27 response=7.48 pending=2.48 blocked=7.22756E-5"},
+        {"Multi_Core Scheduling Example", "WFD", "PRMS", "MSRP", "BS",
+         "miss=0 power=9272050,7676000, completed=27 response=5.2866666667 pending=0.63 blocked=3.125E-5"},
+        {"Multi_Core Scheduling Example", "WFD", "PRMS", "MSRP", "DUAL",
+         "miss=0 power=7198953,4920690, completed=27 response=8.0638 pending=1.2981333333 blocked=9.58333E-5"},
+        {"Multi_Core Scheduling Example", "SBP", "PRMS", "MSRP", "MaxSpeed",
+         "miss=0 power=9652250,7296050, completed=27 response=6.7333333333 pending=2.3366666667 blocked=4.10256E-5"},
+        {"Multi_Core Scheduling Example", "None", "GEDF", "G_FMLP", "None",
+         "miss=0 power=9652150,7296100, completed=27 response=5.5033333333 pending=0.54 blocked=0.0"},
+        {"Multi_Core Scheduling Example", "None", "GRMS", "G_FMLP", "None",
+         "miss=0 power=9652150,7296100, completed=27 response=5.5033333333 pending=0.54 blocked=0.0"},
+        // Blocked ratios and schedules of the total job order and the full blocking scan
+        {"Single_Core Scheduling Example", "None", "RMS", "SRP", "MaxSpeed",
+         "miss=0 power=12008000, completed=29 response=5.1285714286 pending=0.8904761905 blocked=1.496599E-4"},
+        {"Single_Core Scheduling Example", "None", "DMS", "DPCP", "MaxSpeed",
+         "miss=0 power=12008000, completed=29 response=5.1285714286 pending=0.7142857143 blocked=1.496599E-4"},
+        {"Single_Core Scheduling Example", "None", "FCFS", "NPCS", "MaxSpeed",
+         "miss=0 power=12008000, completed=29 response=4.3238095238 pending=1.3238095238 blocked=0.0"},
+        {"Single_Core Scheduling Example", "None", "LST", "SRP", "MaxSpeed",
+         "miss=0 power=12008000, completed=29 response=5.5796825397 pending=0.3934920635 blocked=9.62132E-5"},
+        {"Multi_Core Scheduling Example", "FF", "PFCFS", "MSRP", "MaxSpeed",
+         "miss=0 power=14212000,2736000, completed=27 response=6.9033333333 pending=2.8033333333 blocked=0.0"},
+        {"Multi_Core Scheduling Example", "FFD", "PDMS", "P_FMLP", "MaxSpeed",
+         "miss=1 power=14288000,2052000, completed=25 response=9.16 pending=3.6 blocked=6.25E-5"},
+        {"Multi_Core Scheduling Example", "FF", "PLST", "MSRP", "MaxSpeed",
+         "miss=0 power=14212000,2736000, completed=27 response=7.9169333333 pending=2.3004 blocked=1.547661E-4"},
+        {"Multi_Core Scheduling Example", "BFD", "PLST", "MSRP", "MaxSpeed",
+         "miss=0 power=14592000,2052050, completed=26 response=10.2314666667 pending=3.6888333333 blocked=3.701271E-4"},
+        {"Multi_Core Scheduling Example", "WF", "PRMS", "MrsP", "MaxSpeed",
+         "miss=0 power=9500000,7448000, completed=27 response=5.25 pending=0.62 blocked=3.125E-5"},
+        {"OPA's Priority Example", "None", "OPA", "None", "None",
+         "miss=5 power=11552000, completed=11 response=13.1313131313 pending=4.0707070707 blocked=0.0"},
+        {"SMC Example", "None", "SMC", "None", "None",
+         "miss=1 power=6688000, completed=16 response=4.5833333333 pending=0.9166666667 blocked=0.0"}
+    };
+
+    public static void main(String[] args) throws Exception {
+        printHeader("Golden Result Regression Test");
+
+        for (String[] config : CONFIGS) {
+            String name = String.join(" / ", Arrays.copyOf(config, 5));
+
+            for (boolean isEventDriven : new boolean[] {false, true}) {
+                String mode = isEventDriven ? "event" : "tick";
+                String result = simulate(config, isEventDriven);
+
+                check(name + " (" + mode + ")", result.equals(config[5]));
+                if (!result.equals(config[5])) {
+                    System.out.println("    expected: " + config[5]);
+                    System.out.println("    actual:   " + result);
+                }
+            }
+        }
+
+        finish();
+    }
+
+    private static String simulate(String[] config, boolean isEventDriven) throws Exception {
+        return silently(() -> {
+            String basePath = "RTSimulator_examples/" + config[0] + "/";
+            DataSetting ds = read(new SimulationContext(ACCURACY), basePath + "workload.xml", basePath + "processor.xml");
+            Simulator simulator = TestSupport.simulate(ds, SIMULATION_TIME, Arrays.copyOfRange(config, 1, 5),
+                    s -> s.setEventDriven(isEventDriven));
+
+            TaskSet ts = ds.getTaskSet();
+            StringBuilder sb = new StringBuilder();
+            sb.append("miss=").append(simulator.getResultSet().getMissDeadlineInfoSet().size());
+            sb.append(" power=");
+            for (Core c : simulator.getProcessor().getAllCore()) {
+                sb.append(c.getPowerConsumption()).append(',');
+            }
+            sb.append(" completed=").append(ts.getTotalJobCompletedNumber());
+            sb.append(" response=").append(ts.getAverageResponseTimeOfTask());
+            sb.append(" pending=").append(ts.getAveragePendingTimeOfTask());
+            sb.append(" blocked=").append(ts.getAverageBeBlockedTimeRatioOfTask());
+            return sb.toString();
+        });
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Job retention and streaming job statistics test
+ */
+package test;
+
+import RTSimulator.Definition.TraceLevel;
+import ResultSet.SchedulingInfo;
+import SystemEnvironment.Core;
+import SystemEnvironment.Processor;
+import SystemEnvironment.SimulationContext;
+import SystemEnvironment.Simulator;
+import WorkLoad.Job;
+import WorkLoad.JobStatistics;
+import WorkLoad.Task;
+import WorkLoadSet.DataSetting;
+import WorkLoadSet.TaskSet;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.ref.WeakReference;
+import java.util.Vector;
+import dynamicVoltageAndFrequencyScalingMethod.DynamicVoltageAndFrequencyScalingMethod;
+import dynamicVoltageAndFrequencyScalingMethod.implementation.MaxSpeed;
+import dynamicVoltageAndFrequencyScalingMethod.implementation.None;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+import static test.TestSupport.read;
+
+/**
+ * Runs configurations of the multi-core example with jobs retained and with
+ * job statistics streamed, and checks that the task averages are identical,
+ * that no job is kept when streaming, and that the statistics count every
+ * finished job. When streaming, jobs that finished must also become
+ * unreachable while the results of the run are still held: only the latest
+ * job of each task and the last jobs of each core may stay.
+ *
+ * @author ShiuJia
+ */
+public class JobRetentionTest {
+
+    private static final String BASE_PATH = "RTSimulator_examples/Multi_Core Scheduling Example/";
+    private static final long SIMULATION_TIME = 200;
+
+    private static final String[][] CONFIGS = {
+        // partition, scheduling, protocol, DVFS
+        {"FF", "PRMS", "MSRP", "MaxSpeed"},
+        {"WFD", "PEDF", "MrsP", "MaxSpeed"},
+        {"FF", "PEDF", "P_FMLP", "MaxSpeed"},
+        {"None", "GEDF", "G_FMLP", "None"}
+    };
+
+    public static void main(String[] args) throws Exception {
+        printHeader("Job Retention Test");
+
+        for (String[] config : CONFIGS) {
+            String name = String.join(" / ", config);
+            Vector<WeakReference<Job>> jobs = new Vector<>();
+            Simulator retainedSimulator = simulate(config, true, null);
+            TaskSet retained = retainedSimulator.getProcessor().getTaskSet();
+            Simulator simulator = simulate(config, false, jobs);
+            TaskSet streamed = simulator.getProcessor().getTaskSet();
+
+            check(name + ": same averages", averages(retained).equals(averages(streamed)));
+            check(name + ": same job fields in the records", records(retainedSimulator).equals(records(simulator)));
+
+            boolean isEmpty = true;
+            boolean isCounted = true;
+            for (Task t : streamed) {
+                isEmpty &= t.getJobSet().isEmpty();
+                JobStatistics s = t.getResponseTimeStatistics();
+                isCounted &= s.getCount() == t.getJobCount() && histogramCount(s) == s.getCount()
+                        && s.getMin() <= s.getMax();
+            }
+            check(name + ": no job kept", isEmpty);
+            check(name + ": every finished job counted", isCounted);
+
+            int reachable = reachable(jobs);
+            int bound = streamed.size() + 2 * simulator.getProcessor().getAllCore().size();
+            check(name + ": finished jobs unreachable (" + reachable + " of " + jobs.size() + " reachable, at most " + bound + ")",
+                    jobs.size() > 2 * bound && reachable <= bound);
+        }
+
+        finish();
+    }
+
+    private static String records(Simulator simulator) {
+        StringBuilder sb = new StringBuilder();
+        for (Core c : simulator.getProcessor().getAllCore()) {
+            for (SchedulingInfo info : c.getSchedulingInfoSet()) {
+                sb.append(info.getCoreStatus()).append(' ').append(info.getStartTime()).append(' ');
+                if (info.hasJob()) {
+                    sb.append(info.getTask().getID()).append(',').append(info.getJobID())
+                            .append(info.getJobStatusString()).append(info.getJobTimeOfStatus())
+                            .append(' ').append(info.getJobResponseTime()).append(' ').append(info.getJobPendingTime());
+                }
+                sb.append(' ').append(info.getJobCompletedNum()).append(' ').append(info.getJobMissDeadlineNum()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int reachable(Vector<WeakReference<Job>> jobs) throws InterruptedException {
+        int reachable = jobs.size();
+        for (int round = 0; round < 10; round++) {
+            System.gc();
+            Thread.sleep(20);
+            int n = 0;
+            for (WeakReference<Job> r : jobs) {
+                n += r.get() == null ? 0 : 1;
+            }
+            if (n == reachable) {
+                break;
+            }
+            reachable = n;
+        }
+        return reachable;
+    }
+
+    private static long histogramCount(JobStatistics s) {
+        long n = 0;
+        for (long c : s.getHistogram()) {
+            n += c;
+        }
+        return n;
+    }
+
+    private static String averages(TaskSet ts) {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (Task t : ts) {
+                sb.append(t.getID()).append(' ').append(t.getJobCount())
+                        .append(' ').append(t.getAverageResponseTimeOfJob())
+                        .append(' ').append(t.getAveragePendingTimeOfJob())
+                        .append(' ').append(t.getAverageBeBlockedTimeRatioOfJob()).append('\n');
+            }
+            sb.append(ts.getAverageResponseTimeOfTask()).append(' ').append(ts.getAverageBeBlockedTimeRatioOfTask());
+            return sb.toString();
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static Simulator simulate(String[] config, boolean isJobRetained, Vector<WeakReference<Job>> jobs) throws Exception {
+        SimulationContext context = new SimulationContext(2);
+        context.setTraceLevel(TraceLevel.OFF);
+        context.setLogStream(null);
+        context.setJobRetained(isJobRetained);
+        DataSetting ds = read(context, BASE_PATH + "workload.xml", BASE_PATH + "processor.xml");
+        return TestSupport.simulate(ds, SIMULATION_TIME, config,
+                jobs == null ? null : s -> s.getProcessor().setDVFSMethod(tracking(config[3], jobs)));
+    }
+
+    // The DVFS method of the configuration, also keeping a weak reference to every job that arrives
+    private static DynamicVoltageAndFrequencyScalingMethod tracking(String name, Vector<WeakReference<Job>> jobs) {
+        if (name.equals("None")) {
+            return new None() {
+                @Override
+                public void jobArrivesProcessorAction(Job j, Processor p) {
+                    jobs.add(new WeakReference<>(j));
+                    super.jobArrivesProcessorAction(j, p);
+                }
+            };
+        }
+        return new MaxSpeed() {
+            @Override
+            public void jobArrivesProcessorAction(Job j, Processor p) {
+                jobs.add(new WeakReference<>(j));
+                super.jobArrivesProcessorAction(j, p);
+            }
+        };
+    }
+}
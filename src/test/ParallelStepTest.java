@@ -0,0 +1,118 @@
+/*
+ * Parallel core stepping test
+ */
+package test;
+
+import RTSimulator.Definition.TraceLevel;
+import RTSimulator.TraceSink;
+import ResultSet.SchedulingInfo;
+import SystemEnvironment.Core;
+import SystemEnvironment.SimulationContext;
+import SystemEnvironment.Simulator;
+import WorkLoadSet.DataSetting;
+import WorkLoadSet.TaskSet;
+import java.util.Vector;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+import static test.TestSupport.read;
+import static test.TestSupport.silently;
+
+/**
+ * Runs the partitioned configurations of the multi-core example with the
+ * cores stepped in order and on a thread pool, and checks that the per-core
+ * timelines and the task set statistics are identical, in tick and in
+ * event-driven mode, and that a run traced at DEBUG notes that it steps
+ * serially.
+ *
+ * @author ShiuJia
+ */
+public class ParallelStepTest {
+
+    private static final String BASE_PATH = "RTSimulator_examples/Multi_Core Scheduling Example/";
+    private static final long SIMULATION_TIME = 100;
+
+    private static final String[][] CONFIGS = {
+        // partition, scheduling, protocol, DVFS
+        {"FF", "PRMS", "MSRP", "MaxSpeed"},
+        {"WFD", "PEDF", "MSRP", "MaxSpeed"},
+        {"WF", "PLST", "MSRP", "MaxSpeed"},
+        {"BF", "PRMS", "MrsP", "MaxSpeed"},
+        {"FF", "PEDF", "P_FMLP", "MaxSpeed"},
+        {"WFD", "PRMS", "MSRP", "DUAL"}
+    };
+
+    public static void main(String[] args) throws Exception {
+        printHeader("Parallel Step Test");
+
+        for (String[] config : CONFIGS) {
+            String name = String.join(" / ", config);
+
+            for (boolean isEventDriven : new boolean[] {false, true}) {
+                String mode = isEventDriven ? "event" : "tick";
+                String serial = simulate(config, isEventDriven, 1);
+                String parallel = simulate(config, isEventDriven, 4);
+                check(name + " (" + mode + ")", serial.equals(parallel));
+            }
+        }
+
+        Vector<String> debug = new Vector<>();
+        simulate(CONFIGS[0], false, 4, noteSink(debug), TraceLevel.DEBUG);
+        check("DEBUG tracing notes the serial run", debug.size() == 1);
+        Vector<String> info = new Vector<>();
+        simulate(CONFIGS[0], false, 4, noteSink(info), TraceLevel.INFO);
+        check("INFO tracing runs in parallel without a note", info.isEmpty());
+
+        finish();
+    }
+
+    private static TraceSink noteSink(Vector<String> notes) {
+        return (level, text, isLineEnd) -> {
+            if (text.startsWith("Parallelism")) {
+                notes.add(text);
+            }
+        };
+    }
+
+    private static String simulate(String[] config, boolean isEventDriven, int parallelism) throws Exception {
+        return simulate(config, isEventDriven, parallelism, TraceSink.NULL, TraceLevel.OFF);
+    }
+
+    private static String simulate(String[] config, boolean isEventDriven, int parallelism,
+            TraceSink sink, TraceLevel level) throws Exception {
+        return silently(() -> {
+            SimulationContext context = new SimulationContext(2);
+            context.setTraceSink(sink);
+            context.setTraceLevel(level);
+            context.setLogStream(null);
+            DataSetting ds = read(context, BASE_PATH + "workload.xml", BASE_PATH + "processor.xml");
+            Simulator simulator = TestSupport.simulate(ds, SIMULATION_TIME, config, s -> {
+                s.setEventDriven(isEventDriven);
+                s.setParallelism(parallelism);
+            });
+
+            StringBuilder sb = new StringBuilder();
+            for (Core c : simulator.getProcessor().getAllCore()) {
+                sb.append("Core").append(c.getID()).append(" power=").append(c.getPowerConsumption()).append('\n');
+                for (SchedulingInfo info : c.getSchedulingInfoSet()) {
+                    sb.append(info.getStartTime()).append('-').append(info.getEndTime())
+                            .append(' ').append(info.getCoreStatus())
+                            .append(' ').append(info.getUseSpeed());
+                    if (info.getJob() != null) {
+                        sb.append(" Job(").append(info.getJob().getParentTask().getID())
+                                .append(',').append(info.getJob().getID()).append(')');
+                    }
+                    sb.append('\n');
+                }
+            }
+
+            TaskSet ts = ds.getTaskSet();
+            sb.append("miss=").append(simulator.getResultSet().getMissDeadlineInfoSet().size());
+            sb.append(" completed=").append(ts.getTotalJobCompletedNumber());
+            sb.append(" response=").append(ts.getAverageResponseTimeOfTask());
+            sb.append(" blocked=").append(ts.getAverageBeBlockedTimeRatioOfTask());
+            return sb.toString();
+        });
+    }
+}
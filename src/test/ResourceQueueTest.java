@@ -0,0 +1,105 @@
+/*
+ * Resource wait queue and unit bookkeeping test
+ */
+package test;
+
+import WorkLoad.CriticalSection;
+import WorkLoad.Job;
+import WorkLoad.SharedResource;
+import WorkLoadSet.JobWaitQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+
+/**
+ * Drives a {@link JobWaitQueue} and an {@link java.util.ArrayDeque} with the
+ * same random adds and removals and checks they hold the same jobs in the
+ * same order, then locks and unlocks the units of a multi-unit
+ * {@link SharedResource} and checks the free counts and the unit handed out.
+ *
+ * @author ShiuJia
+ */
+public class ResourceQueueTest {
+
+    public static void main(String[] args) {
+        printHeader("Resource Queue Test");
+
+        testWaitQueue();
+        testSharedResource();
+
+        finish();
+    }
+
+    private static void testWaitQueue() {
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            jobs.add(new Job());
+        }
+
+        JobWaitQueue q = new JobWaitQueue();
+        JobWaitQueue other = new JobWaitQueue();
+        ArrayDeque<Job> expected = new ArrayDeque<>();
+        Random random = new Random(7);
+        boolean same = true;
+        for (int step = 0; step < 5000; step++) {
+            Job j = jobs.get(random.nextInt(jobs.size()));
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    q.add(j);
+                    other.add(j);
+                    if (!expected.contains(j)) {
+                        expected.add(j);
+                    }
+                    break;
+                case 2:
+                    same &= q.remove(j) == expected.remove(j);
+                    break;
+                default:
+                    same &= q.poll() == expected.poll();
+                    break;
+            }
+            same &= q.size() == expected.size() && q.peek() == expected.peek()
+                    && q.contains(j) == expected.contains(j)
+                    && new ArrayList<>(q).equals(new ArrayList<>(expected));
+        }
+        check("wait queue keeps FIFO order through adds and removals", same);
+        check("a job can wait in several queues", other.size() > 0 && other.containsAll(q));
+
+        q.clear();
+        check("cleared queue holds no job", q.isEmpty() && !q.contains(jobs.get(0)) && q.peek() == null);
+    }
+
+    private static void testSharedResource() {
+        SharedResource r = new SharedResource();
+        r.setID(1);
+        r.createResources(3);
+
+        Job a = new Job();
+        Job b = new Job();
+        CriticalSection cs1 = new CriticalSection();
+        CriticalSection cs2 = new CriticalSection();
+        CriticalSection cs3 = new CriticalSection();
+        r.setLock(a, cs1);
+        r.setLock(b, cs2);
+        r.setLock(a, cs3);
+        check("locks take the lowest free units", cs1.getResourceID() == 1 && cs2.getResourceID() == 2
+                && cs3.getResourceID() == 3 && r.getIdleResourceNum() == 0 && r.getLeftResourceAmount() == 0);
+
+        r.setUnlock(a);
+        check("unlock frees every unit of the job", r.getIdleResourceNum() == 2 && r.getLeftResourceAmount() == 2
+                && r.getResource(0).whoLocked() == null && r.getResource(1).whoLocked() == b
+                && r.getResource(2).whoLocked() == null);
+
+        CriticalSection cs4 = new CriticalSection();
+        r.setLock(a, cs4);
+        r.setUnlock(b);
+        check("freed units are reused first", cs4.getResourceID() == 1 && r.getIdleResourceNum() == 2
+                && r.getResource(0).whoLocked() == a);
+    }
+}
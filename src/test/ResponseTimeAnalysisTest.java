@@ -0,0 +1,157 @@
+/*
+ * Response time analysis engine test
+ */
+package test;
+
+import WorkLoad.Task;
+import WorkLoadSet.TaskSet;
+import java.util.Random;
+import schedulingAlgorithm.ResponseTimeAnalysis;
+import schedulingAlgorithm.implementation.OPA;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+
+/**
+ * Checks {@link ResponseTimeAnalysis} against the plain fixed point
+ * iteration from C_i on random task sets while levels are assigned, in
+ * sequential and parallel sized levels, and that OPA assigns every task of a
+ * schedulable set a distinct priority.
+ *
+ * @author ShiuJia
+ */
+public class ResponseTimeAnalysisTest {
+
+    public static void main(String[] args) {
+        printHeader("Response Time Analysis Test");
+
+        testAgainstIteration();
+        testOPA();
+
+        finish();
+    }
+
+    private static TaskSet randomTaskSet(Random random, int n, double utilization) {
+        TaskSet ts = new TaskSet();
+        for (int i = 0; i < n; i++) {
+            Task t = new Task();
+            t.setID(i + 1);
+            long period = 1000 * (1 + random.nextInt(100));
+            long computation = Math.max(1, (long) (period * utilization / n * (0.5 + random.nextDouble())));
+            t.setPeriod(period);
+            t.setRelativeDeadline(Math.max(computation, period - random.nextInt((int) (period / 2))));
+            t.setComputationAmount(computation);
+            ts.add(t);
+        }
+        return ts;
+    }
+
+    // R = C_i + Σ ceil(R / T_j) C_j from R = C_i
+    private static boolean isSchedulable(TaskSet ts, boolean[] assigned, int i) {
+        Task candidate = ts.get(i);
+        long r = candidate.getComputationAmount();
+        while (r <= candidate.getRelativeDeadline()) {
+            long next = candidate.getComputationAmount();
+            for (int j = 0; j < ts.size(); j++) {
+                if (!assigned[j] && j != i) {
+                    next += (r + ts.get(j).getPeriod() - 1) / ts.get(j).getPeriod() * ts.get(j).getComputationAmount();
+                }
+            }
+            if (next == r) {
+                return true;
+            }
+            r = next;
+        }
+        return false;
+    }
+
+    // Σ ceil(B / T_j) C_j over the unassigned tasks from B = Σ C_j
+    private static long busyPeriod(TaskSet ts, boolean[] assigned, long limit) {
+        long b = 0;
+        for (int j = 0; j < ts.size(); j++) {
+            b += assigned[j] ? 0 : ts.get(j).getComputationAmount();
+        }
+        while (b <= limit) {
+            long next = 0;
+            for (int j = 0; j < ts.size(); j++) {
+                if (!assigned[j]) {
+                    next += (b + ts.get(j).getPeriod() - 1) / ts.get(j).getPeriod() * ts.get(j).getComputationAmount();
+                }
+            }
+            if (next == b) {
+                return b;
+            }
+            b = next;
+        }
+        return b;
+    }
+
+    private static void testAgainstIteration() {
+        Random random = new Random(5);
+        boolean schedulable = true;
+        boolean first = true;
+        boolean busy = true;
+        int levels = 0;
+
+        for (int round = 0; round < 60; round++) {
+            int n = round % 2 == 0 ? 2 + random.nextInt(12) : 64 + random.nextInt(64);
+            TaskSet ts = randomTaskSet(random, n, 0.5 + random.nextDouble() * 0.6);
+            ResponseTimeAnalysis rta = new ResponseTimeAnalysis(ts);
+            boolean[] assigned = new boolean[n];
+
+            for (int level = 0; level < n; level++) {
+                int expect = -1;
+                for (int i = 0; i < n; i++) {
+                    if (!assigned[i]) {
+                        boolean s = isSchedulable(ts, assigned, i);
+                        schedulable &= rta.isSchedulable(i) == s;
+                        if (s && expect == -1) {
+                            expect = i;
+                        }
+                    }
+                }
+                first &= rta.findSchedulable() == expect;
+
+                long limit = random.nextInt(200000);
+                long b = busyPeriod(ts, assigned, limit);
+                busy &= (rta.getBusyPeriod(limit) <= limit) == (b <= limit);
+                if (b <= limit) {
+                    busy &= rta.getBusyPeriod(limit) == b;
+                }
+
+                // Assign some task even when none is schedulable, to keep checking the higher levels
+                int next = expect != -1 ? expect : level % n;
+                while (assigned[next]) {
+                    next = (next + 1) % n;
+                }
+                assigned[next] = true;
+                rta.assign(next);
+                levels++;
+            }
+        }
+        check("schedulability matches iteration from C_i (" + levels + " levels)", schedulable);
+        check("first schedulable task matches sequential search", first);
+        check("busy period matches iteration from the total execution time", busy);
+    }
+
+    private static void testOPA() {
+        // Implicit deadlines at 60% utilization are schedulable by rate monotonic
+        TaskSet ts = randomTaskSet(new Random(9), 200, 0.6);
+        for (Task t : ts) {
+            t.setRelativeDeadline(t.getPeriod());
+        }
+        new OPA().calculatePriority(ts);
+
+        boolean[] seen = new boolean[ts.size() + 1];
+        boolean distinct = true;
+        for (Task t : ts) {
+            int level = (int) Math.abs(t.getPriority().getValue());
+            distinct &= level >= 1 && level <= ts.size() && !seen[level];
+            if (distinct) {
+                seen[level] = true;
+            }
+        }
+        check("OPA assigns 200 tasks distinct priorities", distinct);
+    }
+}
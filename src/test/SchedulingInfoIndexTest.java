@@ -0,0 +1,79 @@
+/*
+ * Timeline hover index test
+ */
+package test;
+
+import ResultSet.SchedulingInfo;
+import java.util.Arrays;
+import java.util.Random;
+import userInterface.backEnd.SchedulingInfoIndex;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+
+/**
+ * Writes random, partly overlapping intervals both into a
+ * {@link SchedulingInfoIndex} and into a dense tick array, the way the
+ * timeline viewer used to fill it, and checks every tick gives the same
+ * {@link SchedulingInfo}.
+ *
+ * @author ShiuJia
+ */
+public class SchedulingInfoIndexTest {
+
+    public static void main(String[] args) {
+        printHeader("Scheduling Info Index Test");
+
+        testAgainstTickArray();
+        testBounds();
+
+        finish();
+    }
+
+    private static void testAgainstTickArray() {
+        Random random = new Random(11);
+        boolean same = true;
+        for (int round = 0; round < 200; round++) {
+            int lastTick = 1 + random.nextInt(500);
+            SchedulingInfo nullInfo = random.nextBoolean() ? new SchedulingInfo() : null;
+            SchedulingInfo[] ticks = new SchedulingInfo[lastTick + 1];
+            Arrays.fill(ticks, nullInfo);
+            SchedulingInfoIndex index = new SchedulingInfoIndex(nullInfo, lastTick);
+
+            SchedulingInfo[] infos = new SchedulingInfo[4];
+            for (int i = 0; i < infos.length; i++) {
+                infos[i] = new SchedulingInfo();
+            }
+            int n = random.nextInt(30);
+            for (int i = 0; i < n; i++) {
+                int start = random.nextInt(lastTick + 1);
+                int end = start + random.nextInt(lastTick + 2 - start);
+                SchedulingInfo si = infos[random.nextInt(infos.length)];
+                for (int t = start; t < end; t++) {
+                    ticks[t] = si;
+                }
+                index.add(start, end, si);
+            }
+            index.build();
+
+            for (int t = 0; t <= lastTick; t++) {
+                same &= index.get(t) == ticks[t];
+            }
+        }
+        check("index matches the tick array, later intervals winning", same);
+    }
+
+    private static void testBounds() {
+        SchedulingInfoIndex index = new SchedulingInfoIndex(null, 10);
+        index.add(0, 11, new SchedulingInfo());
+        index.build();
+        boolean thrown = false;
+        try {
+            index.get(11);
+        } catch (ArrayIndexOutOfBoundsException ex) {
+            thrown = true;
+        }
+        check("ticks past the end are rejected", thrown && index.get(10) != null && index.size() == 1);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Headless script batch runner test
+ */
+package test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Vector;
+import scriptsetter.Script;
+import scriptsetter.ScriptBatchRunner;
+import scriptsetter.ScriptResult;
+import scriptsetter.ScriptResultWriter;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+
+/**
+ * Runs a script definition with a valid and an invalid script on a workload
+ * folder holding the multi-core example, and checks the rows of the result
+ * file and the number of failed runs. Then cuts the last row short, as a
+ * crash would, and checks that a second run resumes the sweep by running only
+ * the missing workload, and that a changed script configuration is not
+ * resumed. Finally checks that values holding line breaks survive the
+ * result file, also when a row is cut inside such a value.
+ *
+ * @author ShiuJia
+ */
+public class ScriptBatchRunnerTest {
+
+    private static final String BASE_PATH = "RTSimulator_examples/Multi_Core Scheduling Example/";
+
+    public static void main(String[] args) throws Exception {
+        printHeader("Script Batch Runner Test");
+
+        File dir = Files.createTempDirectory("scriptBatch").toFile();
+        File workloadDir = new File(dir, "workload");
+        workloadDir.mkdir();
+        Files.copy(new File(BASE_PATH + "workload.xml").toPath(), new File(workloadDir, "w1.xml").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.copy(new File(BASE_PATH + "workload.xml").toPath(), new File(workloadDir, "w2.xml").toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.writeString(new File(workloadDir, "notes.txt").toPath(), "not a workload");
+
+        String processor = new File(BASE_PATH + "processor.xml").getAbsolutePath().replace("\\", "/");
+        String workload = workloadDir.getAbsolutePath().replace("\\", "/");
+        File scriptFile = new File(dir, "script.json");
+        Files.writeString(scriptFile.toPath(),
+                "{ \"accuracy\": 2, \"threads\": 2, \"scripts\": ["
+                + script("A", workload, processor, "PRMS", "100") + ","
+                + script("B", workload, processor, "NoSuchAlgorithm", "100") + "] }");
+
+        File resultFile = new File(dir, "result.csv");
+        ScriptBatchRunner runner = run(scriptFile, resultFile);
+        int failedRuns = lastFailedRuns;
+
+        check("script file is read", runner.getScriptSet().size() == 2 && runner.getThreadAmount() == 2);
+
+        List<String> lines = Files.readAllLines(resultFile.toPath(), StandardCharsets.UTF_8);
+        check("invalid script runs fail", failedRuns == 2);
+        check("one row per successful run", lines.size() == 4
+                && lines.get(0).equals("#configuration=" + ScriptResultWriter.readConfigurationHash(resultFile))
+                && lines.get(1).equals(ScriptResult.getCSVHeader()));
+
+        boolean rowsOk = lines.size() == 4;
+        for (String row : lines.subList(2, lines.size())) {
+            String[] cols = row.split(",", -1);
+            rowsOk &= cols.length == ScriptResult.getCSVHeader().split(",").length;
+            rowsOk &= cols[0].isEmpty() && cols[1].equals("A") && cols[10].equals("false") && cols[11].equals("26") && cols[12].equals("1");
+        }
+        check("rows hold the run results", rowsOk);
+
+        Script a = runner.getScriptSet().get(0);
+        String roundTrip = ScriptResult.fromCSVRow(a, ScriptResult.splitCSVRow(lines.get(2))).toCSVRow();
+        check("a row reads back into the same result", roundTrip.equals(lines.get(2)));
+
+        byte[] bytes = Files.readAllBytes(resultFile.toPath());
+        Files.write(resultFile.toPath(), Arrays.copyOf(bytes, bytes.length - 10));
+        run(scriptFile, resultFile);
+        List<String> resumed = Files.readAllLines(resultFile.toPath(), StandardCharsets.UTF_8);
+        check("resume reruns only the missing workload",
+                resumed.size() == 4 && new HashSet<>(resumed).equals(new HashSet<>(lines)));
+
+        File changedScriptFile = new File(dir, "changed.json");
+        Files.writeString(changedScriptFile.toPath(),
+                "{ \"accuracy\": 2, \"threads\": 2, \"scripts\": ["
+                + script("A", workload, processor, "PRMS", "200") + ","
+                + script("B", workload, processor, "NoSuchAlgorithm", "100") + "] }");
+        boolean refused = false;
+        try {
+            run(changedScriptFile, resultFile);
+        } catch (IOException ex) {
+            refused = true;
+        }
+        check("a changed configuration is not resumed",
+                refused && Files.readAllLines(resultFile.toPath(), StandardCharsets.UTF_8).equals(resumed));
+
+        testLineBreaks(a, new File(dir, "lineBreaks.csv"));
+
+        finish();
+    }
+
+    private static void testLineBreaks(Script s, File f) throws Exception {
+        String workloadFile = "w,\r\n\"1\"\n";
+        try (ScriptResultWriter writer = new ScriptResultWriter(f, "hash", 1)) {
+            for (String name : new String[] { workloadFile, "w2", workloadFile + "2" }) {
+                ScriptResult sr = new ScriptResult(s);
+                sr.setWorkloadFile(name);
+                sr.addPowerConsumption(1.5);
+                writer.write(sr);
+            }
+        }
+
+        Vector<String> names = new Vector<>();
+        ScriptResultWriter.readRows(f, values -> names.add(values.get(2)));
+        check("values with line breaks read back", names.equals(Arrays.asList(workloadFile, "w2", workloadFile + "2")));
+
+        // Cut the last row inside its quoted line break
+        byte[] bytes = Files.readAllBytes(f.toPath());
+        int cut = new String(bytes, StandardCharsets.UTF_8).lastIndexOf("\r\n");
+        Files.write(f.toPath(), Arrays.copyOf(bytes, cut + 2));
+        try (ScriptResultWriter writer = new ScriptResultWriter(f, "hash", 1)) {
+            check("a row cut after a quoted line break is dropped",
+                    writer.isRecorded(s, workloadFile) && writer.isRecorded(s, "w2") && !writer.isRecorded(s, workloadFile + "2"));
+        }
+        names.clear();
+        ScriptResultWriter.readRows(f, values -> names.add(values.get(2)));
+        check("rows before the cut are kept", names.equals(Arrays.asList(workloadFile, "w2")));
+    }
+
+    private static int lastFailedRuns;
+
+    private static ScriptBatchRunner run(File scriptFile, File resultFile) throws Exception {
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            ScriptBatchRunner runner = new ScriptBatchRunner(scriptFile);
+            lastFailedRuns = runner.run(resultFile);
+            return runner;
+        } finally {
+            System.setOut(out);
+            System.setErr(err);
+        }
+    }
+
+    private static String script(String id, String workload, String processor, String scheduling, String simulationTime) {
+        return "{ \"ID\": \"" + id + "\", \"workloadSite\": \"" + workload + "\", \"processorSite\": \"" + processor + "\","
+                + " \"partitionAlgorithm\": \"FF\", \"schedulingAlgorithm\": \"" + scheduling + "\","
+                + " \"CCProtocol\": \"MSRP\", \"DVFSMethod\": \"MaxSpeed\", \"simulationTime\": \"" + simulationTime + "\" }";
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Sparse task and resource ID test
+ */
+package test;
+
+import SystemEnvironment.Core;
+import SystemEnvironment.SimulationContext;
+import SystemEnvironment.Simulator;
+import WorkLoad.SharedResource;
+import WorkLoad.Task;
+import WorkLoadSet.DataSetting;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+import static test.TestSupport.silently;
+
+/**
+ * Rewrites the bundled workloads with task and resource IDs that have gaps
+ * and do not start at 1, and checks that every protocol with per-task or
+ * per-resource tables simulates them exactly like the original 1..n IDs,
+ * from XML and from JSON.
+ *
+ * @author ShiuJia
+ */
+public class SparseIDTest {
+
+    private static final int ACCURACY = 2;
+    private static final long SIMULATION_TIME = 100;
+
+    private static final String[][] CONFIGS = {
+        // example, workload format, partition, scheduling, protocol, DVFS
+        {"Single_Core Scheduling Example", "xml", "None", "RMS", "PIP", "MaxSpeed"},
+        {"Single_Core Scheduling Example", "xml", "None", "DMS", "PCP", "CSMS"},
+        {"Single_Core Scheduling Example", "xml", "None", "FCFS", "SRP", "MaxSpeed"},
+        {"Single_Core Scheduling Example", "xml", "None", "EDF", "DPCP", "MaxSpeed"},
+        {"Single_Core Scheduling Example", "xml", "None", "EDF", "SRP", "BTS"},
+        {"Multi_Core Scheduling Example", "xml", "FF", "PRMS", "MSRP", "MaxSpeed"},
+        {"Multi_Core Scheduling Example", "xml", "BF", "PRMS", "MrsP", "MaxSpeed"},
+        {"Multi_Core Scheduling Example", "xml", "FF", "PEDF", "P_FMLP", "MaxSpeed"},
+        {"Multi_Core Scheduling Example", "xml", "None", "GEDF", "G_FMLP", "None"},
+        {"Multi_Core Scheduling Example", "xml", "WFD", "PRMS", "MSRP", "BS"},
+        {"Multi_Core Scheduling Example", "xml", "WFD", "PRMS", "MSRP", "DUAL"},
+        {"Single_Core Scheduling Example", "json", "None", "RMS", "PIP", "MaxSpeed"},
+        {"Multi_Core Scheduling Example", "json", "BF", "PRMS", "MrsP", "MaxSpeed"},
+        {"Multi_Core Scheduling Example", "json", "FF", "PEDF", "P_FMLP", "MaxSpeed"}
+    };
+
+    public static void main(String[] args) throws Exception {
+        printHeader("Sparse ID Test");
+
+        testLookup();
+        testAgainstDenseIDs();
+
+        finish();
+    }
+
+    // 1, 2, 3, ... -> 12, 26, 42, ...: increasing, so ties between tasks break the same way
+    private static int sparseID(int id) {
+        return id * id + 10 * id + 1;
+    }
+
+    private static void testLookup() throws Exception {
+        String basePath = "RTSimulator_examples/Multi_Core Scheduling Example/";
+        DataSetting dense = read(new File(basePath + "workload.xml"), new File(basePath + "processor.xml"));
+        DataSetting sparse = read(sparseWorkload(basePath + "workload.xml", "xml"), new File(basePath + "processor.xml"));
+
+        boolean ids = dense.getTaskSet().size() == sparse.getTaskSet().size()
+                && dense.getSharedResourceSet().size() == sparse.getSharedResourceSet().size();
+        boolean indices = ids;
+        boolean criticalSections = ids;
+        for (int i = 0; ids && i < dense.getTaskSet().size(); i++) {
+            Task d = dense.getTaskSet().get(i);
+            Task s = sparse.getTaskSet().get(i);
+            ids &= s.getID() == sparseID(d.getID());
+            indices &= s.getIndex() == i && d.getIndex() == i;
+            criticalSections &= s.getCriticalSectionSet().size() == d.getCriticalSectionSet().size();
+            for (int j = 0; criticalSections && j < d.getCriticalSectionSet().size(); j++) {
+                SharedResource dr = d.getCriticalSectionSet().get(j).getUseSharedResource();
+                SharedResource sr = s.getCriticalSectionSet().get(j).getUseSharedResource();
+                criticalSections &= sr.getID() == sparseID(dr.getID()) && sr.getIndex() == dr.getIndex();
+            }
+        }
+        for (int i = 0; indices && i < sparse.getSharedResourceSet().size(); i++) {
+            indices &= sparse.getSharedResourceSet().get(i).getIndex() == i;
+        }
+        check("sparse task and resource IDs are kept", ids);
+        check("tasks and resources get dense indices from 0", indices);
+        check("critical sections resolve sparse resource IDs", criticalSections);
+    }
+
+    private static void testAgainstDenseIDs() throws Exception {
+        for (String[] config : CONFIGS) {
+            String name = String.join(" / ", config);
+            String basePath = "RTSimulator_examples/" + config[0] + "/";
+            File workload = new File(basePath + "workload." + config[1]);
+            File processor = new File(basePath + "processor." + config[1]);
+
+            String dense = simulate(config, workload, processor);
+            String sparse = simulate(config, sparseWorkload(workload.getPath(), config[1]), processor);
+            check(name, dense.equals(sparse));
+            if (!dense.equals(sparse)) {
+                System.out.println("    dense:  " + dense);
+                System.out.println("    sparse: " + sparse);
+            }
+        }
+    }
+
+    private static File sparseWorkload(String path, String format) throws Exception {
+        String text = new String(Files.readAllBytes(new File(path).toPath()), StandardCharsets.UTF_8);
+        Pattern id = format.equals("xml")
+                ? Pattern.compile("(<resources ID=\"|<task ID=\"|resourceID=\")(\\d+)")
+                : Pattern.compile("(\"ID\": |\"resourceID\": )(\\d+)");
+        Matcher m = id.matcher(text);
+        StringBuffer sb = new StringBuffer();
+        while (m.find()) {
+            m.appendReplacement(sb, m.group(1) + sparseID(Integer.parseInt(m.group(2))));
+        }
+        m.appendTail(sb);
+
+        File workload = File.createTempFile("sparse", "." + format);
+        workload.deleteOnExit();
+        Files.write(workload.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        return workload;
+    }
+
+    private static DataSetting read(File workload, File processor) throws Exception {
+        return TestSupport.read(new SimulationContext(ACCURACY), workload.getPath(), processor.getPath());
+    }
+
+    private static String simulate(String[] config, File workload, File processor) throws Exception {
+        return silently(() -> {
+            DataSetting ds = read(workload, processor);
+            Simulator simulator = TestSupport.simulate(ds, SIMULATION_TIME, Arrays.copyOfRange(config, 2, 6), null);
+
+            StringBuilder sb = new StringBuilder();
+            sb.append("miss=").append(simulator.getResultSet().getMissDeadlineInfoSet().size());
+            sb.append(" power=");
+            for (Core c : simulator.getProcessor().getAllCore()) {
+                sb.append(c.getPowerConsumption()).append(',');
+            }
+            for (Task t : ds.getTaskSet()) {
+                sb.append(" task").append(t.getIndex()).append('=').append(t.getJobCompletedCount())
+                        .append('/').append(t.getJobMissDeadlineCount())
+                        .append('/').append(t.getAverageResponseTimeOfJob())
+                        .append('/').append(t.getAveragePendingTimeOfJob())
+                        .append('/').append(t.getAverageBeBlockedTimeRatioOfJob());
+            }
+            return sb.toString();
+        });
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Shared helpers of the test programs
+ */
+package test;
+
+import SystemEnvironment.DataReader;
+import SystemEnvironment.JSONDataReader;
+import SystemEnvironment.Processor;
+import SystemEnvironment.SimulationContext;
+import SystemEnvironment.Simulator;
+import WorkLoadSet.DataSetting;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+/**
+ * Check counting, workload loading and writing, and configuration driven
+ * simulation runs shared by the test programs.
+ *
+ * @author ShiuJia
+ */
+final class TestSupport {
+
+    static final String MULTI_CORE_PROCESSOR = "RTSimulator_examples/Multi_Core Scheduling Example/processor.xml";
+
+    private static int failed = 0;
+
+    private TestSupport() {
+    }
+
+    static void printHeader(String title) {
+        System.out.println("========================================");
+        System.out.println("  " + title);
+        System.out.println("========================================\n");
+    }
+
+    static void check(String name, boolean ok) {
+        System.out.println((ok ? "✓ " : "✗ ") + name);
+        if (!ok) {
+            failed++;
+        }
+    }
+
+    /**
+     * Prints the result of every check so far and exits with status 1 if any
+     * of them failed.
+     */
+    static void finish() {
+        System.out.println("\n========================================");
+        System.out.println(failed == 0 ? "  All Tests Passed!" : "  " + failed + " Test(s) Failed!");
+        System.out.println("========================================");
+
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    static Object newInstance(String className) throws Exception {
+        return Class.forName(className).getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Reads a workload and a processor, with the JSON reader if the workload
+     * is a .json file and the XML reader otherwise, with {@code System.out}
+     * silenced.
+     */
+    static DataSetting read(SimulationContext context, String workload, String processor) throws Exception {
+        return silently(() -> {
+            if (workload.endsWith(".json")) {
+                JSONDataReader reader = new JSONDataReader(context);
+                reader.loadSource(workload);
+                reader.loadSource(processor);
+                return reader.getDataSetting();
+            }
+            DataReader reader = new DataReader(context);
+            reader.loadSource(workload);
+            reader.loadSource(processor);
+            return reader.getDataSetting();
+        });
+    }
+
+    /**
+     * Loads a workload onto the multi-core example processor at accuracy 1
+     * without partitioning or running it.
+     */
+    static Processor load(File workload) throws Exception {
+        SimulationContext context = new SimulationContext(1);
+        Simulator simulator = new Simulator(context);
+        simulator.loadDataSetting(read(context, workload.getPath(), MULTI_CORE_PROCESSOR));
+        return simulator.getProcessor();
+    }
+
+    /**
+     * Runs a data setting with the algorithms named in a configuration, with
+     * {@code System.out} silenced.
+     *
+     * @param ds the workload and processor, run in the context of its task set
+     * @param time the simulation time in time units
+     * @param algorithms the partition, scheduling, protocol and DVFS class
+     *                   names, without their implementation package
+     * @param setup adjusts the simulator before it starts, or null
+     * @return the simulator after the run
+     */
+    static Simulator simulate(DataSetting ds, long time, String[] algorithms, Consumer<Simulator> setup) throws Exception {
+        return silently(() -> {
+            SimulationContext context = ds.getTaskSet().getSimulationContext();
+            Simulator simulator = new Simulator(context);
+            simulator.setSimulationTime(context.toSimulationTime(time));
+            simulator.loadDataSetting(ds);
+            simulator.getProcessor().setSchedAlgorithm((schedulingAlgorithm.PriorityDrivenSchedulingAlgorithm)
+                    newInstance("schedulingAlgorithm.implementation." + algorithms[1]));
+            simulator.getProcessor().setPartitionAlgorithm((PartitionAlgorithm.PartitionAlgorithm)
+                    newInstance("PartitionAlgorithm.implementation." + algorithms[0]));
+            simulator.getProcessor().setCCProtocol((concurrencyControlProtocol.ConcurrencyControlProtocol)
+                    newInstance("concurrencyControlProtocol.implementation." + algorithms[2]));
+            simulator.getProcessor().setDVFSMethod((dynamicVoltageAndFrequencyScalingMethod.DynamicVoltageAndFrequencyScalingMethod)
+                    newInstance("dynamicVoltageAndFrequencyScalingMethod.implementation." + algorithms[3]));
+            if (setup != null) {
+                setup.accept(simulator);
+            }
+            simulator.start();
+            return simulator;
+        });
+    }
+
+    /**
+     * Runs a call with {@code System.out} silenced. A simulation context
+     * logs to the {@code System.out} of the time it was created, so create it
+     * inside the call as well.
+     */
+    static <T> T silently(Callable<T> call) throws Exception {
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        try {
+            return call.call();
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * Writes a periodic workload with implicit deadlines to a temporary file.
+     *
+     * @param resourceCount the number of resources, with IDs from 1
+     * @param tasks the period and computation amount of each task
+     * @param criticalSections the {@code <criticalSection>} lines of each
+     *                         task, or null for tasks without any
+     */
+    static File writeWorkload(int resourceCount, long[][] tasks, String[] criticalSections) throws Exception {
+        File workload = File.createTempFile("workload", ".xml");
+        workload.deleteOnExit();
+        try (FileWriter w = new FileWriter(workload)) {
+            w.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
+            w.write("<workload baseSpeed=\"1000\" numResource=\"0\" numTask=\"" + tasks.length + "\">\n");
+            for (int r = 1; r <= resourceCount; r++) {
+                w.write("    <resources ID=\"" + r + "\" quantity=\"1\"/>\n");
+            }
+            for (int i = 0; i < tasks.length; i++) {
+                w.write("    <task ID=\"" + (i + 1) + "\" type=\"periodic\">\n");
+                w.write("        <arrivalTime>0</arrivalTime>\n        <period>" + tasks[i][0] + "</period>\n");
+                w.write("        <relativeDeadline>" + tasks[i][0] + "</relativeDeadline>\n");
+                w.write("        <computationAmount>" + tasks[i][1] + "</computationAmount>\n");
+                if (criticalSections != null) {
+                    w.write("        <criticalSections>\n");
+                    w.write(criticalSections[i]);
+                    w.write("        </criticalSections>\n");
+                }
+                w.write("    </task>\n");
+            }
+            w.write("</workload>\n");
+        }
+        return workload;
+    }
+
+    static String criticalSection(long start, long end, int resource) {
+        return "            <criticalSection endTime=\"" + end + "\" resourceID=\"" + resource
+                + "\" startTime=\"" + start + "\"/>\n";
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Trace level and trace sink test
+ */
+package test;
+
+import RTSimulator.BinaryTraceSink;
+import RTSimulator.Definition.TraceLevel;
+import RTSimulator.RTSimulator;
+import RTSimulator.RingBufferTraceSink;
+import RTSimulator.TraceSink;
+import SystemEnvironment.SimulationContext;
+import WorkLoadSet.DataSetting;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Vector;
+import scriptsetter.Script;
+import scriptsetter.ScriptRunnable;
+
+import static test.TestSupport.check;
+import static test.TestSupport.finish;
+import static test.TestSupport.printHeader;
+import static test.TestSupport.read;
+
+/**
+ * Runs the single-core example with different trace levels and sinks and
+ * checks what reaches each sink, and that a script run gives the calling
+ * thread its trace settings back.
+ *
+ * @author ShiuJia
+ */
+public class TraceSinkTest {
+
+    private static final String BASE_PATH = "RTSimulator_examples/Single_Core Scheduling Example/";
+
+    public static void main(String[] args) throws Exception {
+        printHeader("Trace Sink Test");
+
+        RingBufferTraceSink off = new RingBufferTraceSink(16);
+        simulate(off, TraceLevel.OFF);
+        check("OFF traces nothing", off.getLines().isEmpty());
+
+        RingBufferTraceSink info = new RingBufferTraceSink(16);
+        simulate(info, TraceLevel.INFO);
+        Vector<String> lines = info.getLines();
+        check("INFO traces only the run summary",
+                lines.size() == 4 && lines.firstElement().equals("Start") && lines.lastElement().equals("End"));
+
+        RingBufferTraceSink ring = new RingBufferTraceSink(8);
+        simulate(ring, TraceLevel.DEBUG);
+        check("ring buffer keeps the last lines", ring.getLines().size() == 8 && ring.getLines().lastElement().equals("End"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryTraceSink binary = new BinaryTraceSink(bytes);
+        simulate(binary, TraceLevel.INFO);
+        binary.close();
+        RingBufferTraceSink replayed = new RingBufferTraceSink(16);
+        BinaryTraceSink.replay(new ByteArrayInputStream(bytes.toByteArray()), replayed);
+        check("binary trace replays the same lines", replayed.getLines().equals(lines));
+
+        RingBufferTraceSink caller = new RingBufferTraceSink(16);
+        RTSimulator.setTrace(caller, TraceLevel.INFO);
+        boolean restored = true;
+        for (String scheduling : new String[] { "RMS", "NoSuchAlgorithm" }) {
+            try {
+                runScript(scheduling);
+            } catch (Exception ex) {
+                // the failing run must restore the settings as well
+            }
+            restored &= RTSimulator.getTraceSink() == caller && RTSimulator.getTraceLevel() == TraceLevel.INFO;
+        }
+        RTSimulator.setTrace(TraceSink.STDOUT, TraceLevel.DEBUG);
+        check("script runs restore the trace settings of the caller", restored && caller.getLines().isEmpty());
+
+        finish();
+    }
+
+    private static void runScript(String scheduling) throws Exception {
+        Script s = new Script("A");
+        s.setWorkloadSite(BASE_PATH);
+        s.setProcessorSite(BASE_PATH + "processor.xml");
+        s.setPartitionAlgorithm("FF");
+        s.setSchedulingAlgorithm(scheduling);
+        s.setCCProtocol("NPCS");
+        s.setDVFSMethod("MaxSpeed");
+        s.setSimulationTime("20");
+        SimulationContext context = new SimulationContext(2);
+        context.setTraceLevel(TraceLevel.OFF);
+        new ScriptRunnable(s, "workload", context).simulate();
+    }
+
+    private static void simulate(TraceSink sink, TraceLevel level) throws Exception {
+        SimulationContext context = new SimulationContext(2);
+        context.setTraceSink(sink);
+        context.setTraceLevel(level);
+        context.setLogStream(null);
+        DataSetting ds = read(context, BASE_PATH + "workload.xml", BASE_PATH + "processor.xml");
+        TestSupport.simulate(ds, 50, new String[] {"None", "RMS", "PIP", "MaxSpeed"}, null);
+    }
+}
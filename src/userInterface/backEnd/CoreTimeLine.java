@@ -8,8 +8,9 @@ package userInterface.backEnd;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.text.DecimalFormat;
-import java.util.ArrayList;
+import java.util.HashMap;
 import RTSimulator.Definition.CoreStatus;
 
 /**
@@ -47,7 +48,11 @@ public class CoreTimeLine
     int ID;
     Point o; //時間軸起始位置 (origin of the time axis)
     ScheduleResult parent;
-    ArrayList<TaskExecution> executions; 
+    ExecutionIndex executions; //依開始時間排序
+    int resourceRows = 0; //最多同時使用的資源數
+    int labelMargin = 50; //時間標籤超出區段的寬度
+    DecimalFormat df = new DecimalFormat("##.00");
+    HashMap<Integer, TimeLineSummary> summaries = new HashMap<Integer, TimeLineSummary>(); //依比例尺的概觀
     
     Color[] resourceColor = new Color[]
             {
@@ -91,31 +96,36 @@ public class CoreTimeLine
         parent = sr;
         ID = Integer.parseInt(id);
         o = new Point(100, 200 + i * this.parent.getTaskGap());
-        executions = new ArrayList<TaskExecution>();
+        executions = new ExecutionIndex();
     }
 
     /**
      * Appends a {@link TaskExecution} segment (execution, wait, context switch,
      * migration, error marker) to this timeline. The segment will later be
      * rendered in {@link #drawItself(Graphics)} and resources shown via
-     * {@link #drawResources(TimeLineResult)}.
+     * {@link #drawResources(Graphics)}.
      *
-     * @param te the execution segment to add (order determines draw layering)
+     * @param te the execution segment to add (segments are drawn in start time order)
      */
     public void addExecution(TaskExecution te) //E,X 狀態 (execution or other status segment)
     {
         executions.add(te);
+        resourceRows = Math.max(resourceRows, te.getResourceUsages().size());
     }
     
     /**
-     * Renders the entire core timeline onto the provided graphics context.
+     * Renders the core timeline onto the provided graphics context. Only the
+     * tick marks and segments inside the clip of {@code g} are drawn, the
+     * segments being found through the start time index. When the segments
+     * are on average narrower than two pixels, a per column
+     * {@link TimeLineSummary} of the zoom level is drawn instead of them.
      * <p>
      * Drawing steps:
      * <ol>
      *   <li>Draws auxiliary task lane ("Task") and primary time axis, including
      *       arrowheads and tick marks, respecting parent scaling and label
      *       density (scale heuristic).</li>
-     *   <li>Iterates each {@link TaskExecution} and paints a colored rectangle
+     *   <li>Iterates each visible {@link TaskExecution} and paints a colored rectangle
      *       whose style (height, color, half vs full bar) depends on its
      *       {@link CoreStatus} (MIGRATION=blue half bar, CONTEXTSWITCH=light gray
      *       half bar, WAIT=filled full bar, EXECUTION=outlined bar, WRONG=red X).</li>
@@ -125,8 +135,7 @@ public class CoreTimeLine
      *       non-zero (reduces clutter).</li>
      * </ol>
      * Resource usage rectangles are not drawn here; see
-     * {@link #drawResources(TimeLineResult)} and
-     * {@link #reDrawResources(TimeLineResult, Graphics)}.
+     * {@link #drawResources(Graphics)}.
      *
      * @param g the graphics context to draw into (coordinates relative to UI component)
      */
@@ -135,6 +144,17 @@ public class CoreTimeLine
         int baseunit = this.parent.getBaseunit();
         double finalTime = this.parent.getFinalTime();
         int yHeight = o.y+65;
+        Rectangle clip = g.getClipBounds();
+        
+        if(!this.isVisible(clip))
+        {
+            return;
+        }
+        
+        double from = this.getVisibleFrom(clip);
+        double to = this.getVisibleTo(clip);
+        int firstTick = Math.max(0, (int)Math.ceil(from));
+        int lastTick = (int)Math.floor(Math.min(finalTime, to));
         
         { //TaskLine
             for(int i = -1 ; i<=1 ; i++) //畫時間軸
@@ -149,7 +169,7 @@ public class CoreTimeLine
                                (int)(o.x + baseunit * (finalTime+ 1 ) - 10), yHeight + i - 10);
             }
 
-            for(int i = 0 ; i <= finalTime ; i++) //畫時間軸刻度
+            for(int i = firstTick ; i <= lastTick ; i++) //畫時間軸刻度
             { 
                 g.drawLine( o.x + i * baseunit, yHeight, o.x + i * baseunit, yHeight + 5);
             }
@@ -167,7 +187,7 @@ public class CoreTimeLine
                            (int)(o.x + baseunit * (finalTime+ 1 ) - 10), o.y + i - 10);
         }
         
-        for(int i = 0 ; i <= finalTime ; i++) //畫時間軸刻度
+        for(int i = firstTick ; i <= lastTick ; i++) //畫時間軸刻度
         { 
             g.drawLine( o.x + i * baseunit, o.y, o.x + i * baseunit, o.y + 5);
             
@@ -188,8 +208,22 @@ public class CoreTimeLine
             }
         }
 
-        for(TaskExecution te : executions)
+        TimeLineSummary summary = this.getSummary();
+        int firstExecution = executions.size(); //概觀時不畫個別區段
+        
+        if(summary != null)
+        {
+            this.drawSummary(g, summary, from, to, yHeight);
+        }
+        else
         {
+            firstExecution = executions.firstEndingFrom(from);
+        }
+        
+        for(int n = firstExecution ; n < executions.size() && executions.get(n).getStartTime() <= to ; n++)
+        {
+            TaskExecution te = executions.get(n);
+            
             if(te.getStatus() == CoreStatus.MIGRATION)
             {
                 g.setColor(Color.BLUE);
@@ -217,7 +251,6 @@ public class CoreTimeLine
                     g.setColor(Color.black);
                 }
                 
-                DecimalFormat df = new DecimalFormat("##.00");
                 double time = Double.parseDouble(df.format(te.getStartTime()));
                 
                 if(((int)(time*10)%10)!=0)
@@ -261,7 +294,6 @@ public class CoreTimeLine
                     g.setColor(Color.black);
                 }
                 
-                DecimalFormat df = new DecimalFormat("##.00");
                 double time = Double.parseDouble(df.format(te.getStartTime()));
                 
                 if(((int)(time*10)%10)!=0)
@@ -304,7 +336,6 @@ public class CoreTimeLine
                     g.setColor(Color.black);
                 }
                 
-                DecimalFormat df = new DecimalFormat("##.00");
                 double time = Double.parseDouble(df.format(te.getStartTime()));
                 
                 if(((int)(time*10)%10)!=0)
@@ -357,7 +388,6 @@ public class CoreTimeLine
                     g.setColor(Color.black);
                 }
                 
-                DecimalFormat df = new DecimalFormat("##.00");
                 double time = Double.parseDouble(df.format(te.getStartTime()));
                 
                 if(((int)(time*10)%10)!=0)
@@ -380,73 +410,217 @@ public class CoreTimeLine
     }
 
     /**
-     * Adds visual resource usage panels for each EXECUTION segment into the
-     * provided timeline result container and positions them (without drawing
-     * their contents). Invoked prior to a paint pass so that the UI components
-     * are laid out.
+     * Paints the resources locked during each visible EXECUTION segment as
+     * stacked colored bars above the segment, labelled with the resource set
+     * ID, instance number and total amount when the width allows. Colors are
+     * selected from {@link #resourceColor} by resource set ID; text color is
+     * inverted with {@link #reverseColor(Color)}. Only segments inside the
+     * clip of {@code g} are visited.
      *
-     * @param rv the container accumulating resource panels for later rendering
+     * @param g the graphics context used for immediate painting
      */
-    public void drawResources(TimeLineResult rv)
+    public void drawResources(Graphics g)
     {
-        for(TaskExecution te : executions)
+        int baseunit = parent.getBaseunit();
+        Rectangle clip = g.getClipBounds();
+        
+        if(!this.isVisible(clip))
         {
+            return;
+        }
+        
+        if(this.getSummary() != null) //區段太窄，概觀不畫資源
+        {
+            return;
+        }
+        
+        double from = this.getVisibleFrom(clip);
+        double to = this.getVisibleTo(clip);
+        
+        for(int n = executions.firstEndingFrom(from) ; n < executions.size() && executions.get(n).getStartTime() <= to ; n++)
+        {
+            TaskExecution te = executions.get(n);
+            
             if(te.getStatus() == CoreStatus.EXECUTION)
             {
                 int i=0;
-                for(ResourcePanel reP : te.getResourcePanels())
+                for(ResourceUsage ru : te.getResourceUsages())
                 {
                     i++;
-                    rv.add(reP);
-                    reP.setBounds((int)(o.x + te.getStartTime() * parent.getBaseunit()), o.y - i * this.resourceHeight, (int)(te.getExecutionTime() * parent.getBaseunit()), this.resourceHeight);
+                    g.setColor(resourceColor[Integer.parseInt(ru.getResourcesID()) - 1]);
+                    g.fillRect((int)(o.x + te.getStartTime() * baseunit)+1, o.y-i * this.resourceHeight, (int)(te.getExecutionTime() * baseunit) - 1, this.resourceHeight-1);
+                    g.setColor(reverseColor(resourceColor[Integer.parseInt(ru.getResourcesID()) - 1]));
+                    char[] data = ru.getToolTipText().toCharArray();
+
+                    if((int)(te.getExecutionTime() * baseunit) > data.length * 8)
+                    {
+                        g.drawChars(data, 0, data.length, (int)(o.x + te.getStartTime() * baseunit) + 2, o.y - i * this.resourceHeight + this.resourceHeight - 2);
+                    }
+                    else if((int)((te.getExecutionTime() * baseunit) / 8) > 1)
+                    {
+                        g.drawChars(data, 0, (int)((te.getExecutionTime() * baseunit) / 8), (int)(o.x + te.getStartTime() * baseunit) + 2, o.y - i * this.resourceHeight + this.resourceHeight - 2);
+                    }
+                    
+                    g.setColor(Color.BLACK);
                 }
             }
         }
     }
-
+    
     /**
-     * Repositions and redraws resource usage rectangles for EXECUTION segments
-     * directly onto the supplied graphics context, also writing textual labels
-     * (resource set ID, instance number, and total amount) when width allows.
-     * Typically called during repaint to refresh visual alignment after scale
-     * or size changes.
+     * Returns the tooltip of the resource bar under a point, replacing the
+     * tooltips the resources had as Swing components.
      *
-     * @param rv the timeline result container holding existing resource panels
-     * @param g  the graphics context used for immediate painting
+     * @param p point in the coordinates of the timeline container
+     * @return the resource description, or null if no resource bar is there
      */
-    public void reDrawResources(TimeLineResult rv ,Graphics g)
+    public String getResourceToolTipText(Point p)
     {
         int baseunit = parent.getBaseunit();
+        int i = (o.y - p.y + this.resourceHeight - 1) / this.resourceHeight; //由下往上第i個資源
         
-        for(TaskExecution te : executions)
+        if(o.y - p.y <= 0 || i > this.resourceRows)
         {
-            if(te.getStatus() == CoreStatus.EXECUTION)
+            return null;
+        }
+        
+        double time = (double)(p.x - o.x) / baseunit;
+        for(int n = executions.firstEndingFrom(time) ; n < executions.size() && executions.get(n).getStartTime() <= time ; n++)
+        {
+            TaskExecution te = executions.get(n);
+            
+            if(te.getStatus() == CoreStatus.EXECUTION && time < te.getEndTime() && i <= te.getResourceUsages().size())
             {
-                int i=0;
-                for(ResourcePanel reP : te.getResourcePanels())
-                {
-                    i++;
-                    reP.setBounds((int)(o.x + te.getStartTime() * baseunit), o.y-i * this.resourceHeight, (int)(te.getExecutionTime() * baseunit), this.resourceHeight);
-                  
-                    g.setColor(resourceColor[ Integer.parseInt(reP.getResourcesID()) -1]);
-                    
-                    g.fillRect((int)(o.x + te.getStartTime() * baseunit)+1, o.y-i * this.resourceHeight, (int)(te.getExecutionTime() * baseunit) - 1, this.resourceHeight-1);
-                    g.setColor(reverseColor(resourceColor[ Integer.parseInt(reP.getResourcesID()) -1]));
+                return te.getResourceUsages().get(i - 1).getToolTipText();
+            }
+        }
+        return null;
+    }
     
-                    char[] data = String.valueOf("R"+reP.getResourcesID()+"(" + reP.getResourceID() +"/" + reP.getResourcesAmount() +")").toCharArray();
-
-                    if((int)(te.getExecutionTime() * baseunit) > data.length * 8)
-                    {
-                        g.drawChars(data, 0, data.length, (int)(o.x + te.getStartTime() * baseunit) + 2, o.y - i * this.resourceHeight + this.resourceHeight - 2);
-                    }
-                    else if((int)((te.getExecutionTime() * baseunit) / 8) > 1)
-                    {
-                            g.drawChars(data, 0, (int)((te.getExecutionTime() * baseunit) / 8), (int)(o.x + te.getStartTime() * baseunit) + 2, o.y - i * this.resourceHeight + this.resourceHeight - 2);
-                    }
+    /**
+     * Returns the per column summary of the current zoom level when the
+     * segments are on average narrower than two pixels, building it the
+     * first time that zoom level is drawn.
+     *
+     * @return the summary, or null when the segments are drawn one by one
+     */
+    private TimeLineSummary getSummary()
+    {
+        int baseunit = this.parent.getBaseunit();
+        double finalTime = this.parent.getFinalTime();
+        
+        if(executions.size() * 2 < (finalTime + 1) * baseunit)
+        {
+            return null;
+        }
+        return summaries.computeIfAbsent(baseunit, u -> new TimeLineSummary(executions, u, finalTime, false));
+    }
+    
+    /**
+     * Draws the visible columns of a summary: one bar per column whose color
+     * is the dominant status and whose height is the busy fraction, the
+     * dominant task's color in the task lane, and miss markers.
+     *
+     * @param g the graphics context to draw into
+     * @param summary the summary of the current zoom level
+     * @param from start of the visible time range
+     * @param to end of the visible time range
+     * @param yHeight y of the task lane
+     */
+    private void drawSummary(Graphics g, TimeLineSummary summary, double from, double to, int yHeight)
+    {
+        int baseunit = this.parent.getBaseunit();
+        int first = Math.max(0, (int)Math.floor(from * baseunit));
+        int last = Math.min(summary.getColumns() - 1, (int)Math.ceil(to * baseunit));
+        
+        for(int c = first ; c <= last ; c++)
+        {
+            int x = o.x + c;
+            CoreStatus status = summary.getStatus(c);
+            
+            if(status != null)
+            {
+                int height = (status == CoreStatus.MIGRATION || status == CoreStatus.CONTEXTSWITCH) ? this.taskHeight/2 : this.taskHeight;
+                height = Math.max(1, Math.round(height * summary.getBusy(c)));
+                
+                if(status == CoreStatus.MIGRATION)
+                {
+                    g.setColor(Color.BLUE);
+                }
+                else if(status == CoreStatus.CONTEXTSWITCH)
+                {
+                    g.setColor(Color.LIGHT_GRAY);
+                }
+                else if(status == CoreStatus.WAIT)
+                {
                     g.setColor(Color.BLACK);
                 }
+                else
+                {
+                    g.setColor(Color.GRAY);
+                }
+                g.drawLine(x, o.y - height, x, o.y - 1);
+                
+                if(summary.getOwner(c) > 0)//TaskLine
+                {
+                    g.setColor(resourceColor[19 - (summary.getOwner(c)%19)-1]);
+                    g.drawLine(x, yHeight - 15, x, yHeight - 2);
+                }
+            }
+            
+            if(summary.isMiss(c))
+            {
+                g.setColor(Color.red);
+                
+                for(int i = 0 ; i<3 ; i++)
+                {
+                    g.drawString("X", x - 3, o.y - this.taskHeight - i);
+                }
             }
         }
+        
+        g.setColor(Color.black);
+    }
+    
+    /**
+     * Tests whether the band of this timeline, from the resource bars and
+     * markers above the axis to the lane below it, intersects a clip.
+     *
+     * @param clip clip rectangle, or null for the whole component
+     * @return true if something of this timeline may be visible
+     */
+    private boolean isVisible(Rectangle clip)
+    {
+        if(clip == null)
+        {
+            return true;
+        }
+        
+        int top = o.y - Math.max(this.taskHeight + 40, (this.resourceRows + 1) * this.resourceHeight);
+        int bottom = o.y + 80;
+        return clip.y <= bottom && clip.y + clip.height >= top;
+    }
+    
+    /**
+     * Returns the earliest time whose segments or labels can reach into a clip.
+     *
+     * @param clip clip rectangle, or null for the whole component
+     * @return start of the visible time range
+     */
+    private double getVisibleFrom(Rectangle clip)
+    {
+        return clip == null ? 0 : (double)(clip.x - o.x - this.labelMargin) / this.parent.getBaseunit();
+    }
+    
+    /**
+     * Returns the latest time whose segments or labels can reach into a clip.
+     *
+     * @param clip clip rectangle, or null for the whole component
+     * @return end of the visible time range
+     */
+    private double getVisibleTo(Rectangle clip)
+    {
+        return clip == null ? this.parent.getFinalTime() : (double)(clip.x + clip.width - o.x + this.labelMargin) / this.parent.getBaseunit();
     }
 
     /**
@@ -0,0 +1,134 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package userInterface.backEnd;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * The {@link TaskExecution} segments of one timeline kept sorted by start
+ * time, so a timeline only visits the segments of the visible time range.
+ *
+ * <p>Segments may be added in any order; they are stably sorted by start time
+ * on the first query after an addition. Alongside the sorted list the index
+ * keeps the running maximum of the end times, which never decreases, so the
+ * first segment that can reach into a range is found by binary search and
+ * the scan stops at the first segment starting after the range. A query
+ * costs O(log n + k) for k segments in or overlapping the range.</p>
+ *
+ * @author ShiuJia
+ */
+public class ExecutionIndex implements Iterable<TaskExecution>
+{
+    private ArrayList<TaskExecution> executions;
+    private double[] maxEndTime;//前i+1個區段中最晚的結束時間
+    private boolean sorted;
+
+    /**
+     * Creates an empty index.
+     */
+    public ExecutionIndex()
+    {
+        this.executions = new ArrayList<TaskExecution>();
+        this.maxEndTime = new double[0];
+        this.sorted = true;
+    }
+
+    /*Operating*/
+    /**
+     * Adds a segment.
+     *
+     * @param te the segment to add
+     */
+    public void add(TaskExecution te)
+    {
+        this.executions.add(te);
+        this.sorted = false;
+    }
+
+    private void sort()
+    {
+        if(this.sorted)
+        {
+            return;
+        }
+
+        this.executions.sort((a, b) -> Double.compare(a.getStartTime(), b.getStartTime()));
+        this.maxEndTime = new double[this.executions.size()];
+        double max = Double.NEGATIVE_INFINITY;
+        for(int i = 0 ; i < this.executions.size() ; i++)
+        {
+            max = Math.max(max, this.executions.get(i).getEndTime());
+            this.maxEndTime[i] = max;
+        }
+        this.sorted = true;
+    }
+
+    /*GetValue*/
+    /**
+     * Returns the position of the first segment that may overlap a range
+     * starting at {@code from}; every earlier segment ends before it.
+     * Callers scan from here while {@link #get(int)} starts no later than the
+     * end of their range.
+     *
+     * @param from start of the range in time units
+     * @return first candidate position, or {@link #size()} if none
+     */
+    public int firstEndingFrom(double from)
+    {
+        this.sort();
+
+        int low = 0;
+        int high = this.maxEndTime.length;
+        while(low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if(this.maxEndTime[mid] < from)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the segment at a position in start time order.
+     *
+     * @param i position
+     * @return the segment
+     */
+    public TaskExecution get(int i)
+    {
+        this.sort();
+        return this.executions.get(i);
+    }
+
+    /**
+     * Returns the number of segments.
+     *
+     * @return segment count
+     */
+    public int size()
+    {
+        return this.executions.size();
+    }
+
+    /**
+     * Iterates all segments in start time order.
+     *
+     * @return an iterator over the segments
+     */
+    @Override
+    public Iterator<TaskExecution> iterator()
+    {
+        this.sort();
+        return this.executions.iterator();
+    }
+}
@@ -69,7 +69,7 @@ public class MouseTimeLine extends JPanel
         {   
             try
             {
-                this.setBackground(this.parent.getResourceColor()[20 - re.getJob().getParentTask().getID()]);
+                this.setBackground(this.parent.getResourceColor()[20 - re.getTask().getID()]);
             }
             catch(Exception ex)
             {
@@ -6,13 +6,12 @@
 package userInterface.backEnd;
 
 import WorkLoad.CriticalSection;
-import javax.swing.JPanel;
 
 /**
- * Swing panel representing a single shared resource instance accessed within a
- * {@link CriticalSection} on the scheduling timeline.
+ * A single shared resource instance accessed within a {@link CriticalSection}
+ * on the scheduling timeline.
  *
- * <p>Each {@code ResourcePanel} derives three pieces of textual metadata from
+ * <p>Each {@code ResourceUsage} derives three pieces of textual metadata from
  * the provided critical section when constructed:
  * <ul>
  *   <li><strong>resourcesID</strong>: the identifier of the shared resource set (e.g. R set ID).</li>
@@ -21,31 +20,32 @@ import javax.swing.JPanel;
  * </ul>
  * These values are composed into a tooltip string of the form
  * {@code R<setID>(<instanceID>/<totalAmount>)} to aid quick inspection in the UI.
- * The panel itself can be colorized externally (e.g., by the timeline renderer)
- * and positioned according to the execution interval it belongs to.
+ * It is a plain value, not a Swing component: the timelines paint it as a
+ * colored bar above the execution interval it belongs to and answer its
+ * tooltip through {@link TimeLineResult#getToolTipText(java.awt.event.MouseEvent)}.
  *
  * @author ShiuJia
  */
-public class ResourcePanel extends JPanel
+public class ResourceUsage
 {
     private String resourcesID;
     private String resourceID;
     private String resourcesAmount;
+    private String toolTipText;
     
     /**
-     * Constructs a resource panel using metadata from a {@link CriticalSection}.
+     * Constructs a resource usage from the metadata of a {@link CriticalSection}.
      * Extracts the set ID, the instance ID actually locked by the job, and the
-     * total number of available instances, then sets a descriptive tooltip.
+     * total number of available instances, then composes the tooltip.
      *
      * @param cs the critical section describing the resource usage
      */
-    public ResourcePanel(CriticalSection cs)
+    public ResourceUsage(CriticalSection cs)
     {
-        super();
         resourcesID = String.valueOf(cs.getUseSharedResource().getID());
         resourcesAmount = String.valueOf(cs.getUseSharedResource().getResourcesAmount());
         resourceID = String.valueOf(cs.getResourceID());
-        this.setToolTipText("R"+resourcesID+"(" + resourceID +"/" + resourcesAmount +")");
+        toolTipText = "R"+resourcesID+"(" + resourceID +"/" + resourcesAmount +")";
     }
     
     /**
@@ -79,5 +79,16 @@ public class ResourcePanel extends JPanel
     public String getResourcesAmount()
     {
         return this.resourcesAmount;
-    }        
+    }
+    
+    /**
+     * Returns the descriptive tooltip, also used as the label painted inside
+     * the resource bar.
+     *
+     * @return text of the form {@code R<setID>(<instanceID>/<totalAmount>)}
+     */
+    public String getToolTipText()
+    {
+        return this.toolTipText;
+    }
 }
\ No newline at end of file
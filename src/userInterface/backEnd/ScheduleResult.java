@@ -14,8 +14,6 @@ import WorkLoadSet.DataSetting;
 import ResultSet.ResultSet;
 import ResultSet.SchedulingInfo;
 import RTSimulator.Definition;
-import WorkLoad.Task;
-import static RTSimulator.Definition.magnificationFactor;
 
 /**
  * Builds and holds the processed scheduling timeline data for visualization.
@@ -34,14 +32,16 @@ import static RTSimulator.Definition.magnificationFactor;
  * Inline comments (Chinese) have been integrated: 排程時間 (simulation time),
  * {@code Dictionary<ID, TaskTimeline / CoreTimeline>} describing maps from IDs to timelines,
  * baseunit 比例尺 (horizontal scaling in pixels per time unit), accuracy 時間精準度
- * (integer granularity used for indexing), and atbSet 儲存記錄佇列 (2‑D array that
- * stores references to scheduling info at each discrete time tick).
+ * (integer granularity used for indexing), and atbSet 儲存記錄佇列 (one
+ * {@link SchedulingInfoIndex} per row mapping time ticks to scheduling info).
  *
  * <p>Time scaling: {@link #simulationTime} is derived from the simulator's raw
- * simulation time divided by {@code magnificationFactor}. The 2‑D array
- * {@code atbSet} is sized as [taskOrCoreIndex][simulationTime * accuracy + 1].
- * Each cell holds the applicable {@link SchedulingInfo} reference for constant‑time
- * retrieval in hover/highlight operations.</p>
+ * simulation time divided by the magnification factor of the run's
+ * {@code SimulationContext}. {@code atbSet}
+ * holds one sorted interval index per task or core row over the ticks 0 to
+ * simulationTime * accuracy, so hover/highlight lookups cost O(log n) and the
+ * memory grows with the number of scheduling records, not with the length of
+ * the run.</p>
  *
  * @author ShiuJia
  */
@@ -57,14 +57,14 @@ public class ScheduleResult
     private int singleTaskGap = 200;
     /** Vertical gap between task lanes in multi‑core task view. */
     private int MCTaskGap = 250;
-    /** Total simulation time (scaled by magnificationFactor). */
+    /** Total simulation time (in workload time units). */
     private double simulationTime; //排程時間
     /** Map: task ID (String) -> its TaskTimeLine lane model. */
     private Dictionary<String, TaskTimeLine> taskTimeLines; //Dictionary<ID, Task時間軸>
     /** Map: core ID (String) -> its CoreTimeLine lane model. */
     private Dictionary<String, CoreTimeLine> coreTimeLines; //Dictionary<ID, Core時間軸>
-    /** 2‑D time indexed matrix of scheduling info references. */
-    private SchedulingInfo[][] atbSet;//儲存記錄佇列
+    /** Per-row interval index of scheduling info references. */
+    private SchedulingInfoIndex[] atbSet;//儲存記錄佇列
     /** Horizontal pixel scale factor (pixels per time unit). */
     private int baseunit = 40; //比例尺
     /** Time precision (number of discrete slices per time unit). */
@@ -86,14 +86,14 @@ public class ScheduleResult
         this.taskTimeLines = new Hashtable<String, TaskTimeLine>();
         this.coreTimeLines = new Hashtable<String, CoreTimeLine>();
         this.resultSet = this.parent.parent.parent.getSimulationViewer().getSimulator().getResultSet();
-        this.simulationTime = (double)this.parent.parent.parent.getSimulationViewer().getSimulationTime() / magnificationFactor;
+        this.simulationTime = this.parent.parent.parent.getSimulationViewer().getSimulator().getSimulationContext()
+                                  .toRealTime(this.parent.parent.parent.getSimulationViewer().getSimulationTime());
     }
     
     /**
      * Builds core timelines: allocates {@link CoreTimeLine} instances for every
-     * core, constructs a time indexed matrix (atbSet) sized by tasks ×
-     * (simulationTime * accuracy + 1), then iterates each core's scheduling info
-     * assigning references into {@code atbSet}. Finally converts each EXECUTION,
+     * core, builds one interval index (atbSet) per core row from each core's
+     * scheduling info, the last record reaching to the end of the run. Finally converts each EXECUTION,
      * WAIT, CONTEXTSWITCH and MIGRATION interval into a {@link TaskExecution} and
      * attaches it to the corresponding core timeline.
      */
@@ -108,24 +108,18 @@ public class ScheduleResult
            coreTimeLines.put(id , new CoreTimeLine(this, i, id));
         }
 
-        this.atbSet = new SchedulingInfo[ds.getTaskSet().size()][(int)(this.simulationTime * accuracy)+1];
+        this.createAtbSet(Math.max(ds.getTaskSet().size(), this.parent.getCores().size()), null);
 
         for(Core core : this.parent.getCores())
         {
             Vector<SchedulingInfo> schedulingInfoSet = core.getSchedulingInfoSet();
 
-            for (int i=0;i<schedulingInfoSet.size()-1;i++)
+            for (int i=0;i<schedulingInfoSet.size();i++)
             {
-                for(int j=Double.valueOf(schedulingInfoSet.get(i).getStartTime() * accuracy).intValue();j<Double.valueOf(schedulingInfoSet.get(i).getEndTime() * accuracy).intValue();j++)
-                {
-                    this.atbSet[core.getID()-1][j] = schedulingInfoSet.get(i);
-                }
-            }
-            for(int j = (int)(schedulingInfoSet.get(schedulingInfoSet.size()-1).getStartTime() * accuracy);j <= (int)(this.simulationTime * accuracy) ;j++)
-            {
-                this.atbSet[core.getID()-1][j] = schedulingInfoSet.get(schedulingInfoSet.size()-1);
+                this.addAtb(core.getID()-1, schedulingInfoSet, i);
             }
         }
+        this.buildAtbSet();
         
         CoreTimeLine ctl;
         
@@ -159,9 +153,9 @@ public class ScheduleResult
     
     /**
      * Builds task timelines: creates a {@link TaskTimeLine} for each task,
-     * allocates the time matrix {@code atbSet} (multi‑core: size tasks × time;
-     * single‑core: size 1 × time), populates references from scheduling info
-     * (mapping each interval to the owning task's index), adds execution‑related
+     * builds the interval indices {@code atbSet} (multi‑core: one row per task;
+     * single‑core: one row) from scheduling info (mapping each interval to the
+     * owning task's index), adds execution‑related
      * {@link TaskExecution} objects for relevant core statuses, adds deadline
      * miss markers, then prunes timelines with no recorded executions.
      */
@@ -178,38 +172,20 @@ public class ScheduleResult
                taskTimeLines.put(id , new TaskTimeLine(this, i, id));
             }
             
-            this.atbSet = new SchedulingInfo[ds.getTaskSet().size()][(int)(this.simulationTime * accuracy)+1];
-            
-            SchedulingInfo nullSInfo = new SchedulingInfo();
-            for(Task task : ds.getTaskSet())
-            {
-                for(int j=0;j<Double.valueOf(this.simulationTime * accuracy).intValue()+1;j++)
-                {
-                    this.atbSet[task.getID()-1][j] = nullSInfo;
-                }
-            }
+            this.createAtbSet(ds.getTaskSet().size(), new SchedulingInfo());
             
             for(Core core : this.parent.getCores())
             {
                 Vector<SchedulingInfo> schedulingInfoSet = core.getSchedulingInfoSet();
-                for (int i=0;i<schedulingInfoSet.size()-1;i++)
+                for (int i=0;i<schedulingInfoSet.size();i++)
                 {
-                    if(schedulingInfoSet.get(i).getJob() != null)
+                    if(schedulingInfoSet.get(i).hasJob())
                     {
-                        for(int j=Double.valueOf(schedulingInfoSet.get(i).getStartTime() * accuracy).intValue();j<Double.valueOf(schedulingInfoSet.get(i).getEndTime() * accuracy).intValue();j++)
-                        {
-                            this.atbSet[schedulingInfoSet.get(i).getJob().getParentTask().getID()-1][j] = schedulingInfoSet.get(i);
-                        }
-                    }
-                }
-                for(int j = (int)(schedulingInfoSet.get(schedulingInfoSet.size()-1).getStartTime() * accuracy);j <= (int)(this.simulationTime * accuracy) ;j++)
-                {
-                    if(schedulingInfoSet.get(schedulingInfoSet.size()-1).getJob() != null)
-                    {
-                        this.atbSet[schedulingInfoSet.get(schedulingInfoSet.size()-1).getJob().getParentTask().getID()-1][j] = schedulingInfoSet.get(schedulingInfoSet.size()-1);
+                        this.addAtb(schedulingInfoSet.get(i).getTask().getIndex(), schedulingInfoSet, i);
                     }
                 }
             }
+            this.buildAtbSet();
         }
         else
         {
@@ -220,18 +196,12 @@ public class ScheduleResult
                String id = String.valueOf(ds.getTask(i).getID());
                taskTimeLines.put(id , new TaskTimeLine(this, i, id));
             }
-            this.atbSet = new SchedulingInfo[1][(int)(this.simulationTime * accuracy)+1];
-            for (int i=0;i<record.size()-1;i++)
+            this.createAtbSet(1, null);
+            for (int i=0;i<record.size();i++)
             {
-                for(int j=Double.valueOf(record.get(i).getStartTime() * accuracy).intValue();j<Double.valueOf(record.get(i).getEndTime() * accuracy).intValue();j++)
-                {
-                    this.atbSet[0][j] = record.get(i);
-                }
-            }
-            for(int j = (int)(record.get(record.size()-1).getStartTime() * accuracy);j <= (int)(this.simulationTime * accuracy) ;j++)
-            {
-                this.atbSet[0][j] = record.get(record.size()-1);
+                this.addAtb(0, record, i);
             }
+            this.buildAtbSet();
         }
         
         TaskTimeLine ttl;
@@ -242,22 +212,22 @@ public class ScheduleResult
             {  
                 if(curResult.getCoreStatus() == Definition.CoreStatus.EXECUTION )
                 {
-                    ttl = this.taskTimeLines.get(String.valueOf(curResult.getJob().getParentTask().getID()));
+                    ttl = this.taskTimeLines.get(String.valueOf(curResult.getTask().getID()));
                     ttl.addExecution(new TaskExecution(curResult));
                 }
                 else if(curResult.getCoreStatus() == Definition.CoreStatus.WAIT)
                 {
-                    ttl = this.taskTimeLines.get(String.valueOf(curResult.getJob().getParentTask().getID()));
+                    ttl = this.taskTimeLines.get(String.valueOf(curResult.getTask().getID()));
                     ttl.addExecution(new TaskExecution(curResult));
                 }
                 else if(curResult.getCoreStatus() == Definition.CoreStatus.CONTEXTSWITCH)
                 {
-                    ttl = this.taskTimeLines.get(String.valueOf(curResult.getJob().getParentTask().getID()));
+                    ttl = this.taskTimeLines.get(String.valueOf(curResult.getTask().getID()));
                     ttl.addExecution(new TaskExecution(curResult));
                 }
                 else if(curResult.getCoreStatus() == Definition.CoreStatus.MIGRATION)
                 {
-                    ttl = this.taskTimeLines.get(String.valueOf(curResult.getJob().getParentTask().getID()));
+                    ttl = this.taskTimeLines.get(String.valueOf(curResult.getTask().getID()));
                     ttl.addExecution(new TaskExecution(curResult));
                 }
             }
@@ -271,6 +241,49 @@ public class ScheduleResult
         this.removeNeedlessTaskTimeLine();
     }
     
+    /**
+     * Creates one empty interval index per row over the ticks 0 to
+     * simulationTime * accuracy.
+     *
+     * @param rows number of rows
+     * @param defaultInfo info of ticks without a record (may be null)
+     */
+    private void createAtbSet(int rows, SchedulingInfo defaultInfo)
+    {
+        this.atbSet = new SchedulingInfoIndex[rows];
+        for(int i = 0; i < rows; i++)
+        {
+            this.atbSet[i] = new SchedulingInfoIndex(defaultInfo, (int)(this.simulationTime * accuracy));
+        }
+    }
+    
+    /**
+     * Adds the i-th record of a core to a row of {@code atbSet}. The last
+     * record of the core reaches to the end of the run.
+     *
+     * @param row row index
+     * @param record scheduling info of one core
+     * @param i position of the record
+     */
+    private void addAtb(int row, Vector<SchedulingInfo> record, int i)
+    {
+        SchedulingInfo si = record.get(i);
+        int start = (int)(si.getStartTime() * accuracy);
+        int end = i < record.size()-1 ? (int)(si.getEndTime() * accuracy) : (int)(this.simulationTime * accuracy)+1;
+        this.atbSet[row].add(start, end, si);
+    }
+    
+    /**
+     * Flattens every row of {@code atbSet} for lookups.
+     */
+    private void buildAtbSet()
+    {
+        for(SchedulingInfoIndex index : this.atbSet)
+        {
+            index.build();
+        }
+    }
+    
     /**
      * Removes task timelines that have zero execution intervals (filter out
      * tasks that never became active during the simulation window).
@@ -290,15 +303,16 @@ public class ScheduleResult
     
     /**
      * Retrieves the {@link SchedulingInfo} reference at a given task index and
-     * accuracy‑scaled time tick.
+     * accuracy‑scaled time tick in O(log n).
      *
-     * @param taskID zero‑based (for multi‑core task timelines: taskID-1 matches array row)
+     * @param taskID zero‑based row (task index for multi‑core task timelines, core ID-1 for core timelines)
      * @param time discrete time index (scaled by {@link #accuracy})
-     * @return scheduling info stored at that position (may be the last interval or a null placeholder)
+     * @return scheduling info covering that position (may be the last interval or a null placeholder)
+     * @throws ArrayIndexOutOfBoundsException if the row or tick is out of range
      */
     public SchedulingInfo getAtbSet(int taskID , int time)
     {
-        return this.atbSet[taskID][time];
+        return this.atbSet[taskID].get(time);
     }
     
     /**
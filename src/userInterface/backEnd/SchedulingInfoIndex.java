@@ -0,0 +1,200 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package userInterface.backEnd;
+
+import ResultSet.SchedulingInfo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Sorted interval index answering which {@link SchedulingInfo} covers a time
+ * tick of one timeline row, used for the hover and click lookups of
+ * {@link TimeLineResult}.
+ *
+ * <p>Intervals are given in ticks (time &times; accuracy) through
+ * {@link #add(int, int, SchedulingInfo)}. When intervals overlap, the one
+ * added last wins, the same as writing them one after another into a tick
+ * array. {@link #build()} flattens them once into disjoint runs sorted by
+ * start tick, so a lookup is a binary search, O(log n), and the memory is
+ * proportional to the number of intervals instead of to time &times;
+ * accuracy.</p>
+ *
+ * @author ShiuJia
+ */
+public class SchedulingInfoIndex
+{
+    /** Intervals added so far, in adding order; dropped by {@link #build()}. */
+    private ArrayList<Interval> pending;
+    /** Start tick of each disjoint run (inclusive), ascending. */
+    private int[] startTick;
+    /** End tick of each run (exclusive). */
+    private int[] endTick;
+    /** Scheduling info of each run. */
+    private SchedulingInfo[] info;
+    /** Number of runs. */
+    private int size;
+    /** Info returned for ticks no interval covers. */
+    private SchedulingInfo defaultInfo;
+    /** Last valid tick (inclusive). */
+    private int lastTick;
+
+    private static class Interval
+    {
+        int start;
+        int end;
+        int order;//加入的順序，後加入的優先
+        SchedulingInfo info;
+    }
+
+    /**
+     * Creates an empty index over ticks 0 to {@code lastTick}.
+     *
+     * @param defaultInfo info returned where no interval was added (may be null)
+     * @param lastTick last valid tick, inclusive
+     */
+    public SchedulingInfoIndex(SchedulingInfo defaultInfo, int lastTick)
+    {
+        this.pending = new ArrayList<Interval>();
+        this.startTick = new int[0];
+        this.endTick = new int[0];
+        this.info = new SchedulingInfo[0];
+        this.size = 0;
+        this.defaultInfo = defaultInfo;
+        this.lastTick = lastTick;
+    }
+
+    /*Operating*/
+    /**
+     * Adds an interval covering ticks {@code start} (inclusive) to
+     * {@code end} (exclusive). It overrides earlier intervals where they
+     * overlap. Empty intervals are ignored.
+     *
+     * @param start first tick covered
+     * @param end tick after the last one covered
+     * @param si scheduling info of the interval
+     */
+    public void add(int start, int end, SchedulingInfo si)
+    {
+        if(start >= end)
+        {
+            return;
+        }
+
+        Interval in = new Interval();
+        in.start = start;
+        in.end = end;
+        in.order = this.pending.size();
+        in.info = si;
+        this.pending.add(in);
+    }
+
+    /**
+     * Flattens the added intervals into disjoint runs. Sweeps the interval
+     * boundaries in order, keeping the covering intervals in a heap by adding
+     * order, so the cost is O(n log n) for n intervals.
+     */
+    public void build()
+    {
+        int n = this.pending.size();
+        Interval[] byStart = this.pending.toArray(new Interval[n]);
+        Arrays.sort(byStart, (a, b) -> Integer.compare(a.start, b.start));
+
+        int[] bounds = new int[n * 2];
+        for(int i = 0 ; i < n ; i++)
+        {
+            bounds[i * 2] = byStart[i].start;
+            bounds[i * 2 + 1] = byStart[i].end;
+        }
+        Arrays.sort(bounds);
+
+        this.startTick = new int[n * 2];
+        this.endTick = new int[n * 2];
+        this.info = new SchedulingInfo[n * 2];
+        this.size = 0;
+
+        PriorityQueue<Interval> covering = new PriorityQueue<Interval>((a, b) -> Integer.compare(b.order, a.order));
+        int next = 0;
+        for(int i = 0 ; i < bounds.length - 1 ; i++)
+        {
+            int from = bounds[i];
+            int to = bounds[i + 1];
+            if(from == to)
+            {
+                continue;
+            }
+
+            while(next < n && byStart[next].start <= from)
+            {
+                covering.add(byStart[next++]);
+            }
+            while(!covering.isEmpty() && covering.peek().end <= from)
+            {
+                covering.poll();
+            }
+            if(covering.isEmpty())
+            {
+                continue;
+            }
+
+            SchedulingInfo si = covering.peek().info;
+            if(this.size > 0 && this.endTick[this.size - 1] == from && this.info[this.size - 1] == si)
+            {
+                this.endTick[this.size - 1] = to;
+            }
+            else
+            {
+                this.startTick[this.size] = from;
+                this.endTick[this.size] = to;
+                this.info[this.size] = si;
+                this.size++;
+            }
+        }
+
+        this.startTick = Arrays.copyOf(this.startTick, this.size);
+        this.endTick = Arrays.copyOf(this.endTick, this.size);
+        this.info = Arrays.copyOf(this.info, this.size);
+        this.pending = new ArrayList<Interval>();
+    }
+
+    /*GetValue*/
+    /**
+     * Returns the scheduling info covering a tick.
+     *
+     * @param tick time index scaled by the accuracy
+     * @return the info of the last interval added over the tick, or the
+     *         default info if none covers it
+     * @throws ArrayIndexOutOfBoundsException if the tick is outside 0 to the last tick
+     */
+    public SchedulingInfo get(int tick)
+    {
+        if(tick < 0 || tick > this.lastTick)
+        {
+            throw new ArrayIndexOutOfBoundsException(tick);
+        }
+
+        int run = Arrays.binarySearch(this.startTick, 0, this.size, tick);
+        if(run < 0)
+        {
+            run = -run - 2;//開始時間不大於tick的最後一段
+        }
+        if(run >= 0 && tick < this.endTick[run])
+        {
+            return this.info[run];
+        }
+        return this.defaultInfo;
+    }
+
+    /**
+     * Returns the number of disjoint runs after {@link #build()}.
+     *
+     * @return the run count
+     */
+    public int size()
+    {
+        return this.size;
+    }
+}
@@ -26,9 +26,9 @@ import RTSimulator.Definition.CoreStatus;
  *   <li>executionTime: computed as endTime - startTime (zero for miss markers)</li>
  *   <li>speed: processing speed used during the segment (0 for WRONG)</li>
  *   <li>status: {@link CoreStatus} (EXECUTION, WAIT, CONTEXTSWITCH, MIGRATION, or WRONG)</li>
- *   <li>resourcePanels: UI helper panels representing resources locked in entered critical sections</li>
+ *   <li>resourceUsages: resources locked in entered critical sections</li>
  * </ul>
- * Resource panels are created from each {@link CriticalSection} present in the scheduling info's
+ * Resource usages are created from each {@link CriticalSection} present in the scheduling info's
  * entered critical section set at the moment of the segment start.
  *
  * @author ShiuJia
@@ -43,7 +43,7 @@ public class TaskExecution
     private double endTime;
     private double speed;
     private CoreStatus status;
-    private ArrayList<ResourcePanel> resourcePanels;
+    private ArrayList<ResourceUsage> resourceUsages;
 
     /**
      * Creates an empty TaskExecution with default values. Intended primarily
@@ -56,15 +56,15 @@ public class TaskExecution
     
     /**
      * Builds a TaskExecution segment from a {@link SchedulingInfo} describing a core interval.
-     * Populates IDs, times, status, speed and creates resource panels for each entered critical section.
+     * Populates IDs, times, status, speed and records the resource usage for each entered critical section.
      *
      * @param schedulingInfo the source scheduling record (must contain core, job, task, and status)
      */
     public TaskExecution(SchedulingInfo schedulingInfo)
     {
         this.coreID = schedulingInfo.getCore().getID();
-        this.taskID = schedulingInfo.getJob().getParentTask().getID();
-        this.jobID = schedulingInfo.getJob().getID();
+        this.taskID = schedulingInfo.getTask().getID();
+        this.jobID = schedulingInfo.getJobID();
         this.startTime = schedulingInfo.getStartTime();
         this.endTime= schedulingInfo.getEndTime();
         
@@ -89,12 +89,12 @@ public class TaskExecution
             speed = schedulingInfo.getUseSpeed();
         }
         
-        resourcePanels = new ArrayList<ResourcePanel>();
+        resourceUsages = new ArrayList<ResourceUsage>();
         executionTime=endTime-startTime;
         
         for(CriticalSection cs : schedulingInfo.getEnteredCriticalSectionSet())
         {
-            resourcePanels.add(new ResourcePanel(cs));
+            resourceUsages.add(new ResourceUsage(cs));
         }
     }
     
@@ -108,12 +108,12 @@ public class TaskExecution
     {
         this.coreID = 0;
         this.taskID = missDeadlineInfo.getMissTask().getID();
-        this.jobID = missDeadlineInfo.getMissJob().getID();
+        this.jobID = missDeadlineInfo.getMissJobID();
         this.startTime = missDeadlineInfo.getMissTime();
         this.endTime = this.startTime;
         this.status = CoreStatus.WRONG;
         this.speed = 0;
-        resourcePanels = new ArrayList<ResourcePanel>();
+        resourceUsages = new ArrayList<ResourceUsage>();
         executionTime=endTime-startTime;
         
     }
@@ -199,12 +199,12 @@ public class TaskExecution
     }
     
     /**
-     * Returns a list of resource panels representing each locked resource during the interval.
+     * Returns the resources locked during the interval.
      *
-     * @return list of resource panels (may be empty, never null)
+     * @return list of resource usages (may be empty, never null)
      */
-    public ArrayList<ResourcePanel> getResourcePanels()
+    public ArrayList<ResourceUsage> getResourceUsages()
     {
-        return this.resourcePanels;
+        return this.resourceUsages;
     }
 }
\ No newline at end of file
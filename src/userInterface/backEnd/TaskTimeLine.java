@@ -8,11 +8,12 @@ package userInterface.backEnd;
 import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.text.DecimalFormat;
-import java.util.ArrayList;
+import java.util.HashMap;
 import WorkLoad.Task;
 import RTSimulator.Definition.CoreStatus;
-import static RTSimulator.Definition.magnificationFactor;
+import SystemEnvironment.SimulationContext;
 
 /**
  * Timeline renderer for a single Task used by the back-end visualization.
@@ -45,7 +46,11 @@ public class TaskTimeLine
     Point o; //時間軸起始位置
     int ID;
     ScheduleResult parent;
-    ArrayList<TaskExecution> executions; 
+    ExecutionIndex executions; //依開始時間排序
+    int resourceRows = 0; //最多同時使用的資源數
+    int labelMargin = 50; //時間標籤超出區段的寬度
+    DecimalFormat df = new DecimalFormat("##.00");
+    HashMap<Integer, TimeLineSummary> summaries = new HashMap<Integer, TimeLineSummary>(); //依比例尺的概觀
     
     Color[] resourceColor = new Color[]
             {
@@ -87,7 +92,7 @@ public class TaskTimeLine
         //ID = new Integer(id).intValue();
         ID = Integer.parseInt(id);
         o = new Point(100, 200 + i * this.parent.getTaskGap());
-        executions = new ArrayList<TaskExecution>();
+        executions = new ExecutionIndex();
     }
 
     /**
@@ -100,10 +105,15 @@ public class TaskTimeLine
     public void addExecution(TaskExecution te) //E,X 狀態
     {
         executions.add(te);
+        resourceRows = Math.max(resourceRows, te.getResourceUsages().size());
     }
     
     /**
-     * Paints the complete task timeline onto the given {@link Graphics} context.
+     * Paints the task timeline onto the given {@link Graphics} context. Only
+     * the tick marks, markers and segments inside the clip of {@code g} are
+     * drawn, the segments being found through the start time index.
+     * When the segments are on average narrower than two pixels, a per
+     * column {@link TimeLineSummary} of the zoom level is drawn instead of them.
      *
      * <p>Steps:</p>
      * <ol>
@@ -113,7 +123,7 @@ public class TaskTimeLine
      *   <li>Render period/deadline markers via {@link #drawPeriod(Graphics)}.</li>
      *   <li>Render tick marks and numeric labels; label density depends on
      *       parent scale to avoid clutter.</li>
-     *   <li>For each {@link TaskExecution}, draw a rectangle depending on
+     *   <li>For each visible {@link TaskExecution}, draw a rectangle depending on
      *       {@link CoreStatus}: MIGRATION (blue, half height), CONTEXTSWITCH
      *       (light gray, half height), WAIT (filled), WRONG (red 'X'),
      *       EXECUTION (outlined). When multi-core, also draw a small bar in the
@@ -128,6 +138,17 @@ public class TaskTimeLine
         int baseunit = this.parent.getBaseunit();
         double finalTime = this.parent.getFinalTime();
         int yHeight = o.y+65;
+        Rectangle clip = g.getClipBounds();
+        
+        if(!this.isVisible(clip))
+        {
+            return;
+        }
+        
+        double from = this.getVisibleFrom(clip);
+        double to = this.getVisibleTo(clip);
+        int firstTick = Math.max(0, (int)Math.ceil(from));
+        int lastTick = (int)Math.floor(Math.min(finalTime, to));
         
         if(this.parent.isMultiCore)
         {
@@ -143,7 +164,7 @@ public class TaskTimeLine
                                (int)(o.x + baseunit * (finalTime+ 1 ) - 10), yHeight + i - 10);
             }
             
-            for(int i = 0 ; i <= finalTime ; i++) //畫時間軸刻度
+            for(int i = firstTick ; i <= lastTick ; i++) //畫時間軸刻度
             { 
                 g.drawLine( o.x + i * baseunit, yHeight, o.x + i * baseunit, yHeight + 5);
             }
@@ -165,7 +186,7 @@ public class TaskTimeLine
         
         drawPeriod(g);
 
-        for(int i = 0 ; i <= finalTime ; i++) //畫時間軸刻度
+        for(int i = firstTick ; i <= lastTick ; i++) //畫時間軸刻度
         { 
             g.drawLine( o.x + i * baseunit, o.y, o.x + i * baseunit, o.y + 5);
             
@@ -186,8 +207,22 @@ public class TaskTimeLine
             }
         }
 
-        for(TaskExecution te : executions)
+        TimeLineSummary summary = this.getSummary();
+        int firstExecution = executions.size(); //概觀時不畫個別區段
+        
+        if(summary != null)
+        {
+            this.drawSummary(g, summary, from, to, yHeight);
+        }
+        else
         {
+            firstExecution = executions.firstEndingFrom(from);
+        }
+        
+        for(int n = firstExecution ; n < executions.size() && executions.get(n).getStartTime() <= to ; n++)
+        {
+            TaskExecution te = executions.get(n);
+            
             if(te.getStatus() == CoreStatus.MIGRATION)
             {
                 g.setColor(Color.BLUE);
@@ -214,7 +249,6 @@ public class TaskTimeLine
                     g.setColor(Color.black);
                 }
                 
-                DecimalFormat df = new DecimalFormat("##.00");
                 double time = Double.parseDouble(df.format(te.getStartTime()));
                 
                 if(((int)(time*10)%10)!=0)
@@ -257,7 +291,6 @@ public class TaskTimeLine
                     g.setColor(Color.black);
                 }
                 
-                DecimalFormat df = new DecimalFormat("##.00");
                 double time = Double.parseDouble(df.format(te.getStartTime()));
                 
                 if(((int)(time*10)%10)!=0)
@@ -297,7 +330,6 @@ public class TaskTimeLine
                     g.setColor(Color.black);
                 }
                 
-                DecimalFormat df = new DecimalFormat("##.00");
                 double time = Double.parseDouble(df.format(te.getStartTime()));
                 
                 if(((int)(time*10)%10)!=0)
@@ -352,7 +384,6 @@ public class TaskTimeLine
                 }
                 
                 
-                DecimalFormat df = new DecimalFormat("##.00");
                 double time = Double.parseDouble(df.format(te.getStartTime()));
                 
                 if(((int)(time*10)%10)!=0)
@@ -379,7 +410,8 @@ public class TaskTimeLine
      * Draws period start markers (triangles) and relative deadline markers for
      * the task across the timeline using the parent's data setting. Period and
      * deadline values are converted from simulator time using
-     * the magnification factor.
+     * the magnification factor. Periods whose markers lie outside the clip of
+     * {@code g} are skipped.
      *
      * @param g the graphics context to draw into
      */
@@ -387,11 +419,17 @@ public class TaskTimeLine
     {
         int baseunit = this.parent.getBaseunit();
         double finalTime = this.parent.getFinalTime();
-        Task task = this.parent.parent.parent.getDataSetting().getTaskSet().getTask(this.ID-1);
-        double curPeriod = 0 + ((double)task.getEnterTime() / magnificationFactor);
-        double curDeadline = curPeriod - ((double)(task.getPeriod() - task.getRelativeDeadline()) / magnificationFactor);
+        Task task = this.parent.parent.parent.getDataSetting().getSymbolTable().getTaskByID(this.ID);
+        SimulationContext context = this.parent.parent.parent.getDataSetting().getSimulationContext();
+        Rectangle clip = g.getClipBounds();
+        double period = context.toRealTime(task.getPeriod());
+        double to = this.getVisibleTo(clip);
+        //從最後標記仍可能在畫面中的週期開始
+        int first = Math.max(0, (int)Math.floor((this.getVisibleFrom(clip) - context.toRealTime(task.getEnterTime()) - context.toRealTime(task.getRelativeDeadline())) / period));
+        double curPeriod = 0 + context.toRealTime(task.getEnterTime()) + first * period;
+        double curDeadline = curPeriod - context.toRealTime(task.getPeriod() - task.getRelativeDeadline());
         
-        for(int j = 0 ; j < (finalTime / ((double)task.getPeriod() / magnificationFactor)) ; j++)
+        for(int j = first ; j < (finalTime / period) && curPeriod <= to ; j++)
         {  
             if(curPeriod <= finalTime)
             {
@@ -405,8 +443,8 @@ public class TaskTimeLine
                 }
             }
 
-            curPeriod +=  ((double)task.getPeriod() / magnificationFactor);
-            curDeadline = curPeriod - ((double)(task.getPeriod() - task.getRelativeDeadline()) / magnificationFactor);
+            curPeriod +=  context.toRealTime(task.getPeriod());
+            curDeadline = curPeriod - context.toRealTime(task.getPeriod() - task.getRelativeDeadline());
             
             if(curDeadline <= finalTime)
             {
@@ -423,58 +461,47 @@ public class TaskTimeLine
     }
 
     /**
-     * Adds resource panels (one per locked resource within an EXECUTION segment)
-     * to the provided {@link TimeLineResult} container and positions them. These
-     * panels are standard Swing components that will be painted by the UI.
+     * Paints the resources locked during each visible EXECUTION segment as
+     * stacked colored bars above the segment, labelled with the resource set
+     * ID, instance number and total amount when the width allows. Colors are
+     * selected from {@link #resourceColor} by resource set ID; text color is
+     * inverted with {@link #reverseColor(Color)}. Only segments inside the
+     * clip of {@code g} are visited.
      *
-     * @param rv the timeline container which hosts resource panels
+     * @param g the graphics context used for immediate painting
      */
-    public void drawResources(TimeLineResult rv)
+    public void drawResources(Graphics g)
     {
-        for(TaskExecution te : executions)
+        int baseunit = parent.getBaseunit();
+        Rectangle clip = g.getClipBounds();
+        
+        if(!this.isVisible(clip))
         {
-            if(te.getStatus() == CoreStatus.EXECUTION)
-            {
-                int i=0;
-                for(ResourcePanel reP : te.getResourcePanels())
-                {
-                    i++;
-                    rv.add(reP);
-                    reP.setBounds((int)(o.x + te.getStartTime() * parent.getBaseunit()), o.y - i * this.resourceHeight, (int)(te.getExecutionTime() * parent.getBaseunit()), this.resourceHeight);
-                }
-            }
+            return;
         }
-    }
-
-    /**
-     * Repositions resource panels and immediately paints their rectangles and
-     * labels using the supplied graphics context. Colors are selected from
-     * {@link #resourceColor} by resource set ID; text color is inverted with
-     * {@link #reverseColor(Color)} for readability inside narrow bars.
-     *
-     * @param rv the timeline container holding resource panels
-     * @param g  graphics context used for immediate painting
-     */
-    public void reDrawResources(TimeLineResult rv ,Graphics g)
-    {
-        int baseunit = parent.getBaseunit();
         
-        for(TaskExecution te : executions)
+        if(this.getSummary() != null) //區段太窄，概觀不畫資源
+        {
+            return;
+        }
+        
+        double from = this.getVisibleFrom(clip);
+        double to = this.getVisibleTo(clip);
+        
+        for(int n = executions.firstEndingFrom(from) ; n < executions.size() && executions.get(n).getStartTime() <= to ; n++)
         {
+            TaskExecution te = executions.get(n);
+            
             if(te.getStatus() == CoreStatus.EXECUTION)
             {
                 int i=0;
-                for(ResourcePanel reP : te.getResourcePanels())
+                for(ResourceUsage ru : te.getResourceUsages())
                 {
                     i++;
-                    reP.setBounds((int)(o.x + te.getStartTime() * baseunit), o.y-i * this.resourceHeight, (int)(te.getExecutionTime() * baseunit), this.resourceHeight);
-                  
-                    //g.setColor(resourceColor[ new Integer(reP.getResourcesID()).intValue() -1]);
-                    g.setColor(resourceColor[Integer.parseInt(reP.getResourcesID()) - 1]);
+                    g.setColor(resourceColor[Integer.parseInt(ru.getResourcesID()) - 1]);
                     g.fillRect((int)(o.x + te.getStartTime() * baseunit)+1, o.y-i * this.resourceHeight, (int)(te.getExecutionTime() * baseunit) - 1, this.resourceHeight-1);
-                    //g.setColor(reverseColor(resourceColor[ new Integer(reP.getResourcesID()).intValue() -1]));
-                    g.setColor(reverseColor(resourceColor[Integer.parseInt(reP.getResourcesID()) - 1]));
-                    char[] data = String.valueOf("R"+reP.getResourcesID()+"(" + reP.getResourceID() +"/" + reP.getResourcesAmount() +")").toCharArray();
+                    g.setColor(reverseColor(resourceColor[Integer.parseInt(ru.getResourcesID()) - 1]));
+                    char[] data = ru.getToolTipText().toCharArray();
 
                     if((int)(te.getExecutionTime() * baseunit) > data.length * 8)
                     {
@@ -490,6 +517,162 @@ public class TaskTimeLine
             }
         }
     }
+    
+    /**
+     * Returns the tooltip of the resource bar under a point, replacing the
+     * tooltips the resources had as Swing components.
+     *
+     * @param p point in the coordinates of the timeline container
+     * @return the resource description, or null if no resource bar is there
+     */
+    public String getResourceToolTipText(Point p)
+    {
+        int baseunit = parent.getBaseunit();
+        int i = (o.y - p.y + this.resourceHeight - 1) / this.resourceHeight; //由下往上第i個資源
+        
+        if(o.y - p.y <= 0 || i > this.resourceRows)
+        {
+            return null;
+        }
+        
+        double time = (double)(p.x - o.x) / baseunit;
+        for(int n = executions.firstEndingFrom(time) ; n < executions.size() && executions.get(n).getStartTime() <= time ; n++)
+        {
+            TaskExecution te = executions.get(n);
+            
+            if(te.getStatus() == CoreStatus.EXECUTION && time < te.getEndTime() && i <= te.getResourceUsages().size())
+            {
+                return te.getResourceUsages().get(i - 1).getToolTipText();
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Returns the per column summary of the current zoom level when the
+     * segments are on average narrower than two pixels, building it the
+     * first time that zoom level is drawn.
+     *
+     * @return the summary, or null when the segments are drawn one by one
+     */
+    private TimeLineSummary getSummary()
+    {
+        int baseunit = this.parent.getBaseunit();
+        double finalTime = this.parent.getFinalTime();
+        
+        if(executions.size() * 2 < (finalTime + 1) * baseunit)
+        {
+            return null;
+        }
+        return summaries.computeIfAbsent(baseunit, u -> new TimeLineSummary(executions, u, finalTime, true));
+    }
+    
+    /**
+     * Draws the visible columns of a summary: one bar per column whose color
+     * is the dominant status and whose height is the busy fraction, the
+     * dominant core's color in the core lane, and miss markers.
+     *
+     * @param g the graphics context to draw into
+     * @param summary the summary of the current zoom level
+     * @param from start of the visible time range
+     * @param to end of the visible time range
+     * @param yHeight y of the core lane
+     */
+    private void drawSummary(Graphics g, TimeLineSummary summary, double from, double to, int yHeight)
+    {
+        int baseunit = this.parent.getBaseunit();
+        int first = Math.max(0, (int)Math.floor(from * baseunit));
+        int last = Math.min(summary.getColumns() - 1, (int)Math.ceil(to * baseunit));
+        
+        for(int c = first ; c <= last ; c++)
+        {
+            int x = o.x + c;
+            CoreStatus status = summary.getStatus(c);
+            
+            if(status != null)
+            {
+                int height = (status == CoreStatus.MIGRATION || status == CoreStatus.CONTEXTSWITCH) ? this.taskHeight/2 : this.taskHeight;
+                height = Math.max(1, Math.round(height * summary.getBusy(c)));
+                
+                if(status == CoreStatus.MIGRATION)
+                {
+                    g.setColor(Color.BLUE);
+                }
+                else if(status == CoreStatus.CONTEXTSWITCH)
+                {
+                    g.setColor(Color.LIGHT_GRAY);
+                }
+                else if(status == CoreStatus.WAIT)
+                {
+                    g.setColor(Color.BLACK);
+                }
+                else
+                {
+                    g.setColor(Color.GRAY);
+                }
+                g.drawLine(x, o.y - height, x, o.y - 1);
+                
+                if(this.parent.isMultiCore && summary.getOwner(c) > 0)//CoreLine
+                {
+                    g.setColor(resourceColor[19 - (summary.getOwner(c)%19)-1]);
+                    g.drawLine(x, yHeight - 15, x, yHeight - 2);
+                }
+            }
+            
+            if(summary.isMiss(c))
+            {
+                g.setColor(Color.red);
+                
+                for(int i = 0 ; i<3 ; i++)
+                {
+                    g.drawString("X", x - 3, o.y - this.taskHeight - i);
+                }
+            }
+        }
+        
+        g.setColor(Color.black);
+    }
+    
+    /**
+     * Tests whether the band of this timeline, from the resource bars and
+     * markers above the axis to the lane below it, intersects a clip.
+     *
+     * @param clip clip rectangle, or null for the whole component
+     * @return true if something of this timeline may be visible
+     */
+    private boolean isVisible(Rectangle clip)
+    {
+        if(clip == null)
+        {
+            return true;
+        }
+        
+        int top = o.y - Math.max(this.taskHeight + 40, (this.resourceRows + 1) * this.resourceHeight);
+        int bottom = o.y + 80;
+        return clip.y <= bottom && clip.y + clip.height >= top;
+    }
+    
+    /**
+     * Returns the earliest time whose segments or labels can reach into a clip.
+     *
+     * @param clip clip rectangle, or null for the whole component
+     * @return start of the visible time range
+     */
+    private double getVisibleFrom(Rectangle clip)
+    {
+        return clip == null ? 0 : (double)(clip.x - o.x - this.labelMargin) / this.parent.getBaseunit();
+    }
+    
+    /**
+     * Returns the latest time whose segments or labels can reach into a clip.
+     *
+     * @param clip clip rectangle, or null for the whole component
+     * @return end of the visible time range
+     */
+    private double getVisibleTo(Rectangle clip)
+    {
+        return clip == null ? this.parent.getFinalTime() : (double)(clip.x + clip.width - o.x + this.labelMargin) / this.parent.getBaseunit();
+    }
 
     /**
      * Produces a contrasting color by inverting the RGB channels of the given
@@ -8,13 +8,18 @@ package userInterface.backEnd;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import javax.swing.JComboBox;
 import javax.swing.JPanel;
 import javax.swing.ToolTipManager;
@@ -28,8 +33,9 @@ import javax.swing.ToolTipManager;
  *   <li>Preferred size depends on the mode: when {@link ScheduleResult#isCoreTimeLine}
  *       is true, height is based on the number of core timelines; otherwise it
  *       uses task timelines. Width is derived from (finalTime + 1) × base unit + margins.</li>
- *   <li>Tooltips for resource panels are made persistent by setting
- *       {@link ToolTipManager#setDismissDelay(int)} to {@code Integer.MAX_VALUE}.</li>
+ *   <li>Resources are painted as bars, not components; their tooltips are
+ *       answered by {@link #getToolTipText(MouseEvent)} and made persistent by
+ *       setting {@link ToolTipManager#setDismissDelay(int)} to {@code Integer.MAX_VALUE}.</li>
  *   <li>An HSB color palette ({@link #resourceColor}) is used to color resource
  *       legend and mini-bars; {@link #reverseColor(Color)} provides contrasting text.</li>
  *   <li>Mouse move updates the current time and highlights crosshair lines when the
@@ -41,8 +47,13 @@ import javax.swing.ToolTipManager;
  *       interactive markers and the resource legend.</li>
  * </ul>
  *
- * <p>This panel uses absolute layout (null layout) so timeline children (resource panels
- * and mouse markers) can be positioned precisely in pixel coordinates.</p>
+ * <p>This panel uses absolute layout (null layout) so mouse markers can be
+ * positioned precisely in pixel coordinates.</p>
+ *
+ * <p>The timelines are painted into {@value #TILE_SIZE}-pixel square tiles
+ * that are cached per zoom level (base unit and scale) and reused while
+ * scrolling; each tile draws only the timelines and segments inside it. The
+ * markers and the header are painted over the tiles on every repaint.</p>
  *
  * @author ShiuJia
  */
@@ -57,10 +68,20 @@ public class TimeLineResult extends JPanel
     private Double curTime;
     private JComboBox<MouseTimeLine> mouseTimeLineSet;
 	Color[] resourceColor;
+    /** Edge length in pixels of a cached timeline tile. */
+    private static final int TILE_SIZE = 512;
+    /** Number of tiles kept; the least recently drawn ones are dropped first. */
+    private static final int MAX_TILES = 32;
+    /** Rendered timeline tiles keyed by tile column and row. */
+    private LinkedHashMap<Long, BufferedImage> tiles;
+    /** Base unit the cached tiles were rendered with. */
+    private int tileBaseunit;
+    /** Scale the cached tiles were rendered with. */
+    private int tileScale;
         
     /**
-     * Constructs the timeline canvas, initializes palette, sizing and listeners,
-     * and pre-populates resource panels for each timeline according to the mode.
+     * Constructs the timeline canvas, initializes palette, sizing, the tile
+     * cache and listeners.
      *
      * @param sr the backing {@link ScheduleResult} (provides timelines and scale)
      */
@@ -101,26 +122,15 @@ public class TimeLineResult extends JPanel
                 Color.getHSBColor((float) 0.85, (float)0.3, (float)0.9),Color.getHSBColor((float) 1, (float)0.8, (float)0.6)
             };
 
-            if(this.parent.isCoreTimeLine)
-            {
-                Enumeration<String> keys= parent.getCoreTimeLines().keys();
-                for(int i=parent.getCoreTimeLines().size()-1;i>=0;i--)
-                {   
-                    String str = keys.nextElement();
-                    CoreTimeLine Core = parent.getCoreTimeLines().get(str);
-                    Core.drawResources(this);
-                }
-            }
-            else
+            ToolTipManager.sharedInstance().registerComponent(this); //資源的標籤由getToolTipText提供
+            this.tiles = new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true)
             {
-                Enumeration<String> keys= parent.getTaskTimeLines().keys();
-                for(int i=parent.getTaskTimeLines().size()-1;i>=0;i--)
-                {   
-                    String str = keys.nextElement();
-                    TaskTimeLine task = parent.getTaskTimeLines().get(str);
-                    task.drawResources(this);
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest)
+                {
+                    return this.size() > MAX_TILES;
                 }
-            }
+            };
             
             this.addMouseMotionListener
             (new MouseAdapter()
@@ -289,14 +299,7 @@ public class TimeLineResult extends JPanel
             g.setPaintMode();
             g.setColor(Color.black);
 
-            Enumeration<String> keys= parent.getCoreTimeLines().keys();
-
-            for(int i=parent.getCoreTimeLines().size()-1;i>=0;i--)
-            {
-                CoreTimeLine core = parent.getCoreTimeLines().get(keys.nextElement());
-                core.drawItself(g);
-                core.reDrawResources(this, g);
-            }
+            this.drawTiles(g);
 
             //-----MouseTimeLine   v
             for(int i = 0 ; i < this.mouseTimeLineSet.getItemCount() ; i++)
@@ -350,14 +353,7 @@ public class TimeLineResult extends JPanel
             g.setPaintMode();
             g.setColor(Color.black);
 
-            Enumeration<String> keys= parent.getTaskTimeLines().keys();
-
-            for(int i=parent.getTaskTimeLines().size()-1;i>=0;i--)
-            {
-                TaskTimeLine task = parent.getTaskTimeLines().get(keys.nextElement());
-                task.drawItself(g);
-                task.reDrawResources(this, g);
-            }
+            this.drawTiles(g);
 
 
             //-----MouseTimeLine   v
@@ -408,6 +404,123 @@ public class TimeLineResult extends JPanel
             }
         }
         
+    /**
+     * Draws the cached tiles covering the clip of {@code g}, rendering the
+     * missing ones. The cache is dropped when the base unit or scale changed.
+     *
+     * @param g the graphics context of this panel
+     */
+        private void drawTiles(Graphics g)
+        {
+            if(this.tileBaseunit != this.parent.getBaseunit() || this.tileScale != this.parent.parent.scale)
+            {
+                this.tiles.clear();
+                this.tileBaseunit = this.parent.getBaseunit();
+                this.tileScale = this.parent.parent.scale;
+            }
+            
+            Rectangle clip = g.getClipBounds();
+            if(clip == null)
+            {
+                clip = new Rectangle(0, 0, this.getWidth(), this.getHeight());
+            }
+            
+            for(int ty = Math.max(0, clip.y / TILE_SIZE) ; ty * TILE_SIZE < clip.y + clip.height ; ty++)
+            {
+                for(int tx = Math.max(0, clip.x / TILE_SIZE) ; tx * TILE_SIZE < clip.x + clip.width ; tx++)
+                {
+                    Long key = ((long)tx << 32) | ty;
+                    BufferedImage tile = this.tiles.get(key);
+                    if(tile == null)
+                    {
+                        tile = this.createTile(tx, ty, g);
+                        this.tiles.put(key, tile);
+                    }
+                    g.drawImage(tile, tx * TILE_SIZE, ty * TILE_SIZE, null);
+                }
+            }
+        }
+        
+    /**
+     * Renders one tile of the timelines, drawing only what lies inside it.
+     *
+     * @param tx tile column
+     * @param ty tile row
+     * @param g the graphics context of this panel, whose font and rendering hints are reused
+     * @return the rendered tile
+     */
+        private BufferedImage createTile(int tx, int ty, Graphics g)
+        {
+            BufferedImage tile = new BufferedImage(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_INT_RGB);
+            Graphics2D tg = tile.createGraphics();
+            
+            if(g instanceof Graphics2D)
+            {
+                tg.setRenderingHints(((Graphics2D)g).getRenderingHints());
+            }
+            tg.setFont(g.getFont());
+            tg.setColor(this.getBackground());
+            tg.fillRect(0, 0, TILE_SIZE, TILE_SIZE);
+            tg.translate(-tx * TILE_SIZE, -ty * TILE_SIZE);
+            tg.setClip(tx * TILE_SIZE, ty * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+            tg.setColor(Color.black);
+            
+            if(this.parent.isCoreTimeLine)
+            {
+                Enumeration<String> keys= parent.getCoreTimeLines().keys();
+                
+                for(int i=parent.getCoreTimeLines().size()-1;i>=0;i--)
+                {
+                    CoreTimeLine core = parent.getCoreTimeLines().get(keys.nextElement());
+                    core.drawItself(tg);
+                    core.drawResources(tg);
+                }
+            }
+            else
+            {
+                Enumeration<String> keys= parent.getTaskTimeLines().keys();
+                
+                for(int i=parent.getTaskTimeLines().size()-1;i>=0;i--)
+                {
+                    TaskTimeLine task = parent.getTaskTimeLines().get(keys.nextElement());
+                    task.drawItself(tg);
+                    task.drawResources(tg);
+                }
+            }
+            
+            tg.dispose();
+            return tile;
+        }
+        
+    /**
+     * Returns the description of the resource bar under the mouse, if any.
+     *
+     * @param e the mouse event of the tooltip request
+     * @return resource tooltip text, or null
+     */
+        @Override
+        public String getToolTipText(MouseEvent e)
+        {
+            String text = null;
+            if(this.parent.isCoreTimeLine)
+            {
+                Enumeration<CoreTimeLine> lines = parent.getCoreTimeLines().elements();
+                while(text == null && lines.hasMoreElements())
+                {
+                    text = lines.nextElement().getResourceToolTipText(e.getPoint());
+                }
+            }
+            else
+            {
+                Enumeration<TaskTimeLine> lines = parent.getTaskTimeLines().elements();
+                while(text == null && lines.hasMoreElements())
+                {
+                    text = lines.nextElement().getResourceToolTipText(e.getPoint());
+                }
+            }
+            return text;
+        }
+        
     /**
      * Overrides {@link JPanel#paint(Graphics)} to delegate to
      * {@link #paintComponent(Graphics)} explicitly. This keeps a single drawing
@@ -0,0 +1,162 @@
+/*
+ * To change this license header, choose License Headers in Project Properties.
+ * To change this template file, choose Tools | Templates
+ * and open the template in the editor.
+ */
+package userInterface.backEnd;
+
+import RTSimulator.Definition.CoreStatus;
+import java.util.BitSet;
+
+/**
+ * Per pixel column summary of one timeline at one zoom level, drawn instead of
+ * the individual {@link TaskExecution} segments when they are narrower than a
+ * pixel on average.
+ *
+ * <p>For every column of the timeline at a base unit (pixels per time unit)
+ * the summary records the fraction of the column covered by segments, the
+ * status covering most of it, the task or core of the segment covering most
+ * of it, and whether a deadline miss falls in it. It is built once per zoom
+ * level in O(n + w) for n segments and w columns, after which a column is
+ * drawn in constant time however many segments it holds.</p>
+ *
+ * @author ShiuJia
+ */
+public class TimeLineSummary
+{
+    private int columns;
+    private float[] busy;//被區段覆蓋的比例
+    private CoreStatus[] status;//覆蓋最多的狀態
+    private int[] owner;//覆蓋最多的區段所屬的Task或Core
+    private BitSet miss;//有錯過截止時間
+
+    /**
+     * Summarizes the segments of a timeline for a base unit.
+     *
+     * @param executions the segments of the timeline
+     * @param baseunit pixels per time unit
+     * @param finalTime end of the timeline in time units
+     * @param ownerIsCore true to record the core of each column (task
+     *                    timelines), false to record the task (core timelines)
+     */
+    public TimeLineSummary(ExecutionIndex executions, int baseunit, double finalTime, boolean ownerIsCore)
+    {
+        this.columns = (int)Math.ceil((finalTime + 1) * baseunit) + 1;
+        this.busy = new float[this.columns];
+        this.status = new CoreStatus[this.columns];
+        this.owner = new int[this.columns];
+        this.miss = new BitSet(this.columns);
+
+        CoreStatus[] statuses = CoreStatus.values();
+        float[][] statusTime = new float[statuses.length][this.columns];
+        float[] ownerTime = new float[this.columns];
+
+        for(TaskExecution te : executions)
+        {
+            double x0 = te.getStartTime() * baseunit;
+            double x1 = te.getEndTime() * baseunit;
+
+            if(te.getStatus() == CoreStatus.WRONG)
+            {
+                int c = (int)x0;
+                if(c >= 0 && c < this.columns)
+                {
+                    this.miss.set(c);
+                }
+                continue;
+            }
+            if(te.getStatus() == null)
+            {
+                continue;
+            }
+
+            int first = Math.max(0, (int)Math.floor(x0));
+            int last = Math.min(this.columns - 1, (int)Math.ceil(x1) - 1);
+            for(int c = first ; c <= last ; c++)
+            {
+                float overlap = (float)(Math.min(x1, c + 1) - Math.max(x0, c));
+                if(overlap <= 0)
+                {
+                    continue;
+                }
+
+                this.busy[c] += overlap;
+                statusTime[te.getStatus().ordinal()][c] += overlap;
+                if(overlap > ownerTime[c])
+                {
+                    ownerTime[c] = overlap;
+                    this.owner[c] = ownerIsCore ? te.getCoreID() : te.getTaskID();
+                }
+            }
+        }
+
+        for(int c = 0 ; c < this.columns ; c++)
+        {
+            this.busy[c] = Math.min(1, this.busy[c]);
+            float max = 0;
+            for(CoreStatus s : statuses)
+            {
+                if(statusTime[s.ordinal()][c] > max)
+                {
+                    max = statusTime[s.ordinal()][c];
+                    this.status[c] = s;
+                }
+            }
+        }
+    }
+
+    /*GetValue*/
+    /**
+     * Returns the number of pixel columns.
+     *
+     * @return column count, from the time axis origin
+     */
+    public int getColumns()
+    {
+        return this.columns;
+    }
+
+    /**
+     * Returns the fraction of a column covered by segments.
+     *
+     * @param c column
+     * @return busy fraction between 0 and 1
+     */
+    public float getBusy(int c)
+    {
+        return this.busy[c];
+    }
+
+    /**
+     * Returns the status covering most of a column.
+     *
+     * @param c column
+     * @return dominant status, or null if no segment covers the column
+     */
+    public CoreStatus getStatus(int c)
+    {
+        return this.status[c];
+    }
+
+    /**
+     * Returns the task or core of the segment covering most of a column.
+     *
+     * @param c column
+     * @return task ID for core timelines, core ID for task timelines
+     */
+    public int getOwner(int c)
+    {
+        return this.owner[c];
+    }
+
+    /**
+     * Returns whether a deadline miss falls in a column.
+     *
+     * @param c column
+     * @return true if a miss marker is in the column
+     */
+    public boolean isMiss(int c)
+    {
+        return this.miss.get(c);
+    }
+}
@@ -14,7 +14,7 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JToolBar;
-import static RTSimulator.Definition.magnificationFactor;
+import SystemEnvironment.SimulationContext;
 import RTSimulator.RTSimulatorMath;
 //import simulation.Result;
 import userInterface.UserInterface;
@@ -75,8 +75,8 @@ public class AttributeViewer extends JPanel
      * {@link SchedulingInfo}. Each field is carefully extracted with fallbacks to
      * "Null" if unavailable (guarded by individual {@code try/catch} blocks). The method
      * formats numeric values (e.g., speeds, power consumption, pending/response times)
-     * using helper methods in {@link RTSimulatorMath}, normalizing by
-     * {@link RTSimulator.Definition#magnificationFactor} where appropriate.
+     * using helper methods in {@link RTSimulatorMath} and the {@link SimulationContext}
+     * of the displayed run, which also normalizes times where appropriate.
      * <p>
      * Locked resources are rendered as HTML within the cell to allow multi-line display;
      * the corresponding row height is increased proportionally to the number of entered
@@ -94,6 +94,7 @@ public class AttributeViewer extends JPanel
     {
 //        DecimalFormat df = new DecimalFormat("##.00000");
         RTSimulatorMath math = new RTSimulatorMath();
+        SimulationContext context = this.parent.getSimulationViewer().getSimulator().getSimulationContext();
         try
         {
             this.CoreID="" + schedulingInfo.getCore().getID();
@@ -105,8 +106,8 @@ public class AttributeViewer extends JPanel
         
         try
         {
-            this.TaskID="" + schedulingInfo.getJob().getParentTask().getID()+" (" + (double)schedulingInfo.getJob().getParentTask().getComputationAmount()/magnificationFactor 
-                    + "," + schedulingInfo.getJob().getParentTask().getPeriod()/magnificationFactor+")";
+            this.TaskID="" + schedulingInfo.getTask().getID()+" (" + context.toRealTime(schedulingInfo.getTask().getComputationAmount()) 
+                    + "," + schedulingInfo.getTask().getPeriod()/context.getMagnificationFactor()+")";
             this.JobMissDeadlineNum = ""+schedulingInfo.getJobMissDeadlineNum();
             this.JobCompletedNum = ""+schedulingInfo.getJobCompletedNum();
         }
@@ -117,14 +118,14 @@ public class AttributeViewer extends JPanel
             this.JobCompletedNum = "Null";
         }
         
-        try
+        if(schedulingInfo.hasJob())
         {
-            this.JobID="" + schedulingInfo.getJob().getID();
-            this.JobStatus=""+schedulingInfo.getJob().getStatusString() + " at " + schedulingInfo.getJob().getTimeOfStatus() + " (s)";
-            this.responseTime=""+math.changeDecimalFormat((double)schedulingInfo.getJob().getResponseTime()/magnificationFactor);
-            this.pendingTime=""+math.changeDecimalFormat((double)schedulingInfo.getJob().getPendingTime()/magnificationFactor);
+            this.JobID="" + schedulingInfo.getJobID();
+            this.JobStatus=""+schedulingInfo.getJobStatusString() + " at " + schedulingInfo.getJobTimeOfStatus() + " (s)";
+            this.responseTime=""+context.changeDecimalFormat(context.toRealTime(schedulingInfo.getJobResponseTime()));
+            this.pendingTime=""+context.changeDecimalFormat(context.toRealTime(schedulingInfo.getJobPendingTime()));
         }
-        catch (Exception ex)
+        else
         {
             this.JobID="Null";
             this.JobStatus="Null";
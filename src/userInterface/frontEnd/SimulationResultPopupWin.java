@@ -18,7 +18,7 @@ import java.util.logging.Logger;
 import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
-import static RTSimulator.Definition.magnificationFactor;
+import SystemEnvironment.SimulationContext;
 import RTSimulator.RTSimulatorMath;
 
 /**
@@ -189,10 +189,11 @@ public class SimulationResultPopupWin extends JFrame
         try 
         {
             RTSimulatorMath math = new RTSimulatorMath();
+            SimulationContext context = this.parent.getSimulator().getSimulationContext();
         
             TaskSet ts = this.parent.getDataSetting().getTaskSet();
         
-            simulationTime.setText(""+math.changeDecimalFormat((double)this.parent.getSimulationTime()/magnificationFactor));
+            simulationTime.setText(""+context.changeDecimalFormat(context.toRealTime(this.parent.getSimulationTime())));
             coreCount.setText(""+this.parent.getDataSetting().getProcessor().getAllCore().size());
             taskCount.setText(""+ts.size());
             resourceCount.setText(""+this.parent.getDataSetting().getSharedResourceSet().size());
@@ -204,9 +205,9 @@ public class SimulationResultPopupWin extends JFrame
             
             jobCompeletedCount.setText(""+ts.getTotalJobCompletedNumber()+"/"+ts.getTotalJobNumber());
             jobMissDeadlineCount.setText(""+ts.getTotalJobMissDeadlineNumber()+"/"+ts.getTotalJobNumber());
-            energyConsumption.setText(""+math.changeDecimalFormatFor5(this.parent.getDataSetting().getProcessor().getTotalPowerConsumption()/magnificationFactor) + " (mW)");
-            averageEnergyConsumption.setText(""+math.changeDecimalFormatFor5(((this.parent.getDataSetting().getProcessor().getTotalPowerConsumption()/magnificationFactor)
-                                                    /((double)this.parent.getSimulationTime()/magnificationFactor)))+" (mW)");
+            energyConsumption.setText(""+math.changeDecimalFormatFor5(context.toRealTime(this.parent.getDataSetting().getProcessor().getTotalPowerConsumption())) + " (mW)");
+            averageEnergyConsumption.setText(""+math.changeDecimalFormatFor5((context.toRealTime(this.parent.getDataSetting().getProcessor().getTotalPowerConsumption())
+                                                    /context.toRealTime(this.parent.getSimulationTime())))+" (mW)");
             averagePendingTime.setText(""+math.changeDecimalFormatFor5(this.parent.getDataSetting().getTaskSet().getAveragePendingTimeOfTask()));
             averageResponseTime.setText(""+math.changeDecimalFormatFor5(this.parent.getDataSetting().getTaskSet().getAverageResponseTimeOfTask()));
         }
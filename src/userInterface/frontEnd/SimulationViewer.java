@@ -42,6 +42,7 @@ import javax.swing.JToolBar;
 import schedulingAlgorithm.PriorityDrivenSchedulingAlgorithm;
 import SystemEnvironment.DataReader;
 import SystemEnvironment.JSONDataReader;
+import SystemEnvironment.SimulationContext;
 import SystemEnvironment.Simulator;
 import WorkLoad.Task;
 import WorkLoadSet.DataSetting;
@@ -49,8 +50,6 @@ import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.util.Vector;
-import RTSimulator.Definition;
-import static RTSimulator.Definition.magnificationFactor;
 import RTSimulator.RTSimulator;
 import RTSimulator.RTSimulatorMath;
 import org.apache.commons.io.IOUtils;
@@ -116,6 +115,7 @@ public class SimulationViewer extends JPanel
     private ButtonGroup simTimeBG;
     private JRadioButton lcmRB, customRB;
     private DataReader dr;
+    private SimulationContext context = new SimulationContext();
     private DataSetting currentDataSetting;  // 儲存當前載入的資料設定
     private Simulator sim;
     private SimulationResultPopupWin experimentResultPopupWin;
@@ -240,21 +240,21 @@ public class SimulationViewer extends JPanel
                         
                         if (workloadPath.toLowerCase().endsWith(".json") || processorPath.toLowerCase().endsWith(".json")) {
                             // 使用 JSON 讀取器
-                            JSONDataReader jsonReader = new JSONDataReader();
+                            JSONDataReader jsonReader = new JSONDataReader(context);
                             jsonReader.loadSource(workloadPath);
                             jsonReader.loadSource(processorPath);
                             currentDataSetting = jsonReader.getDataSetting();
                             dr = null;  // JSON 讀取時 dr 設為 null
                         } else {
                             // 使用 XML 讀取器
-                            dr = new DataReader();
+                            dr = new DataReader(context);
                             dr.loadSource(workloadPath);
                             dr.loadSource(processorPath);
                             currentDataSetting = dr.getDataSetting();
                         }
                         
 //                        sim = new Simulator(SimulationViewer.this);
-                        sim = new Simulator();
+                        sim = new Simulator(context);
                         sim.setSimulationTime(getSimulationTime());
                         sim.setContextSwitchTime(getContextSwitchTime());
                         sim.setMigrationTime(getMigrationTime());
@@ -901,7 +901,7 @@ public class SimulationViewer extends JPanel
             return  Double.valueOf(
                         Double.valueOf(
                             this.simTimeField.getText().toString()
-                        )*magnificationFactor
+                        )*this.context.getMagnificationFactor()
                     ).longValue();
         }
         return 0;
@@ -923,7 +923,7 @@ public class SimulationViewer extends JPanel
         catch (Exception ex) 
         {
         }
-        return (long)(time*magnificationFactor);
+        return this.context.toSimulationTime(time);
     }
     
     private long getMigrationTime()
@@ -942,7 +942,7 @@ public class SimulationViewer extends JPanel
         {
         }
         
-        return (long)(time * magnificationFactor);
+        return this.context.toSimulationTime(time);
     }
     
     /**
@@ -1013,43 +1013,42 @@ public class SimulationViewer extends JPanel
     }
     
     /**
-     * Parse a magnification/accuracy specification and update the global
-     * Definition.magnificationFactor and magnificationFormat.
+     * Parse a magnification/accuracy specification and start a new
+     * {@link SimulationContext} for the next run.
      * <p>
-     * The method reads an integer exponent from the string, clamps negative
-     * values to zero, computes 10^exponent for the magnification factor and
-     * constructs a simple format string (e.g. "##.00" for exponent=2).
+     * The method reads an integer exponent from the string (5 if it cannot be
+     * parsed) and passes it to {@link SimulationContext#setAccuracy(int)},
+     * which clamps negative values to zero, computes 10^exponent for the
+     * magnification factor and constructs a simple format string (e.g. "##.00"
+     * for exponent=2). Results of earlier runs keep their own context.
      * </p>
      *
      * @param str the string representing the magnification exponent (e.g. "2")
      */
     public void setMagnificationFactor(String str)
     {
-        String s = "##";
-
         int magnificationFactor = 5;
         
         try
         {
             magnificationFactor = Integer.valueOf(str);
-            if(magnificationFactor < 0)
-            {
-                magnificationFactor = 0;
-            }
         }
         catch (Exception ex) 
         {
             
         }
-    
         
-        Definition.magnificationFactor = (long)Math.pow(10, magnificationFactor);
-
-        s += ".";
-        for(int i = 0 ; i < magnificationFactor ; i++)
-        {
-            s += "0";
-        }
-        Definition.magnificationFormat = s;
+        this.context = new SimulationContext(magnificationFactor);
+    }
+    
+    /**
+     * Return the simulation context that the next run started from this
+     * viewer (or the script setter) will use.
+     *
+     * @return the current simulation context
+     */
+    public SimulationContext getSimulationContext()
+    {
+        return this.context;
     }
 }